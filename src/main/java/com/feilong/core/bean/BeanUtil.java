@@ -704,6 +704,63 @@ public final class BeanUtil{
         }
     }
 
+    /**
+     * 使用 <code>converterContext</code> 的转换器注册表,把properties/map里面的值 <code>populate</code> <b>(填充)</b>到bean中.
+     * 
+     * <h3>说明:</h3>
+     * 
+     * <blockquote>
+     * <ol>
+     * <li>除了属性值的类型转换使用 <code>converterContext</code> 中注册的转换器之外,其他规则和 {@link #populate(Object, Map)} 一致</li>
+     * <li>不会修改 JVM 全局的 {@link ConvertUtils} 注册表,适合不同模块需要不同 {@link java.util.Date} 格式的场景</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * private static final ConverterContext CONVERTER_CONTEXT = ConverterContext.builder().registerSimpleDateLocaleConverter("yyyy-MM-dd").build();
+     * 
+     * User user = BeanUtil.populate(new User(), toMap("date", "2016-05-01"), CONVERTER_CONTEXT);
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param bean
+     *            JavaBean whose properties are being populated
+     * @param properties
+     *            Map keyed by property name,with the corresponding (String or String[]) value(s) to be set
+     * @param converterContext
+     *            转换器上下文
+     * @return 如果properties key中有bean中不存在的属性,那么该条数据自动忽略<br>
+     *         如果properties key中有null,那么该条数据自动忽略,see {@link BeanUtilsBean#populate(Object, Map)} line 817<br>
+     * @throws NullPointerException
+     *             如果 <code>bean</code> 是null,或者如果 <code>properties</code> 是null,或者如果 <code>converterContext</code> 是null
+     * @throws BeanOperationException
+     *             在调用{@link BeanUtilsBean#populate(Object, Map)}过程中有任何异常,转成{@link BeanOperationException}返回
+     * @see #populate(Object, Map)
+     * @see ConverterContext
+     * @since 1.13.1
+     */
+    public static <T> T populate(T bean,Map<String, ?> properties,ConverterContext converterContext){
+        Validate.notNull(bean, "bean can't be null/empty!");
+        Validate.notNull(properties, "properties can't be null/empty!");
+        Validate.notNull(converterContext, "converterContext can't be null!");
+
+        //---------------------------------------------------------------
+        try{
+            converterContext.getBeanUtilsBean().populate(bean, properties);
+            return bean;
+        }catch (Exception e){
+            String message = Slf4jUtil.format("can't populate:[{}] to bean:{}", properties, bean);
+            throw new BeanOperationException(message, e);
+        }
+    }
+
     //---------------------------------------------------------------
 
     /**
@@ -19,7 +19,6 @@ import static com.feilong.core.Validator.isNullOrEmpty;
 import static com.feilong.core.util.MapUtil.newLinkedHashMap;
 import static com.feilong.core.util.SortUtil.sortMapByKeyAsc;
 import static java.util.Collections.emptyMap;
-import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 
 import java.math.BigDecimal;
@@ -39,6 +38,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
+import org.apache.commons.beanutils.BeanUtilsBean;
 import org.apache.commons.beanutils.ConvertUtils;
 import org.apache.commons.beanutils.ConvertUtilsBean;
 import org.apache.commons.beanutils.Converter;
@@ -56,7 +56,6 @@ import org.apache.commons.beanutils.converters.LongConverter;
 import org.apache.commons.beanutils.converters.NumberConverter;
 import org.apache.commons.beanutils.converters.ShortConverter;
 import org.apache.commons.beanutils.converters.StringConverter;
-import org.apache.commons.beanutils.locale.converters.DateLocaleConverter;
 import org.apache.commons.collections4.EnumerationUtils;
 import org.apache.commons.collections4.IteratorUtils;
 import org.apache.commons.collections4.MapUtils;
@@ -69,9 +68,9 @@ import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.tuple.Pair;
 
 import com.feilong.core.lang.ArrayUtil;
-import com.feilong.core.lang.StringUtil;
 import com.feilong.core.util.SortUtil;
-import com.feilong.core.util.transformer.SimpleClassTransformer;
+import com.feilong.core.util.TransformedListView;
+import com.feilong.core.util.TransformedValueMapView;
 
 /**
  * 常用类型转换处理.
@@ -251,6 +250,32 @@ public final class ConvertUtil{
 
     //---------------------------------------------------------------
 
+    /**
+     * 在 JVM 全局的 {@link ConvertUtils} 注册表中注册 <code>targetType</code> 的转换器,并且立即对 {@link #convert(Object, Class)} 生效.
+     * 
+     * <p>
+     * {@link #convert(Object, Class)} 缓存了"注册的是不是 commons-beanutils 标准转换器"的检查结果;<br>
+     * 直接调用 {@link ConvertUtils#register(Converter, Class)} 注册的转换器,要等到缓存的检查结果过期之后才会生效,而本方法注册之后立即生效.
+     * </p>
+     * 
+     * <p>
+     * <span style="color:red">注意:</span> 本方法修改的是 JVM 全局的 {@link ConvertUtils} 注册表,会影响所有使用全局注册表的代码;<br>
+     * 如果只是某个模块需要特定的转换器,建议使用 {@link ConverterContext#builder()} 创建独立的 {@link ConverterContext}.
+     * </p>
+     *
+     * @param converter
+     *            the converter
+     * @param targetType
+     *            the target type
+     * @see ConvertUtils#register(Converter, Class)
+     * @see ConverterContext.Builder#register(Converter, Class)
+     * @since 1.13.1
+     */
+    public static void register(Converter converter,Class<?> targetType){
+        ConvertUtils.register(converter, targetType);
+        ConverterDispatcher.invalidate();
+    }
+
     /**
      * Register standard default null.
      * 
@@ -262,31 +287,57 @@ public final class ConvertUtil{
      * @since 1.11.2
      */
     public static void registerStandardDefaultNull(){
-        ConvertUtils.register(new BigDecimalConverter(null), BigDecimal.class);
-        ConvertUtils.register(new BigIntegerConverter(null), BigInteger.class);
-        ConvertUtils.register(new BooleanConverter(null), Boolean.class);
-        ConvertUtils.register(new ByteConverter(null), Byte.class);
-        ConvertUtils.register(new CharacterConverter(null), Character.class);
-        ConvertUtils.register(new DoubleConverter(null), Double.class);
-        ConvertUtils.register(new FloatConverter(null), Float.class);
-        ConvertUtils.register(new IntegerConverter(null), Integer.class);
-        ConvertUtils.register(new LongConverter(null), Long.class);
-        ConvertUtils.register(new ShortConverter(null), Short.class);
-        ConvertUtils.register(new StringConverter(null), String.class);
+        registerStandardDefaultNull(BeanUtilsBean.getInstance().getConvertUtils());
+        ConverterDispatcher.invalidate();
+    }
+
+    /**
+     * 在 <code>convertUtilsBean</code> 中注册包装类型以及字符串的转换器,转换失败返回null.
+     *
+     * @param convertUtilsBean
+     *            the convert utils bean
+     * @see #registerStandardDefaultNull()
+     * @see ConverterContext.Builder#build()
+     * @since 1.13.1
+     */
+    static void registerStandardDefaultNull(ConvertUtilsBean convertUtilsBean){
+        convertUtilsBean.register(new BigDecimalConverter(null), BigDecimal.class);
+        convertUtilsBean.register(new BigIntegerConverter(null), BigInteger.class);
+        convertUtilsBean.register(new BooleanConverter(null), Boolean.class);
+        convertUtilsBean.register(new ByteConverter(null), Byte.class);
+        convertUtilsBean.register(new CharacterConverter(null), Character.class);
+        convertUtilsBean.register(new DoubleConverter(null), Double.class);
+        convertUtilsBean.register(new FloatConverter(null), Float.class);
+        convertUtilsBean.register(new IntegerConverter(null), Integer.class);
+        convertUtilsBean.register(new LongConverter(null), Long.class);
+        convertUtilsBean.register(new ShortConverter(null), Short.class);
+        convertUtilsBean.register(new StringConverter(null), String.class);
     }
 
     //---------------------------------------------------------------
 
     /**
      * Register simple date locale converter.
+     * 
+     * <p>
+     * 从 1.13.1 开始,使用 {@link SimpleDateLocaleConverter} 代替 {@link org.apache.commons.beanutils.locale.converters.DateLocaleConverter},
+     * 解析器从 {@link com.feilong.core.date.DateFormatRegistry} 中获取,不再每次转换都 new {@link java.text.SimpleDateFormat}.
+     * </p>
+     * 
+     * <p>
+     * <span style="color:red">注意:</span> 本方法修改的是 JVM 全局的 {@link ConvertUtils} 注册表,会影响所有使用全局注册表的代码;<br>
+     * 如果只是某个模块需要特定的日期格式,建议使用 {@link ConverterContext#builder()} 创建独立的 {@link ConverterContext}.
+     * </p>
      *
      * @param pattern
      *            the pattern
+     * @see SimpleDateLocaleConverter
+     * @see ConverterContext.Builder#registerSimpleDateLocaleConverter(String)
      * @since 1.11.2
      */
     public static void registerSimpleDateLocaleConverter(String pattern){
-        DateLocaleConverter dateLocaleConverter = new DateLocaleConverter(null, Locale.getDefault(), pattern);
-        ConvertUtils.register(dateLocaleConverter, Date.class);
+        ConvertUtils.register(new SimpleDateLocaleConverter(pattern, Locale.getDefault()), Date.class);
+        ConverterDispatcher.invalidate();
     }
 
     //---------------------toBoolean------------------------------------------
@@ -345,7 +396,8 @@ public final class ConvertUtil{
      * @see java.lang.Boolean#parseBoolean(String)
      */
     public static Boolean toBoolean(Object toBeConvertedValue){
-        return new BooleanConverter(null).convert(Boolean.class, toBeConvertedValue);
+        Boolean result = ConverterDispatcher.fastConvert(toBeConvertedValue, Boolean.class);
+        return null != result ? result : new BooleanConverter(null).convert(Boolean.class, toBeConvertedValue);
     }
 
     //----------------------toInteger-----------------------------------------
@@ -536,7 +588,13 @@ public final class ConvertUtil{
      * @since 1.6.1
      */
     public static Integer toInteger(Object toBeConvertedValue,Integer defaultValue){
-        return new IntegerConverter(defaultValue).convert(Integer.class, toBeConvertedValue);
+        if (toBeConvertedValue instanceof String){
+            String value = (String) toBeConvertedValue;
+            long result = NumberParser.parseInt(value, 0, value.length(), NumberParser.INVALID_INT);
+            return result == NumberParser.INVALID_INT ? defaultValue : Integer.valueOf((int) result);
+        }
+        Integer result = ConverterDispatcher.fastConvert(toBeConvertedValue, Integer.class);
+        return null != result ? result : new IntegerConverter(defaultValue).convert(Integer.class, toBeConvertedValue);
     }
 
     //------------------------toLong---------------------------------------
@@ -585,7 +643,8 @@ public final class ConvertUtil{
      * @see org.apache.commons.lang3.math.NumberUtils#toLong(String)
      */
     public static Long toLong(Object toBeConvertedValue){
-        return new LongConverter(null).convert(Long.class, toBeConvertedValue);
+        Long result = ConverterDispatcher.fastConvert(toBeConvertedValue, Long.class);
+        return null != result ? result : new LongConverter(null).convert(Long.class, toBeConvertedValue);
     }
 
     //------------------------toBigDecimal---------------------------------------
@@ -653,7 +712,173 @@ public final class ConvertUtil{
      * @see org.apache.commons.beanutils.converters.BigDecimalConverter
      */
     public static BigDecimal toBigDecimal(Object toBeConvertedValue){
-        return new BigDecimalConverter(null).convert(BigDecimal.class, toBeConvertedValue);
+        if (toBeConvertedValue instanceof String){
+            String value = (String) toBeConvertedValue;
+            return NumberParser.parseBigDecimal(value, 0, value.length(), null);
+        }
+        BigDecimal result = ConverterDispatcher.fastConvert(toBeConvertedValue, BigDecimal.class);
+        return null != result ? result : new BigDecimalConverter(null).convert(BigDecimal.class, toBeConvertedValue);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将 <code>charSequence</code> 转换成 int,如果转换不了返回默认值 <code>defaultValue</code>.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toIntOrDefault(null, 0)       = 0
+     * ConvertUtil.toIntOrDefault("", 0)         = 0
+     * ConvertUtil.toIntOrDefault(" 8 ", 0)      = 8
+     * ConvertUtil.toIntOrDefault("aaaa", 0)     = 0
+     * ConvertUtil.toIntOrDefault("2147483648", 0) = 0
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param defaultValue
+     *            默认值
+     * @return 如果 <code>charSequence</code> 是null,或者去掉两端空白之后是空,或者格式不对,或者超出 int 范围,返回 <code>defaultValue</code>
+     * @see #toIntOrDefault(CharSequence, int, int, int)
+     * @since 1.13.1
+     */
+    public static int toIntOrDefault(CharSequence charSequence,int defaultValue){
+        return null == charSequence ? defaultValue : toIntOrDefault(charSequence, 0, charSequence.length(), defaultValue);
+    }
+
+    /**
+     * 将 <code>charSequence</code> 的 [beginIndex, endIndex) 区间转换成 int,如果转换不了返回默认值 <code>defaultValue</code>.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>直接在区间上解析,不会截取子字符串,解析失败也不会创建异常对象,适合逐个单元格解析 CSV 行之类的场景</li>
+     * <li>会忽略区间两端 {@code <=} ' ' 的字符(同 {@link String#trim()}),能解析的格式和 {@link Integer#parseInt(String)} 一致,
+     * 因此结果和 {@link #toInteger(Object, Integer)} 一致</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toIntOrDefault("a,12,b", 2, 4, -1) = 12
+     * ConvertUtil.toIntOrDefault("a,12,b", 0, 1, -1) = -1
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param beginIndex
+     *            开始位置(包含)
+     * @param endIndex
+     *            结束位置(不包含)
+     * @param defaultValue
+     *            默认值
+     * @return 如果 <code>charSequence</code> 是null,返回 <code>defaultValue</code><br>
+     *         如果 <code>beginIndex</code>,<code>endIndex</code> 不是合法的区间,抛出 {@link IllegalArgumentException}<br>
+     *         如果区间去掉两端空白之后是空,或者格式不对,或者超出 int 范围,返回 <code>defaultValue</code>
+     * @since 1.13.1
+     */
+    public static int toIntOrDefault(CharSequence charSequence,int beginIndex,int endIndex,int defaultValue){
+        return (int) NumberParser.parseInt(charSequence, beginIndex, endIndex, defaultValue);
+    }
+
+    /**
+     * 将 <code>charSequence</code> 转换成 long,如果转换不了返回默认值 <code>defaultValue</code>.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toLongOrDefault(null, 0L)     = 0L
+     * ConvertUtil.toLongOrDefault(" 8 ", 0L)    = 8L
+     * ConvertUtil.toLongOrDefault("aaaa", 0L)   = 0L
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param defaultValue
+     *            默认值
+     * @return 如果 <code>charSequence</code> 是null,或者去掉两端空白之后是空,或者格式不对,或者超出 long 范围,返回 <code>defaultValue</code>
+     * @see #toLongOrDefault(CharSequence, int, int, long)
+     * @since 1.13.1
+     */
+    public static long toLongOrDefault(CharSequence charSequence,long defaultValue){
+        return null == charSequence ? defaultValue : toLongOrDefault(charSequence, 0, charSequence.length(), defaultValue);
+    }
+
+    /**
+     * 将 <code>charSequence</code> 的 [beginIndex, endIndex) 区间转换成 long,如果转换不了返回默认值 <code>defaultValue</code>.
+     * 
+     * <p>
+     * 规则同 {@link #toIntOrDefault(CharSequence, int, int, int)},能解析的格式和 {@link Long#parseLong(String)} 一致.
+     * </p>
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param beginIndex
+     *            开始位置(包含)
+     * @param endIndex
+     *            结束位置(不包含)
+     * @param defaultValue
+     *            默认值
+     * @return 如果 <code>charSequence</code> 是null,返回 <code>defaultValue</code><br>
+     *         如果 <code>beginIndex</code>,<code>endIndex</code> 不是合法的区间,抛出 {@link IllegalArgumentException}<br>
+     *         如果区间去掉两端空白之后是空,或者格式不对,或者超出 long 范围,返回 <code>defaultValue</code>
+     * @since 1.13.1
+     */
+    public static long toLongOrDefault(CharSequence charSequence,int beginIndex,int endIndex,long defaultValue){
+        return NumberParser.parseLong(charSequence, beginIndex, endIndex, defaultValue);
+    }
+
+    /**
+     * 将 <code>charSequence</code> 的 [beginIndex, endIndex) 区间转换成 {@link BigDecimal},如果转换不了返回默认值 <code>defaultValue</code>.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>形如 <code>-123.45</code> 并且不超过18位数字的,直接计算,不会创建中间字符串</li>
+     * <li>能解析的格式和 {@link BigDecimal#BigDecimal(String)} 一致(包括科学计数法),因此结果和 {@link #toBigDecimal(Object)} 一致</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toBigDecimalOrDefault("a,1.20,b", 2, 6, null) = new BigDecimal("1.20")
+     * ConvertUtil.toBigDecimalOrDefault("1%", 0, 2, null)       = null
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param beginIndex
+     *            开始位置(包含)
+     * @param endIndex
+     *            结束位置(不包含)
+     * @param defaultValue
+     *            默认值
+     * @return 如果 <code>charSequence</code> 是null,返回 <code>defaultValue</code><br>
+     *         如果 <code>beginIndex</code>,<code>endIndex</code> 不是合法的区间,抛出 {@link IllegalArgumentException}<br>
+     *         如果区间去掉两端空白之后是空,或者格式不对,返回 <code>defaultValue</code>
+     * @since 1.13.1
+     */
+    public static BigDecimal toBigDecimalOrDefault(CharSequence charSequence,int beginIndex,int endIndex,BigDecimal defaultValue){
+        return NumberParser.parseBigDecimal(charSequence, beginIndex, endIndex, defaultValue);
     }
 
     //---------------------------------------------------------------
@@ -932,6 +1157,128 @@ public final class ConvertUtil{
         return convert(toBeConvertedValue, Long[].class);
     }
 
+    /**
+     * 将 <code>toBeConvertedValue</code> 转成 <code>int</code> 数组.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>转换规则和 <code>ConvertUtil.convert(toBeConvertedValue, int[].class)</code> 一致,参见 {@link ArrayConverter#convertToType(Class, Object)}</li>
+     * <li>逗号分隔的字符串,一次扫描直接切分并解析成基本类型,不会创建中间的 String 数组以及包装类型数组</li>
+     * <li>数组和集合的元素,转换器只查找一次,而不是每个元素都走一遍 commons-beanutils 的通用流程</li>
+     * <li>快速通道处理不了的情况(比如有元素是null,格式不对),交给 commons-beanutils 处理,结果不变</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toIntArray("1,2, 3")                                   = new int[] { 1, 2, 3 }
+     * ConvertUtil.toIntArray("{1,2,3}")                                   = new int[] { 1, 2, 3 }
+     * ConvertUtil.toIntArray(toList("1", "2", <span style="color:red">" 3"</span>))              = new int[] { 1, 2, 3 }
+     * ConvertUtil.toIntArray(toArray(true, false, false))                 = new int[] { 1, 0, 0 }
+     * ConvertUtil.toIntArray(new String[] { "1", null, "2", "3" })        = new int[] {}
+     * </pre>
+     * 
+     * </blockquote>
+     * 
+     * @param toBeConvertedValue
+     *            需要被转换的值
+     * @return 如果 <code>toBeConvertedValue</code> 是null,返回 null<br>
+     * @see #convert(Object, Class)
+     * @see org.apache.commons.beanutils.converters.ArrayConverter
+     * @since 1.13.1
+     */
+    public static int[] toIntArray(Object toBeConvertedValue){
+        if (null == toBeConvertedValue){
+            return null;
+        }
+        int[] result = PrimitiveArrayConverter.toIntArray(toBeConvertedValue);
+        return null != result ? result : convert(toBeConvertedValue, int[].class);
+    }
+
+    /**
+     * 将 <code>toBeConvertedValue</code> 转成 <code>long</code> 数组.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>转换规则和 <code>ConvertUtil.convert(toBeConvertedValue, long[].class)</code> 一致,参见 {@link ArrayConverter#convertToType(Class, Object)}</li>
+     * <li>逗号分隔的字符串,一次扫描直接切分并解析成基本类型,不会创建中间的 String 数组以及包装类型数组</li>
+     * <li>数组和集合的元素,转换器只查找一次,而不是每个元素都走一遍 commons-beanutils 的通用流程</li>
+     * <li>快速通道处理不了的情况(比如有元素是null,格式不对),交给 commons-beanutils 处理,结果不变</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toLongArray("1,2, 3")                                  = new long[] { 1L, 2L, 3L }
+     * ConvertUtil.toLongArray(toList("1", "2", <span style="color:red">" 3"</span>))             = new long[] { 1L, 2L, 3L }
+     * ConvertUtil.toLongArray(new Integer[] { 1, 2, 3 })                  = new long[] { 1L, 2L, 3L }
+     * </pre>
+     * 
+     * </blockquote>
+     * 
+     * @param toBeConvertedValue
+     *            需要被转换的值
+     * @return 如果 <code>toBeConvertedValue</code> 是null,返回 null<br>
+     * @see #convert(Object, Class)
+     * @see org.apache.commons.beanutils.converters.ArrayConverter
+     * @since 1.13.1
+     */
+    public static long[] toLongArray(Object toBeConvertedValue){
+        if (null == toBeConvertedValue){
+            return null;
+        }
+        long[] result = PrimitiveArrayConverter.toLongArray(toBeConvertedValue);
+        return null != result ? result : convert(toBeConvertedValue, long[].class);
+    }
+
+    /**
+     * 将 <code>toBeConvertedValue</code> 转成 <code>double</code> 数组.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>转换规则和 <code>ConvertUtil.convert(toBeConvertedValue, double[].class)</code> 一致,参见 {@link ArrayConverter#convertToType(Class, Object)}</li>
+     * <li>逗号分隔的字符串,一次扫描直接切分并解析成基本类型,不会创建中间的 String 数组以及包装类型数组</li>
+     * <li>数组和集合的元素,转换器只查找一次,而不是每个元素都走一遍 commons-beanutils 的通用流程</li>
+     * <li>快速通道处理不了的情况(比如有元素是null,格式不对),交给 commons-beanutils 处理,结果不变</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toDoubleArray("1.5,2, -3.25")                          = new double[] { 1.5d, 2d, -3.25d }
+     * ConvertUtil.toDoubleArray(toList("1.5", "1e3"))                     = new double[] { 1.5d, 1000d }
+     * ConvertUtil.toDoubleArray(new BigDecimal("0.1"))                    = new double[] { 0.1d }
+     * </pre>
+     * 
+     * </blockquote>
+     * 
+     * @param toBeConvertedValue
+     *            需要被转换的值
+     * @return 如果 <code>toBeConvertedValue</code> 是null,返回 null<br>
+     * @see #convert(Object, Class)
+     * @see org.apache.commons.beanutils.converters.ArrayConverter
+     * @since 1.13.1
+     */
+    public static double[] toDoubleArray(Object toBeConvertedValue){
+        if (null == toBeConvertedValue){
+            return null;
+        }
+        double[] result = PrimitiveArrayConverter.toDoubleArray(toBeConvertedValue);
+        return null != result ? result : convert(toBeConvertedValue, double[].class);
+    }
+
     //---------------------------------------------------------------
 
     /**
@@ -1118,8 +1465,7 @@ public final class ConvertUtil{
      * @since 1.11.0
      */
     public static String toString(final Collection<?> collection,String connector){
-        return isNullOrEmpty(collection) ? EMPTY : //
-                        toString(collection.toArray(), new ToStringConfig(connector));
+        return isNullOrEmpty(collection) ? EMPTY : toString(collection, new ToStringConfig(connector));
     }
 
     /**
@@ -1290,7 +1636,7 @@ public final class ConvertUtil{
      * @since 1.8.4 change param order
      */
     public static String toString(final Collection<?> collection,ToStringConfig toStringConfig){
-        return isNullOrEmpty(collection) ? EMPTY : toString(collection.toArray(), toStringConfig);
+        return isNullOrEmpty(collection) ? EMPTY : ToStringJoiner.of(toStringConfig).join(collection);
     }
 
     /**
@@ -1385,37 +1731,7 @@ public final class ConvertUtil{
      * @since 1.8.4 change param order
      */
     public static String toString(Object[] arrays,ToStringConfig toStringConfig){
-        if (isNullOrEmpty(arrays)){
-            return EMPTY;
-        }
-
-        //---------------------------------------------------------------
-        ToStringConfig useToStringConfig = defaultIfNull(toStringConfig, new ToStringConfig());
-        String connector = useToStringConfig.getConnector();
-        boolean isJoinNullOrEmpty = useToStringConfig.getIsJoinNullOrEmpty();
-        String prefix = useToStringConfig.getPrefix();
-
-        //---------------------------------------------------------------
-        StringBuilder sb = new StringBuilder();
-        for (Object element : arrays){
-            //如果是null或者empty,但是参数值是不拼接,那么跳过,继续循环
-            if (isNullOrEmpty(element) && !isJoinNullOrEmpty){
-                continue;
-            }
-            //---------------------------------------------------------------
-            //since 1.12.9 support prefix
-            sb.append(defaultIfNull(prefix, EMPTY));
-
-            //value转换
-            //注意:如果value是null,StringBuilder 将拼接 "null" 字符串,详见 java.lang.AbstractStringBuilder#append(String)
-            sb.append(defaultIfNull(element, EMPTY)); //see StringUtils.defaultString(t)
-
-            //---------------------------------------------------------------
-            if (null != connector){//注意可能传过来的是换行符,不能使用Validator.isNullOrEmpty来判断
-                sb.append(connector);//放心大胆的拼接 connector, 不判断是否是最后一个,最后会截取
-            }
-        }
-        return StringUtil.substringWithoutLast(sb, connector);
+        return isNullOrEmpty(arrays) ? EMPTY : ToStringJoiner.of(toStringConfig).join(arrays);
     }
 
     //---------------------------------------------------------------
@@ -1915,7 +2231,9 @@ public final class ConvertUtil{
      * @return 如果 <code>inputMap</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
      *         如果 <code>keyTargetType</code> 是null,那么key直接使用<code>inputMap</code>的key<br>
      *         如果 <code>valueTargetType</code> 是null,那么value 直接使用<code>inputMap</code>的 value<br>
+     *         key 和 value 的转换方式,每一种元素类型只解析一次,已经是目标类型的元素不再经过转换器
      * @see #toMap(Map, Transformer, Transformer)
+     * @see #toMapView(Map, Class)
      * @see <a href="https://github.com/venusdrogon/feilong-core/issues/497">issues497</a>
      * @since 1.9.2
      */
@@ -1924,12 +2242,62 @@ public final class ConvertUtil{
             return emptyMap();
         }
 
-        Transformer<K, I> keyTransformer = null == keyTargetType ? null : new SimpleClassTransformer<K, I>(keyTargetType);
-        Transformer<V, J> valueTransformer = null == valueTargetType ? null : new SimpleClassTransformer<V, J>(valueTargetType);
+        Transformer<K, I> keyTransformer = null == keyTargetType ? null : ConverterDispatcher.<K, I> newBulkConverter(keyTargetType);
+        Transformer<V, J> valueTransformer = null == valueTargetType ? null : ConverterDispatcher.<V, J> newBulkConverter(valueTargetType);
 
         return toMap(inputMap, keyTransformer, valueTransformer);
     }
 
+    /**
+     * 将 <code>inputMap</code> 包装成 value 是 <code>valueTargetType</code> 类型的视图,只有在访问 value 的时候才会转换.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>不会复制 <code>inputMap</code>,适合很大的 map 只读取其中少部分 value 的场景</li>
+     * <li>每次访问 value 都会转换一次,如果需要反复读取所有的 value,请使用 {@link #toMap(Map, Class)}</li>
+     * <li>视图不支持 put,key 不会被转换</li>
+     * <li>转换规则和 {@link #convert(Object, Class)} 一致;创建视图时解析的转换方式,不会随着之后 {@link ConvertUtils#register(Converter, Class)} 变化</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * Map{@code <String, String>} map = toMap("1", "2", "3", "4");
+     * Map{@code <String, Integer>} view = toMapView(map, Integer.class);
+     * 
+     * view.get("3") = 4
+     * </pre>
+     * 
+     * </blockquote>
+     * 
+     * @param <K>
+     *            the key type
+     * @param <V>
+     *            the value type
+     * @param <J>
+     *            返回的map ,value的类型
+     * @param inputMap
+     *            the input map
+     * @param valueTargetType
+     *            value 需要转换成什么类型
+     * @return 如果 <code>inputMap</code> 是null,返回 {@link Collections#emptyMap()}<br>
+     *         如果 <code>valueTargetType</code> 是null,抛出 {@link NullPointerException}<br>
+     *         否则返回 {@link TransformedValueMapView}
+     * @see TransformedValueMapView
+     * @since 1.13.1
+     */
+    public static <K, V, J> Map<K, J> toMapView(Map<K, V> inputMap,final Class<J> valueTargetType){
+        Validate.notNull(valueTargetType, "valueTargetType can't be null!");
+        if (null == inputMap){
+            return emptyMap();
+        }
+        return new TransformedValueMapView<>(inputMap, ConverterDispatcher.<V, J> newBulkConverter(valueTargetType));
+    }
+
     /**
      * 将诸如 Map{@code <String, String>} 类型转成 Map{@code <Integer, Integer>} 类型.
      * 
@@ -2063,7 +2431,7 @@ public final class ConvertUtil{
 
         //---------------------------------------------------------------
 
-        Map<I, J> returnMap = new LinkedHashMap<>(inputMap.size());
+        Map<I, J> returnMap = newLinkedHashMap(inputMap.size());
 
         for (Map.Entry<K, V> entry : inputMap.entrySet()){
             K key = entry.getKey();
@@ -2512,6 +2880,47 @@ public final class ConvertUtil{
         return isNullOrEmpty(arrays) ? Collections.<T> emptyList() : new ArrayList<>(Arrays.asList(arrays));
     }
 
+    /**
+     * 将 <code>list</code> 包装成元素是 <code>targetType</code> 类型的<b>只读视图</b>,只有在访问元素的时候才会转换.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>不会复制 <code>list</code>,适合很大的 list 只读取其中少部分元素(比如分页)的场景</li>
+     * <li>转换规则和 {@link #convert(Object, Class)} 一致;创建视图时解析的转换方式,不会随着之后 {@link ConvertUtils#register(Converter, Class)} 变化</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * List{@code <Integer>} view = ConvertUtil.toListView(toList("1", "2", "3"), Integer.class);
+     * 
+     * view.get(1) = 2
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     * @param list
+     *            the list
+     * @param targetType
+     *            元素需要转换成什么类型
+     * @return 如果 <code>list</code> 是null,返回 {@link Collections#emptyList()}<br>
+     *         如果 <code>targetType</code> 是null,抛出 {@link NullPointerException}<br>
+     * @see com.feilong.core.util.CollectionsUtil#collectView(List, Transformer)
+     * @since 1.13.1
+     */
+    public static <O, T> List<T> toListView(List<O> list,Class<T> targetType){
+        Validate.notNull(targetType, "targetType can't be null!");
+        return null == list ? Collections.<T> emptyList() : new TransformedListView<>(list, ConverterDispatcher.<O, T> newBulkConverter(targetType), false);
+    }
+
     //---------------------------toSet------------------------------------
 
     /**
@@ -2780,7 +3189,7 @@ public final class ConvertUtil{
      *            要被转换的目标类型
      * @return 如果 <code>toBeConvertedValue</code> 是null,那么返回null<br>
      *         如果 <code>targetType</code> 是null,抛出 {@link NullPointerException}<br>
-     *         否则调用 {@link ConvertUtils#convert(String[], Class)}
+     *         否则结果和 {@link ConvertUtils#convert(String[], Class)} 一致,元素的转换器只查找一次
      * @see org.apache.commons.beanutils.ConvertUtils#convert(String[], Class)
      * @see org.apache.commons.beanutils.ConvertUtilsBean#convert(String[], Class)
      * @since 1.6.0
@@ -2788,7 +3197,7 @@ public final class ConvertUtil{
     @SuppressWarnings("unchecked")
     public static <T> T[] toArray(String[] toBeConvertedValue,Class<T> targetType){
         //如果指定的类型 本身就是数组类型的class,那么返回的类型就是该数组类型,否则将基于指定类型构造数组.
-        return null == toBeConvertedValue ? null : (T[]) ConvertUtils.convert(toBeConvertedValue, targetType);
+        return null == toBeConvertedValue ? null : (T[]) ConverterDispatcher.convertArray(toBeConvertedValue, targetType);
     }
 
     //---------------------------------------------------------------
@@ -3052,15 +3461,50 @@ public final class ConvertUtil{
      *            要转成什么类型
      * @return 如果 <code>targetType</code> 是null,抛出 {@link NullPointerException}<br>
      *         如果 <code>toBeConvertedValue</code> 是null,那么直接返回null<br>
+     *         如果是数字/字符串/布尔之间的转换,并且注册的是 commons-beanutils 标准转换器,直接按照 (sourceClass, targetClass) 使用缓存的专用转换器,结果相同<br>
      *         否则返回 {@link org.apache.commons.beanutils.ConvertUtils#convert(Object, Class)}
      * @see org.apache.commons.beanutils.ConvertUtils#convert(Object, Class)
      * @see org.apache.commons.beanutils.converters.AbstractConverter#convert(Class, Object)
      * @see org.apache.commons.beanutils.converters.ArrayConverter#convertToType(Class, Object)
      */
-    @SuppressWarnings("unchecked")
     public static <T> T convert(Object toBeConvertedValue,Class<T> targetType){
         Validate.notNull(targetType, "targetType can't be null!");
-        return null == toBeConvertedValue ? null : (T) ConvertUtils.convert(toBeConvertedValue, targetType);
+        return null == toBeConvertedValue ? null : ConverterDispatcher.convert(toBeConvertedValue, targetType);
+    }
+
+    /**
+     * 使用 <code>converterContext</code> 的转换器注册表,将 <code>toBeConvertedValue</code> 转换成指定的类型 <code>targetType</code>.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConverterContext converterContext = ConverterContext.builder().registerSimpleDateLocaleConverter("yyyy-MM-dd").build();
+     * 
+     * ConvertUtil.convert("2016-05-01", Date.class, converterContext) = 2016-05-01 00:00:00
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param toBeConvertedValue
+     *            需要被转换的对象/值
+     * @param targetType
+     *            要转成什么类型
+     * @param converterContext
+     *            转换器上下文
+     * @return 如果 <code>targetType</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>converterContext</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>toBeConvertedValue</code> 是null,那么直接返回null<br>
+     *         否则返回 {@link ConverterContext#convert(Object, Class)}
+     * @see ConverterContext
+     * @since 1.13.1
+     */
+    public static <T> T convert(Object toBeConvertedValue,Class<T> targetType,ConverterContext converterContext){
+        Validate.notNull(converterContext, "converterContext can't be null!");
+        return converterContext.convert(toBeConvertedValue, targetType);
     }
 
     //---------------------------------------------------------------
@@ -3104,4 +3548,76 @@ public final class ConvertUtil{
         //---------------------------------------------------------------
         throw new UnsupportedOperationException("input param [locale] type is:[" + locale.getClass().getName() + "] not support!");
     }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将 <code>toBeConvertedValue</code> 按照 {@link Enum#name()} 转成枚举(区分大小写).
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toEnum(null, HttpMethodType.class)         = null
+     * ConvertUtil.toEnum("GET", HttpMethodType.class)        = HttpMethodType.GET
+     * ConvertUtil.toEnum(" GET ", HttpMethodType.class)      = HttpMethodType.GET
+     * ConvertUtil.toEnum("get", HttpMethodType.class)        = null
+     * ConvertUtil.toEnum(HttpMethodType.GET, HttpMethodType.class) = HttpMethodType.GET
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <E>
+     *            the element type
+     * @param toBeConvertedValue
+     *            需要被转换的对象/值,如果是数组或者集合,取第一个元素转换
+     * @param enumClass
+     *            枚举类
+     * @return 如果 <code>enumClass</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>toBeConvertedValue</code> 是null,返回null<br>
+     *         如果找不到对应的枚举值,返回null
+     * @see EnumConverter#EnumConverter(Class)
+     * @since 1.13.1
+     */
+    public static <E extends Enum<E>> E toEnum(Object toBeConvertedValue,Class<E> enumClass){
+        return new EnumConverter<>(enumClass).convert(enumClass, toBeConvertedValue);
+    }
+
+    /**
+     * 将 <code>toBeConvertedValue</code> 转成 <code>propertyName</code> 属性值和它相等的枚举(区分大小写).
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * ConvertUtil.toEnum("get", HttpMethodType.class, "method")   = HttpMethodType.GET
+     * ConvertUtil.toEnum("GET", HttpMethodType.class, "method")   = null
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <E>
+     *            the element type
+     * @param toBeConvertedValue
+     *            需要被转换的对象/值,如果是数组或者集合,取第一个元素转换
+     * @param enumClass
+     *            枚举类
+     * @param propertyName
+     *            属性名称,比如 <code>HttpMethodType</code> 的method
+     * @return 如果 <code>enumClass</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>toBeConvertedValue</code> 是null,返回null<br>
+     *         如果找不到对应的枚举值,返回null<br>
+     *         如果枚举值没有 <code>propertyName</code> 属性,抛出 {@link BeanOperationException}
+     * @see com.feilong.core.lang.EnumUtil#getEnumByPropertyValue(Class, String, Object)
+     * @see EnumConverter#EnumConverter(Class, String, boolean)
+     * @since 1.13.1
+     */
+    public static <E extends Enum<E>> E toEnum(Object toBeConvertedValue,Class<E> enumClass,String propertyName){
+        Validate.notBlank(propertyName, "propertyName can't be blank!");
+        return new EnumConverter<>(enumClass, propertyName, false).convert(enumClass, toBeConvertedValue);
+    }
 }
\ No newline at end of file
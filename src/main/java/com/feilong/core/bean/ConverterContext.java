@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.beanutils.BeanUtilsBean;
+import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.ConvertUtilsBean;
+import org.apache.commons.beanutils.Converter;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 转换器上下文,持有一份独立的转换器注册表.
+ *
+ * <h3>背景:</h3>
+ *
+ * <blockquote>
+ * <p>
+ * {@link ConvertUtil#registerSimpleDateLocaleConverter(String)} 等方法修改的是 JVM 全局的 {@link ConvertUtils} 注册表,
+ * 同一个应用中的不同模块如果需要不同的 {@link Date} 格式,会互相覆盖.<br>
+ * 使用 {@link #builder()} 创建的上下文有自己的注册表,不会影响全局注册表,也不会被全局注册表影响.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>{@link #getDefault()} 是全局上下文,直接委托给 {@link ConvertUtils} 以及 {@link BeanUtilsBean#getInstance()},和原来的静态方法行为一致</li>
+ * <li>使用 {@link #builder()} 创建的上下文,初始的转换器和 {@link ConvertUtil} 一致(commons-beanutils 标准转换器,并且包装类型转换失败返回null),再加上
+ * {@link Builder} 中注册的转换器</li>
+ * <li>上下文创建之后不可修改,注册表内部是 fast 模式的 {@link org.apache.commons.collections.FastHashMap},读取不需要加锁,可以缓存起来(比如作为常量)在多个线程中使用</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * private static final ConverterContext ORDER_CONTEXT = ConverterContext.builder()//
+ *                 .registerSimpleDateLocaleConverter("yyyy-MM-dd HH:mm:ss")
+ *                 .build();
+ *
+ * Date date = ConvertUtil.convert("2016-05-01 12:00:00", Date.class, ORDER_CONTEXT);
+ * BeanUtil.populate(salesOrder, map, ORDER_CONTEXT);
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see ConvertUtil#convert(Object, Class, ConverterContext)
+ * @see BeanUtil#populate(Object, Map, ConverterContext)
+ * @see PropertyUtil#getProperty(Object, String, Class, ConverterContext)
+ * @since 1.13.1
+ */
+public final class ConverterContext{
+
+    /** 全局上下文. */
+    private static final ConverterContext DEFAULT = new ConverterContext(null, null);
+
+    //---------------------------------------------------------------
+
+    /** 独立的转换器注册表,如果是null,表示使用全局注册表. */
+    private final ConvertUtilsBean        convertUtilsBean;
+
+    /** 使用 {@link #convertUtilsBean} 的 {@link BeanUtilsBean},如果是null,表示使用 {@link BeanUtilsBean#getInstance()}. */
+    private final BeanUtilsBean           beanUtilsBean;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new converter context.
+     *
+     * @param convertUtilsBean
+     *            the convert utils bean
+     * @param beanUtilsBean
+     *            the bean utils bean
+     */
+    private ConverterContext(ConvertUtilsBean convertUtilsBean, BeanUtilsBean beanUtilsBean){
+        this.convertUtilsBean = convertUtilsBean;
+        this.beanUtilsBean = beanUtilsBean;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 全局上下文,委托给 {@link ConvertUtils} 以及 {@link BeanUtilsBean#getInstance()}.
+     *
+     * @return the default
+     */
+    public static ConverterContext getDefault(){
+        return DEFAULT;
+    }
+
+    /**
+     * 创建一个新的 {@link Builder}.
+     *
+     * @return the builder
+     */
+    public static Builder builder(){
+        return new Builder();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将 <code>toBeConvertedValue</code> 转成 <code>targetType</code>.
+     *
+     * @param <T>
+     *            the generic type
+     * @param toBeConvertedValue
+     *            需要被转换的对象/值
+     * @param targetType
+     *            要转成什么类型
+     * @return 如果 <code>targetType</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>toBeConvertedValue</code> 是null,那么直接返回null<br>
+     *         如果是全局上下文,返回 {@link ConvertUtil#convert(Object, Class)}<br>
+     *         否则使用本上下文的注册表,返回 {@link ConvertUtilsBean#convert(Object, Class)}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T convert(Object toBeConvertedValue,Class<T> targetType){
+        Validate.notNull(targetType, "targetType can't be null!");
+        if (null == toBeConvertedValue){
+            return null;
+        }
+        if (isDefault()){
+            return ConverterDispatcher.convert(toBeConvertedValue, targetType);
+        }
+        return (T) convertUtilsBean.convert(toBeConvertedValue, targetType);
+    }
+
+    /**
+     * 查找 <code>targetType</code> 注册的转换器.
+     *
+     * @param targetType
+     *            the target type
+     * @return 如果 <code>targetType</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果没有注册,返回null
+     */
+    public Converter lookup(Class<?> targetType){
+        Validate.notNull(targetType, "targetType can't be null!");
+        return isDefault() ? ConvertUtils.lookup(targetType) : convertUtilsBean.lookup(targetType);
+    }
+
+    /**
+     * 是否是全局上下文.
+     *
+     * @return 如果是 {@link #getDefault()},返回true
+     */
+    public boolean isDefault(){
+        return null == convertUtilsBean;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用本上下文注册表的 {@link BeanUtilsBean}.
+     *
+     * @return 如果是全局上下文,返回 {@link BeanUtilsBean#getInstance()}
+     */
+    BeanUtilsBean getBeanUtilsBean(){
+        return isDefault() ? BeanUtilsBean.getInstance() : beanUtilsBean;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * {@link ConverterContext} 的构造器.
+     *
+     * <p>
+     * 构造器不是线程安全的,一般在初始化的时候使用一次.
+     * </p>
+     */
+    public static final class Builder{
+
+        /** 注册的转换器,后注册的会覆盖先注册的. */
+        private final Map<Class<?>, Converter> converterMap = new LinkedHashMap<>();
+
+        //---------------------------------------------------------------
+
+        /**
+         * Instantiates a new builder.
+         */
+        private Builder(){
+        }
+
+        //---------------------------------------------------------------
+
+        /**
+         * 注册 <code>targetType</code> 的转换器.
+         *
+         * @param converter
+         *            the converter
+         * @param targetType
+         *            the target type
+         * @return this
+         * @throws NullPointerException
+         *             如果 <code>converter</code> 或者 <code>targetType</code> 是null
+         */
+        public Builder register(Converter converter,Class<?> targetType){
+            Validate.notNull(converter, "converter can't be null!");
+            Validate.notNull(targetType, "targetType can't be null!");
+            converterMap.put(targetType, converter);
+            return this;
+        }
+
+        /**
+         * 注册 {@link Date} 的 {@link SimpleDateLocaleConverter},使用 {@link Locale#getDefault()}.
+         *
+         * @param pattern
+         *            the pattern
+         * @return this
+         * @see ConvertUtil#registerSimpleDateLocaleConverter(String)
+         */
+        public Builder registerSimpleDateLocaleConverter(String pattern){
+            return registerSimpleDateLocaleConverter(pattern, Locale.getDefault());
+        }
+
+        /**
+         * 注册 {@link Date} 的 {@link SimpleDateLocaleConverter}.
+         *
+         * @param pattern
+         *            the pattern
+         * @param locale
+         *            the locale
+         * @return this
+         */
+        public Builder registerSimpleDateLocaleConverter(String pattern,Locale locale){
+            return register(new SimpleDateLocaleConverter(pattern, locale), Date.class);
+        }
+
+        //---------------------------------------------------------------
+
+        /**
+         * 创建上下文.
+         *
+         * <p>
+         * 每次调用都会创建一个新的注册表,之后对 builder 的修改不影响已经创建好的上下文.
+         * </p>
+         *
+         * @return the converter context
+         */
+        public ConverterContext build(){
+            //ConvertUtilsBean 构造之后已经是 fast 模式,之后不再修改,读取不需要加锁
+            //属性的读写(PropertyUtilsBean)和全局共用,只有类型转换是独立的
+            ConvertUtilsBean convertUtilsBean = new ConvertUtilsBean();
+            ConvertUtil.registerStandardDefaultNull(convertUtilsBean);
+            for (Map.Entry<Class<?>, Converter> entry : converterMap.entrySet()){
+                convertUtilsBean.register(entry.getValue(), entry.getKey());
+            }
+            return new ConverterContext(convertUtilsBean, new BeanUtilsBean(convertUtilsBean, BeanUtilsBean.getInstance().getPropertyUtils()));
+        }
+    }
+}
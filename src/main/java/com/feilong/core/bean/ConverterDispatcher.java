@@ -0,0 +1,872 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.Converter;
+import org.apache.commons.beanutils.converters.AbstractConverter;
+import org.apache.commons.beanutils.converters.ArrayConverter;
+import org.apache.commons.beanutils.converters.BigDecimalConverter;
+import org.apache.commons.beanutils.converters.BigIntegerConverter;
+import org.apache.commons.beanutils.converters.BooleanConverter;
+import org.apache.commons.beanutils.converters.ByteConverter;
+import org.apache.commons.beanutils.converters.DoubleConverter;
+import org.apache.commons.beanutils.converters.FloatConverter;
+import org.apache.commons.beanutils.converters.IntegerConverter;
+import org.apache.commons.beanutils.converters.LongConverter;
+import org.apache.commons.beanutils.converters.NumberConverter;
+import org.apache.commons.beanutils.converters.ShortConverter;
+import org.apache.commons.beanutils.converters.StringConverter;
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 按照 (sourceClass, targetClass) 分派的类型转换器表,给 {@link ConvertUtil} 提供不经过 commons-beanutils 通用逻辑的快速转换.
+ *
+ * <h3>为什么需要这个类?</h3>
+ *
+ * <blockquote>
+ * <p>
+ * {@link ConvertUtils#convert(Object, Class)} 每次都要在全局注册表中按照 targetType 查找转换器,然后走 {@link AbstractConverter} 的通用流程,
+ * 很多情况下会先把值 <code>toString()</code> 再解析;<br>
+ * 本类对每一对 (sourceClass, targetClass) 只解析一次专用的转换器,缓存在 {@link ClassValue} 中,数字之间直接转换,不经过字符串.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>快速转换的结果和 commons-beanutils 标准转换器的结果完全一致(包括越界检查,字符串trim等规则)</li>
+ * <li>快速转换处理不了的情况(比如字符串格式不对,数字越界,不支持的类型),统一交回 commons-beanutils 处理,由它决定返回默认值还是抛出异常</li>
+ * <li>{@link #convert(Object, Class)} 只有在全局注册的转换器是 commons-beanutils 标准转换器(并且没有设置 pattern/locale)时才走快速通道,
+ * 因此通过 {@link ConvertUtils#register(Converter, Class)} 注册的自定义转换器依然生效</li>
+ * <li>是否是标准转换器的检查结果缓存在表的每一项中,命中时不再查找 commons-beanutils 全局注册表(也不会进入它的全局锁);
+ * 以下情况会重新检查:通过 {@link ConvertUtil#register(Converter, Class)},{@link ConvertUtil#registerStandardDefaultNull()},
+ * {@link ConvertUtil#registerSimpleDateLocaleConverter(String)} 修改了注册表({@link #invalidate()}),线程的 context {@link ClassLoader} 变化(commons-beanutils 的注册表是按照 context {@link ClassLoader} 区分的),
+ * 或者该项已经使用了 {@link #REVALIDATE_INTERVAL} 次;<br>
+ * 因此直接调用 {@link ConvertUtils#register(Converter, Class)} 注册的转换器,最迟在每一项使用 {@link #REVALIDATE_INTERVAL} 次之后生效,
+ * 需要立即生效的话,使用 {@link ConvertUtil#register(Converter, Class)} 注册</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see ConvertUtil#convert(Object, Class)
+ * @since 1.13.1
+ */
+final class ConverterDispatcher{
+
+    /** 数字类型以及对应的 commons-beanutils 标准转换器类型. */
+    private static final Map<Class<?>, Class<? extends Converter>> NUMBER_CONVERTER_TYPES = new HashMap<>();
+
+    static{
+        NUMBER_CONVERTER_TYPES.put(Byte.class, ByteConverter.class);
+        NUMBER_CONVERTER_TYPES.put(Short.class, ShortConverter.class);
+        NUMBER_CONVERTER_TYPES.put(Integer.class, IntegerConverter.class);
+        NUMBER_CONVERTER_TYPES.put(Long.class, LongConverter.class);
+        NUMBER_CONVERTER_TYPES.put(Float.class, FloatConverter.class);
+        NUMBER_CONVERTER_TYPES.put(Double.class, DoubleConverter.class);
+        NUMBER_CONVERTER_TYPES.put(BigDecimal.class, BigDecimalConverter.class);
+        NUMBER_CONVERTER_TYPES.put(BigInteger.class, BigIntegerConverter.class);
+    }
+
+    /** 缓存的标准转换器检查结果,每一项最多使用多少次之后重新检查,必须是2的幂. */
+    static final int                                               REVALIDATE_INTERVAL    = 1024;
+
+    /** 全局注册表的版本,通过本项目修改全局注册表的时候递增,缓存的检查结果随之失效. */
+    private static final AtomicInteger                             REGISTRY_VERSION       = new AtomicInteger();
+
+    /** 处理不了,交给 commons-beanutils. */
+    private static final FastConverter                             FALLBACK               = new FallbackConverter();
+
+    /** 转换器表,先按照 sourceClass 再按照 targetClass 索引;使用 {@link ClassValue} 不会阻止 class 被卸载. */
+    private static final ClassValue<ClassValue<FastConverter>>     TABLE                  = new SourceTypeTable();
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private ConverterDispatcher(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将 <code>value</code> 转成 <code>targetType</code>,和 {@link ConvertUtils#convert(Object, Class)} 的结果一致.
+     *
+     * @param <T>
+     *            the generic type
+     * @param value
+     *            需要被转换的值,不能是null
+     * @param targetType
+     *            要转成什么类型
+     * @return 快速通道可以处理,返回快速转换的结果,否则返回 {@link ConvertUtils#convert(Object, Class)}
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T convert(Object value,Class<T> targetType){
+        FastConverter fastConverter = TABLE.get(value.getClass()).get(targetType);
+        if (fastConverter != FALLBACK && fastConverter.isApplicable(targetType)){
+            Object result = fastConverter.convert(value);
+            if (null != result){
+                return (T) result;
+            }
+        }
+        return (T) ConvertUtils.convert(value, targetType);
+    }
+
+    /**
+     * 全局注册表已经修改,之后每一项在下次使用时重新检查注册的是不是标准转换器.
+     *
+     * @see ConvertUtil#register(Converter, Class)
+     * @see ConvertUtil#registerStandardDefaultNull()
+     * @see ConvertUtil#registerSimpleDateLocaleConverter(String)
+     */
+    static void invalidate(){
+        REGISTRY_VERSION.incrementAndGet();
+    }
+
+    /**
+     * 使用快速通道将 <code>value</code> 转成 <code>targetType</code>,结果和使用 commons-beanutils <b>默认构造</b> 的标准转换器一致.
+     *
+     * <p>
+     * 用于 {@link ConvertUtil#toInteger(Object, Integer)} 这类自己创建标准转换器的方法,不关心全局注册表.
+     * </p>
+     *
+     * @param <T>
+     *            the generic type
+     * @param value
+     *            需要被转换的值
+     * @param targetType
+     *            要转成什么类型
+     * @return 如果 <code>value</code> 是null,返回null<br>
+     *         如果快速通道处理不了,返回null,调用方需要交给 commons-beanutils 转换器处理<br>
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T fastConvert(Object value,Class<T> targetType){
+        return null == value ? null : (T) TABLE.get(value.getClass()).get(targetType).convert(value);
+    }
+
+    /**
+     * 创建将值转成 <code>targetType</code> 的批量转换器,结果和 {@link ConvertUtil#convert(Object, Class)} 一致.
+     *
+     * <p>
+     * 批量转换器对每一种值的类型只解析一次转换方式(连续相同类型的值直接复用上一次的解析结果),
+     * 不需要每个值都去 commons-beanutils 全局注册表查找转换器;已经是 <code>targetType</code> 类型(并且不需要转换器处理)的值直接返回.
+     * </p>
+     *
+     * <p>
+     * 解析结果在创建之后不会随着 {@link ConvertUtils#register(Converter, Class)} 变化,因此批量转换器适合在一次批量转换中使用,不适合长期缓存.
+     * </p>
+     *
+     * @param <S>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     * @param targetType
+     *            要转成什么类型
+     * @return the transformer
+     */
+    static <S, T> Transformer<S, T> newBulkConverter(Class<T> targetType){
+        return new BulkConverter<>(targetType);
+    }
+
+    /**
+     * 将字符串数组 <code>values</code> 转成 <code>targetType</code> 的数组,和 {@link ConvertUtils#convert(String[], Class)} 的结果一致.
+     *
+     * <p>
+     * 元素的转换器以及快速转换器只解析一次,而不是每个元素都去全局注册表查找.
+     * </p>
+     *
+     * @param values
+     *            字符串数组,不能是null
+     * @param targetType
+     *            目标类型,如果本身是数组类型,那么使用它的元素类型
+     * @return 元素类型是 <code>targetType</code>(或者 <code>targetType</code> 的元素类型)的数组
+     * @see org.apache.commons.beanutils.ConvertUtilsBean#convert(String[], Class)
+     */
+    static Object convertArray(String[] values,Class<?> targetType){
+        Class<?> componentType = targetType.isArray() ? targetType.getComponentType() : targetType;
+
+        Converter converter = ConvertUtils.lookup(componentType);
+        if (null == converter){
+            converter = ConvertUtils.lookup(String.class);
+        }
+        FastConverter fastConverter = TABLE.get(String.class).get(componentType);
+        boolean useFastConverter = fastConverter != FALLBACK && fastConverter.isApplicable(componentType);
+
+        //---------------------------------------------------------------
+        Object array = Array.newInstance(componentType, values.length);
+        for (int i = 0, j = values.length; i < j; ++i){
+            Object element = useFastConverter && null != values[i] ? fastConverter.convert(values[i]) : null;
+            Array.set(array, i, null == element ? converter.convert(componentType, values[i]) : element);
+        }
+        return array;
+    }
+
+    /**
+     * 判断全局注册表中 <code>arrayType</code> 的转换器,是不是 commons-beanutils 标准的数组转换器,并且元素类型的转换器也是标准的数字转换器.
+     *
+     * <p>
+     * 只能判断转换器的类型,通过 {@link ArrayConverter#setDelimiter(char)} 等修改过配置的 {@link ArrayConverter} 无法识别.
+     * </p>
+     *
+     * @param arrayType
+     *            数字(或者数字基本类型)数组类型
+     * @return 如果是,返回true
+     */
+    static boolean isStandardNumberArrayConverter(Class<?> arrayType){
+        Converter converter = ConvertUtils.lookup(arrayType);
+        if (null == converter || converter.getClass() != ArrayConverter.class){
+            return false;
+        }
+        Class<?> componentType = arrayType.getComponentType();
+        Class<? extends Converter> numberConverterType = NUMBER_CONVERTER_TYPES.get(ClassUtils.primitiveToWrapper(componentType));
+        return null != numberConverterType && isStandardConverter(componentType, numberConverterType);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 解析 (sourceType, targetType) 对应的快速转换器,每一对只会解析一次.
+     *
+     * @param sourceType
+     *            the source type
+     * @param targetType
+     *            the target type
+     * @return 如果不支持,返回 {@link #FALLBACK}
+     */
+    private static FastConverter resolve(Class<?> sourceType,Class<?> targetType){
+        Class<?> wrapperType = ClassUtils.primitiveToWrapper(targetType);
+
+        //AbstractConverter 会取数组/集合的第一个元素,交给 commons-beanutils 处理
+        if (sourceType.isArray() || Collection.class.isAssignableFrom(sourceType)){
+            return FALLBACK;
+        }
+
+        //---------------------------------------------------------------
+        if (String.class == wrapperType){
+            if (String.class == sourceType){
+                return new IdentityConverter(StringConverter.class);
+            }
+            if (Boolean.class == sourceType){
+                return new ToStringConverter(sourceType, BooleanConverter.class);
+            }
+            return NUMBER_CONVERTER_TYPES.containsKey(sourceType) ? new ToStringConverter(sourceType, NUMBER_CONVERTER_TYPES.get(sourceType))
+                            : FALLBACK;
+        }
+
+        //---------------------------------------------------------------
+        Class<? extends Converter> numberConverterType = NUMBER_CONVERTER_TYPES.get(wrapperType);
+        if (null != numberConverterType){
+            if (String.class == sourceType){
+                return new StringToNumberConverter(wrapperType, numberConverterType);
+            }
+            if (Number.class.isAssignableFrom(sourceType)){
+                return new NumberToNumberConverter(wrapperType, numberConverterType);
+            }
+            if (Boolean.class == sourceType){
+                return new BooleanToNumberConverter(wrapperType, numberConverterType);
+            }
+            return FALLBACK;
+        }
+
+        //---------------------------------------------------------------
+        if (Boolean.class == wrapperType && String.class == sourceType){
+            return new StringToBooleanConverter();
+        }
+        return sourceType == wrapperType ? new IdentityConverter(null) : FALLBACK;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 和 {@link NumberConverter} 内部的 toNumber(Class, Class, Number) 规则一致.
+     *
+     * @param value
+     *            the value
+     * @param targetType
+     *            数字包装类型
+     * @return 如果越界,返回null
+     */
+    private static Number toNumber(Number value,Class<?> targetType){
+        if (targetType == value.getClass()){
+            return value;
+        }
+        if (Integer.class == targetType){
+            long longValue = value.longValue();
+            return longValue > Integer.MAX_VALUE || longValue < Integer.MIN_VALUE ? null : Integer.valueOf(value.intValue());
+        }
+        if (Long.class == targetType){
+            return Long.valueOf(value.longValue());
+        }
+        if (Double.class == targetType){
+            return Double.valueOf(value.doubleValue());
+        }
+        if (BigDecimal.class == targetType){
+            if (value instanceof Float || value instanceof Double || value instanceof BigDecimal){
+                return new BigDecimal(value.toString());
+            }
+            return value instanceof BigInteger ? new BigDecimal((BigInteger) value) : BigDecimal.valueOf(value.longValue());
+        }
+        if (BigInteger.class == targetType){
+            return value instanceof BigDecimal ? ((BigDecimal) value).toBigInteger() : BigInteger.valueOf(value.longValue());
+        }
+        if (Short.class == targetType){
+            long longValue = value.longValue();
+            return longValue > Short.MAX_VALUE || longValue < Short.MIN_VALUE ? null : Short.valueOf(value.shortValue());
+        }
+        if (Byte.class == targetType){
+            long longValue = value.longValue();
+            return longValue > Byte.MAX_VALUE || longValue < Byte.MIN_VALUE ? null : Byte.valueOf(value.byteValue());
+        }
+        if (Float.class == targetType){
+            return value.doubleValue() > Float.MAX_VALUE ? null : Float.valueOf(value.floatValue());
+        }
+        return null;
+    }
+
+    /**
+     * 和 {@link NumberConverter} 内部的 toNumber(Class, Class, String) 规则一致.
+     *
+     * @param value
+     *            trim 之后的非空字符串
+     * @param targetType
+     *            数字包装类型
+     * @return 如果格式不对,返回null
+     */
+    private static Number parseNumber(String value,Class<?> targetType){
+        try{
+            if (Integer.class == targetType){
+                return Integer.valueOf(value);
+            }
+            if (Long.class == targetType){
+                return Long.valueOf(value);
+            }
+            if (BigDecimal.class == targetType){
+                return new BigDecimal(value);
+            }
+            if (Double.class == targetType){
+                return Double.valueOf(value);
+            }
+            if (Float.class == targetType){
+                return Float.valueOf(value);
+            }
+            if (Short.class == targetType){
+                return Short.valueOf(value);
+            }
+            if (Byte.class == targetType){
+                return Byte.valueOf(value);
+            }
+            return BigInteger.class == targetType ? new BigInteger(value) : null;
+        }catch (NumberFormatException e){
+            return null;
+        }
+    }
+
+    /**
+     * 判断 commons-beanutils 全局注册表中 <code>lookupType</code> 的转换器,是不是标准转换器 <code>standardConverterType</code>.
+     *
+     * @param lookupType
+     *            the lookup type
+     * @param standardConverterType
+     *            标准转换器类型
+     * @return 如果是标准转换器,并且(如果是数字转换器)没有设置 pattern 和 locale,返回true
+     */
+    private static boolean isStandardConverter(Class<?> lookupType,Class<? extends Converter> standardConverterType){
+        Converter converter = ConvertUtils.lookup(lookupType);
+        if (null == converter || converter.getClass() != standardConverterType){
+            return false;
+        }
+        if (converter instanceof NumberConverter){
+            NumberConverter numberConverter = (NumberConverter) converter;
+            return null == numberConverter.getPattern() && null == numberConverter.getLocale();
+        }
+        return true;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 批量转换器.
+     *
+     * @param <S>
+     *            the generic type
+     * @param <T>
+     *            the generic type
+     */
+    private static final class BulkConverter<S, T> implements Transformer<S, T>{
+
+        /** 要转成什么类型. */
+        private final Class<T> targetType;
+
+        /** 最近一次的解析结果;是不可变对象,多线程同时使用时最多重复解析,不会出错. */
+        private Resolution     lastResolution;
+
+        /**
+         * Instantiates a new bulk converter.
+         *
+         * @param targetType
+         *            the target type
+         */
+        private BulkConverter(Class<T> targetType){
+            Validate.notNull(targetType, "targetType can't be null!");
+            this.targetType = targetType;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.apache.commons.collections4.Transformer#transform(java.lang.Object)
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public T transform(S input){
+            if (null == input){
+                return null;
+            }
+            Resolution resolution = lastResolution;
+            if (null == resolution || resolution.sourceType != input.getClass()){
+                resolution = new Resolution(input.getClass(), targetType);
+                lastResolution = resolution;
+            }
+
+            //---------------------------------------------------------------
+            if (null != resolution.fastConverter){
+                Object result = resolution.fastConverter.convert(input);
+                if (null != result){
+                    return (T) result;
+                }
+            }
+            return (T) ConvertUtils.convert(input, targetType);
+        }
+    }
+
+    /**
+     * 某一种 sourceClass 转成 targetType 的解析结果.
+     */
+    private static final class Resolution{
+
+        /** 不需要转换. */
+        private static final FastConverter IDENTITY = new IdentityConverter(null);
+
+        /** The source type. */
+        private final Class<?>             sourceType;
+
+        /** 可以使用的快速转换器,如果是null,表示交给 commons-beanutils 处理. */
+        private final FastConverter        fastConverter;
+
+        /**
+         * Instantiates a new resolution.
+         *
+         * @param sourceType
+         *            the source type
+         * @param targetType
+         *            the target type
+         */
+        private Resolution(Class<?> sourceType, Class<?> targetType){
+            this.sourceType = sourceType;
+
+            FastConverter converter = TABLE.get(sourceType).get(targetType);
+            if (converter != FALLBACK && converter.isApplicable(targetType)){
+                this.fastConverter = converter;
+            }else{
+                //没有注册 targetType 的转换器时,ConvertUtilsBean#convert(Object, Class) 会原样返回
+                boolean isAssignable = targetType.isAssignableFrom(sourceType) && null == ConvertUtils.lookup(targetType);
+                this.fastConverter = isAssignable ? IDENTITY : null;
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 按照 sourceClass 索引的表.
+     */
+    private static final class SourceTypeTable extends ClassValue<ClassValue<FastConverter>>{
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.ClassValue#computeValue(java.lang.Class)
+         */
+        @Override
+        protected ClassValue<FastConverter> computeValue(Class<?> sourceType){
+            return new TargetTypeTable(sourceType);
+        }
+    }
+
+    /**
+     * 同一个 sourceClass 下,按照 targetClass 索引的表.
+     */
+    private static final class TargetTypeTable extends ClassValue<FastConverter>{
+
+        /** The source type. */
+        private final Class<?> sourceType;
+
+        /**
+         * Instantiates a new target type table.
+         *
+         * @param sourceType
+         *            the source type
+         */
+        private TargetTypeTable(Class<?> sourceType){
+            this.sourceType = sourceType;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.ClassValue#computeValue(java.lang.Class)
+         */
+        @Override
+        protected FastConverter computeValue(Class<?> targetType){
+            return resolve(sourceType, targetType);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 快速转换器.
+     */
+    private abstract static class FastConverter{
+
+        /** 最近一次检查的结果,不可变对象. */
+        private volatile Validation validation;
+
+        /** 最近一次检查之后的使用次数;只用来决定什么时候重新检查,不要求精确,因此不加锁. */
+        private int                 useCount;
+
+        /**
+         * 转换.
+         *
+         * @param value
+         *            不是null 的值
+         * @return 如果处理不了,返回null
+         */
+        abstract Object convert(Object value);
+
+        /**
+         * 在 {@link ConverterDispatcher#convert(Object, Class)} 中,当前全局注册表的状态下是否可以使用快速通道.
+         *
+         * <p>
+         * 使用缓存的检查结果,只有在全局注册表版本变化,context {@link ClassLoader} 变化,或者使用了 {@link ConverterDispatcher#REVALIDATE_INTERVAL} 次之后,
+         * 才调用 {@link #checkApplicable(Class)} 重新检查.
+         * </p>
+         *
+         * @param targetType
+         *            the target type
+         * @return 如果可以,返回true
+         */
+        final boolean isApplicable(Class<?> targetType){
+            int version = REGISTRY_VERSION.get();
+            ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+            Validation current = validation;
+            if (null != current && current.version == version && current.contextClassLoaderReference.get() == contextClassLoader
+                            && (++useCount & (REVALIDATE_INTERVAL - 1)) != 0){
+                return current.applicable;
+            }
+
+            boolean applicable = checkApplicable(targetType);
+            validation = new Validation(version, contextClassLoader, applicable);
+            useCount = 0;
+            return applicable;
+        }
+
+        /**
+         * 查找全局注册表,检查是否可以使用快速通道.
+         *
+         * @param targetType
+         *            the target type
+         * @return 如果可以,返回true
+         */
+        abstract boolean checkApplicable(Class<?> targetType);
+    }
+
+    /**
+     * 是否可以使用快速通道的检查结果.
+     */
+    private static final class Validation{
+
+        /** 检查时的全局注册表版本. */
+        private final int                        version;
+
+        /** 检查时的 context {@link ClassLoader},使用弱引用,不会阻止 webapp 重新部署之后被回收. */
+        private final WeakReference<ClassLoader> contextClassLoaderReference;
+
+        /** 是否可以使用快速通道. */
+        private final boolean                    applicable;
+
+        /**
+         * Instantiates a new validation.
+         *
+         * @param version
+         *            the version
+         * @param contextClassLoader
+         *            the context class loader
+         * @param applicable
+         *            the applicable
+         */
+        private Validation(int version, ClassLoader contextClassLoader, boolean applicable){
+            this.version = version;
+            this.contextClassLoaderReference = new WeakReference<>(contextClassLoader);
+            this.applicable = applicable;
+        }
+    }
+
+    /**
+     * 处理不了,交给 commons-beanutils.
+     */
+    private static final class FallbackConverter extends FastConverter{
+
+        @Override
+        Object convert(Object value){
+            return null;
+        }
+
+        @Override
+        boolean checkApplicable(Class<?> targetType){
+            return false;
+        }
+    }
+
+    /**
+     * 类型一致,不需要转换.
+     */
+    private static final class IdentityConverter extends FastConverter{
+
+        /** 标准转换器类型,如果是null,表示只要求注册的是 commons-beanutils 自带的转换器或者没有注册. */
+        private final Class<? extends Converter> standardConverterType;
+
+        /**
+         * Instantiates a new identity converter.
+         *
+         * @param standardConverterType
+         *            the standard converter type
+         */
+        private IdentityConverter(Class<? extends Converter> standardConverterType){
+            this.standardConverterType = standardConverterType;
+        }
+
+        @Override
+        Object convert(Object value){
+            return value;
+        }
+
+        @Override
+        boolean checkApplicable(Class<?> targetType){
+            if (null != standardConverterType){
+                return isStandardConverter(targetType, standardConverterType);
+            }
+            Converter converter = ConvertUtils.lookup(targetType);
+            return null == converter || converter.getClass().getPackage() == AbstractConverter.class.getPackage();
+        }
+    }
+
+    /**
+     * 数字/布尔 转字符串.
+     */
+    private static final class ToStringConverter extends FastConverter{
+
+        /** The source type. */
+        private final Class<?>                   sourceType;
+
+        /** The standard converter type. */
+        private final Class<? extends Converter> standardConverterType;
+
+        /**
+         * Instantiates a new to string converter.
+         *
+         * @param sourceType
+         *            the source type
+         * @param standardConverterType
+         *            the standard converter type
+         */
+        private ToStringConverter(Class<?> sourceType, Class<? extends Converter> standardConverterType){
+            this.sourceType = sourceType;
+            this.standardConverterType = standardConverterType;
+        }
+
+        @Override
+        Object convert(Object value){
+            return value.toString();
+        }
+
+        @Override
+        boolean checkApplicable(Class<?> targetType){
+            //commons-beanutils 转字符串时,使用的是 sourceType 的转换器
+            return isStandardConverter(sourceType, standardConverterType);
+        }
+    }
+
+    /**
+     * 转数字的基类.
+     */
+    private abstract static class AbstractToNumberConverter extends FastConverter{
+
+        /** 数字包装类型. */
+        final Class<?>                           numberType;
+
+        /** The standard converter type. */
+        private final Class<? extends Converter> standardConverterType;
+
+        /**
+         * Instantiates a new abstract to number converter.
+         *
+         * @param numberType
+         *            the number type
+         * @param standardConverterType
+         *            the standard converter type
+         */
+        AbstractToNumberConverter(Class<?> numberType, Class<? extends Converter> standardConverterType){
+            this.numberType = numberType;
+            this.standardConverterType = standardConverterType;
+        }
+
+        @Override
+        boolean checkApplicable(Class<?> targetType){
+            return isStandardConverter(targetType, standardConverterType);
+        }
+    }
+
+    /**
+     * 字符串转数字.
+     */
+    private static final class StringToNumberConverter extends AbstractToNumberConverter{
+
+        /**
+         * Instantiates a new string to number converter.
+         *
+         * @param numberType
+         *            the number type
+         * @param standardConverterType
+         *            the standard converter type
+         */
+        private StringToNumberConverter(Class<?> numberType, Class<? extends Converter> standardConverterType){
+            super(numberType, standardConverterType);
+        }
+
+        @Override
+        Object convert(Object value){
+            String stringValue = (String) value;
+            if (Integer.class == numberType){
+                long result = NumberParser.parseInt(stringValue, 0, stringValue.length(), NumberParser.INVALID_INT);
+                return result == NumberParser.INVALID_INT ? null : Integer.valueOf((int) result);
+            }
+            if (Long.class == numberType){
+                //Long.MIN_VALUE 本身也是合法的值,交给 commons-beanutils 处理
+                long result = NumberParser.parseLong(stringValue, 0, stringValue.length(), Long.MIN_VALUE);
+                return result == Long.MIN_VALUE ? null : Long.valueOf(result);
+            }
+            if (BigDecimal.class == numberType){
+                return NumberParser.parseBigDecimal(stringValue, 0, stringValue.length(), null);
+            }
+            String trimValue = stringValue.trim();
+            return trimValue.isEmpty() ? null : parseNumber(trimValue, numberType);
+        }
+    }
+
+    /**
+     * 数字转数字,不经过字符串.
+     */
+    private static final class NumberToNumberConverter extends AbstractToNumberConverter{
+
+        /**
+         * Instantiates a new number to number converter.
+         *
+         * @param numberType
+         *            the number type
+         * @param standardConverterType
+         *            the standard converter type
+         */
+        private NumberToNumberConverter(Class<?> numberType, Class<? extends Converter> standardConverterType){
+            super(numberType, standardConverterType);
+        }
+
+        @Override
+        Object convert(Object value){
+            return toNumber((Number) value, numberType);
+        }
+    }
+
+    /**
+     * 布尔转数字,true 是1,false 是0.
+     */
+    private static final class BooleanToNumberConverter extends AbstractToNumberConverter{
+
+        /**
+         * Instantiates a new boolean to number converter.
+         *
+         * @param numberType
+         *            the number type
+         * @param standardConverterType
+         *            the standard converter type
+         */
+        private BooleanToNumberConverter(Class<?> numberType, Class<? extends Converter> standardConverterType){
+            super(numberType, standardConverterType);
+        }
+
+        @Override
+        Object convert(Object value){
+            return toNumber(((Boolean) value).booleanValue() ? 1 : 0, numberType);
+        }
+    }
+
+    /**
+     * 字符串转布尔,规则和默认构造的 {@link BooleanConverter} 一致.
+     */
+    private static final class StringToBooleanConverter extends FastConverter{
+
+        @Override
+        Object convert(Object value){
+            switch (((String) value).toLowerCase()) {
+                case "true":
+                case "yes":
+                case "y":
+                case "on":
+                case "1":
+                    return Boolean.TRUE;
+                case "false":
+                case "no":
+                case "n":
+                case "off":
+                case "0":
+                    return Boolean.FALSE;
+                default:
+                    return null;
+            }
+        }
+
+        @Override
+        boolean checkApplicable(Class<?> targetType){
+            //BooleanConverter 可以自定义 trueStrings/falseStrings,从类型上无法判断,全局注册表中的布尔转换交给 commons-beanutils
+            return false;
+        }
+    }
+}
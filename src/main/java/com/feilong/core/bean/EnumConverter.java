@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import org.apache.commons.beanutils.converters.AbstractConverter;
+import org.apache.commons.lang3.EnumUtils;
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.lang.EnumUtil;
+
+/**
+ * 将值转成枚举的转换器.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>如果没有指定 <code>propertyName</code>,按照枚举的 {@link Enum#name()} 查找(区分大小写),参见 {@link EnumUtils#getEnum(Class, String)}</li>
+ * <li>如果指定了 <code>propertyName</code>,按照枚举的属性值查找,参见 {@link EnumUtil#getEnumByPropertyValue(Class, String, Object)}
+ * 以及 {@link EnumUtil#getEnumByPropertyValueIgnoreCase(Class, String, Object)},查找使用缓存的索引,不会每次都反射</li>
+ * <li>如果value 已经是 <code>enumClass</code> 的枚举值,原样返回</li>
+ * <li>找不到对应的枚举值,返回默认值 null</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * ConverterContext converterContext = ConverterContext.builder()//
+ *                 .register(new EnumConverter{@code <>}(OrderStatus.class, "code", false), OrderStatus.class)
+ *                 .build();
+ *
+ * BeanUtil.populate(salesOrder, toMap("status", "10"), converterContext);
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <E>
+ *            the element type
+ * @see ConvertUtil#toEnum(Object, Class)
+ * @see ConvertUtil#toEnum(Object, Class, String)
+ * @since 1.13.1
+ */
+public class EnumConverter<E extends Enum<E>> extends AbstractConverter{
+
+    /** 枚举类. */
+    private final Class<E> enumClass;
+
+    /** 属性名称,如果是null,按照 {@link Enum#name()} 查找. */
+    private final String   propertyName;
+
+    /** 按照属性值查找的时候,是否忽视大小写. */
+    private final boolean  ignoreCase;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 按照 {@link Enum#name()} 查找的转换器.
+     *
+     * @param enumClass
+     *            枚举类
+     * @throws NullPointerException
+     *             如果 <code>enumClass</code> 是null
+     */
+    public EnumConverter(Class<E> enumClass){
+        this(enumClass, null, false);
+    }
+
+    /**
+     * 按照 <code>propertyName</code> 属性值查找的转换器.
+     *
+     * @param enumClass
+     *            枚举类
+     * @param propertyName
+     *            属性名称,如果是null,按照 {@link Enum#name()} 查找
+     * @param ignoreCase
+     *            按照属性值查找的时候,是否忽视大小写
+     * @throws NullPointerException
+     *             如果 <code>enumClass</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>propertyName</code> 不是null,但是是blank
+     */
+    public EnumConverter(Class<E> enumClass, String propertyName, boolean ignoreCase){
+        super(null);
+        Validate.notNull(enumClass, "enumClass can't be null!");
+        if (null != propertyName){
+            Validate.notBlank(propertyName, "propertyName can't be blank!");
+        }
+        this.enumClass = enumClass;
+        this.propertyName = propertyName;
+        this.ignoreCase = ignoreCase;
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.apache.commons.beanutils.converters.AbstractConverter#getDefaultType()
+     */
+    @Override
+    protected Class<?> getDefaultType(){
+        return enumClass;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.apache.commons.beanutils.converters.AbstractConverter#convertToType(java.lang.Class, java.lang.Object)
+     */
+    @Override
+    protected <T> T convertToType(Class<T> type,Object value) throws Throwable{
+        if (!type.isAssignableFrom(enumClass)){
+            throw conversionException(type, value);
+        }
+        if (enumClass.isInstance(value)){
+            return type.cast(value);
+        }
+
+        //---------------------------------------------------------------
+        E e = toEnum(value);
+        if (null == e){
+            throw conversionException(type, value);
+        }
+        return type.cast(e);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.apache.commons.beanutils.converters.AbstractConverter#handleError(java.lang.Class, java.lang.Object, java.lang.Throwable)
+     */
+    @Override
+    protected <T> T handleError(Class<T> type,Object value,Throwable cause){
+        //枚举没有 propertyName 属性是使用错误,不能当成转换失败返回默认值
+        if (cause instanceof BeanOperationException){
+            throw (BeanOperationException) cause;
+        }
+        return super.handleError(type, value, cause);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 查找枚举值.
+     *
+     * @param value
+     *            不是null 的值
+     * @return 如果找不到,返回null
+     */
+    private E toEnum(Object value){
+        if (null == propertyName){
+            return EnumUtils.getEnum(enumClass, value.toString().trim());
+        }
+        return ignoreCase ? EnumUtil.getEnumByPropertyValueIgnoreCase(enumClass, propertyName, value)
+                        : EnumUtil.getEnumByPropertyValue(enumClass, propertyName, value);
+    }
+}
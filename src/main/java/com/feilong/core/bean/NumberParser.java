@@ -0,0 +1,406 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import java.math.BigDecimal;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 直接在 {@link CharSequence} 的区间上解析数字,不截取子字符串,解析失败返回默认值而不是抛出异常.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>先像 {@link String#trim()} 一样忽略区间两端 {@code <=} ' ' 的字符</li>
+ * <li>能解析的字符串和 {@link Integer#parseInt(String)},{@link Long#parseLong(String)},{@link BigDecimal#BigDecimal(String)} 完全一致,
+ * 因此结果和 commons-beanutils 的 NumberConverter 一致</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see ConvertUtil#toIntOrDefault(CharSequence, int, int, int)
+ * @see ConvertUtil#toLongOrDefault(CharSequence, int, int, long)
+ * @see ConvertUtil#toBigDecimalOrDefault(CharSequence, int, int, BigDecimal)
+ * @since 1.13.1
+ */
+final class NumberParser{
+
+    /** 解析 int 失败时返回的值,不在 int 范围内,不会和正常的结果混淆. */
+    static final long             INVALID_INT             = Long.MIN_VALUE;
+
+    /** 快速解析 {@link BigDecimal} 时,最多的数字个数,保证 unscaled value 不会超出 long 的范围. */
+    private static final int      MAX_FAST_DECIMAL_DIGITS = 18;
+
+    /** 快速解析 double 时,最多的数字个数,保证 unscaled value 可以被 double 精确表示(小于 2^53). */
+    private static final int      MAX_FAST_DOUBLE_DIGITS  = 15;
+
+    /** 10 的 0~22 次方,都可以被 double 精确表示. */
+    private static final double[] POWERS_OF_TEN           = {
+                                                              1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+                                                              1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private NumberParser(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 解析 int.
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param beginIndex
+     *            开始位置(包含)
+     * @param endIndex
+     *            结束位置(不包含)
+     * @param defaultValue
+     *            解析失败时返回的值
+     * @return 如果 <code>charSequence</code> 是null,或者 trim 之后是空,或者格式不对,或者超出 int 范围,返回 <code>defaultValue</code>
+     */
+    static long parseInt(CharSequence charSequence,int beginIndex,int endIndex,long defaultValue){
+        return parse(charSequence, beginIndex, endIndex, Integer.MIN_VALUE, Integer.MAX_VALUE, defaultValue);
+    }
+
+    /**
+     * 解析 long.
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param beginIndex
+     *            开始位置(包含)
+     * @param endIndex
+     *            结束位置(不包含)
+     * @param defaultValue
+     *            解析失败时返回的值
+     * @return 如果 <code>charSequence</code> 是null,或者 trim 之后是空,或者格式不对,或者超出 long 范围,返回 <code>defaultValue</code>
+     */
+    static long parseLong(CharSequence charSequence,int beginIndex,int endIndex,long defaultValue){
+        return parse(charSequence, beginIndex, endIndex, Long.MIN_VALUE, Long.MAX_VALUE, defaultValue);
+    }
+
+    /**
+     * 解析 {@link BigDecimal}.
+     *
+     * <p>
+     * 形如 <code>-123.45</code> 并且数字不超过 {@value #MAX_FAST_DECIMAL_DIGITS} 位的,直接计算 unscaled value;其他的(比如科学计数法)交给
+     * {@link BigDecimal#BigDecimal(char[], int, int)}.
+     * </p>
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param beginIndex
+     *            开始位置(包含)
+     * @param endIndex
+     *            结束位置(不包含)
+     * @param defaultValue
+     *            解析失败时返回的值
+     * @return 如果 <code>charSequence</code> 是null,或者 trim 之后是空,或者格式不对,返回 <code>defaultValue</code>
+     */
+    static BigDecimal parseBigDecimal(CharSequence charSequence,int beginIndex,int endIndex,BigDecimal defaultValue){
+        if (null == charSequence){
+            return defaultValue;
+        }
+        validateRange(charSequence, beginIndex, endIndex);
+
+        int begin = trimBegin(charSequence, beginIndex, endIndex);
+        int end = trimEnd(charSequence, begin, endIndex);
+        if (begin == end){
+            return defaultValue;
+        }
+
+        //---------------------------------------------------------------
+        BigDecimal fast = parseSimpleDecimal(charSequence, begin, end);
+        if (null != fast){
+            return fast;
+        }
+
+        char[] chars = new char[end - begin];
+        for (int i = begin; i < end; ++i){
+            chars[i - begin] = charSequence.charAt(i);
+        }
+        try{
+            return new BigDecimal(chars, 0, chars.length);
+        }catch (NumberFormatException e){
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 解析 double.
+     *
+     * <p>
+     * 形如 <code>-123.45</code>,数字不超过 {@value #MAX_FAST_DOUBLE_DIGITS} 位并且小数位数不超过22位的,直接使用 unscaled value 除以 10 的幂计算(两者都可以被
+     * double 精确表示,因此结果是正确舍入的);其他的交给 {@link Double#parseDouble(String)}.
+     * </p>
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param beginIndex
+     *            开始位置(包含)
+     * @param endIndex
+     *            结束位置(不包含)
+     * @param defaultValue
+     *            解析失败时返回的值
+     * @return 如果 <code>charSequence</code> 是null,或者 trim 之后是空,或者格式不对,返回 <code>defaultValue</code>
+     */
+    static double parseDouble(CharSequence charSequence,int beginIndex,int endIndex,double defaultValue){
+        if (null == charSequence){
+            return defaultValue;
+        }
+        validateRange(charSequence, beginIndex, endIndex);
+
+        int begin = trimBegin(charSequence, beginIndex, endIndex);
+        int end = trimEnd(charSequence, begin, endIndex);
+        if (begin == end){
+            return defaultValue;
+        }
+
+        //---------------------------------------------------------------
+        double fast = parseSimpleDouble(charSequence, begin, end);
+        if (!Double.isNaN(fast)){
+            return fast;
+        }
+        try{
+            return Double.parseDouble(charSequence.subSequence(begin, end).toString());
+        }catch (NumberFormatException e){
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 只解析形如 <code>[+-]digits[.digits]</code> 的十进制数为 double.
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param begin
+     *            开始位置(包含),已经 trim
+     * @param end
+     *            结束位置(不包含),已经 trim
+     * @return 如果不是简单格式,或者数字太多,返回 {@link Double#NaN}
+     */
+    static double parseSimpleDouble(CharSequence charSequence,int begin,int end){
+        int i = begin;
+        boolean negative = false;
+        char firstChar = charSequence.charAt(i);
+        if (firstChar == '-' || firstChar == '+'){
+            negative = firstChar == '-';
+            ++i;
+        }
+
+        long unscaledValue = 0;
+        int digitCount = 0;
+        int scale = 0;
+        boolean dot = false;
+        for (; i < end; ++i){
+            char c = charSequence.charAt(i);
+            if (c >= '0' && c <= '9'){
+                if (++digitCount > MAX_FAST_DOUBLE_DIGITS){
+                    return Double.NaN;
+                }
+                unscaledValue = unscaledValue * 10 + (c - '0');
+                if (dot){
+                    ++scale;
+                }
+            }else if (c == '.' && !dot){
+                dot = true;
+            }else{
+                return Double.NaN;
+            }
+        }
+        if (digitCount == 0 || scale >= POWERS_OF_TEN.length){
+            return Double.NaN;
+        }
+        double value = unscaledValue / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 和 {@link Long#parseLong(String)} 一样使用负数累加,兼容最小值.
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param beginIndex
+     *            the begin index
+     * @param endIndex
+     *            the end index
+     * @param min
+     *            允许的最小值
+     * @param max
+     *            允许的最大值
+     * @param defaultValue
+     *            the default value
+     * @return the long
+     */
+    private static long parse(CharSequence charSequence,int beginIndex,int endIndex,long min,long max,long defaultValue){
+        if (null == charSequence){
+            return defaultValue;
+        }
+        validateRange(charSequence, beginIndex, endIndex);
+
+        int begin = trimBegin(charSequence, beginIndex, endIndex);
+        int end = trimEnd(charSequence, begin, endIndex);
+        if (begin == end){
+            return defaultValue;
+        }
+
+        //---------------------------------------------------------------
+        boolean negative = false;
+        long limit = -max;
+
+        int i = begin;
+        char firstChar = charSequence.charAt(i);
+        if (firstChar == '-' || firstChar == '+'){
+            if (firstChar == '-'){
+                negative = true;
+                limit = min;
+            }
+            ++i;
+            if (i == end){
+                return defaultValue;
+            }
+        }
+
+        long multmin = limit / 10;
+        long result = 0;
+        for (; i < end; ++i){
+            int digit = Character.digit(charSequence.charAt(i), 10);
+            if (digit < 0 || result < multmin){
+                return defaultValue;
+            }
+            result *= 10;
+            if (result < limit + digit){
+                return defaultValue;
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * 快速解析形如 <code>[+-]digits[.digits]</code> 的十进制数.
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param begin
+     *            the begin
+     * @param end
+     *            the end
+     * @return 如果不是简单格式,或者数字太多,返回null
+     */
+    private static BigDecimal parseSimpleDecimal(CharSequence charSequence,int begin,int end){
+        int i = begin;
+        boolean negative = false;
+        char firstChar = charSequence.charAt(i);
+        if (firstChar == '-' || firstChar == '+'){
+            negative = firstChar == '-';
+            ++i;
+        }
+
+        long unscaledValue = 0;
+        int digitCount = 0;
+        int scale = 0;
+        boolean dot = false;
+        for (; i < end; ++i){
+            char c = charSequence.charAt(i);
+            if (c >= '0' && c <= '9'){
+                if (++digitCount > MAX_FAST_DECIMAL_DIGITS){
+                    return null;
+                }
+                unscaledValue = unscaledValue * 10 + (c - '0');
+                if (dot){
+                    ++scale;
+                }
+            }else if (c == '.' && !dot){
+                dot = true;
+            }else{
+                return null;
+            }
+        }
+        if (digitCount == 0){
+            return null;
+        }
+        return BigDecimal.valueOf(negative ? -unscaledValue : unscaledValue, scale);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 校验区间.
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param beginIndex
+     *            the begin index
+     * @param endIndex
+     *            the end index
+     */
+    private static void validateRange(CharSequence charSequence,int beginIndex,int endIndex){
+        Validate.isTrue(
+                        beginIndex >= 0 && beginIndex <= endIndex && endIndex <= charSequence.length(),
+                        "beginIndex:[%s],endIndex:[%s] out of range,length:[%s]",
+                        beginIndex,
+                        endIndex,
+                        charSequence.length());
+    }
+
+    /**
+     * 跳过开头 {@code <=} ' ' 的字符.
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param beginIndex
+     *            the begin index
+     * @param endIndex
+     *            the end index
+     * @return the int
+     */
+    static int trimBegin(CharSequence charSequence,int beginIndex,int endIndex){
+        int begin = beginIndex;
+        while (begin < endIndex && charSequence.charAt(begin) <= ' '){
+            ++begin;
+        }
+        return begin;
+    }
+
+    /**
+     * 跳过结尾 {@code <=} ' ' 的字符.
+     *
+     * @param charSequence
+     *            the char sequence
+     * @param begin
+     *            the begin
+     * @param endIndex
+     *            the end index
+     * @return the int
+     */
+    static int trimEnd(CharSequence charSequence,int begin,int endIndex){
+        int end = endIndex;
+        while (end > begin && charSequence.charAt(end - 1) <= ' '){
+            --end;
+        }
+        return end;
+    }
+}
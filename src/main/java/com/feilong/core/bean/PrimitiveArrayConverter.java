@@ -0,0 +1,442 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * 将值转成基本类型数组的快速通道,给 {@link ConvertUtil#toIntArray(Object)},{@link ConvertUtil#toLongArray(Object)},
+ * {@link ConvertUtil#toDoubleArray(Object)} 使用.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>逗号分隔的字符串(可以被 '{' '}' 包裹),一次扫描直接切分并解析,不会创建中间的 String[]</li>
+ * <li>数组和集合的元素,字符串元素直接在原字符串上解析,其他元素使用 {@link ConverterDispatcher} 中缓存的转换器</li>
+ * <li>只在 <code>int[]</code>/<code>long[]</code>/<code>double[]</code> 注册的是标准 ArrayConverter 时才生效</li>
+ * <li>只处理结果可以确定和 commons-beanutils ArrayConverter 一致的输入;遇到带引号,空元素,格式不对等情况,返回null,由调用方交给 commons-beanutils 处理</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+final class PrimitiveArrayConverter{
+
+    /** 逗号分隔字符串,预估的每个元素的平均长度. */
+    private static final int ESTIMATED_ELEMENT_LENGTH = 4;
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private PrimitiveArrayConverter(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 转成 int 数组.
+     *
+     * @param value
+     *            不是null 的值
+     * @return 如果快速通道处理不了,返回null
+     */
+    static int[] toIntArray(Object value){
+        if (!ConverterDispatcher.isStandardNumberArrayConverter(int[].class)){
+            return null;
+        }
+        IntAccumulator accumulator = new IntAccumulator(estimateSize(value));
+        return fill(value, accumulator) ? accumulator.toArray() : null;
+    }
+
+    /**
+     * 转成 long 数组.
+     *
+     * @param value
+     *            不是null 的值
+     * @return 如果快速通道处理不了,返回null
+     */
+    static long[] toLongArray(Object value){
+        if (!ConverterDispatcher.isStandardNumberArrayConverter(long[].class)){
+            return null;
+        }
+        LongAccumulator accumulator = new LongAccumulator(estimateSize(value));
+        return fill(value, accumulator) ? accumulator.toArray() : null;
+    }
+
+    /**
+     * 转成 double 数组.
+     *
+     * @param value
+     *            不是null 的值
+     * @return 如果快速通道处理不了,返回null
+     */
+    static double[] toDoubleArray(Object value){
+        if (!ConverterDispatcher.isStandardNumberArrayConverter(double[].class)){
+            return null;
+        }
+        DoubleAccumulator accumulator = new DoubleAccumulator(estimateSize(value));
+        return fill(value, accumulator) ? accumulator.toArray() : null;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将 <code>value</code> 的每个元素放入 <code>accumulator</code>.
+     *
+     * @param value
+     *            the value
+     * @param accumulator
+     *            the accumulator
+     * @return 如果有元素处理不了,返回false
+     */
+    private static boolean fill(Object value,Accumulator accumulator){
+        if (value instanceof String){
+            return fillDelimited((String) value, accumulator);
+        }
+        if (value instanceof Number || value instanceof Boolean){
+            return accumulator.addObject(value);
+        }
+        if (value instanceof Collection){
+            for (Object element : (Collection<?>) value){
+                if (!addElement(element, accumulator)){
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value.getClass().isArray()){
+            for (int i = 0, j = Array.getLength(value); i < j; ++i){
+                if (!addElement(Array.get(value, i), accumulator)){
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 放入数组或者集合的一个元素.
+     *
+     * @param element
+     *            the element
+     * @param accumulator
+     *            the accumulator
+     * @return 如果处理不了,返回false
+     */
+    private static boolean addElement(Object element,Accumulator accumulator){
+        if (null == element){
+            return false;
+        }
+        if (element instanceof String){
+            String text = (String) element;
+            return accumulator.addText(text, 0, text.length(), false);
+        }
+        return accumulator.addObject(element);
+    }
+
+    /**
+     * 一次扫描,解析逗号分隔的字符串.
+     *
+     * @param value
+     *            the value
+     * @param accumulator
+     *            the accumulator
+     * @return 如果有元素处理不了,返回false
+     */
+    private static boolean fillDelimited(String value,Accumulator accumulator){
+        int begin = NumberParser.trimBegin(value, 0, value.length());
+        int end = NumberParser.trimEnd(value, begin, value.length());
+
+        //和 ArrayConverter 一样,去掉成对的 '{' '}'
+        if (end - begin >= 2 && value.charAt(begin) == '{' && value.charAt(end - 1) == '}'){
+            ++begin;
+            --end;
+        }
+        if (NumberParser.trimBegin(value, begin, end) == end){
+            return true;
+        }
+
+        //---------------------------------------------------------------
+        int elementBegin = begin;
+        for (int i = begin; i <= end; ++i){
+            if (i == end || value.charAt(i) == ','){
+                if (!accumulator.addText(value, elementBegin, i, true)){
+                    return false;
+                }
+                elementBegin = i + 1;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 预估元素个数.
+     *
+     * @param value
+     *            the value
+     * @return the int
+     */
+    private static int estimateSize(Object value){
+        if (value instanceof Collection){
+            return ((Collection<?>) value).size();
+        }
+        if (value.getClass().isArray()){
+            return Array.getLength(value);
+        }
+        if (value instanceof String){
+            return ((String) value).length() / ESTIMATED_ELEMENT_LENGTH + 1;
+        }
+        return 1;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 元素收集器.
+     */
+    private abstract static class Accumulator{
+
+        /** 已经收集的元素个数. */
+        int size;
+
+        /**
+         * 解析 [begin, end) 区间的文本并收集.
+         *
+         * @param text
+         *            the text
+         * @param begin
+         *            the begin
+         * @param end
+         *            the end
+         * @param delimited
+         *            是否来自逗号分隔的字符串
+         * @return 如果解析不了,返回false
+         */
+        abstract boolean addText(String text,int begin,int end,boolean delimited);
+
+        /**
+         * 转换非字符串的元素并收集.
+         *
+         * @param element
+         *            the element
+         * @return 如果转换不了,返回false
+         */
+        abstract boolean addObject(Object element);
+
+        /**
+         * 下一个元素的容量.
+         *
+         * @param capacity
+         *            当前容量
+         * @return 如果需要扩容,返回新的容量;否则返回 -1
+         */
+        int growTo(int capacity){
+            return size < capacity ? -1 : Math.max(capacity * 2, 8);
+        }
+    }
+
+    /**
+     * int 收集器.
+     */
+    private static final class IntAccumulator extends Accumulator{
+
+        /** The values. */
+        private int[] values;
+
+        /**
+         * Instantiates a new int accumulator.
+         *
+         * @param capacity
+         *            the capacity
+         */
+        private IntAccumulator(int capacity){
+            this.values = new int[capacity];
+        }
+
+        @Override
+        boolean addText(String text,int begin,int end,boolean delimited){
+            long value = NumberParser.parseInt(text, begin, end, NumberParser.INVALID_INT);
+            return value != NumberParser.INVALID_INT && add((int) value);
+        }
+
+        @Override
+        boolean addObject(Object element){
+            Integer value = ConverterDispatcher.fastConvert(element, int.class);
+            return null != value && add(value);
+        }
+
+        /**
+         * Adds the.
+         *
+         * @param value
+         *            the value
+         * @return true
+         */
+        private boolean add(int value){
+            int newCapacity = growTo(values.length);
+            if (newCapacity > 0){
+                values = Arrays.copyOf(values, newCapacity);
+            }
+            values[size++] = value;
+            return true;
+        }
+
+        /**
+         * To array.
+         *
+         * @return the int[]
+         */
+        private int[] toArray(){
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * long 收集器.
+     */
+    private static final class LongAccumulator extends Accumulator{
+
+        /** The values. */
+        private long[] values;
+
+        /**
+         * Instantiates a new long accumulator.
+         *
+         * @param capacity
+         *            the capacity
+         */
+        private LongAccumulator(int capacity){
+            this.values = new long[capacity];
+        }
+
+        @Override
+        boolean addText(String text,int begin,int end,boolean delimited){
+            long value = NumberParser.parseLong(text, begin, end, Long.MIN_VALUE);
+            //Long.MIN_VALUE 本身也是合法的值,使用另外一个默认值再确认一次
+            if (value == Long.MIN_VALUE && NumberParser.parseLong(text, begin, end, Long.MAX_VALUE) != Long.MIN_VALUE){
+                return false;
+            }
+            return add(value);
+        }
+
+        @Override
+        boolean addObject(Object element){
+            Long value = ConverterDispatcher.fastConvert(element, long.class);
+            return null != value && add(value);
+        }
+
+        /**
+         * Adds the.
+         *
+         * @param value
+         *            the value
+         * @return true
+         */
+        private boolean add(long value){
+            int newCapacity = growTo(values.length);
+            if (newCapacity > 0){
+                values = Arrays.copyOf(values, newCapacity);
+            }
+            values[size++] = value;
+            return true;
+        }
+
+        /**
+         * To array.
+         *
+         * @return the long[]
+         */
+        private long[] toArray(){
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * double 收集器.
+     */
+    private static final class DoubleAccumulator extends Accumulator{
+
+        /** The values. */
+        private double[] values;
+
+        /**
+         * Instantiates a new double accumulator.
+         *
+         * @param capacity
+         *            the capacity
+         */
+        private DoubleAccumulator(int capacity){
+            this.values = new double[capacity];
+        }
+
+        @Override
+        boolean addText(String text,int begin,int end,boolean delimited){
+            double value;
+            if (delimited){
+                //ArrayConverter 使用 StreamTokenizer 切分,"1e+3" 之类的会被切成多个元素,因此逗号分隔的字符串只处理简单格式
+                int trimBegin = NumberParser.trimBegin(text, begin, end);
+                int trimEnd = NumberParser.trimEnd(text, trimBegin, end);
+                value = trimBegin == trimEnd ? Double.NaN : NumberParser.parseSimpleDouble(text, trimBegin, trimEnd);
+            }else{
+                value = NumberParser.parseDouble(text, begin, end, Double.NaN);
+                //"NaN" 本身也是合法的值,使用另外一个默认值再确认一次
+                if (Double.isNaN(value) && !Double.isNaN(NumberParser.parseDouble(text, begin, end, 0d))){
+                    return false;
+                }
+            }
+            return (!delimited || !Double.isNaN(value)) && add(value);
+        }
+
+        @Override
+        boolean addObject(Object element){
+            Double value = ConverterDispatcher.fastConvert(element, double.class);
+            return null != value && add(value);
+        }
+
+        /**
+         * Adds the.
+         *
+         * @param value
+         *            the value
+         * @return true
+         */
+        private boolean add(double value){
+            int newCapacity = growTo(values.length);
+            if (newCapacity > 0){
+                values = Arrays.copyOf(values, newCapacity);
+            }
+            values[size++] = value;
+            return true;
+        }
+
+        /**
+         * To array.
+         *
+         * @return the double[]
+         */
+        private double[] toArray(){
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+    }
+}
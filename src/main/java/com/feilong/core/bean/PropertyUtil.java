@@ -540,6 +540,48 @@ public final class PropertyUtil{
         return PropertyValueObtainer.obtain(bean, propertyName);
     }
 
+    /**
+     * 从对象中取得 <code>propertyName</code> 的值,并使用 <code>converterContext</code> 转成 <code>targetType</code> 类型.
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * User user = new User();
+     * user.setId(5L);
+     * 
+     * PropertyUtil.getProperty(user, "id", String.class, ConverterContext.getDefault()) = "5"
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <T>
+     *            the generic type
+     * @param bean
+     *            Bean whose property is to be extracted
+     * @param propertyName
+     *            属性名称 (can be nested/indexed/mapped/combo),参见 <a href="../BeanUtil.html#propertyName">propertyName</a>
+     * @param targetType
+     *            要转成什么类型
+     * @param converterContext
+     *            转换器上下文
+     * @return 如果 <code>bean</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>propertyName</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>targetType</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>converterContext</code> 是null,抛出 {@link NullPointerException}<br>
+     *         否则使用 {@link #getProperty(Object, String)} 取得属性值,再使用 {@link ConverterContext#convert(Object, Class)} 转换
+     * @see #getProperty(Object, String)
+     * @see ConverterContext
+     * @since 1.13.1
+     */
+    public static <T> T getProperty(Object bean,String propertyName,Class<T> targetType,ConverterContext converterContext){
+        Validate.notNull(targetType, "targetType can't be null!");
+        Validate.notNull(converterContext, "converterContext can't be null!");
+        return converterContext.convert(getProperty(bean, propertyName), targetType);
+    }
+
     //---------------------------------------------------------------
 
     // [end]
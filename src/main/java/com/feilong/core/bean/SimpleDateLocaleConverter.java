@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import java.text.ParsePosition;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.apache.commons.beanutils.ConversionException;
+import org.apache.commons.beanutils.converters.AbstractConverter;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.time.FastDateFormat;
+
+import com.feilong.core.date.DateFormatRegistry;
+
+/**
+ * 使用 {@link DateFormatRegistry} 缓存的解析器,将字符串转成 {@link Date} 的转换器.
+ *
+ * <h3>和 {@link org.apache.commons.beanutils.locale.converters.DateLocaleConverter} 的区别:</h3>
+ *
+ * <blockquote>
+ * <p>
+ * {@link org.apache.commons.beanutils.locale.converters.DateLocaleConverter} 每次转换都会 new 一个 {@link java.text.SimpleDateFormat};<br>
+ * 本类的解析器从 {@link DateFormatRegistry} 中获取,线程安全并且不会重复编译 pattern.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>和 {@link org.apache.commons.beanutils.locale.converters.DateLocaleConverter} 一样,使用非宽松模式解析,并且要求整个字符串都被解析</li>
+ * <li>如果value 是 {@link Date},原样返回;如果是 {@link Calendar},返回 {@link Calendar#getTime()}</li>
+ * <li>转换失败返回默认值 null</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see ConvertUtil#registerSimpleDateLocaleConverter(String)
+ * @since 1.13.1
+ */
+public class SimpleDateLocaleConverter extends AbstractConverter{
+
+    /** The pattern. */
+    private final String pattern;
+
+    /** The locale. */
+    private final Locale locale;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new simple date locale converter.
+     *
+     * @param pattern
+     *            the pattern
+     * @param locale
+     *            the locale,如果是null,使用 {@link Locale#getDefault()}
+     */
+    public SimpleDateLocaleConverter(String pattern, Locale locale){
+        super(null);
+        Validate.notBlank(pattern, "pattern can't be blank!");
+        this.pattern = pattern;
+        this.locale = locale;
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.apache.commons.beanutils.converters.AbstractConverter#getDefaultType()
+     */
+    @Override
+    protected Class<?> getDefaultType(){
+        return Date.class;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.apache.commons.beanutils.converters.AbstractConverter#convertToType(java.lang.Class, java.lang.Object)
+     */
+    @Override
+    protected <T> T convertToType(Class<T> type,Object value) throws Throwable{
+        if (value instanceof Date){
+            return type.cast(value);
+        }
+        if (value instanceof Calendar){
+            return type.cast(((Calendar) value).getTime());
+        }
+
+        //---------------------------------------------------------------
+        String dateString = value.toString().trim();
+
+        TimeZone timeZone = TimeZone.getDefault();
+        FastDateFormat dateFormat = DateFormatRegistry.getDateFormat(pattern, timeZone, locale);
+
+        Calendar calendar = Calendar.getInstance(timeZone, dateFormat.getLocale());
+        calendar.setLenient(false);
+        calendar.clear();
+
+        ParsePosition parsePosition = new ParsePosition(0);
+        if (!dateFormat.parse(dateString, parsePosition, calendar) || parsePosition.getIndex() < dateString.length()){
+            throw new ConversionException("Date '" + value + "' can't be parsed by pattern '" + pattern + "'");
+        }
+        return type.cast(calendar.getTime());
+    }
+}
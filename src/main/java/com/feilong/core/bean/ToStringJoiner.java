@@ -0,0 +1,342 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.UncheckedIOException;
+
+/**
+ * 按照 {@link ToStringConfig} 规则,将元素逐个拼接成字符串的连接器.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>直接迭代 {@link Iterable}/{@link Iterator}/数组,不会先复制成数组</li>
+ * <li>只在元素之间拼接连接符,不需要最后再截掉多余的连接符</li>
+ * <li>如果知道元素个数(集合或者数组),会根据第一个元素的长度预估缓冲区的大小,减少扩容</li>
+ * <li>支持直接写入 {@link Appendable},比如 {@link java.io.Writer},不需要先生成完整的字符串</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>关于线程安全:</h3>
+ *
+ * <blockquote>
+ * <p>
+ * {@link ToStringConfig} 是可变的,创建连接器的时候会复制一份参数,之后对 {@link ToStringConfig} 的修改不影响已经创建好的连接器;<br>
+ * 连接器本身是不可变的,可以缓存起来(比如作为常量)在多个线程中使用.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * private static final ToStringJoiner SOLR_JOINER = ToStringJoiner.of(new ToStringConfig(" OR ", false, "code:"));
+ *
+ * SOLR_JOINER.join(toList("1533312", "1533292", "1785442")) = "code:1533312 OR code:1533292 OR code:1785442"
+ *
+ * SOLR_JOINER.appendTo(writer, itemCodeList);
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see ToStringConfig
+ * @see ConvertUtil#toString(Collection, ToStringConfig)
+ * @see ConvertUtil#toString(Object[], ToStringConfig)
+ * @since 1.13.1
+ */
+public final class ToStringJoiner{
+
+    /** 使用默认规则的连接器,参见 {@link ToStringConfig#ToStringConfig()}. */
+    public static final ToStringJoiner DEFAULT                    = new ToStringJoiner(ToStringConfig.DEFAULT_CONNECTOR, true, null);
+
+    /** 无法预估元素长度时,每个元素预估的长度. */
+    private static final int           DEFAULT_ELEMENT_LENGTH     = 16;
+
+    /** 预估的缓冲区大小上限,避免第一个元素特别长的时候一次申请过大的内存. */
+    private static final int           MAX_ESTIMATED_CAPACITY     = 1 << 20;
+
+    //---------------------------------------------------------------
+
+    /** 连接符,可能是null. */
+    private final String               connector;
+
+    /** 是否拼接null或者empty元素. */
+    private final boolean              isJoinNullOrEmpty;
+
+    /** 每个元素的前缀,可能是null. */
+    private final String               prefix;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new to string joiner.
+     *
+     * @param connector
+     *            the connector
+     * @param isJoinNullOrEmpty
+     *            the is join null or empty
+     * @param prefix
+     *            the prefix
+     */
+    private ToStringJoiner(String connector, boolean isJoinNullOrEmpty, String prefix){
+        this.connector = connector;
+        this.isJoinNullOrEmpty = isJoinNullOrEmpty;
+        this.prefix = prefix;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用 <code>toStringConfig</code> 当前的参数创建连接器.
+     *
+     * @param toStringConfig
+     *            the to string config
+     * @return 如果 <code>toStringConfig</code> 是null,返回 {@link #DEFAULT}<br>
+     */
+    public static ToStringJoiner of(ToStringConfig toStringConfig){
+        if (null == toStringConfig){
+            return DEFAULT;
+        }
+        return new ToStringJoiner(toStringConfig.getConnector(), toStringConfig.getIsJoinNullOrEmpty(), toStringConfig.getPrefix());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将 <code>iterable</code> 的元素拼接成字符串.
+     *
+     * @param iterable
+     *            the iterable
+     * @return 如果 <code>iterable</code> 是null,返回 {@link org.apache.commons.lang3.StringUtils#EMPTY}<br>
+     */
+    public String join(Iterable<?> iterable){
+        if (null == iterable){
+            return EMPTY;
+        }
+        return join(iterable.iterator(), iterable instanceof Collection ? ((Collection<?>) iterable).size() : -1);
+    }
+
+    /**
+     * 将 <code>iterator</code> 剩余的元素拼接成字符串.
+     *
+     * @param iterator
+     *            the iterator
+     * @return 如果 <code>iterator</code> 是null,返回 {@link org.apache.commons.lang3.StringUtils#EMPTY}<br>
+     */
+    public String join(Iterator<?> iterator){
+        return null == iterator ? EMPTY : join(iterator, -1);
+    }
+
+    /**
+     * 将 <code>arrays</code> 的元素拼接成字符串.
+     *
+     * @param arrays
+     *            支持包装类型,<b>不直接支持</b>原始类型
+     * @return 如果 <code>arrays</code> 是null,返回 {@link org.apache.commons.lang3.StringUtils#EMPTY}<br>
+     */
+    public String join(Object[] arrays){
+        return null == arrays ? EMPTY : join(Arrays.asList(arrays).iterator(), arrays.length);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将 <code>iterable</code> 的元素拼接到 <code>appendable</code>.
+     *
+     * @param <A>
+     *            the generic type
+     * @param appendable
+     *            比如 {@link StringBuilder},{@link java.io.Writer}
+     * @param iterable
+     *            the iterable
+     * @return 如果 <code>appendable</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>iterable</code> 是null,直接返回 <code>appendable</code><br>
+     *         如果写入的时候发生 {@link IOException},抛出 {@link UncheckedIOException}<br>
+     *         否则返回 <code>appendable</code>
+     */
+    public <A extends Appendable> A appendTo(A appendable,Iterable<?> iterable){
+        return appendTo(appendable, null == iterable ? null : iterable.iterator());
+    }
+
+    /**
+     * 将 <code>arrays</code> 的元素拼接到 <code>appendable</code>.
+     *
+     * @param <A>
+     *            the generic type
+     * @param appendable
+     *            比如 {@link StringBuilder},{@link java.io.Writer}
+     * @param arrays
+     *            支持包装类型,<b>不直接支持</b>原始类型
+     * @return 如果 <code>appendable</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>arrays</code> 是null,直接返回 <code>appendable</code><br>
+     *         如果写入的时候发生 {@link IOException},抛出 {@link UncheckedIOException}<br>
+     *         否则返回 <code>appendable</code>
+     */
+    public <A extends Appendable> A appendTo(A appendable,Object[] arrays){
+        return appendTo(appendable, null == arrays ? null : Arrays.asList(arrays).iterator());
+    }
+
+    /**
+     * 将 <code>iterator</code> 剩余的元素拼接到 <code>appendable</code>.
+     *
+     * @param <A>
+     *            the generic type
+     * @param appendable
+     *            比如 {@link StringBuilder},{@link java.io.Writer}
+     * @param iterator
+     *            the iterator
+     * @return 如果 <code>appendable</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>iterator</code> 是null,直接返回 <code>appendable</code><br>
+     *         如果写入的时候发生 {@link IOException},抛出 {@link UncheckedIOException}<br>
+     *         否则返回 <code>appendable</code>
+     */
+    public <A extends Appendable> A appendTo(A appendable,Iterator<?> iterator){
+        Validate.notNull(appendable, "appendable can't be null!");
+        if (null == iterator){
+            return appendable;
+        }
+
+        //---------------------------------------------------------------
+        try{
+            appendRemaining(appendable, iterator, true);
+            return appendable;
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 拼接成字符串.
+     *
+     * @param iterator
+     *            the iterator
+     * @param size
+     *            元素个数,如果不知道,传 -1
+     * @return the string
+     */
+    private String join(Iterator<?> iterator,int size){
+        while (iterator.hasNext()){
+            Object element = iterator.next();
+            if (!isJoinNullOrEmpty && isNullOrEmpty(element)){
+                continue;
+            }
+
+            //---------------------------------------------------------------
+            String first = null == element ? EMPTY : element.toString();
+            if (!iterator.hasNext()){
+                return null == prefix ? first : prefix + first;
+            }
+
+            StringBuilder sb = new StringBuilder(estimateCapacity(first.length(), size));
+            if (null != prefix){
+                sb.append(prefix);
+            }
+            sb.append(first);
+            try{
+                appendRemaining(sb, iterator, false);
+            }catch (IOException e){
+                //StringBuilder 不会抛出 IOException
+                throw new UncheckedIOException(e);
+            }
+            return sb.toString();
+        }
+        return EMPTY;
+    }
+
+    /**
+     * 拼接 <code>iterator</code> 剩余的元素,只在元素之间拼接连接符.
+     *
+     * @param appendable
+     *            the appendable
+     * @param iterator
+     *            the iterator
+     * @param isFirst
+     *            <code>appendable</code> 中是否还没有拼接过元素
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void appendRemaining(Appendable appendable,Iterator<?> iterator,boolean isFirst) throws IOException{
+        boolean noElementAppended = isFirst;
+        while (iterator.hasNext()){
+            Object element = iterator.next();
+            //如果是null或者empty,但是参数值是不拼接,那么跳过,继续循环
+            if (!isJoinNullOrEmpty && isNullOrEmpty(element)){
+                continue;
+            }
+            if (!noElementAppended && null != connector){//注意可能传过来的是换行符,不能使用Validator.isNullOrEmpty来判断
+                appendable.append(connector);
+            }
+            noElementAppended = false;
+            appendElement(appendable, element);
+        }
+    }
+
+    /**
+     * 拼接一个元素(以及前缀).
+     *
+     * @param appendable
+     *            the appendable
+     * @param element
+     *            the element
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void appendElement(Appendable appendable,Object element) throws IOException{
+        if (null != prefix){
+            appendable.append(prefix);
+        }
+        //注意:如果element是null,使用 EMPTY 替代拼接,而不是 "null" 字符串
+        if (element instanceof CharSequence){
+            appendable.append((CharSequence) element);
+        }else if (null != element){
+            appendable.append(element.toString());
+        }
+    }
+
+    /**
+     * 预估缓冲区的大小.
+     *
+     * @param firstLength
+     *            第一个元素的长度
+     * @param size
+     *            元素个数,如果不知道,是 -1
+     * @return the int
+     */
+    private int estimateCapacity(int firstLength,int size){
+        int prefixLength = null == prefix ? 0 : prefix.length();
+        int connectorLength = null == connector ? 0 : connector.length();
+        if (size <= 0){
+            return prefixLength + firstLength + DEFAULT_ELEMENT_LENGTH;
+        }
+        long capacity = (long) size * (prefixLength + Math.max(firstLength, 1) + connectorLength);
+        return (int) Math.min(capacity, Math.max(MAX_ESTIMATED_CAPACITY, prefixLength + firstLength));
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import java.util.Date;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 时钟,提供"当前时间",用来替代代码中到处散落的 <code>new Date()</code>/{@link System#currentTimeMillis()}.
+ *
+ * <h3>内置实现:</h3>
+ *
+ * <blockquote>
+ * <table border="1" cellspacing="0" cellpadding="4" summary="">
+ * <tr style="background-color:#ccccff">
+ * <th align="left">方法</th>
+ * <th align="left">说明</th>
+ * </tr>
+ * <tr valign="top">
+ * <td>{@link #system()}</td>
+ * <td>每次调用 {@link System#currentTimeMillis()},默认的时钟</td>
+ * </tr>
+ * <tr valign="top" style="background-color:#eeeeff">
+ * <td>{@link #coarse()}</td>
+ * <td>粗粒度时钟,返回由一个守护线程每 {@link #COARSE_TICK_MILLISECONDS} 毫秒刷新一次的缓存值,适合能容忍毫秒级误差的热点代码</td>
+ * </tr>
+ * <tr valign="top">
+ * <td>{@link #fixed(long)}</td>
+ * <td>固定时间的时钟,一般用于单元测试</td>
+ * </tr>
+ * </table>
+ * </blockquote>
+ *
+ * <h3>默认时钟:</h3>
+ *
+ * <blockquote>
+ * <p>
+ * {@link DateUtil#isToday(Date)},{@link DateExtensionUtil#getTodayStartAndEndPair()} 等不带时钟参数的方法,使用 {@link #getDefault()} 获取当前时间;<br>
+ * 默认是 {@link #system()},可以通过 {@link #setDefault(Clock)} 替换,比如单元测试中固定"今天".
+ * </p>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * Clock clock = Clock.fixed(toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME));
+ *
+ * DateUtil.isToday(toDate("2016-06-16 00:00:00", COMMON_DATE_AND_TIME), clock) = true
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+public abstract class Clock{
+
+    /** 粗粒度时钟的刷新间隔 <code>{@value}</code> 毫秒. */
+    public static final long     COARSE_TICK_MILLISECONDS = 1;
+
+    /** 系统时钟. */
+    private static final Clock   SYSTEM                   = new SystemClock();
+
+    /** 默认的时钟. */
+    private static volatile Clock defaultClock            = SYSTEM;
+
+    //---------------------------------------------------------------
+
+    /**
+     * 当前时间的毫秒数.
+     *
+     * @return 当前时间的毫秒数
+     */
+    public abstract long millis();
+
+    /**
+     * 当前时间.
+     *
+     * @return 当前时间对应的新的 {@link Date} 对象
+     */
+    public Date now(){
+        return new Date(millis());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 系统时钟,每次调用 {@link System#currentTimeMillis()}.
+     *
+     * @return the clock
+     */
+    public static Clock system(){
+        return SYSTEM;
+    }
+
+    /**
+     * 粗粒度时钟,返回由一个守护线程每 {@link #COARSE_TICK_MILLISECONDS} 毫秒刷新一次的缓存值.
+     *
+     * <p>
+     * 守护线程在第一次调用此方法时才会启动,并且整个jvm只有一个.
+     * </p>
+     *
+     * @return the clock
+     */
+    public static Clock coarse(){
+        return CoarseClockHolder.INSTANCE;
+    }
+
+    /**
+     * 固定时间的时钟.
+     *
+     * @param millis
+     *            固定的毫秒数
+     * @return the clock
+     */
+    public static Clock fixed(long millis){
+        return new FixedClock(millis);
+    }
+
+    /**
+     * 固定时间的时钟.
+     *
+     * @param date
+     *            固定的时间
+     * @return 如果 <code>date</code> 是null,抛出 {@link NullPointerException}<br>
+     */
+    public static Clock fixed(Date date){
+        Validate.notNull(date, "date can't be null!");
+        return new FixedClock(date.getTime());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得默认的时钟.
+     *
+     * @return 默认的时钟,如果没有设置过,返回 {@link #system()}
+     */
+    public static Clock getDefault(){
+        return defaultClock;
+    }
+
+    /**
+     * 设置默认的时钟.
+     *
+     * @param clock
+     *            时钟,如果是null,恢复成 {@link #system()}
+     */
+    public static void setDefault(Clock clock){
+        defaultClock = null == clock ? SYSTEM : clock;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 系统时钟.
+     */
+    private static final class SystemClock extends Clock{
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.date.Clock#millis()
+         */
+        @Override
+        public long millis(){
+            return System.currentTimeMillis();
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString(){
+            return "SystemClock";
+        }
+    }
+
+    /**
+     * 固定时间的时钟.
+     */
+    private static final class FixedClock extends Clock{
+
+        /** The millis. */
+        private final long millis;
+
+        /**
+         * Instantiates a new fixed clock.
+         *
+         * @param millis
+         *            the millis
+         */
+        private FixedClock(long millis){
+            this.millis = millis;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.date.Clock#millis()
+         */
+        @Override
+        public long millis(){
+            return millis;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString(){
+            return "FixedClock[" + millis + "]";
+        }
+    }
+
+    /**
+     * 粗粒度时钟,由守护线程刷新缓存的毫秒数.
+     */
+    private static final class CoarseClock extends Clock implements Runnable{
+
+        /** 缓存的毫秒数. */
+        private volatile long millis = System.currentTimeMillis();
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.date.Clock#millis()
+         */
+        @Override
+        public long millis(){
+            return millis;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Runnable#run()
+         */
+        @Override
+        public void run(){
+            while (!Thread.currentThread().isInterrupted()){
+                millis = System.currentTimeMillis();
+                try{
+                    Thread.sleep(COARSE_TICK_MILLISECONDS);
+                }catch (InterruptedException e){
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString(){
+            return "CoarseClock";
+        }
+    }
+
+    /**
+     * 延迟创建 {@link CoarseClock} 并启动刷新线程.
+     */
+    private static final class CoarseClockHolder{
+
+        /** The instance. */
+        private static final CoarseClock INSTANCE = start(new CoarseClock());
+
+        /**
+         * 启动守护线程.
+         *
+         * @param coarseClock
+         *            the coarse clock
+         * @return the coarse clock
+         */
+        private static CoarseClock start(CoarseClock coarseClock){
+            Thread thread = new Thread(coarseClock, "feilong-coarse-clock");
+            thread.setDaemon(true);
+            thread.start();
+            return coarseClock;
+        }
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import java.text.ParsePosition;
+import java.util.Calendar;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.time.FastDateFormat;
+
+import com.feilong.core.DatePattern;
+
+/**
+ * 日期批量解析/格式化工具类,常用于 CSV/Excel 导入导出等需要处理大量单元格的场景.
+ *
+ * <h3>和循环调用 {@link DateUtil#toDate(String, String...)} 的区别:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li><code>datePattern</code> 只校验一次,解析器从 {@link DateFormatRegistry} 中只获取一次</li>
+ * <li>{@link Calendar} 和 {@link ParsePosition} 在同一批(或者同一个并行分片)内复用</li>
+ * <li>单元格解析失败不会抛出异常,而是返回 {@link #PARSE_FAILED} 并回调 {@link DateParseErrorHandler}</li>
+ * <li>可以选择将数组分片,使用 {@link ForkJoinPool} 并行解析</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>解析规则和 {@link DateUtil#toDate(String, String...)} 一致:使用默认时区和默认 locale,宽松模式,并且要求整个字符串都被解析</li>
+ * <li>null 或者 blank 的单元格视为解析失败</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see DateUtil#toDate(String, String...)
+ * @see DateUtil#toString(java.util.Date, String)
+ * @see DateFormatRegistry
+ * @since 1.13.1
+ */
+public final class DateBatchUtil{
+
+    /** 解析失败的单元格,在结果数组中的值. */
+    public static final long PARSE_FAILED          = Long.MIN_VALUE;
+
+    /** 并行解析时,每个分片最少的单元格数量. */
+    private static final int PARALLEL_THRESHOLD    = 4096;
+
+    /** 批量格式化时,每个日期字符串预估的长度. */
+    private static final int ESTIMATED_DATE_LENGTH = 24;
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private DateBatchUtil(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将字符串数组 <code>dateStrings</code> 使用 <code>datePattern</code> 批量解析成 epoch 毫秒数数组.
+     *
+     * <h3>示例:</h3>
+     *
+     * <blockquote>
+     *
+     * <pre class="code">
+     * final List{@code <Integer>} errorRows = new ArrayList{@code <>}();
+     *
+     * long[] epochMillis = DateBatchUtil.toEpochMillis(column, COMMON_DATE_AND_TIME, new DateParseErrorHandler(){
+     *
+     *     &#64;Override
+     *     public void handle(int index,String dateString){
+     *         errorRows.add(index);
+     *     }
+     * });
+     * </pre>
+     *
+     * </blockquote>
+     *
+     * @param dateStrings
+     *            需要解析的字符串数组
+     * @param datePattern
+     *            模式 {@link DatePattern}
+     * @param errorHandler
+     *            单元格解析失败的处理器,可以是null,表示忽略错误
+     * @return 和 <code>dateStrings</code> 等长的 epoch 毫秒数数组,解析失败的单元格值为 {@link #PARSE_FAILED}<br>
+     *         如果 <code>dateStrings</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePattern</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePattern</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     * @see #toEpochMillis(String[], String, DateParseErrorHandler, boolean)
+     */
+    public static long[] toEpochMillis(String[] dateStrings,String datePattern,DateParseErrorHandler errorHandler){
+        return toEpochMillis(dateStrings, datePattern, errorHandler, false);
+    }
+
+    /**
+     * 将字符串数组 <code>dateStrings</code> 使用 <code>datePattern</code> 批量解析成 epoch 毫秒数数组,可以选择并行解析.
+     *
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>如果 <code>parallel</code> 是true 并且数组足够大,会将数组分片,交给共享的 {@link ForkJoinPool} 并行解析,此时 <code>errorHandler</code>
+     * 会被多个线程调用,需要线程安全</li>
+     * <li>无论是否并行,结果数组的下标和 <code>dateStrings</code> 一一对应</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param dateStrings
+     *            需要解析的字符串数组
+     * @param datePattern
+     *            模式 {@link DatePattern}
+     * @param errorHandler
+     *            单元格解析失败的处理器,可以是null,表示忽略错误
+     * @param parallel
+     *            是否并行解析
+     * @return 和 <code>dateStrings</code> 等长的 epoch 毫秒数数组,解析失败的单元格值为 {@link #PARSE_FAILED}<br>
+     *         如果 <code>dateStrings</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePattern</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePattern</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     */
+    public static long[] toEpochMillis(String[] dateStrings,String datePattern,DateParseErrorHandler errorHandler,boolean parallel){
+        Validate.notNull(dateStrings, "dateStrings can't be null!");
+        Validate.notBlank(datePattern, "datePattern can't be blank!");
+
+        //---------------------------------------------------------------
+        FastDateFormat dateFormat = DateFormatRegistry.getDateFormat(datePattern);
+        long[] result = new long[dateStrings.length];
+
+        if (parallel && dateStrings.length > PARALLEL_THRESHOLD){
+            ParallelHolder.POOL.invoke(new ParseAction(dateStrings, result, 0, dateStrings.length, dateFormat, errorHandler));
+        }else{
+            parse(dateStrings, result, 0, dateStrings.length, dateFormat, errorHandler);
+        }
+        return result;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将 epoch 毫秒数数组 <code>epochMillis</code> 使用 <code>datePattern</code> 批量格式化成字符串数组.
+     *
+     * @param epochMillis
+     *            the epoch millis
+     * @param datePattern
+     *            模式 {@link DatePattern}
+     * @return 和 <code>epochMillis</code> 等长的字符串数组,值为 {@link #PARSE_FAILED} 的元素格式化成null<br>
+     *         如果 <code>epochMillis</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePattern</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePattern</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     */
+    public static String[] toStrings(long[] epochMillis,String datePattern){
+        Validate.notNull(epochMillis, "epochMillis can't be null!");
+        Validate.notBlank(datePattern, "datePattern can't be blank!");
+
+        //---------------------------------------------------------------
+        FastDateFormat dateFormat = DateFormatRegistry.getDateFormat(datePattern);
+
+        String[] result = new String[epochMillis.length];
+        for (int i = 0; i < epochMillis.length; ++i){
+            result[i] = epochMillis[i] == PARSE_FAILED ? null : dateFormat.format(epochMillis[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 将 epoch 毫秒数数组 <code>epochMillis</code> 使用 <code>datePattern</code> 格式化,并使用 <code>separator</code> 分隔,直接追加到
+     * <code>stringBuilder</code> 中,不会产生中间的字符串.
+     *
+     * <h3>示例:</h3>
+     *
+     * <blockquote>
+     *
+     * <pre class="code">
+     * StringBuilder sb = new StringBuilder();
+     * DateBatchUtil.appendTo(new long[] { 0L, 86400000L }, "yyyy-MM-dd", ",", sb);
+     *
+     * <span style="color:green">// 如果默认时区是 GMT+8 ,sb 是 1970-01-01,1970-01-02</span>
+     * </pre>
+     *
+     * </blockquote>
+     *
+     * @param epochMillis
+     *            the epoch millis
+     * @param datePattern
+     *            模式 {@link DatePattern}
+     * @param separator
+     *            分隔符,如果是null,视为empty
+     * @param stringBuilder
+     *            the string builder
+     * @return 传入的 <code>stringBuilder</code>,值为 {@link #PARSE_FAILED} 的元素追加为空<br>
+     *         如果 <code>epochMillis</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePattern</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePattern</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>stringBuilder</code> 是null,抛出 {@link NullPointerException}<br>
+     */
+    public static StringBuilder appendTo(long[] epochMillis,String datePattern,String separator,StringBuilder stringBuilder){
+        Validate.notNull(epochMillis, "epochMillis can't be null!");
+        Validate.notBlank(datePattern, "datePattern can't be blank!");
+        Validate.notNull(stringBuilder, "stringBuilder can't be null!");
+
+        //---------------------------------------------------------------
+        FastDateFormat dateFormat = DateFormatRegistry.getDateFormat(datePattern);
+        String useSeparator = StringUtils.defaultString(separator);
+
+        stringBuilder.ensureCapacity(stringBuilder.length() + epochMillis.length * (ESTIMATED_DATE_LENGTH + useSeparator.length()));
+        for (int i = 0; i < epochMillis.length; ++i){
+            if (i > 0){
+                stringBuilder.append(useSeparator);
+            }
+            if (epochMillis[i] != PARSE_FAILED){
+                dateFormat.format(epochMillis[i], stringBuilder);
+            }
+        }
+        return stringBuilder;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 解析 [from, to) 区间内的单元格.
+     *
+     * @param dateStrings
+     *            the date strings
+     * @param result
+     *            the result
+     * @param from
+     *            the from
+     * @param to
+     *            the to
+     * @param dateFormat
+     *            the date format
+     * @param errorHandler
+     *            the error handler
+     */
+    private static void parse(String[] dateStrings,long[] result,int from,int to,FastDateFormat dateFormat,DateParseErrorHandler errorHandler){
+        //和 DateUtil.toDate 一样,宽松模式
+        Calendar calendar = Calendar.getInstance(dateFormat.getTimeZone(), dateFormat.getLocale());
+        calendar.setLenient(true);
+        ParsePosition parsePosition = new ParsePosition(0);
+
+        for (int i = from; i < to; ++i){
+            String dateString = dateStrings[i];
+            result[i] = StringUtils.isBlank(dateString) ? PARSE_FAILED : parse(dateString, dateFormat, calendar, parsePosition);
+            if (result[i] == PARSE_FAILED && null != errorHandler){
+                errorHandler.handle(i, dateString);
+            }
+        }
+    }
+
+    /**
+     * 解析单个单元格.
+     *
+     * @param dateString
+     *            the date string
+     * @param dateFormat
+     *            the date format
+     * @param calendar
+     *            复用的 calendar
+     * @param parsePosition
+     *            复用的 parse position
+     * @return 解析失败返回 {@link #PARSE_FAILED}
+     */
+    private static long parse(String dateString,FastDateFormat dateFormat,Calendar calendar,ParsePosition parsePosition){
+        calendar.clear();
+        parsePosition.setIndex(0);
+        parsePosition.setErrorIndex(-1);
+        try{
+            if (dateFormat.parse(dateString, parsePosition, calendar) && parsePosition.getIndex() == dateString.length()){
+                return calendar.getTimeInMillis();
+            }
+        }catch (IllegalArgumentException e){
+            // leniency is preventing calendar from being set
+        }
+        return PARSE_FAILED;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 并行解析的分片任务.
+     */
+    private static final class ParseAction extends RecursiveAction{
+
+        /** The Constant serialVersionUID. */
+        private static final long           serialVersionUID = -3373372012345539286L;
+
+        /** The date strings. */
+        private final String[]              dateStrings;
+
+        /** The result. */
+        private final long[]                result;
+
+        /** The from. */
+        private final int                   from;
+
+        /** The to. */
+        private final int                   to;
+
+        /** The date format. */
+        private final FastDateFormat        dateFormat;
+
+        /** The error handler. */
+        private final DateParseErrorHandler errorHandler;
+
+        /**
+         * Instantiates a new parse action.
+         *
+         * @param dateStrings
+         *            the date strings
+         * @param result
+         *            the result
+         * @param from
+         *            the from
+         * @param to
+         *            the to
+         * @param dateFormat
+         *            the date format
+         * @param errorHandler
+         *            the error handler
+         */
+        private ParseAction(String[] dateStrings, long[] result, int from, int to, FastDateFormat dateFormat,
+                        DateParseErrorHandler errorHandler){
+            this.dateStrings = dateStrings;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+            this.dateFormat = dateFormat;
+            this.errorHandler = errorHandler;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        @Override
+        protected void compute(){
+            if (to - from <= PARALLEL_THRESHOLD){
+                parse(dateStrings, result, from, to, dateFormat, errorHandler);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                            new ParseAction(dateStrings, result, from, middle, dateFormat, errorHandler),
+                            new ParseAction(dateStrings, result, middle, to, dateFormat, errorHandler));
+        }
+    }
+
+    /**
+     * 延迟创建并行解析使用的 {@link ForkJoinPool},只有第一次并行解析时才会创建(jdk1.7 没有 commonPool).
+     */
+    private static final class ParallelHolder{
+
+        /** The pool. */
+        private static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+}
@@ -0,0 +1,648 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static com.feilong.core.TimeInterval.MILLISECOND_PER_DAY;
+import static com.feilong.core.TimeInterval.MILLISECOND_PER_HOUR;
+import static com.feilong.core.TimeInterval.MILLISECOND_PER_MINUTE;
+import static com.feilong.core.util.MapUtil.newLinkedHashMap;
+import static java.util.Calendar.DAY_OF_MONTH;
+import static java.util.Calendar.HOUR_OF_DAY;
+import static java.util.Calendar.MINUTE;
+import static java.util.Calendar.MONTH;
+import static java.util.Calendar.WEEK_OF_YEAR;
+import static java.util.Collections.emptyMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.time.FastDateFormat;
+
+import com.feilong.core.DatePattern;
+import com.feilong.core.util.CollectionsUtil;
+
+/**
+ * 日期分桶工具类,将时间戳按照 分钟/小时/天/周/月 分组或者计数,常用于时间序列的统计.
+ *
+ * <h3>和 {@link CollectionsUtil#group(Iterable, Transformer)} + {@link com.feilong.core.util.transformer.DateToStringTransformer} 的区别:</h3>
+ *
+ * <blockquote>
+ * <p>
+ * 后者会将<b>每一个</b>日期都格式化成字符串作为map的key;<br>
+ * 本类先通过纯算术运算,将 epoch 毫秒数转成 long 类型的桶编号(bucket id),使用基于 long 的开放寻址表分组/计数,<br>
+ * 只在最后对<b>不重复</b>的桶格式化一次标签.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>支持的 calendarField:</h3>
+ *
+ * <blockquote>
+ * <table border="1" cellspacing="0" cellpadding="4" summary="">
+ * <tr style="background-color:#ccccff">
+ * <th align="left">字段</th>
+ * <th align="left">桶编号含义</th>
+ * </tr>
+ * <tr valign="top">
+ * <td>{@link java.util.Calendar#MINUTE}</td>
+ * <td>当地时间 1970-01-01 00:00 起的分钟数</td>
+ * </tr>
+ * <tr valign="top" style="background-color:#eeeeff">
+ * <td>{@link java.util.Calendar#HOUR_OF_DAY}</td>
+ * <td>当地时间 1970-01-01 00:00 起的小时数</td>
+ * </tr>
+ * <tr valign="top">
+ * <td>{@link java.util.Calendar#DAY_OF_MONTH}</td>
+ * <td>当地时间 1970-01-01 起的天数</td>
+ * </tr>
+ * <tr valign="top" style="background-color:#eeeeff">
+ * <td>{@link java.util.Calendar#WEEK_OF_YEAR}</td>
+ * <td>周编号,每周从周日开始(和 {@link DateUtil#getFirstDateOfThisWeek(Date)} 保持一致),1969-12-28(周日)所在周为 0</td>
+ * </tr>
+ * <tr valign="top">
+ * <td>{@link java.util.Calendar#MONTH}</td>
+ * <td>year * 12 + (month - 1)</td>
+ * </tr>
+ * </table>
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>时区感知,每个时间戳都会使用 {@link TimeZone#getOffset(long)} 计算当时的偏移量,夏令时也能正确分桶</li>
+ * <li>使用前推公历(proleptic Gregorian)计算年月,1582年之前的日期和 {@link java.util.GregorianCalendar} 结果可能不同</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see CollectionsUtil#group(Iterable, Transformer)
+ * @see com.feilong.core.util.transformer.DateToStringTransformer
+ * @since 1.13.1
+ */
+public final class DateBucketUtil{
+
+    /** 1970-01-01 是星期四,偏移4天后,周日开始的一周 桶编号计算从0开始. */
+    private static final int DAYS_FROM_SUNDAY_TO_EPOCH = 4;
+
+    /** 一周的天数. */
+    private static final int DAYS_PER_WEEK             = 7;
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private DateBucketUtil(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将 epoch 毫秒数 <code>epochMillis</code> 转成指定 <code>calendarField</code> 粒度的桶编号.
+     *
+     * <h3>示例:</h3>
+     *
+     * <blockquote>
+     *
+     * <pre class="code">
+     * TimeZone timeZone = TimeZone.getTimeZone("GMT+8");
+     *
+     * DateBucketUtil.toBucketId(toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME).getTime(), DAY_OF_MONTH, timeZone) = 16968
+     * DateBucketUtil.toBucketId(toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME).getTime(), MONTH, timeZone)        = 24197
+     * </pre>
+     *
+     * </blockquote>
+     *
+     * @param epochMillis
+     *            the epoch millis
+     * @param calendarField
+     *            分桶的粒度,支持 {@link java.util.Calendar#MINUTE}, {@link java.util.Calendar#HOUR_OF_DAY},
+     *            {@link java.util.Calendar#DAY_OF_MONTH}, {@link java.util.Calendar#WEEK_OF_YEAR}, {@link java.util.Calendar#MONTH}
+     * @param timeZone
+     *            时区
+     * @return 如果 <code>timeZone</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>calendarField</code> 不是上述支持的字段,抛出 {@link IllegalArgumentException}<br>
+     */
+    public static long toBucketId(long epochMillis,int calendarField,TimeZone timeZone){
+        Validate.notNull(timeZone, "timeZone can't be null!");
+        validateCalendarField(calendarField);
+        return bucketId(epochMillis, calendarField, timeZone);
+    }
+
+    /**
+     * 将 epoch 毫秒数组 <code>epochMillis</code> 批量转成指定 <code>calendarField</code> 粒度的桶编号数组.
+     *
+     * <p>
+     * 参数只校验一次,循环内只有算术运算和 {@link TimeZone#getOffset(long)} 调用.
+     * </p>
+     *
+     * @param epochMillis
+     *            the epoch millis
+     * @param calendarField
+     *            分桶的粒度,参见 {@link #toBucketId(long, int, TimeZone)}
+     * @param timeZone
+     *            时区
+     * @return 如果 <code>epochMillis</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>timeZone</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>calendarField</code> 不是支持的字段,抛出 {@link IllegalArgumentException}<br>
+     *         否则返回和 <code>epochMillis</code> 等长的桶编号数组
+     * @see #toBucketId(long, int, TimeZone)
+     */
+    public static long[] toBucketIds(long[] epochMillis,int calendarField,TimeZone timeZone){
+        Validate.notNull(epochMillis, "epochMillis can't be null!");
+        Validate.notNull(timeZone, "timeZone can't be null!");
+        validateCalendarField(calendarField);
+
+        //---------------------------------------------------------------
+        long[] bucketIds = new long[epochMillis.length];
+        for (int i = 0; i < epochMillis.length; ++i){
+            bucketIds[i] = bucketId(epochMillis[i], calendarField, timeZone);
+        }
+        return bucketIds;
+    }
+
+    /**
+     * 获得桶编号 <code>bucketId</code> 对应的开始时间(epoch 毫秒数),是 {@link #toBucketId(long, int, TimeZone)} 的逆运算.
+     *
+     * <h3>示例:</h3>
+     *
+     * <blockquote>
+     *
+     * <pre class="code">
+     * TimeZone timeZone = TimeZone.getTimeZone("GMT+8");
+     *
+     * DateBucketUtil.toBucketStartMillis(16968, DAY_OF_MONTH, timeZone) = 2016-06-16 00:00:00 (GMT+8) 的毫秒数
+     * </pre>
+     *
+     * </blockquote>
+     *
+     * @param bucketId
+     *            桶编号
+     * @param calendarField
+     *            分桶的粒度,参见 {@link #toBucketId(long, int, TimeZone)}
+     * @param timeZone
+     *            时区
+     * @return 如果 <code>timeZone</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>calendarField</code> 不是支持的字段,抛出 {@link IllegalArgumentException}<br>
+     */
+    public static long toBucketStartMillis(long bucketId,int calendarField,TimeZone timeZone){
+        Validate.notNull(timeZone, "timeZone can't be null!");
+        validateCalendarField(calendarField);
+        return bucketStartMillis(bucketId, calendarField, timeZone);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 按照 <code>calendarField</code> 粒度统计 <code>epochMillis</code> 每个桶的数量,桶的开始时间使用 <code>datePattern</code> 格式化作为key.
+     *
+     * <h3>示例:</h3>
+     *
+     * <blockquote>
+     *
+     * <pre class="code">
+     * long[] epochMillis = {
+     *                        toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME).getTime(),
+     *                        toDate("2016-06-16 23:59:00", COMMON_DATE_AND_TIME).getTime(),
+     *                        toDate("2016-06-17 00:00:00", COMMON_DATE_AND_TIME).getTime() };
+     *
+     * DateBucketUtil.count(epochMillis, DAY_OF_MONTH, TimeZone.getDefault(), COMMON_DATE);
+     * </pre>
+     *
+     * <b>返回:</b>
+     *
+     * <pre class="code">
+     * {"2016-06-16":2,"2016-06-17":1}
+     * </pre>
+     *
+     * </blockquote>
+     *
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>返回的是 {@link java.util.LinkedHashMap},顺序是桶第一次出现的顺序</li>
+     * <li>如果 <code>datePattern</code> 比 <code>calendarField</code> 粗(比如按小时分桶,但是使用 {@link DatePattern#COMMON_DATE} 格式化),相同标签的桶会合并</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param epochMillis
+     *            the epoch millis
+     * @param calendarField
+     *            分桶的粒度,参见 {@link #toBucketId(long, int, TimeZone)}
+     * @param timeZone
+     *            时区
+     * @param datePattern
+     *            桶标签的格式 {@link DatePattern}
+     * @return 如果 <code>epochMillis</code> 是null或者empty,返回 {@link java.util.Collections#emptyMap()}<br>
+     *         如果 <code>timeZone</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePattern</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePattern</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>calendarField</code> 不是支持的字段,抛出 {@link IllegalArgumentException}<br>
+     */
+    public static Map<String, Integer> count(long[] epochMillis,int calendarField,TimeZone timeZone,String datePattern){
+        if (null == epochMillis || epochMillis.length == 0){
+            return emptyMap();
+        }
+        Validate.notNull(timeZone, "timeZone can't be null!");
+        Validate.notBlank(datePattern, "datePattern can't be blank!");
+        validateCalendarField(calendarField);
+
+        //---------------------------------------------------------------
+        BucketIndex bucketIndex = new BucketIndex(epochMillis.length);
+        int[] counts = new int[epochMillis.length];
+        for (long millis : epochMillis){
+            counts[bucketIndex.indexOf(bucketId(millis, calendarField, timeZone))]++;
+        }
+
+        //---------------------------------------------------------------
+        String[] labels = formatLabels(bucketIndex, calendarField, timeZone, datePattern);
+        Map<String, Integer> map = newLinkedHashMap(labels.length);
+        for (int i = 0; i < labels.length; ++i){
+            Integer exist = map.get(labels[i]);
+            map.put(labels[i], null == exist ? counts[i] : exist + counts[i]);
+        }
+        return map;
+    }
+
+    /**
+     * 循环 <code>beanIterable</code>,使用 <code>dateTransformer</code> 提取元素的日期,按照 <code>calendarField</code> 粒度分组,桶的开始时间使用
+     * <code>datePattern</code> 格式化作为key.
+     *
+     * <h3>示例:</h3>
+     *
+     * <blockquote>
+     *
+     * <pre class="code">
+     * Map{@code <String, List<Order>>} map = DateBucketUtil.group(orderList, new Transformer{@code <Order, Date>}(){
+     *
+     *     &#64;Override
+     *     public Date transform(Order order){
+     *         return order.getCreateTime();
+     *     }
+     * }, HOUR_OF_DAY, TimeZone.getDefault(), "yyyy-MM-dd HH");
+     * </pre>
+     *
+     * </blockquote>
+     *
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>返回的是 {@link java.util.LinkedHashMap},顺序是桶第一次出现的顺序,每个桶内元素的顺序是 <code>beanIterable</code> 元素顺序</li>
+     * <li><code>dateTransformer</code> 返回null的元素将会被忽略</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the generic type
+     * @param beanIterable
+     *            bean Iterable,诸如List{@code <Order>},Set{@code <Order>}等
+     * @param dateTransformer
+     *            从元素中提取日期的转换器
+     * @param calendarField
+     *            分桶的粒度,参见 {@link #toBucketId(long, int, TimeZone)}
+     * @param timeZone
+     *            时区
+     * @param datePattern
+     *            桶标签的格式 {@link DatePattern}
+     * @return 如果 <code>beanIterable</code> 是null,返回 {@link java.util.Collections#emptyMap()}<br>
+     *         如果 <code>dateTransformer</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>timeZone</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePattern</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePattern</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>calendarField</code> 不是支持的字段,抛出 {@link IllegalArgumentException}<br>
+     * @see CollectionsUtil#group(Iterable, Transformer)
+     */
+    public static <O> Map<String, List<O>> group(
+                    Iterable<O> beanIterable,
+                    Transformer<O, Date> dateTransformer,
+                    int calendarField,
+                    TimeZone timeZone,
+                    String datePattern){
+        if (null == beanIterable){
+            return emptyMap();
+        }
+        Validate.notNull(dateTransformer, "dateTransformer can't be null!");
+        Validate.notNull(timeZone, "timeZone can't be null!");
+        Validate.notBlank(datePattern, "datePattern can't be blank!");
+        validateCalendarField(calendarField);
+
+        //---------------------------------------------------------------
+        BucketIndex bucketIndex = new BucketIndex(16);
+        List<List<O>> buckets = new ArrayList<>();
+        for (O obj : beanIterable){
+            Date date = dateTransformer.transform(obj);
+            if (null == date){
+                continue;
+            }
+            int index = bucketIndex.indexOf(bucketId(date.getTime(), calendarField, timeZone));
+            if (index == buckets.size()){
+                buckets.add(new ArrayList<O>());
+            }
+            buckets.get(index).add(obj);
+        }
+
+        //---------------------------------------------------------------
+        String[] labels = formatLabels(bucketIndex, calendarField, timeZone, datePattern);
+        Map<String, List<O>> map = newLinkedHashMap(labels.length);
+        for (int i = 0; i < labels.length; ++i){
+            List<O> exist = map.get(labels[i]);
+            if (null == exist){
+                map.put(labels[i], buckets.get(i));
+            }else{
+                exist.addAll(buckets.get(i));
+            }
+        }
+        return map;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 对不重复的桶格式化标签.
+     *
+     * @param bucketIndex
+     *            the bucket index
+     * @param calendarField
+     *            the calendar field
+     * @param timeZone
+     *            the time zone
+     * @param datePattern
+     *            the date pattern
+     * @return 和 bucketIndex 中桶出现顺序一致的标签数组
+     */
+    private static String[] formatLabels(BucketIndex bucketIndex,int calendarField,TimeZone timeZone,String datePattern){
+        FastDateFormat fastDateFormat = FastDateFormat.getInstance(datePattern, timeZone);
+
+        long[] bucketIds = bucketIndex.bucketIds();
+        String[] labels = new String[bucketIds.length];
+        for (int i = 0; i < bucketIds.length; ++i){
+            labels[i] = fastDateFormat.format(bucketStartMillis(bucketIds[i], calendarField, timeZone));
+        }
+        return labels;
+    }
+
+    /**
+     * 计算桶编号.
+     *
+     * @param epochMillis
+     *            the epoch millis
+     * @param calendarField
+     *            the calendar field
+     * @param timeZone
+     *            the time zone
+     * @return the long
+     */
+    private static long bucketId(long epochMillis,int calendarField,TimeZone timeZone){
+        long localMillis = epochMillis + timeZone.getOffset(epochMillis);
+        switch (calendarField) {
+            case MINUTE:
+                return floorDiv(localMillis, MILLISECOND_PER_MINUTE);
+            case HOUR_OF_DAY:
+                return floorDiv(localMillis, MILLISECOND_PER_HOUR);
+            case DAY_OF_MONTH:
+                return floorDiv(localMillis, MILLISECOND_PER_DAY);
+            case WEEK_OF_YEAR:
+                return floorDiv(floorDiv(localMillis, MILLISECOND_PER_DAY) + DAYS_FROM_SUNDAY_TO_EPOCH, DAYS_PER_WEEK);
+            default://MONTH
+                return monthBucketId(floorDiv(localMillis, MILLISECOND_PER_DAY));
+        }
+    }
+
+    /**
+     * 计算桶编号对应的开始时间.
+     *
+     * @param bucketId
+     *            the bucket id
+     * @param calendarField
+     *            the calendar field
+     * @param timeZone
+     *            the time zone
+     * @return the long
+     */
+    private static long bucketStartMillis(long bucketId,int calendarField,TimeZone timeZone){
+        long localMillis;
+        switch (calendarField) {
+            case MINUTE:
+                localMillis = bucketId * MILLISECOND_PER_MINUTE;
+                break;
+            case HOUR_OF_DAY:
+                localMillis = bucketId * MILLISECOND_PER_HOUR;
+                break;
+            case DAY_OF_MONTH:
+                localMillis = bucketId * MILLISECOND_PER_DAY;
+                break;
+            case WEEK_OF_YEAR:
+                localMillis = (bucketId * DAYS_PER_WEEK - DAYS_FROM_SUNDAY_TO_EPOCH) * MILLISECOND_PER_DAY;
+                break;
+            default://MONTH
+                localMillis = monthStartEpochDay(bucketId) * MILLISECOND_PER_DAY;
+                break;
+        }
+        //先用标准偏移量估算,再用估算时刻的实际偏移量(含夏令时)修正
+        long epochMillis = localMillis - timeZone.getRawOffset();
+        return localMillis - timeZone.getOffset(epochMillis);
+    }
+
+    /**
+     * epoch day 转成 month 桶编号 (year * 12 + month - 1).
+     *
+     * <p>
+     * 算法参见 Howard Hinnant, chrono-Compatible Low-Level Date Algorithms, civil_from_days.
+     * </p>
+     *
+     * @param epochDay
+     *            1970-01-01 起的天数
+     * @return the long
+     */
+    private static long monthBucketId(long epochDay){
+        long z = epochDay + 719468;
+        long era = floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        long month = mp < 10 ? mp + 3 : mp - 9;//1-12
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 12 + month - 1;
+    }
+
+    /**
+     * month 桶编号转成该月第一天的 epoch day.
+     *
+     * <p>
+     * 算法参见 Howard Hinnant, chrono-Compatible Low-Level Date Algorithms, days_from_civil.
+     * </p>
+     *
+     * @param monthBucketId
+     *            year * 12 + month - 1
+     * @return the long
+     */
+    private static long monthStartEpochDay(long monthBucketId){
+        long month = monthBucketId - floorDiv(monthBucketId, 12) * 12 + 1;//1-12
+        long year = floorDiv(monthBucketId, 12) - (month <= 2 ? 1 : 0);
+        long era = floorDiv(year, 400);
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5;//day 1
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * 向下取整的除法(jdk1.8 Math.floorDiv).
+     *
+     * @param x
+     *            the x
+     * @param y
+     *            the y,必须是正数
+     * @return the long
+     */
+    private static long floorDiv(long x,long y){
+        long r = x / y;
+        return (x % y != 0 && x < 0) ? r - 1 : r;
+    }
+
+    /**
+     * 校验 calendarField.
+     *
+     * @param calendarField
+     *            the calendar field
+     */
+    private static void validateCalendarField(int calendarField){
+        Validate.isTrue(
+                        calendarField == MINUTE || calendarField == HOUR_OF_DAY || calendarField == DAY_OF_MONTH
+                                        || calendarField == WEEK_OF_YEAR || calendarField == MONTH,
+                        "calendarField:[%s] not support,only support MINUTE/HOUR_OF_DAY/DAY_OF_MONTH/WEEK_OF_YEAR/MONTH",
+                        calendarField);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 基于 long 的开放寻址表,将桶编号映射成桶第一次出现的序号(从0开始),避免 {@link Long} 装箱.
+     */
+    private static final class BucketIndex{
+
+        /** 空槽位标记(序号从0开始,所以存的是 序号+1). */
+        private static final int EMPTY = 0;
+
+        /** The keys. */
+        private long[]           keys;
+
+        /** 序号+1. */
+        private int[]            values;
+
+        /** 按出现顺序存放的桶编号. */
+        private long[]           orderedBucketIds;
+
+        /** The size. */
+        private int              size;
+
+        /**
+         * Instantiates a new bucket index.
+         *
+         * @param expectedSize
+         *            the expected size
+         */
+        private BucketIndex(int expectedSize){
+            int capacity = Integer.highestOneBit(Math.max(16, Math.min(expectedSize, 1 << 16)) * 2 - 1);
+            this.keys = new long[capacity];
+            this.values = new int[capacity];
+            this.orderedBucketIds = new long[16];
+        }
+
+        /**
+         * 返回桶编号对应的序号,如果不存在,那么分配一个新的序号(等于当前的桶数量).
+         *
+         * @param bucketId
+         *            the bucket id
+         * @return the int
+         */
+        private int indexOf(long bucketId){
+            int mask = keys.length - 1;
+            int slot = hash(bucketId) & mask;
+            while (values[slot] != EMPTY){
+                if (keys[slot] == bucketId){
+                    return values[slot] - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            //---------------------------------------------------------------
+            int index = size++;
+            keys[slot] = bucketId;
+            values[slot] = index + 1;
+            if (index == orderedBucketIds.length){
+                orderedBucketIds = Arrays.copyOf(orderedBucketIds, index * 2);
+            }
+            orderedBucketIds[index] = bucketId;
+
+            if (size * 2 > keys.length){
+                rehash();
+            }
+            return index;
+        }
+
+        /**
+         * 按出现顺序返回桶编号.
+         *
+         * @return the long[]
+         */
+        private long[] bucketIds(){
+            return Arrays.copyOf(orderedBucketIds, size);
+        }
+
+        /**
+         * 扩容.
+         */
+        private void rehash(){
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; ++i){
+                if (oldValues[i] == EMPTY){
+                    continue;
+                }
+                int slot = hash(oldKeys[i]) & mask;
+                while (values[slot] != EMPTY){
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+
+        /**
+         * 桶编号一般是连续的,混合一下高低位,避免线性探测聚集.
+         *
+         * @param bucketId
+         *            the bucket id
+         * @return the int
+         */
+        private static int hash(long bucketId){
+            long h = bucketId * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
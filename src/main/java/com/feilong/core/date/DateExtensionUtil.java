@@ -139,11 +139,27 @@ public final class DateExtensionUtil{
      *         右边,今天的结束时间 <code>23:59:59.999</code> <br>
      * @see "java.time.LocalDate#atStartOfDay()"
      * @see "java.time.LocalDate#atStartOfDay()"
+     * @see Clock#getDefault()
      * @since 1.10.6
      */
     public static Pair<Date, Date> getTodayStartAndEndPair(){
-        Date date = new Date();
-        return getDayStartAndEndPair(date);
+        return getTodayStartAndEndPair(Clock.getDefault());
+    }
+
+    /**
+     * 获得 时钟 <code>clock</code> 所指"今天"的开始时间 <code>00:00:00.000</code> 及结束时间 <code>23:59:59.999</code>.
+     *
+     * @param clock
+     *            时钟
+     * @return 如果 <code>clock</code> 是null,抛出 {@link NullPointerException}<br>
+     *         左边,今天的开始时间 <code>00:00:00.000</code> <br>
+     *         右边,今天的结束时间 <code>23:59:59.999</code> <br>
+     * @see #getTodayStartAndEndPair()
+     * @since 1.13.1
+     */
+    public static Pair<Date, Date> getTodayStartAndEndPair(Clock clock){
+        Validate.notNull(clock, "clock can't be null!");
+        return getDayStartAndEndPair(clock.now());
     }
 
     /**
@@ -167,11 +183,27 @@ public final class DateExtensionUtil{
      *
      * @return 左边,昨天的开始时间 <code>00:00:00.000</code> <br>
      *         右边,昨天的结束时间 <code>23:59:59.999</code> <br>
+     * @see Clock#getDefault()
      * @since 1.10.6
      */
     public static Pair<Date, Date> getYesterdayStartAndEndPair(){
-        Date date = new Date();
-        Date yesteday = addDay(date, -1);
+        return getYesterdayStartAndEndPair(Clock.getDefault());
+    }
+
+    /**
+     * 获得 时钟 <code>clock</code> 所指"昨天"的开始时间 <code>00:00:00.000</code> 及结束时间 <code>23:59:59.999</code>.
+     *
+     * @param clock
+     *            时钟
+     * @return 如果 <code>clock</code> 是null,抛出 {@link NullPointerException}<br>
+     *         左边,昨天的开始时间 <code>00:00:00.000</code> <br>
+     *         右边,昨天的结束时间 <code>23:59:59.999</code> <br>
+     * @see #getYesterdayStartAndEndPair()
+     * @since 1.13.1
+     */
+    public static Pair<Date, Date> getYesterdayStartAndEndPair(Clock clock){
+        Validate.notNull(clock, "clock can't be null!");
+        Date yesteday = addDay(clock.now(), -1);
         return getDayStartAndEndPair(yesteday);
     }
 
@@ -232,7 +264,7 @@ public final class DateExtensionUtil{
      * @since 1.10.6
      */
     public static Pair<Date, Date> getMonthStartAndEndPair(){
-        return getMonthStartAndEndPair(new Date());
+        return getMonthStartAndEndPair(Clock.getDefault().now());
     }
 
     /**
@@ -290,7 +322,7 @@ public final class DateExtensionUtil{
      * @since 1.10.6
      */
     public static Pair<Date, Date> getYearStartAndEndPair(){
-        return getYearStartAndEndPair(new Date());
+        return getYearStartAndEndPair(Clock.getDefault().now());
     }
 
     /**
@@ -398,7 +430,7 @@ public final class DateExtensionUtil{
      * @since 1.8.4 change name from getIntervalForView
      */
     public static String formatDuration(Date beginDate){
-        return formatDuration(beginDate, new Date());
+        return formatDuration(beginDate, Clock.getDefault().now());
     }
 
     /**
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.time.FastDateFormat;
+import org.apache.commons.lang3.tuple.Triple;
+
+import com.feilong.core.DatePattern;
+import com.feilong.core.util.ConcurrentLruCache;
+
+/**
+ * 日期格式化/解析器 注册中心,按照 (pattern, timeZone, locale) 缓存编译好的 {@link FastDateFormat}.
+ *
+ * <h3>为什么需要这个类?</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>{@link org.apache.commons.lang3.time.DateUtils#parseDate(String, String...)} 每次调用都会为每个pattern 创建新的
+ * {@link org.apache.commons.lang3.time.FastDateParser},构造成本很高</li>
+ * <li>{@link FastDateFormat#getInstance(String)} 内部的缓存没有容量上限,租户自定义的pattern 越多,占用的内存越多</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>{@link FastDateFormat} 是不可变并且线程安全的,同时实现了 {@link org.apache.commons.lang3.time.DatePrinter} 和
+ * {@link org.apache.commons.lang3.time.DateParser},可以在多线程之间共享</li>
+ * <li>缓存最多保存 {@link #MAX_SIZE} 个实例,超过之后淘汰最近最少使用的,参见 {@link ConcurrentLruCache}</li>
+ * <li>可以通过 {@link #getHitCount()},{@link #getMissCount()},{@link #getEvictionCount()} 观察缓存的效果</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see FastDateFormat
+ * @see DateUtil#toString(java.util.Date, String)
+ * @see DateUtil#toDate(String, String...)
+ * @since 1.13.1
+ */
+public final class DateFormatRegistry{
+
+    /** 最多缓存的 {@link FastDateFormat} 数量. */
+    public static final int                                                                   MAX_SIZE = 500;
+
+    /** The cache. */
+    private static final ConcurrentLruCache<Triple<String, TimeZone, Locale>, FastDateFormat> CACHE    = new ConcurrentLruCache<>(MAX_SIZE);
+
+    /** 缓存未命中时,创建 {@link FastDateFormat}. */
+    private static final Transformer<Triple<String, TimeZone, Locale>, FastDateFormat>        LOADER   = new DateFormatLoader();
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private DateFormatRegistry(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得使用默认时区 {@link TimeZone#getDefault()} 和默认 {@link Locale#getDefault()} 的 <code>datePattern</code> 格式化/解析器.
+     *
+     * @param datePattern
+     *            模式 {@link DatePattern}
+     * @return 如果 <code>datePattern</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePattern</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>datePattern</code> 是非法的模式,抛出 {@link IllegalArgumentException}<br>
+     */
+    public static FastDateFormat getDateFormat(String datePattern){
+        return getDateFormat(datePattern, null, null);
+    }
+
+    /**
+     * 获得 <code>datePattern</code> 在指定时区 <code>timeZone</code> 和 <code>locale</code> 下的格式化/解析器.
+     *
+     * <h3>示例:</h3>
+     *
+     * <blockquote>
+     *
+     * <pre class="code">
+     * FastDateFormat dateFormat = DateFormatRegistry.getDateFormat("dd/MM/yyyy HH:mm", TimeZone.getTimeZone("GMT+8"), Locale.US);
+     * String value = dateFormat.format(date);
+     * </pre>
+     *
+     * </blockquote>
+     *
+     * @param datePattern
+     *            模式 {@link DatePattern}
+     * @param timeZone
+     *            时区,如果是null,使用 {@link TimeZone#getDefault()}
+     * @param locale
+     *            the locale,如果是null,使用 {@link Locale#getDefault()}
+     * @return 如果 <code>datePattern</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>datePattern</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>datePattern</code> 是非法的模式,抛出 {@link IllegalArgumentException}<br>
+     */
+    public static FastDateFormat getDateFormat(String datePattern,TimeZone timeZone,Locale locale){
+        Validate.notBlank(datePattern, "datePattern can't be blank!");
+
+        TimeZone useTimeZone = null == timeZone ? TimeZone.getDefault() : timeZone;
+        Locale useLocale = null == locale ? Locale.getDefault() : locale;
+        return CACHE.get(Triple.of(datePattern, useTimeZone, useLocale), LOADER);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 当前缓存的数量.
+     *
+     * @return the int
+     */
+    public static int size(){
+        return CACHE.size();
+    }
+
+    /**
+     * 命中次数.
+     *
+     * @return the hit count
+     */
+    public static long getHitCount(){
+        return CACHE.getHitCount();
+    }
+
+    /**
+     * 未命中次数.
+     *
+     * @return the miss count
+     */
+    public static long getMissCount(){
+        return CACHE.getMissCount();
+    }
+
+    /**
+     * 淘汰次数.
+     *
+     * @return the eviction count
+     */
+    public static long getEvictionCount(){
+        return CACHE.getEvictionCount();
+    }
+
+    /**
+     * 清空缓存.
+     */
+    public static void clear(){
+        CACHE.clear();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 创建 {@link RegistryDateFormat}.
+     */
+    private static final class DateFormatLoader implements Transformer<Triple<String, TimeZone, Locale>, FastDateFormat>{
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see org.apache.commons.collections4.Transformer#transform(java.lang.Object)
+         */
+        @Override
+        public FastDateFormat transform(Triple<String, TimeZone, Locale> key){
+            return new RegistryDateFormat(key.getLeft(), key.getMiddle(), key.getRight());
+        }
+    }
+
+    /**
+     * 直接调用 {@link FastDateFormat} 的构造函数,不进入 {@link FastDateFormat#getInstance(String, TimeZone, Locale)} 没有容量上限的全局缓存.
+     */
+    private static final class RegistryDateFormat extends FastDateFormat{
+
+        /** The Constant serialVersionUID. */
+        private static final long serialVersionUID = 4498227425893151716L;
+
+        /**
+         * Instantiates a new registry date format.
+         *
+         * @param pattern
+         *            the pattern
+         * @param timeZone
+         *            the time zone
+         * @param locale
+         *            the locale
+         */
+        private RegistryDateFormat(String pattern, TimeZone timeZone, Locale locale){
+            super(pattern, timeZone, locale);
+        }
+    }
+}
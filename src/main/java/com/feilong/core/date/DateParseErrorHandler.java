@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+/**
+ * 批量解析日期时,单个单元格解析失败的处理器.
+ * 
+ * <p>
+ * 批量解析不会因为某个单元格解析失败而抛出异常,而是回调此接口,由调用方决定记录日志,收集错误行,还是中止处理.
+ * </p>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see DateBatchUtil#toEpochMillis(String[], String, DateParseErrorHandler)
+ * @since 1.13.1
+ */
+public interface DateParseErrorHandler{
+
+    /**
+     * 处理解析失败的单元格.
+     * 
+     * <p>
+     * 如果是并行解析,此方法会被多个线程同时调用,实现类需要自行保证线程安全.
+     * </p>
+     *
+     * @param index
+     *            单元格在数组中的下标
+     * @param dateString
+     *            解析失败的字符串,可能是null
+     */
+    void handle(int index,String dateString);
+}
@@ -25,6 +25,7 @@ import static java.util.Calendar.DAY_OF_WEEK;
 import static java.util.Calendar.DAY_OF_YEAR;
 import static java.util.Calendar.HOUR_OF_DAY;
 import static java.util.Calendar.JANUARY;
+import static java.util.Calendar.MILLISECOND;
 import static java.util.Calendar.MINUTE;
 import static java.util.Calendar.MONTH;
 import static java.util.Calendar.SATURDAY;
@@ -34,16 +35,21 @@ import static java.util.Calendar.WEEK_OF_YEAR;
 import static java.util.Calendar.YEAR;
 
 import java.text.ParseException;
+import java.text.ParsePosition;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
 
+import org.apache.commons.collections4.Transformer;
 import org.apache.commons.lang3.Validate;
-import org.apache.commons.lang3.time.DateFormatUtils;
 import org.apache.commons.lang3.time.DateUtils;
+import org.apache.commons.lang3.time.FastDateFormat;
 
 import com.feilong.core.DatePattern;
 import com.feilong.core.TimeInterval;
+import com.feilong.core.util.ConcurrentLruCache;
 import com.feilong.tools.slf4j.Slf4jUtil;
 
 /**
@@ -207,6 +213,46 @@ import com.feilong.tools.slf4j.Slf4jUtil;
  */
 public final class DateUtil{
 
+    /**
+     * 不能通过截断字段比较的模式标识.
+     * 
+     * @since 1.13.1
+     */
+    private static final int                                 NOT_TRUNCATABLE       = -1;
+
+    /**
+     * 公历切换时间点 1582-10-15 00:00:00 UTC, 在此之前 {@link GregorianCalendar} 使用儒略历,不能使用算术截断.
+     * 
+     * @since 1.13.1
+     */
+    private static final long                                GREGORIAN_CUTOVER     = -12219292800000L;
+
+    /**
+     * datePattern 和其最细粒度截断字段的缓存, 参见 {@link #isEquals(Date, Date, String)}.
+     * 
+     * <p>
+     * datePattern 由调用方传入,使用有容量上限的 LRU 缓存,最多缓存 500 个.
+     * </p>
+     * 
+     * @since 1.13.1
+     */
+    private static final ConcurrentLruCache<String, Integer> TRUNCATE_FIELD_CACHE  = new ConcurrentLruCache<>(500);
+
+    /**
+     * 缓存未命中时,解析截断字段.
+     * 
+     * @since 1.13.1
+     */
+    private static final Transformer<String, Integer>        TRUNCATE_FIELD_LOADER = new Transformer<String, Integer>(){
+
+                                                                                       @Override
+                                                                                       public Integer transform(String datePattern){
+                                                                                           return parseTruncateField(datePattern);
+                                                                                       }
+                                                                                   };
+
+    //---------------------------------------------------------------
+
     /** Don't let anyone instantiate this class. */
     private DateUtil(){
         //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
@@ -1135,6 +1181,7 @@ public final class DateUtil{
      *         如果 <code>pattern</code> 是 null,抛出 {@link NullPointerException}<br>
      *         如果 <code>pattern</code> 是 blank,抛出 {@link IllegalArgumentException}<br>
      * @see org.apache.commons.lang3.time.DateFormatUtils#format(Date, String)
+     * @see DateFormatRegistry#getDateFormat(String)
      * @see "org.joda.time.base.AbstractDateTime#toString(String)"
      * @see <a href="http://stackoverflow.com/questions/5683728/convert-java-util-date-to-string">convert-java-util-date-to-string</a>
      * @see <a href="http://stackoverflow.com/questions/4772425/change-date-format-in-a-java-string">change-date-format-in-a-java-string</a>
@@ -1144,7 +1191,7 @@ public final class DateUtil{
         Validate.notNull(date, "date can't be null!");
         Validate.notBlank(datePattern, "datePattern can't be blank!");
 
-        return DateFormatUtils.format(date, datePattern);
+        return DateFormatRegistry.getDateFormat(datePattern).format(date);
     }
 
     /**
@@ -1169,6 +1216,7 @@ public final class DateUtil{
      * <li>如果能解析所有的字符串,那么视为成功</li>
      * <li>如果没有任何的模式匹配,将会抛出异常</li>
      * <li>如果转换有异常,会将 {@link ParseException} 转成 {@link IllegalArgumentException} 返回,是 UnCheckedException异常 ,不需要强制catch处理</li>
+     * <li>从 1.13.1 开始,每个 <code>datePattern</code> 的解析器从 {@link DateFormatRegistry} 中获取,不再每次调用都重新编译</li>
      * </ol>
      * </blockquote>
      * 
@@ -1213,6 +1261,7 @@ public final class DateUtil{
      *         如果 <code>datePatterns</code> 是 empty,抛出 {@link IllegalArgumentException}<br>
      *         如果 <code>datePatterns</code> 有元素是 null,抛出 {@link IllegalArgumentException}<br>
      * @see org.apache.commons.lang3.time.DateUtils#parseDate(String, String...)
+     * @see DateFormatRegistry#getDateFormat(String, TimeZone, Locale)
      * @see <a href="http://stackoverflow.com/questions/4216745/java-string-to-date-conversion/">java-string-to-date-conversion</a>
      * @see <a href="http://stackoverflow.com/questions/4216745/java-string-to-date-conversion/22180505#22180505">java-string-to-date-
      *      conversion/22180505#22180505</a>
@@ -1227,12 +1276,31 @@ public final class DateUtil{
 
         //---------------------------------------------------------------
 
-        try{
-            return DateUtils.parseDate(dateString, datePatterns);
-        }catch (ParseException e){
-            String pattern = "dateString:[{}],use patterns:[{}],parse to date exception,message:[{}]";
-            throw new IllegalArgumentException(Slf4jUtil.format(pattern, dateString, datePatterns, e.getMessage()), e);
+        TimeZone timeZone = TimeZone.getDefault();
+        Locale locale = Locale.getDefault();
+
+        //和 DateUtils.parseDate 一样使用宽松模式, 但是 parser 从 DateFormatRegistry 中获取,不会每次都重新编译
+        Calendar calendar = Calendar.getInstance(timeZone, locale);
+        calendar.setLenient(true);
+
+        ParsePosition parsePosition = new ParsePosition(0);
+        for (String datePattern : datePatterns){
+            FastDateFormat dateFormat = DateFormatRegistry.getDateFormat(datePattern, timeZone, locale);
+            calendar.clear();
+            try{
+                if (dateFormat.parse(dateString, parsePosition, calendar) && parsePosition.getIndex() == dateString.length()){
+                    return calendar.getTime();
+                }
+            }catch (IllegalArgumentException ignore){
+                // leniency is preventing calendar from being set
+            }
+            parsePosition.setIndex(0);
         }
+
+        //---------------------------------------------------------------
+        ParseException e = new ParseException("Unable to parse the date: " + dateString, -1);
+        String pattern = "dateString:[{}],use patterns:[{}],parse to date exception,message:[{}]";
+        throw new IllegalArgumentException(Slf4jUtil.format(pattern, dateString, datePatterns, e.getMessage()), e);
     }
 
     // [end]
@@ -1396,6 +1464,10 @@ public final class DateUtil{
      * <li>isEquals(date, new Date(), DatePattern.COMMON_DATE),1秒335毫秒</li>
      * <li>DateExtensionUtil.getDayStartAndEndPair 1秒185毫秒</li>
      * </ul>
+     * 
+     * <p>
+     * 从 1.13.1 开始,直接使用时区偏移量算术截断到天进行比较,不再创建 {@link Calendar}.
+     * </p>
      * </blockquote>
      *
      * @param date
@@ -1403,11 +1475,42 @@ public final class DateUtil{
      * @return 如果指定的日期是今天,那么返回true,否则返回false <br>
      *         如果 <code>date</code> 是null,抛出 {@link NullPointerException}<br>
      * @see DateUtils#isSameDay(Date, Date)
+     * @see Clock#getDefault()
+     * @see #isToday(Date, Clock)
      * @since 1.10.6
      */
     public static boolean isToday(Date date){
+        return isToday(date, Clock.getDefault());
+    }
+
+    /**
+     * 判断指定的日期 <code>date</code>,是不是时钟 <code>clock</code> 所指的"今天".
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * Clock clock = Clock.fixed(toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME));
+     * 
+     * DateUtil.isToday(toDate("2016-06-16 00:00:00", COMMON_DATE_AND_TIME), clock) = true
+     * DateUtil.isToday(toDate("2016-06-17 00:00:00", COMMON_DATE_AND_TIME), clock) = false
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param date
+     *            指定的日期
+     * @param clock
+     *            时钟,热点代码可以使用 {@link Clock#coarse()},单元测试可以使用 {@link Clock#fixed(long)}
+     * @return 如果指定的日期是今天,那么返回true,否则返回false <br>
+     *         如果 <code>date</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>clock</code> 是null,抛出 {@link NullPointerException}<br>
+     * @since 1.13.1
+     */
+    public static boolean isToday(Date date,Clock clock){
         Validate.notNull(date, "date can't be null!");
-        return DateUtils.isSameDay(date, new Date());
+        Validate.notNull(clock, "clock can't be null!");
+        return isSameTruncated(date.getTime(), clock.millis(), DAY_OF_MONTH, TimeZone.getDefault());
     }
 
     // [end]
@@ -1429,6 +1532,8 @@ public final class DateUtil{
      * <blockquote>
      * <ol>
      * <li>常用于判断两个时间是否是同一个时间段,比如相同day,相同小时,相同年等等</li>
+     * <li>从 1.13.1 开始,如果 <code>datePattern</code> 包含了从年到最细粒度字段的完整字段(比如 yyyy-MM-dd,yyyy-MM-dd HH,yyyyMMddHHmm),
+     * 会在默认时区下使用算术运算将两个时间截断到该字段后比较,不再格式化成字符串;其他的模式(比如 MM-dd,yy-MM-dd,含时区的模式)依然使用字符串比较</li>
      * </ol>
      * </blockquote>
      * 
@@ -1454,7 +1559,200 @@ public final class DateUtil{
 
         Validate.notBlank(datePattern, "datePattern can't be blank!");
 
-        return date1 == date2 ? true : toString(date1, datePattern).equals(toString(date2, datePattern));
+        if (date1 == date2){
+            return true;
+        }
+
+        //---------------------------------------------------------------
+        long time1 = date1.getTime();
+        long time2 = date2.getTime();
+
+        int truncateField = getTruncateField(datePattern);
+        if (truncateField == NOT_TRUNCATABLE || time1 < GREGORIAN_CUTOVER || time2 < GREGORIAN_CUTOVER){
+            return toString(date1, datePattern).equals(toString(date2, datePattern));
+        }
+        return isSameTruncated(time1, time2, truncateField, TimeZone.getDefault());
+    }
+
+    /**
+     * 将两个时间 在时区 <code>timeZone</code> 下截断到 <code>truncateField</code> 之后,判断是否相等.
+     * 
+     * <p>
+     * 使用 {@link TimeZone#getOffset(long)} 将时间转成当地的毫秒数,再用算术运算截断,不会创建 {@link Calendar} 和字符串.
+     * </p>
+     *
+     * @param time1
+     *            the time 1
+     * @param time2
+     *            the time 2
+     * @param truncateField
+     *            {@link Calendar#YEAR},{@link Calendar#MONTH},{@link Calendar#DAY_OF_MONTH},{@link Calendar#HOUR_OF_DAY},
+     *            {@link Calendar#MINUTE},{@link Calendar#SECOND},{@link Calendar#MILLISECOND}
+     * @param timeZone
+     *            the time zone
+     * @return 如果截断之后相等,返回true
+     * @since 1.13.1
+     */
+    private static boolean isSameTruncated(long time1,long time2,int truncateField,TimeZone timeZone){
+        switch (truncateField) {
+            case YEAR:
+                long month1 = DateBucketUtil.toBucketId(time1, MONTH, timeZone);
+                long month2 = DateBucketUtil.toBucketId(time2, MONTH, timeZone);
+                return month1 - month1 % 12 == month2 - month2 % 12;
+            case MONTH:
+            case DAY_OF_MONTH:
+            case HOUR_OF_DAY:
+            case MINUTE:
+                return DateBucketUtil.toBucketId(time1, truncateField, timeZone) == DateBucketUtil.toBucketId(time2, truncateField, timeZone);
+            case SECOND:
+                long local1 = time1 + timeZone.getOffset(time1);
+                long local2 = time2 + timeZone.getOffset(time2);
+                return local1 - floorMod(local1, TimeInterval.MILLISECOND_PER_SECONDS) == local2 - floorMod(local2, TimeInterval.MILLISECOND_PER_SECONDS);
+            default://MILLISECOND
+                return time1 == time2;
+        }
+    }
+
+    /**
+     * 向下取整的取模(jdk1.8 Math.floorMod).
+     *
+     * @param x
+     *            the x
+     * @param y
+     *            the y,必须是正数
+     * @return the long
+     * @since 1.13.1
+     */
+    private static long floorMod(long x,long y){
+        long mod = x % y;
+        return mod < 0 ? mod + y : mod;
+    }
+
+    /**
+     * 解析 <code>datePattern</code>,获得可以用于截断比较的最细粒度字段.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>只有模式中包含了最细粒度字段之上的所有字段(比如 yyyy-MM-dd 包含年月日),按照截断比较和按照字符串比较的结果才是一致的,
+     * 比如 MM-dd 没有年,2016-06-16 和 2017-06-16 字符串相等,但是截断到天不相等</li>
+     * <li>包含了 yy(两位年份),h/K/a(12小时制),z/Z/X(时区),w/W/Y(周) 等字母的模式,返回 {@link #NOT_TRUNCATABLE},调用方使用字符串比较</li>
+     * <li>E(星期几),u(星期几的数字) 由日期决定,如果精确到天可以忽略</li>
+     * <li>单引号中的文本是字面量,忽略</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param datePattern
+     *            the date pattern
+     * @return 截断字段,或者 {@link #NOT_TRUNCATABLE}
+     * @since 1.13.1
+     */
+    private static int getTruncateField(String datePattern){
+        return TRUNCATE_FIELD_CACHE.get(datePattern, TRUNCATE_FIELD_LOADER);
+    }
+
+    /**
+     * Parses the truncate field.
+     *
+     * @param datePattern
+     *            the date pattern
+     * @return the int
+     * @see #getTruncateField(String)
+     * @since 1.13.1
+     */
+    private static int parseTruncateField(String datePattern){
+        boolean year = false;
+        boolean month = false;
+        boolean day = false;
+        boolean dayOfYear = false;
+        boolean dayOfWeek = false;
+        boolean hour = false;
+        boolean minute = false;
+        boolean second = false;
+        boolean millisecond = false;
+
+        boolean inQuote = false;
+        for (int i = 0, j = datePattern.length(); i < j; ++i){
+            char c = datePattern.charAt(i);
+            if (c == '\''){
+                inQuote = !inQuote;
+                continue;
+            }
+            if (inQuote || !((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))){
+                continue;
+            }
+
+            //---------------------------------------------------------------
+            int count = 1;
+            while (i + 1 < j && datePattern.charAt(i + 1) == c){
+                ++count;
+                ++i;
+            }
+            switch (c) {
+                case 'y':
+                    if (count == 2){//两位年份,不同世纪的年份格式化之后相同
+                        return NOT_TRUNCATABLE;
+                    }
+                    year = true;
+                    break;
+                case 'M':
+                    month = true;
+                    break;
+                case 'd':
+                    day = true;
+                    break;
+                case 'D':
+                    dayOfYear = true;
+                    break;
+                case 'H':
+                case 'k':
+                    hour = true;
+                    break;
+                case 'm':
+                    minute = true;
+                    break;
+                case 's':
+                    second = true;
+                    break;
+                case 'S':
+                    millisecond = true;
+                    break;
+                case 'E':
+                case 'u':
+                    dayOfWeek = true;
+                    break;
+                default:
+                    return NOT_TRUNCATABLE;
+            }
+        }
+
+        //---------------------------------------------------------------
+        boolean fullDay = year && ((month && day) || dayOfYear);
+        if (fullDay){
+            if (hour && minute && second && millisecond){
+                return MILLISECOND;
+            }
+            if (hour && minute && second){
+                return millisecond ? NOT_TRUNCATABLE : SECOND;
+            }
+            if (hour && minute){
+                return second || millisecond ? NOT_TRUNCATABLE : MINUTE;
+            }
+            if (hour){
+                return minute || second || millisecond ? NOT_TRUNCATABLE : HOUR_OF_DAY;
+            }
+            return minute || second || millisecond ? NOT_TRUNCATABLE : DAY_OF_MONTH;
+        }
+
+        //---------------------------------------------------------------
+        //没有精确到天的模式,不能包含任何更细的字段
+        if (dayOfWeek || day || dayOfYear || hour || minute || second || millisecond){
+            return NOT_TRUNCATABLE;
+        }
+        if (year){
+            return month ? MONTH : YEAR;
+        }
+        return NOT_TRUNCATABLE;
     }
 
     // [end]
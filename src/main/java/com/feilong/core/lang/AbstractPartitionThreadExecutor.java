@@ -83,7 +83,7 @@ public abstract class AbstractPartitionThreadExecutor implements PartitionThread
         //---------------------------------------------------------------
 
         if (LOGGER.isInfoEnabled()){
-            LOGGER.info("end [{}],use time:[{}]", partitionRunnableBuilderName, formatDuration(beginDate));
+            LOGGER.info("end [{}],use time:[{}]", partitionRunnableBuilderName, formatDuration(beginDate, new Date()));
         }
 
     }
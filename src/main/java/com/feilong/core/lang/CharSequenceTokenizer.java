@@ -0,0 +1,366 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 基于 {@link CharSequence} 的分隔游标,只记录每个 token 的起止位置,不会生成中间的 String/String[].
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li><code>delimiters</code> 中的每个字符都是分隔符(和 {@link java.util.StringTokenizer} 一样),不是正则表达式;只有一个分隔符的时候直接比较字符</li>
+ * <li>每两个分隔符之间都是一个 token(包括开头,结尾以及连续的分隔符之间的空 token),可以使用 <code>ignoreEmptyTokens</code> 跳过</li>
+ * <li>trim(规则和 {@link String#trim()} 一样) 以及跳过空 token 都是在位置上计算的,不会生成新的字符串</li>
+ * <li>只有调用 {@link #token()} 的时候才会生成字符串;可以使用 {@link #start()},{@link #end()} 直接在原始文本上解析</li>
+ * <li>游标可以通过 {@link #reset(CharSequence)} 重复使用;游标不是线程安全的</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * CharSequenceTokenizer tokenizer = StringUtil.tokenize("name asc, id  desc", ",", true, true);
+ * while (tokenizer.next()){
+ *     //第一次 tokenizer.token() = "name asc", start()=0, end()=8
+ *     //第二次 tokenizer.token() = "id  desc", start()=10, end()=18
+ * }
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see StringUtil#tokenize(CharSequence, String, boolean, boolean)
+ * @see java.util.StringTokenizer
+ * @since 1.13.1
+ */
+public final class CharSequenceTokenizer{
+
+    /** 分隔符. */
+    private final String  delimiters;
+
+    /** 如果只有一个分隔符,就是这个分隔符,直接比较. */
+    private final char    singleDelimiter;
+
+    /** 是否只有一个分隔符. */
+    private final boolean isSingleDelimiter;
+
+    /** 是否 trim token. */
+    private final boolean trimTokens;
+
+    /** 是否跳过空 token. */
+    private final boolean ignoreEmptyTokens;
+
+    //---------------------------------------------------------------
+
+    /** 需要分隔的文本. */
+    private CharSequence  text;
+
+    /** 下一次查找 token 的开始位置,如果大于文本长度,表示已经结束. */
+    private int           position;
+
+    /** 当前 token 的开始位置,如果还没有调用 {@link #next()} 或者已经结束,是 -1. */
+    private int           start = -1;
+
+    /** 当前 token 的结束位置(不包含). */
+    private int           end   = -1;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new char sequence tokenizer.
+     *
+     * @param text
+     *            需要分隔的文本
+     * @param delimiters
+     *            分隔符,每个字符都是一个分隔符
+     * @param trimTokens
+     *            是否 trim token
+     * @param ignoreEmptyTokens
+     *            是否跳过空 token(如果 <code>trimTokens</code> 是true,判断的是 trim 之后的 token)
+     * @throws NullPointerException
+     *             如果 <code>text</code> 是null,或者 <code>delimiters</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>delimiters</code> 是empty
+     */
+    public CharSequenceTokenizer(CharSequence text, String delimiters, boolean trimTokens, boolean ignoreEmptyTokens){
+        Validate.notNull(text, "text can't be null!");
+        Validate.notEmpty(delimiters, "delimiters can't be null/empty!");
+        this.text = text;
+        this.delimiters = delimiters;
+        this.isSingleDelimiter = delimiters.length() == 1;
+        this.singleDelimiter = delimiters.charAt(0);
+        this.trimTokens = trimTokens;
+        this.ignoreEmptyTokens = ignoreEmptyTokens;
+    }
+
+    /**
+     * Instantiates a new char sequence tokenizer,使用单个分隔符.
+     *
+     * @param text
+     *            需要分隔的文本
+     * @param delimiter
+     *            分隔符
+     * @param trimTokens
+     *            是否 trim token
+     * @param ignoreEmptyTokens
+     *            是否跳过空 token(如果 <code>trimTokens</code> 是true,判断的是 trim 之后的 token)
+     * @throws NullPointerException
+     *             如果 <code>text</code> 是null
+     */
+    public CharSequenceTokenizer(CharSequence text, char delimiter, boolean trimTokens, boolean ignoreEmptyTokens){
+        this(text, String.valueOf(delimiter), trimTokens, ignoreEmptyTokens);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 移动到下一个 token.
+     *
+     * @return 如果还有 token,返回true;否则返回false
+     */
+    public boolean next(){
+        int length = text.length();
+        while (position <= length){
+            int tokenStart = position;
+            int tokenEnd = indexOfDelimiter(tokenStart, length);
+            position = tokenEnd + 1;
+
+            //---------------------------------------------------------------
+            if (trimTokens){
+                while (tokenStart < tokenEnd && text.charAt(tokenStart) <= ' '){
+                    ++tokenStart;
+                }
+                while (tokenStart < tokenEnd && text.charAt(tokenEnd - 1) <= ' '){
+                    --tokenEnd;
+                }
+            }
+            if (ignoreEmptyTokens && tokenStart == tokenEnd){
+                continue;
+            }
+            start = tokenStart;
+            end = tokenEnd;
+            return true;
+        }
+
+        //---------------------------------------------------------------
+        start = -1;
+        end = -1;
+        return false;
+    }
+
+    /**
+     * 当前 token 的开始位置.
+     *
+     * @return 当前 token 在文本中的开始位置(包含)
+     * @throws IllegalStateException
+     *             如果还没有调用 {@link #next()},或者 {@link #next()} 返回了false
+     */
+    public int start(){
+        validateHasToken();
+        return start;
+    }
+
+    /**
+     * 当前 token 的结束位置.
+     *
+     * @return 当前 token 在文本中的结束位置(不包含)
+     * @throws IllegalStateException
+     *             如果还没有调用 {@link #next()},或者 {@link #next()} 返回了false
+     */
+    public int end(){
+        validateHasToken();
+        return end;
+    }
+
+    /**
+     * 当前 token 的长度.
+     *
+     * @return the int
+     * @throws IllegalStateException
+     *             如果还没有调用 {@link #next()},或者 {@link #next()} 返回了false
+     */
+    public int length(){
+        validateHasToken();
+        return end - start;
+    }
+
+    /**
+     * 当前 token 的字符串.
+     *
+     * @return the string
+     * @throws IllegalStateException
+     *             如果还没有调用 {@link #next()},或者 {@link #next()} 返回了false
+     */
+    public String token(){
+        validateHasToken();
+        return text.subSequence(start, end).toString();
+    }
+
+    /**
+     * 当前 token 是否和 <code>value</code> 相等(区分大小写),不会生成字符串.
+     *
+     * @param value
+     *            the value
+     * @return 如果 <code>value</code> 是null,返回false
+     * @throws IllegalStateException
+     *             如果还没有调用 {@link #next()},或者 {@link #next()} 返回了false
+     */
+    public boolean tokenEquals(CharSequence value){
+        return regionMatches(value, false);
+    }
+
+    /**
+     * 当前 token 是否和 <code>value</code> 相等(忽视大小写),不会生成字符串.
+     *
+     * @param value
+     *            the value
+     * @return 如果 <code>value</code> 是null,返回false
+     * @throws IllegalStateException
+     *             如果还没有调用 {@link #next()},或者 {@link #next()} 返回了false
+     */
+    public boolean tokenEqualsIgnoreCase(CharSequence value){
+        return regionMatches(value, true);
+    }
+
+    /**
+     * 将当前 token 拼接到 <code>sb</code>,不会生成中间字符串.
+     *
+     * @param sb
+     *            the sb
+     * @return <code>sb</code>
+     * @throws NullPointerException
+     *             如果 <code>sb</code> 是null
+     * @throws IllegalStateException
+     *             如果还没有调用 {@link #next()},或者 {@link #next()} 返回了false
+     */
+    public StringBuilder appendTo(StringBuilder sb){
+        Validate.notNull(sb, "sb can't be null!");
+        validateHasToken();
+        return sb.append(text, start, end);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 回到文本开头,重新分隔.
+     *
+     * @return this
+     */
+    public CharSequenceTokenizer reset(){
+        position = 0;
+        start = -1;
+        end = -1;
+        return this;
+    }
+
+    /**
+     * 使用相同的分隔规则,分隔新的文本.
+     *
+     * @param text
+     *            需要分隔的文本
+     * @return this
+     * @throws NullPointerException
+     *             如果 <code>text</code> 是null
+     */
+    public CharSequenceTokenizer reset(CharSequence text){
+        Validate.notNull(text, "text can't be null!");
+        this.text = text;
+        return reset();
+    }
+
+    /**
+     * 从当前位置开始,剩余的 token 个数,不会移动游标.
+     *
+     * @return the int
+     */
+    public int countTokens(){
+        int currentPosition = position;
+        int currentStart = start;
+        int currentEnd = end;
+
+        int count = 0;
+        while (next()){
+            ++count;
+        }
+
+        position = currentPosition;
+        start = currentStart;
+        end = currentEnd;
+        return count;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 从 <code>fromIndex</code> 开始查找下一个分隔符.
+     *
+     * @param fromIndex
+     *            the from index
+     * @param length
+     *            文本长度
+     * @return 如果没有找到,返回 <code>length</code>
+     */
+    private int indexOfDelimiter(int fromIndex,int length){
+        if (isSingleDelimiter){
+            for (int i = fromIndex; i < length; ++i){
+                if (text.charAt(i) == singleDelimiter){
+                    return i;
+                }
+            }
+            return length;
+        }
+        for (int i = fromIndex; i < length; ++i){
+            if (delimiters.indexOf(text.charAt(i)) >= 0){
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 比较当前 token 和 <code>value</code>.
+     *
+     * @param value
+     *            the value
+     * @param ignoreCase
+     *            the ignore case
+     * @return true, if successful
+     */
+    private boolean regionMatches(CharSequence value,boolean ignoreCase){
+        validateHasToken();
+        if (null == value || value.length() != end - start){
+            return false;
+        }
+        if (text instanceof String && value instanceof String){
+            return ((String) text).regionMatches(ignoreCase, start, (String) value, 0, value.length());
+        }
+        CharSequence token = text.subSequence(start, end);
+        return ignoreCase ? StringUtils.equalsIgnoreCase(token, value) : StringUtils.equals(token, value);
+    }
+
+    /**
+     * 验证当前有 token.
+     */
+    private void validateHasToken(){
+        Validate.validState(start >= 0, "no current token, call next() first and make sure it returns true");
+    }
+}
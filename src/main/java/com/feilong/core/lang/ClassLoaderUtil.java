@@ -241,6 +241,7 @@ public final class ClassLoaderUtil{
      * <li>From {@link Class#getClassLoader() callingClass.getClassLoader() } (如果 callingClass 不是null)
      * </ul>
      * </li>
+     * <li>每次调用都会依次在每个 {@link ClassLoader} 中查找(可能会扫描classpath中的jar),需要反复查找相同资源的场景,请使用 {@link ResourceLookupCache}</li>
      * </ol>
      * </blockquote>
      * 
@@ -251,12 +252,25 @@ public final class ClassLoaderUtil{
      * @return 如果 <code>resourceName</code> 是null,抛出 {@link NullPointerException}<br>
      *         如果 <code>callingClass</code> 是null,将会忽略此参数<br>
      *         如果在所有的{@link ClassLoader}里面都查不到资源,那么返回null
+     * @see ResourceLookupCache
      * @since 1.6.2
      */
     public static URL getResourceInAllClassLoader(String resourceName,Class<?> callingClass){
         Validate.notNull(resourceName, "resourceName can't be null!");
+        return getResourceInAllClassLoader(resourceName, getAllClassLoaderList(callingClass));
+    }
 
-        List<ClassLoader> classLoaderList = getAllClassLoaderList(callingClass);
+    /**
+     * 依次在 <code>classLoaderList</code> 中查找资源.
+     *
+     * @param resourceName
+     *            The name of the resource to load
+     * @param classLoaderList
+     *            the class loader list
+     * @return 如果在所有的{@link ClassLoader}里面都查不到资源,那么返回null
+     * @since 1.13.1
+     */
+    static URL getResourceInAllClassLoader(String resourceName,List<ClassLoader> classLoaderList){
         for (ClassLoader classLoader : classLoaderList){
             URL url = getResource(classLoader, resourceName);
             if (null == url){
@@ -291,7 +305,7 @@ public final class ClassLoaderUtil{
      * @return the all class loader
      * @since 1.6.2
      */
-    private static List<ClassLoader> getAllClassLoaderList(Class<?> callingClass){
+    static List<ClassLoader> getAllClassLoaderList(Class<?> callingClass){
         List<ClassLoader> list = toList(getClassLoaderByCurrentThread(), getClassLoaderByClass(ClassLoaderUtil.class));
         if (null != callingClass){
             list.add(getClassLoaderByClass(callingClass));
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.bean.PropertyUtil;
+
+/**
+ * 枚举类某个属性值到枚举值的索引,给 {@link EnumUtil#getEnumByPropertyValue(Class, String, Object)} 使用.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>每个 (enumClass, propertyName) 第一次查找的时候,读取一次所有枚举值的属性值,建立区分大小写以及忽视大小写两个 hash 索引,之后的查找不再反射</li>
+ * <li>索引按照 enumClass 缓存在 {@link ClassValue} 中,不会阻止 class 被卸载</li>
+ * <li>和原来逐个比较的规则一致:属性值使用 <code>toString()</code> 比较;多个枚举值匹配时,返回声明顺序最前面的那个;属性值是null 的枚举值只匹配null</li>
+ * <li>忽视大小写的 key 是每个字符 <code>Character.toLowerCase(Character.toUpperCase(c))</code> 之后的字符串,和
+ * {@link String#equalsIgnoreCase(String)} 的判断规则一致</li>
+ * <li>要求枚举值的属性值是不变的,如果枚举值的属性在运行时被修改,索引不会感知</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @since 1.13.1
+ */
+final class EnumPropertyIndex{
+
+    /** 按照 enumClass 缓存的索引,key 是 propertyName. */
+    private static final ClassValue<ConcurrentMap<String, EnumPropertyIndex>> CACHE = new ClassValue<ConcurrentMap<String, EnumPropertyIndex>>(){
+
+        @Override
+        protected ConcurrentMap<String, EnumPropertyIndex> computeValue(Class<?> enumClass){
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    //---------------------------------------------------------------
+
+    /** 属性值 <code>toString()</code> 到枚举值的索引. */
+    private final Map<String, Enum<?>>                                       exactMap;
+
+    /** 忽视大小写的属性值到枚举值的索引. */
+    private final Map<String, Enum<?>>                                       ignoreCaseMap;
+
+    /** 属性值是null 的第一个枚举值,可能是null. */
+    private final Enum<?>                                                    nullValueEnum;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new enum property index.
+     *
+     * @param exactMap
+     *            the exact map
+     * @param ignoreCaseMap
+     *            the ignore case map
+     * @param nullValueEnum
+     *            the null value enum
+     */
+    private EnumPropertyIndex(Map<String, Enum<?>> exactMap, Map<String, Enum<?>> ignoreCaseMap, Enum<?> nullValueEnum){
+        this.exactMap = exactMap;
+        this.ignoreCaseMap = ignoreCaseMap;
+        this.nullValueEnum = nullValueEnum;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 取得 <code>enumClass</code> 的 <code>propertyName</code> 属性的索引,如果还没有建立,那么建立并缓存.
+     *
+     * @param enumClass
+     *            枚举类
+     * @param propertyName
+     *            属性名称
+     * @return 如果 <code>enumClass</code> 不是枚举类,抛出 {@link NullPointerException}<br>
+     *         如果枚举值没有 <code>propertyName</code> 属性,抛出 {@link com.feilong.core.bean.BeanOperationException},并且不会缓存
+     */
+    static EnumPropertyIndex of(Class<?> enumClass,String propertyName){
+        ConcurrentMap<String, EnumPropertyIndex> indexMap = CACHE.get(enumClass);
+        EnumPropertyIndex index = indexMap.get(propertyName);
+        if (null != index){
+            return index;
+        }
+
+        //---------------------------------------------------------------
+        //并发时可能会重复建立,结果是一样的,以先放进去的为准
+        index = build(enumClass, propertyName);
+        EnumPropertyIndex existIndex = indexMap.putIfAbsent(propertyName, index);
+        return null == existIndex ? index : existIndex;
+    }
+
+    /**
+     * 查找属性值是 <code>specifiedValue</code> 的枚举值.
+     *
+     * @param specifiedValue
+     *            指定的值
+     * @param ignoreCase
+     *            是否忽视大小写
+     * @return 如果找不到,返回null
+     */
+    Enum<?> get(Object specifiedValue,boolean ignoreCase){
+        if (null == specifiedValue){
+            return nullValueEnum;
+        }
+        String specifiedValueString = specifiedValue.toString();
+        return ignoreCase ? ignoreCaseMap.get(foldCase(specifiedValueString)) : exactMap.get(specifiedValueString);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 建立索引.
+     *
+     * @param enumClass
+     *            the enum class
+     * @param propertyName
+     *            the property name
+     * @return the enum property index
+     */
+    private static EnumPropertyIndex build(Class<?> enumClass,String propertyName){
+        // 如果Class 对象不表示枚举类型,则返回 null.
+        Object[] enumConstants = enumClass.getEnumConstants();
+        Validate.notNull(enumConstants, "enumClass:[%s] is not enum", enumClass);
+
+        Map<String, Enum<?>> exactMap = new HashMap<>();
+        Map<String, Enum<?>> ignoreCaseMap = new HashMap<>();
+        Enum<?> nullValueEnum = null;
+
+        //倒序放入,声明顺序靠前的枚举值覆盖靠后的,和顺序查找返回第一个匹配值的规则一致
+        for (int i = enumConstants.length - 1; i >= 0; --i){
+            Enum<?> e = (Enum<?>) enumConstants[i];
+            Object propertyValue = PropertyUtil.getProperty(e, propertyName);
+            if (null == propertyValue){
+                nullValueEnum = e;
+                continue;
+            }
+            String propertyValueString = propertyValue.toString();
+            exactMap.put(propertyValueString, e);
+            ignoreCaseMap.put(foldCase(propertyValueString), e);
+        }
+        return new EnumPropertyIndex(exactMap, ignoreCaseMap, nullValueEnum);
+    }
+
+    /**
+     * 将字符串转成忽视大小写比较用的 key.
+     *
+     * @param value
+     *            the value
+     * @return 如果 <code>value</code> 是null,返回null
+     */
+    private static String foldCase(String value){
+        if (null == value){
+            return null;
+        }
+        char[] chars = new char[value.length()];
+        for (int i = 0; i < chars.length; ++i){
+            chars[i] = Character.toLowerCase(Character.toUpperCase(value.charAt(i)));
+        }
+        return new String(chars);
+    }
+}
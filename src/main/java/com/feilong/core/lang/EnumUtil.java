@@ -15,13 +15,11 @@
  */
 package com.feilong.core.lang;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.feilong.core.bean.BeanOperationException;
-import com.feilong.core.bean.PropertyUtil;
 import com.feilong.tools.slf4j.Slf4jUtil;
 
 /**
@@ -207,6 +205,7 @@ public final class EnumUtil{
      * @throws BeanOperationException
      *             如果枚举值没有相关 <code>propertyName</code> 属性,比如 <code>HttpMethodType</code> 有 <b>"method"</b> 属性,但是没有 <b>"method2222"</b> 属性
      * @see com.feilong.core.bean.PropertyUtil#getProperty(Object, String)
+     * @see EnumPropertyIndex
      * @since 1.0.8
      */
     private static <E extends Enum<?>, T> E getEnumByPropertyValue(
@@ -219,22 +218,13 @@ public final class EnumUtil{
 
         //---------------------------------------------------------------
 
-        // An enum is a kind of class
-        // An annotation is a kind of interface
+        //每个 (enumClass, propertyName) 只反射读取一次所有枚举值的属性值,之后直接查索引
+        EnumPropertyIndex enumPropertyIndex = EnumPropertyIndex.of(enumClass, propertyName);
 
-        // 如果Class 对象不表示枚举类型,则返回枚举类的元素或 null.
-        E[] enumConstants = enumClass.getEnumConstants();
-
-        if (LOGGER.isTraceEnabled()){
-            LOGGER.trace("enumClass:[{}],enumConstants:[{}]", enumClass.getCanonicalName(), enumConstants);
-        }
-
-        //---------------------------------------------------------------
-        for (E e : enumConstants){
-            Object propertyValue = PropertyUtil.getProperty(e, propertyName);
-            if (isEquals(propertyValue, specifiedValue, ignoreCase)){
-                return e;
-            }
+        @SuppressWarnings("unchecked")
+        E e = (E) enumPropertyIndex.get(specifiedValue, ignoreCase);
+        if (null != e){
+            return e;
         }
 
         //---------------------------------------------------------------
@@ -244,31 +234,4 @@ public final class EnumUtil{
         }
         return null;
     }
-
-    /**
-     * Checks if is equals.
-     *
-     * @param <T>
-     *            the generic type
-     * @param propertyValue
-     *            the property value
-     * @param specifiedValue
-     *            指定的值
-     * @param ignoreCase
-     *            the ignore case
-     * @return true, if checked
-     * @since 1.4.0
-     */
-    private static <T> boolean isEquals(Object propertyValue,T specifiedValue,boolean ignoreCase){
-        if (propertyValue == null || specifiedValue == null){//很好的设计 赞一个 
-            return propertyValue == specifiedValue;
-        }else if (propertyValue == specifiedValue){
-            return true;
-        }
-        //到这里  propertyValue 和 specifiedValue, 肯定 不是null了 
-        String propertyValueString = propertyValue.toString();
-        String specifiedValueString = specifiedValue.toString();
-        return ignoreCase ? StringUtils.equalsIgnoreCase(propertyValueString, specifiedValueString)
-                        : StringUtils.equals(propertyValueString, specifiedValueString);
-    }
 }
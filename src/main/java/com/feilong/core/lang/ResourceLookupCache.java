@@ -0,0 +1,539 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.UncheckedIOException;
+import com.feilong.core.net.URLUtil;
+import com.feilong.core.util.ConcurrentLruCache;
+import com.feilong.tools.slf4j.Slf4jUtil;
+
+/**
+ * {@link ClassLoaderUtil#getResourceInAllClassLoader(String, Class)} 查找结果的缓存.
+ *
+ * <h3>为什么需要这个类?</h3>
+ *
+ * <blockquote>
+ * <p>
+ * {@link ClassLoaderUtil#getResourceInAllClassLoader(String, Class)} 每次调用都会依次调用每个 {@link ClassLoader#getResource(String)},可能会扫描classpath中的jar;<br>
+ * 模板,配置文件这种反复加载相同资源的场景,本类缓存查找结果,找到的 {@link URL} 和找不到(null)都会缓存.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>查找顺序和 {@link ClassLoaderUtil#getResourceInAllClassLoader(String, Class)} 相同,缓存的key是 资源名称(去掉开头的 /) + 参与查找的 {@link ClassLoader} 列表,
+ * 因此不同线程的 context {@link ClassLoader} 不同的时候,不会相互影响</li>
+ * <li>key 使用 {@link WeakReference} 引用 {@link ClassLoader},不会阻止 webapp 重新部署之后 {@link ClassLoader} 被回收;
+ * 被回收的 {@link ClassLoader} 对应的缓存不会再被命中,随后按照 LRU 被淘汰;
+ * 查找缓存的时候使用强引用 {@link ClassLoader} 的临时key,只有未命中放入缓存的时候才创建 {@link WeakReference}</li>
+ * <li>缓存最多保存 <code>maxSize</code> 个查找结果,超过之后淘汰最近最少使用的,参见 {@link ConcurrentLruCache}</li>
+ * <li>资源在运行期间新增/修改的话,需要调用 {@link #invalidate(String)} 或者 {@link #invalidateAll()}</li>
+ * <li><code>maxBufferedLength</code> 大于0的时候,{@link #getResourceAsStream(String, Class)} 会把不超过该字节数的资源内容缓存在内存里,
+ * 之后直接返回 {@link ByteArrayInputStream},不再打开 {@link URL};超过的资源每次都打开 {@link URL} 读取</li>
+ * <li>线程安全</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * private static final ResourceLookupCache RESOURCE_CACHE = new ResourceLookupCache(500, 64 * 1024);
+ *
+ * URL url = RESOURCE_CACHE.getResource("messages/feilong-core-test.properties", getClass());
+ * InputStream inputStream = RESOURCE_CACHE.getResourceAsStream("template/mail.vm", getClass());
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see ClassLoaderUtil#getResourceInAllClassLoader(String, Class)
+ * @since 1.13.1
+ */
+public final class ResourceLookupCache{
+
+    /** 默认最多缓存的查找结果数量. */
+    public static final int                              DEFAULT_MAX_SIZE = 1000;
+
+    /** 默认实例,不缓存资源内容. */
+    private static final ResourceLookupCache             DEFAULT          = new ResourceLookupCache(DEFAULT_MAX_SIZE, 0);
+
+    //---------------------------------------------------------------
+
+    /** The cache. */
+    private final ConcurrentLruCache<AbstractKey, Entry> cache;
+
+    /** 缓存资源内容的最大字节数,0表示不缓存. */
+    private final int                                    maxBufferedLength;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new resource lookup cache.
+     *
+     * @param maxSize
+     *            最多缓存的查找结果数量,必须大于0
+     * @param maxBufferedLength
+     *            缓存资源内容的最大字节数,0表示不缓存资源内容
+     * @throws IllegalArgumentException
+     *             如果 <code>maxSize</code> {@code <=} 0,或者 <code>maxBufferedLength</code> {@code <} 0
+     */
+    public ResourceLookupCache(int maxSize, int maxBufferedLength){
+        Validate.isTrue(maxBufferedLength >= 0, "maxBufferedLength:[%s] must >= 0", maxBufferedLength);
+        this.cache = new ConcurrentLruCache<>(maxSize);
+        this.maxBufferedLength = maxBufferedLength;
+    }
+
+    /**
+     * 默认实例,最多缓存 {@link #DEFAULT_MAX_SIZE} 个查找结果,不缓存资源内容.
+     *
+     * @return the default
+     */
+    public static ResourceLookupCache getDefault(){
+        return DEFAULT;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 查找资源,结果和 {@link ClassLoaderUtil#getResourceInAllClassLoader(String, Class)} 相同.
+     *
+     * @param resourceName
+     *            The name of the resource to load
+     * @param callingClass
+     *            The Class object of the calling object
+     * @return 如果 <code>resourceName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>callingClass</code> 是null,将会忽略此参数<br>
+     *         如果在所有的{@link ClassLoader}里面都查不到资源,那么返回null
+     */
+    public URL getResource(String resourceName,Class<?> callingClass){
+        return getEntry(resourceName, callingClass).url;
+    }
+
+    /**
+     * 加载资源 <code>resourceName</code> 为 {@link InputStream}.
+     *
+     * @param resourceName
+     *            The name of the resource to load
+     * @param callingClass
+     *            The Class object of the calling object
+     * @return 如果 <code>resourceName</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果查找不到资源,那么返回 null<br>
+     *         如果资源内容已经缓存,返回 {@link ByteArrayInputStream}
+     * @throws UncheckedIOException
+     *             如果读取资源的时候发生 {@link IOException}
+     * @see ClassLoaderUtil#getResourceAsStream(String, Class)
+     */
+    public InputStream getResourceAsStream(String resourceName,Class<?> callingClass){
+        Entry entry = getEntry(resourceName, callingClass);
+        if (null == entry.url){
+            return null;
+        }
+
+        byte[] bytes = entry.bytes;
+        if (null != bytes){
+            return new ByteArrayInputStream(bytes);
+        }
+
+        InputStream inputStream = URLUtil.openStream(entry.url);
+        if (0 == maxBufferedLength || entry.tooLarge){
+            return inputStream;
+        }
+        return buffer(entry, inputStream);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 删除 <code>resourceName</code> 的所有缓存(不论是哪些 {@link ClassLoader} 查找的).
+     *
+     * @param resourceName
+     *            the resource name
+     */
+    public void invalidate(String resourceName){
+        if (null == resourceName){
+            return;
+        }
+        String name = normalize(resourceName);
+        //key 的数量有上限,直接遍历;失效是低频操作
+        for (AbstractKey key : cache.keySet()){
+            if (key.resourceName.equals(name)){
+                cache.remove(key);
+            }
+        }
+    }
+
+    /**
+     * 清空所有缓存.
+     */
+    public void invalidateAll(){
+        cache.clear();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 当前缓存的查找结果数量.
+     *
+     * @return the int
+     */
+    public int size(){
+        return cache.size();
+    }
+
+    /**
+     * 命中次数.
+     *
+     * @return the hit count
+     */
+    public long getHitCount(){
+        return cache.getHitCount();
+    }
+
+    /**
+     * 未命中次数.
+     *
+     * @return the miss count
+     */
+    public long getMissCount(){
+        return cache.getMissCount();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得缓存的查找结果,如果没有缓存,查找并放入缓存.
+     *
+     * @param resourceName
+     *            the resource name
+     * @param callingClass
+     *            the calling class
+     * @return the entry
+     */
+    private Entry getEntry(String resourceName,Class<?> callingClass){
+        Validate.notNull(resourceName, "resourceName can't be null!");
+
+        //命中的时候只创建强引用 ClassLoader 的查找key,不创建 WeakReference,也不创建 ClassLoader 列表
+        LookupKey lookupKey = new LookupKey(normalize(resourceName), getClassLoaders(callingClass));
+        Entry entry = cache.get(lookupKey);
+        if (null != entry){
+            return entry;
+        }
+
+        List<ClassLoader> classLoaderList = Arrays.asList(lookupKey.classLoaders);
+        Entry newEntry = new Entry(ClassLoaderUtil.getResourceInAllClassLoader(resourceName, classLoaderList));
+        return cache.putIfAbsent(new Key(lookupKey.resourceName, classLoaderList), newEntry);
+    }
+
+    /**
+     * 读取不超过 {@link #maxBufferedLength} 的资源内容并缓存.
+     *
+     * @param entry
+     *            the entry
+     * @param inputStream
+     *            the input stream
+     * @return 如果资源不超过 {@link #maxBufferedLength},返回 {@link ByteArrayInputStream};<br>
+     *         否则返回已经读取的部分和剩余部分拼接起来的 {@link InputStream}
+     */
+    private InputStream buffer(Entry entry,InputStream inputStream){
+        byte[] buffer = new byte[Math.min(maxBufferedLength + 1, 8192)];
+        int length = 0;
+        try{
+            int count;
+            while (length <= maxBufferedLength && (count = inputStream.read(buffer, length, buffer.length - length)) != -1){
+                length += count;
+                if (length == buffer.length && length <= maxBufferedLength){
+                    buffer = Arrays.copyOf(buffer, Math.min(maxBufferedLength + 1, buffer.length * 2));
+                }
+            }
+            if (length > maxBufferedLength){
+                entry.tooLarge = true;
+                return new SequenceInputStream(new ByteArrayInputStream(buffer, 0, length), inputStream);
+            }
+            inputStream.close();
+        }catch (IOException e){
+            throw new UncheckedIOException(Slf4jUtil.format("read url:[{}]", entry.url), e);
+        }
+
+        byte[] bytes = Arrays.copyOf(buffer, length);
+        entry.bytes = bytes;
+        return new ByteArrayInputStream(bytes);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 去掉开头的 /,和 {@link ClassLoaderUtil} 查找时的处理一致.
+     *
+     * @param resourceName
+     *            the resource name
+     * @return the string
+     */
+    private static String normalize(String resourceName){
+        return resourceName.startsWith("/") ? resourceName.substring(1) : resourceName;
+    }
+
+    /**
+     * 参与查找的 {@link ClassLoader},顺序和 {@link ClassLoaderUtil#getResourceInAllClassLoader(String, Class)} 相同,去掉了重复的.
+     *
+     * <p>
+     * 同一个 {@link ClassLoader} 查找两次结果相同,去掉重复的不影响查找结果.
+     * </p>
+     *
+     * @param callingClass
+     *            the calling class
+     * @return the class loader[]
+     */
+    private static ClassLoader[] getClassLoaders(Class<?> callingClass){
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        ClassLoader classLoader = ClassLoaderUtil.class.getClassLoader();
+        if (null == callingClass){
+            return contextClassLoader == classLoader ? new ClassLoader[] { contextClassLoader }
+                            : new ClassLoader[] { contextClassLoader, classLoader };
+        }
+
+        ClassLoader callingClassLoader = callingClass.getClassLoader();
+        if (contextClassLoader == classLoader){
+            return callingClassLoader == classLoader ? new ClassLoader[] { contextClassLoader }
+                            : new ClassLoader[] { contextClassLoader, callingClassLoader };
+        }
+        return callingClassLoader == contextClassLoader || callingClassLoader == classLoader
+                        ? new ClassLoader[] { contextClassLoader, classLoader }
+                        : new ClassLoader[] { contextClassLoader, classLoader, callingClassLoader };
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 缓存key的公共部分,{@link Key} 和 {@link LookupKey} 之间可以比较是否相等.
+     */
+    private abstract static class AbstractKey{
+
+        /** 引用的 {@link ClassLoader} 已经被回收. */
+        private static final Object COLLECTED = new Object();
+
+        /** 去掉开头 / 的资源名称. */
+        final String                resourceName;
+
+        /** The hash. */
+        private final int           hash;
+
+        /**
+         * Instantiates a new abstract key.
+         *
+         * @param resourceName
+         *            the resource name
+         * @param classLoaders
+         *            the class loaders
+         */
+        AbstractKey(String resourceName, ClassLoader...classLoaders){
+            this.resourceName = resourceName;
+
+            int result = resourceName.hashCode();
+            for (ClassLoader classLoader : classLoaders){
+                result = 31 * result + System.identityHashCode(classLoader);
+            }
+            this.hash = result;
+        }
+
+        /**
+         * 参与查找的 {@link ClassLoader} 数量.
+         *
+         * @return the int
+         */
+        abstract int getClassLoaderCount();
+
+        /**
+         * 第 <code>index</code> 个参与查找的 {@link ClassLoader}.
+         *
+         * @param index
+         *            the index
+         * @return 如果是 null {@link ClassLoader},返回null;<br>
+         *         如果引用的 {@link ClassLoader} 已经被回收,返回 {@link #COLLECTED}
+         */
+        abstract Object getClassLoader(int index);
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public final int hashCode(){
+            return hash;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public final boolean equals(Object obj){
+            if (this == obj){
+                return true;
+            }
+            if (!(obj instanceof AbstractKey)){
+                return false;
+            }
+            AbstractKey other = (AbstractKey) obj;
+            int count = getClassLoaderCount();
+            if (hash != other.hash || count != other.getClassLoaderCount() || !resourceName.equals(other.resourceName)){
+                return false;
+            }
+            for (int i = 0; i < count; ++i){
+                //已经回收的 ClassLoader 不会和任何 key 相等
+                Object classLoader = getClassLoader(i);
+                if (COLLECTED == classLoader || classLoader != other.getClassLoader(i)){
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 缓存的key,弱引用 {@link ClassLoader},不会阻止 {@link ClassLoader} 被回收.
+     */
+    private static final class Key extends AbstractKey{
+
+        /** 参与查找的 {@link ClassLoader},元素是null表示 null {@link ClassLoader}(比如 bootstrap 加载的 callingClass). */
+        private final List<WeakReference<ClassLoader>> classLoaderReferences;
+
+        /**
+         * Instantiates a new key.
+         *
+         * @param resourceName
+         *            the resource name
+         * @param classLoaderList
+         *            the class loader list
+         */
+        private Key(String resourceName, List<ClassLoader> classLoaderList){
+            super(resourceName, classLoaderList.toArray(new ClassLoader[classLoaderList.size()]));
+            this.classLoaderReferences = new ArrayList<>(classLoaderList.size());
+            for (ClassLoader classLoader : classLoaderList){
+                classLoaderReferences.add(null == classLoader ? null : new WeakReference<>(classLoader));
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.lang.ResourceLookupCache.AbstractKey#getClassLoaderCount()
+         */
+        @Override
+        int getClassLoaderCount(){
+            return classLoaderReferences.size();
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.lang.ResourceLookupCache.AbstractKey#getClassLoader(int)
+         */
+        @Override
+        Object getClassLoader(int index){
+            WeakReference<ClassLoader> reference = classLoaderReferences.get(index);
+            if (null == reference){
+                return null;
+            }
+            ClassLoader classLoader = reference.get();
+            return null == classLoader ? AbstractKey.COLLECTED : classLoader;
+        }
+    }
+
+    /**
+     * 只用来查找缓存的key,强引用 {@link ClassLoader},不会放入缓存.
+     */
+    private static final class LookupKey extends AbstractKey{
+
+        /** 参与查找的 {@link ClassLoader}. */
+        private final ClassLoader[] classLoaders;
+
+        /**
+         * Instantiates a new lookup key.
+         *
+         * @param resourceName
+         *            the resource name
+         * @param classLoaders
+         *            the class loaders
+         */
+        private LookupKey(String resourceName, ClassLoader[] classLoaders){
+            super(resourceName, classLoaders);
+            this.classLoaders = classLoaders;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.lang.ResourceLookupCache.AbstractKey#getClassLoaderCount()
+         */
+        @Override
+        int getClassLoaderCount(){
+            return classLoaders.length;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see com.feilong.core.lang.ResourceLookupCache.AbstractKey#getClassLoader(int)
+         */
+        @Override
+        Object getClassLoader(int index){
+            return classLoaders[index];
+        }
+    }
+
+    /**
+     * 查找结果.
+     */
+    private static final class Entry{
+
+        /** 找到的资源,null表示找不到. */
+        private final URL        url;
+
+        /** 缓存的资源内容. */
+        private volatile byte[]  bytes;
+
+        /** 资源内容是否超过了缓存的最大字节数. */
+        private volatile boolean tooLarge;
+
+        /**
+         * Instantiates a new entry.
+         *
+         * @param url
+         *            the url
+         */
+        private Entry(URL url){
+            this.url = url;
+        }
+    }
+}
@@ -0,0 +1,472 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.text.StrSubstitutor;
+
+import com.feilong.core.UncheckedIOException;
+import com.feilong.core.bean.BeanOperationException;
+import com.feilong.core.bean.PropertyUtil;
+import com.feilong.core.util.ConcurrentLruCache;
+
+/**
+ * 预先解析好的 <code>${...}</code> 字符串模板.
+ *
+ * <h3>为什么需要这个类?</h3>
+ *
+ * <blockquote>
+ * <p>
+ * {@link StrSubstitutor#replace(Object, Map)} 每次调用都会重新扫描一遍模板查找变量;<br>
+ * 同一个模板(比如通知文案,sql)使用不同的参数渲染很多次的时候,本类只解析一次,拆成 文本/变量 片段,渲染的时候直接拼接.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>解析规则和 {@link StrSubstitutor} 的默认规则一致:变量前缀 <code>${</code>,后缀 <code>}</code>,转义字符 <code>$</code>(<code>$${name}</code>
+ * 输出 <code>${name}</code>),默认值分隔符 <code>:-</code>(<code>${name:-默认值}</code>),找不到值的变量原样保留</li>
+ * <li>{@link #render(Map)} 的结果和 {@link StrSubstitutor#replace(Object, Map)} 一致;如果某个值本身又包含 <code>${</code> 需要递归替换,
+ * 或者以转义字符结尾紧挨着下一个变量,直接交给 {@link StrSubstitutor} 处理</li>
+ * <li>渲染的时候先取出所有变量的值,再按照精确的长度创建 {@link StringBuilder},不会扩容</li>
+ * <li>{@link #compile(String)} 使用有容量上限的 LRU 缓存,最多缓存 {@link #MAX_SIZE} 个模板</li>
+ * <li>模板是不可变的,可以在多个线程中使用</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * StringTemplate template = StringTemplate.compile("/home/webuser/expressdelivery/${yearMonth}/${expressDeliveryType}/vipQuery_${fileName}.log");
+ *
+ * template.render(valuesMap);
+ * template.renderTo(writer, valuesMap);
+ *
+ * StringTemplate.compile("${user.id}-${user.name:-guest}").renderBean(toMap("user", user)) = "1-guest"
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see StringUtil#replace(CharSequence, Map)
+ * @see StrSubstitutor
+ * @since 1.13.1
+ */
+public final class StringTemplate{
+
+    /** 最多缓存的模板数量. */
+    public static final int                                          MAX_SIZE         = 500;
+
+    /** 变量前缀. */
+    private static final String                                      VARIABLE_PREFIX  = "${";
+
+    /** 变量后缀. */
+    private static final char                                        VARIABLE_SUFFIX  = '}';
+
+    /** 转义字符. */
+    private static final char                                        ESCAPE           = '$';
+
+    /** 默认值分隔符. */
+    private static final String                                      VALUE_DELIMITER  = ":-";
+
+    /** The cache. */
+    private static final ConcurrentLruCache<String, StringTemplate> CACHE            = new ConcurrentLruCache<>(MAX_SIZE);
+
+    /** 缓存未命中时,解析模板. */
+    private static final Transformer<String, StringTemplate>         LOADER           = new Transformer<String, StringTemplate>(){
+
+                                                                                          @Override
+                                                                                          public StringTemplate transform(String template){
+                                                                                              return new StringTemplate(template);
+                                                                                          }
+                                                                                      };
+
+    //---------------------------------------------------------------
+
+    /** 原始模板. */
+    private final String                                             template;
+
+    /** 片段,元素是 {@link String}(文本) 或者 {@link Variable}(变量). */
+    private final Object[]                                           segments;
+
+    /** 所有文本片段的长度之和. */
+    private final int                                                literalLength;
+
+    /** 变量个数. */
+    private final int                                                variableCount;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new string template.
+     *
+     * @param template
+     *            the template
+     */
+    private StringTemplate(String template){
+        this.template = template;
+
+        List<Object> segmentList = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int length = template.length();
+        int i = 0;
+        while (i < length){
+            if (!template.startsWith(VARIABLE_PREFIX, i)){
+                literal.append(template.charAt(i++));
+                continue;
+            }
+
+            //---------------------------------------------------------------
+            //转义:去掉前面的转义字符,前缀按照文本处理,从前缀的第二个字符继续查找
+            if (i > 0 && template.charAt(i - 1) == ESCAPE){
+                literal.setLength(literal.length() - 1);
+                literal.append(template.charAt(i++));
+                continue;
+            }
+
+            //没有后缀,剩余的都是文本
+            int suffixIndex = template.indexOf(VARIABLE_SUFFIX, i + VARIABLE_PREFIX.length());
+            if (suffixIndex < 0){
+                literal.append(template, i, length);
+                break;
+            }
+
+            //---------------------------------------------------------------
+            if (literal.length() > 0){
+                segmentList.add(literal.toString());
+                literal.setLength(0);
+            }
+            segmentList.add(Variable.parse(template.substring(i, suffixIndex + 1)));
+            i = suffixIndex + 1;
+        }
+        if (literal.length() > 0){
+            segmentList.add(literal.toString());
+        }
+
+        //---------------------------------------------------------------
+        this.segments = segmentList.toArray();
+
+        int literalLengthSum = 0;
+        int variableSum = 0;
+        for (Object segment : segments){
+            if (segment instanceof String){
+                literalLengthSum += ((String) segment).length();
+            }else{
+                ++variableSum;
+            }
+        }
+        this.literalLength = literalLengthSum;
+        this.variableCount = variableSum;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 解析模板,解析结果按照模板字符串缓存.
+     *
+     * @param template
+     *            the template
+     * @return 如果 <code>template</code> 是null,抛出 {@link NullPointerException}<br>
+     */
+    public static StringTemplate compile(String template){
+        Validate.notNull(template, "template can't be null!");
+        return CACHE.get(template, LOADER);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用 <code>valuesMap</code> 渲染模板,结果和 {@link StrSubstitutor#replace(Object, Map)} 一致.
+     *
+     * @param valuesMap
+     *            变量值,使用值的 <code>toString()</code>;如果是null,变量都原样保留
+     * @return 渲染结果
+     * @throws IllegalStateException
+     *             如果值中的变量循环引用,参见 {@link StrSubstitutor}
+     */
+    public String render(Map<String, ?> valuesMap){
+        if (0 == variableCount){
+            return literal();
+        }
+        String[] values = resolveFromMap(valuesMap);
+        return null == values ? StrSubstitutor.replace(template, valuesMap) : join(values);
+    }
+
+    /**
+     * 使用 <code>valuesMap</code> 渲染模板,写入 <code>appendable</code>.
+     *
+     * @param <A>
+     *            the generic type
+     * @param appendable
+     *            比如 {@link StringBuilder},{@link java.io.Writer}
+     * @param valuesMap
+     *            变量值,使用值的 <code>toString()</code>;如果是null,变量都原样保留
+     * @return 如果 <code>appendable</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果写入的时候发生 {@link IOException},抛出 {@link UncheckedIOException}<br>
+     *         否则返回 <code>appendable</code>
+     * @throws IllegalStateException
+     *             如果值中的变量循环引用,参见 {@link StrSubstitutor}
+     */
+    public <A extends Appendable> A renderTo(A appendable,Map<String, ?> valuesMap){
+        Validate.notNull(appendable, "appendable can't be null!");
+        try{
+            String[] values = 0 == variableCount ? null : resolveFromMap(valuesMap);
+            if (0 != variableCount && null == values){
+                appendable.append(StrSubstitutor.replace(template, valuesMap));
+            }else{
+                appendTo(appendable, values);
+            }
+            return appendable;
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 使用 <code>bean</code> 的属性值渲染模板,变量名称是属性名称(支持嵌套,比如 <code>${user.id}</code>,参见 {@link PropertyUtil#getProperty(Object, String)}).
+     *
+     * <p>
+     * 属性值直接拼接,不会再递归替换;属性不存在或者属性值是null,使用默认值,没有默认值的变量原样保留.
+     * </p>
+     *
+     * @param bean
+     *            the bean,也可以是 {@link Map}
+     * @return 如果 <code>bean</code> 是null,抛出 {@link NullPointerException}<br>
+     */
+    public String renderBean(Object bean){
+        Validate.notNull(bean, "bean can't be null!");
+        if (0 == variableCount){
+            return literal();
+        }
+
+        String[] values = new String[segments.length];
+        for (int i = 0; i < segments.length; ++i){
+            if (segments[i] instanceof Variable){
+                Variable variable = (Variable) segments[i];
+                String resolved = variable.resolve(getPropertyString(bean, variable.name));
+                values[i] = null == resolved ? variable.text : resolved;
+            }
+        }
+        return join(values);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 没有变量的模板的渲染结果(转义字符已经处理过).
+     *
+     * @return the string
+     */
+    private String literal(){
+        //没有变量的时候,相邻的文本已经合并成一个片段
+        return 0 == segments.length ? "" : (String) segments[0];
+    }
+
+    /**
+     * 从 <code>valuesMap</code> 中取出每个变量的值.
+     *
+     * @param valuesMap
+     *            the values map
+     * @return 如果需要交给 {@link StrSubstitutor} 处理,返回null
+     */
+    private String[] resolveFromMap(Map<String, ?> valuesMap){
+        String[] values = new String[segments.length];
+        for (int i = 0; i < segments.length; ++i){
+            if (!(segments[i] instanceof Variable)){
+                continue;
+            }
+            Variable variable = (Variable) segments[i];
+            Object value = null == valuesMap ? null : valuesMap.get(variable.name);
+            String resolved = variable.resolve(null == value ? null : value.toString());
+            //找不到值的变量原样保留,StrSubstitutor 也不会再处理
+            if (null == resolved){
+                values[i] = variable.text;
+                continue;
+            }
+            if (needSubstitutor(resolved, i)){
+                return null;
+            }
+            values[i] = resolved;
+        }
+        return values;
+    }
+
+    /**
+     * 替换进去的值是否会被 {@link StrSubstitutor} 再次处理.
+     *
+     * @param resolved
+     *            替换进去的值
+     * @param index
+     *            片段下标
+     * @return 如果值包含变量前缀(会递归替换),或者以转义字符结尾并且紧挨着下一个变量(会把下一个变量当成转义),返回true
+     */
+    private boolean needSubstitutor(String resolved,int index){
+        if (resolved.contains(VARIABLE_PREFIX)){
+            return true;
+        }
+        return resolved.length() > 0 && resolved.charAt(resolved.length() - 1) == ESCAPE && index + 1 < segments.length
+                        && segments[index + 1] instanceof Variable;
+    }
+
+    /**
+     * 按照精确的长度拼接.
+     *
+     * @param values
+     *            每个变量片段对应的值
+     * @return the string
+     */
+    private String join(String[] values){
+        int length = literalLength;
+        for (String value : values){
+            if (null != value){
+                length += value.length();
+            }
+        }
+        StringBuilder sb = new StringBuilder(length);
+        try{
+            appendTo(sb, values);
+        }catch (IOException e){
+            //StringBuilder 不会抛出 IOException
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 拼接所有片段.
+     *
+     * @param appendable
+     *            the appendable
+     * @param values
+     *            每个变量片段对应的值,如果模板没有变量,可以是null
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void appendTo(Appendable appendable,String[] values) throws IOException{
+        for (int i = 0; i < segments.length; ++i){
+            Object segment = segments[i];
+            appendable.append(segment instanceof String ? (String) segment : values[i]);
+        }
+    }
+
+    /**
+     * 取得属性值的字符串.
+     *
+     * @param bean
+     *            the bean
+     * @param propertyName
+     *            the property name
+     * @return 如果属性不存在或者属性值是null,返回null
+     */
+    private static String getPropertyString(Object bean,String propertyName){
+        if (propertyName.trim().isEmpty()){
+            return null;
+        }
+        try{
+            Object value = PropertyUtil.getProperty(bean, propertyName);
+            return null == value ? null : value.toString();
+        }catch (BeanOperationException e){
+            return null;
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        return template;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 变量片段.
+     */
+    private static final class Variable{
+
+        /** 原始文本,比如 <code>${name:-guest}</code>,找不到值的时候原样输出. */
+        private final String text;
+
+        /** 变量名称. */
+        private final String name;
+
+        /** 默认值,可能是null. */
+        private final String defaultValue;
+
+        /**
+         * Instantiates a new variable.
+         *
+         * @param text
+         *            the text
+         * @param name
+         *            the name
+         * @param defaultValue
+         *            the default value
+         */
+        private Variable(String text, String name, String defaultValue){
+            this.text = text;
+            this.name = name;
+            this.defaultValue = defaultValue;
+        }
+
+        /**
+         * 解析变量.
+         *
+         * @param text
+         *            包含前缀和后缀的原始文本
+         * @return the variable
+         */
+        private static Variable parse(String text){
+            String expression = text.substring(VARIABLE_PREFIX.length(), text.length() - 1);
+            for (int i = 0; i < expression.length(); ++i){
+                //和 StrSubstitutor 一样,变量名称中出现变量前缀之后,不再解析默认值
+                if (expression.startsWith(VARIABLE_PREFIX, i)){
+                    break;
+                }
+                if (expression.startsWith(VALUE_DELIMITER, i)){
+                    return new Variable(text, expression.substring(0, i), expression.substring(i + VALUE_DELIMITER.length()));
+                }
+            }
+            return new Variable(text, expression, null);
+        }
+
+        /**
+         * 取得替换进去的值.
+         *
+         * @param value
+         *            变量的值,可能是null
+         * @return 如果 <code>value</code> 不是null,返回 <code>value</code>;否则返回默认值(可能是null)
+         */
+        private String resolve(String value){
+            return null == value ? defaultValue : value;
+        }
+    }
+}
@@ -53,6 +53,7 @@ import com.feilong.tools.slf4j.Slf4jUtil;
  * <ul>
  * <li>{@link #tokenizeToStringArray(String, String)}</li>
  * <li>{@link #tokenizeToStringArray(String, String, boolean, boolean)}</li>
+ * <li>{@link #tokenize(CharSequence, String, boolean, boolean)} 不生成中间字符串的游标</li>
  * </ul>
  * 
  * <p>
@@ -468,12 +469,14 @@ public final class StringUtil{
      *            the values map
      * @return 如果 <code>templateString</code> 是 <code>StringUtils.isEmpty(templateString)</code>,返回 {@link StringUtils#EMPTY}<br>
      *         如果 <code>valuesMap</code> 是null或者empty,原样返回 <code>templateString</code><br>
+     *         模板解析一次之后会缓存起来,参见 {@link StringTemplate};结果和 {@link StrSubstitutor#replace(Object, Map)} 一致
+     * @see StringTemplate#render(Map)
      * @see org.apache.commons.lang3.text.StrSubstitutor#replace(String)
      * @see org.apache.commons.lang3.text.StrSubstitutor#replace(Object, Map)
      * @since 1.1.1
      */
     public static <V> String replace(CharSequence templateString,Map<String, V> valuesMap){
-        return StringUtils.isEmpty(templateString) ? EMPTY : StrSubstitutor.replace(templateString, valuesMap);
+        return StringUtils.isEmpty(templateString) ? EMPTY : StringTemplate.compile(templateString.toString()).render(valuesMap);
     }
 
     // [end]
@@ -771,6 +774,17 @@ public final class StringUtil{
             return ArrayUtils.EMPTY_STRING_ARRAY;
         }
 
+        //CharSequenceTokenizer 跳过空 token 的结果和 StringTokenizer 一致;不跳过空 token 时,StringTokenizer 不会返回连续分隔符之间的空 token,因此仍然使用 StringTokenizer
+        if (ignoreEmptyTokens && isBmpDelimiters(delimiters)){
+            List<String> tokens = newArrayList();
+            CharSequenceTokenizer tokenizer = new CharSequenceTokenizer(str, delimiters, trimTokens, true);
+            while (tokenizer.next()){
+                tokens.add(tokenizer.token());
+            }
+            return toArray(tokens, String.class);
+        }
+
+        //---------------------------------------------------------------
         List<String> tokens = newArrayList();
 
         StringTokenizer stringTokenizer = new StringTokenizer(str, delimiters);
@@ -785,6 +799,93 @@ public final class StringUtil{
         return toArray(tokens, String.class);
     }
 
+    /**
+     * 判断 <code>delimiters</code> 是否可以按照单个 char 比较(不是null/empty,并且不包含代理字符).
+     *
+     * @param delimiters
+     *            the delimiters
+     * @return true, if is bmp delimiters
+     * @since 1.13.1
+     */
+    private static boolean isBmpDelimiters(String delimiters){
+        if (isNullOrEmpty(delimiters)){
+            return false;
+        }
+        for (int i = 0; i < delimiters.length(); ++i){
+            if (Character.isSurrogate(delimiters.charAt(i))){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // [end]
+
+    // [start]tokenize
+
+    /**
+     * 使用 <code>delimiters</code> 中的字符分隔 <code>text</code>,返回可以逐个读取 token 位置的游标,不会生成中间的 String[].
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * CharSequenceTokenizer tokenizer = StringUtil.tokenize("a=1&amp;b=2&amp;&amp;c", "&amp;", false, true);
+     * while (tokenizer.next()){
+     *     //依次是 "a=1" "b=2" "c",可以使用 tokenizer.start() tokenizer.end() 直接在原始文本上解析
+     * }
+     * </pre>
+     * 
+     * </blockquote>
+     * 
+     * <h3>和 {@link #tokenizeToStringArray(String, String, boolean, boolean)} 的区别:</h3>
+     * 
+     * <blockquote>
+     * <p>
+     * 当 <code>ignoreEmptyTokens</code> 是false 的时候,游标会返回连续分隔符之间的空 token(和 {@link #split(String, String)} 类似,但是结尾的空 token 不会被去掉),而
+     * {@link StringTokenizer} 不会.
+     * </p>
+     * </blockquote>
+     *
+     * @param text
+     *            需要被分隔的文本
+     * @param delimiters
+     *            分隔符,每个字符都是一个分隔符,不是正则表达式
+     * @param trimTokens
+     *            是否 trim token(规则和 {@link String#trim()} 一样)
+     * @param ignoreEmptyTokens
+     *            是否跳过空 token
+     * @return 如果 <code>text</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>delimiters</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>delimiters</code> 是empty,抛出 {@link IllegalArgumentException}<br>
+     * @see CharSequenceTokenizer
+     * @since 1.13.1
+     */
+    public static CharSequenceTokenizer tokenize(CharSequence text,String delimiters,boolean trimTokens,boolean ignoreEmptyTokens){
+        return new CharSequenceTokenizer(text, delimiters, trimTokens, ignoreEmptyTokens);
+    }
+
+    /**
+     * 使用单个分隔符 <code>delimiter</code> 分隔 <code>text</code>,返回可以逐个读取 token 位置的游标,不会使用正则表达式,也不会生成中间的 String[].
+     *
+     * @param text
+     *            需要被分隔的文本
+     * @param delimiter
+     *            分隔符
+     * @param trimTokens
+     *            是否 trim token(规则和 {@link String#trim()} 一样)
+     * @param ignoreEmptyTokens
+     *            是否跳过空 token
+     * @return 如果 <code>text</code> 是null,抛出 {@link NullPointerException}<br>
+     * @see CharSequenceTokenizer
+     * @see #tokenize(CharSequence, String, boolean, boolean)
+     * @since 1.13.1
+     */
+    public static CharSequenceTokenizer tokenize(CharSequence text,char delimiter,boolean trimTokens,boolean ignoreEmptyTokens){
+        return new CharSequenceTokenizer(text, delimiter, trimTokens, ignoreEmptyTokens);
+    }
+
     // [end]
 
     // [start]format
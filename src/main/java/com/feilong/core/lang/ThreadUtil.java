@@ -189,7 +189,7 @@ public final class ThreadUtil{
         //---------------------------------------------------------------
 
         if (LOGGER.isInfoEnabled()){
-            LOGGER.info("runnable:[{}],threadCount:[{}],total use time:{}", runnable, threadCount, formatDuration(beginDate));
+            LOGGER.info("runnable:[{}],threadCount:[{}],total use time:{}", runnable, threadCount, formatDuration(beginDate, new Date()));
         }
     }
 
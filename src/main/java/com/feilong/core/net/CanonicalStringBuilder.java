@@ -0,0 +1,507 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.net;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.apache.commons.lang3.StringUtils.defaultString;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+
+import javax.crypto.Mac;
+
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.UncheckedIOException;
+
+/**
+ * 按照 key 自然排序,拼接用于签名的字符串(canonical string).
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>排序规则和 {@link com.feilong.core.util.SortUtil#sortMapByKeyAsc(Map)} 相同(null key 排在最前面),但是只在一个可以重复使用的数组里面排序,不会复制出新的 map</li>
+ * <li>null key 以及 null value 使用 {@link org.apache.commons.lang3.StringUtils#EMPTY} 拼接;<b>不会执行 encode 操作</b>,使用原生值拼接</li>
+ * <li>{@link #build(Map)} 先计算好长度,只写一个 {@link StringBuilder};{@link #appendTo(Appendable, Map)} 直接写到指定的 {@link Appendable}</li>
+ * <li>{@link #update(MessageDigest, Map, Charset)} 以及 {@link #update(Mac, Map, Charset)} 使用固定大小的缓冲区边编码边写入,不会生成完整的字符串和 byte[],
+ * 结果和 <code>digest.update(build(map).getBytes(charset))</code> 完全相同</li>
+ * <li>实例会重复使用内部的缓冲区,<b>不是线程安全的</b>,可以每个线程(或者每次签名)一个实例</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ * <blockquote>
+ *
+ * <pre class="code">
+ * Map{@code <String, String>} map = newHashMap();
+ * map.put("service", "create_salesorder");
+ * map.put("_input_charset", "gbk");
+ * map.put("totalActual", "210.00");
+ *
+ * CanonicalStringBuilder builder = CanonicalStringBuilder.forQueryString();
+ * builder.build(map);  = {@code _input_charset=gbk&service=create_salesorder&totalActual=210.00}
+ *
+ * MessageDigest messageDigest = MessageDigest.getInstance("MD5");
+ * builder.update(messageDigest, map, UTF_8);
+ * byte[] sign = messageDigest.digest();
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see ParamUtil#toNaturalOrderingQueryString(Map)
+ * @see ParamUtil#toNaturalOrderingKeyJoinValue(Map)
+ * @since 1.13.1
+ */
+public final class CanonicalStringBuilder{
+
+    /** 编码时字符缓冲区的大小. */
+    private static final int                                   CHAR_BUFFER_SIZE = 512;
+
+    /** key 自然排序,null 排在最前面,和 SortUtil.sortMapByKeyAsc 相同. */
+    private static final Comparator<Map.Entry<String, String>> KEY_COMPARATOR   = new KeyComparator();
+
+    //---------------------------------------------------------------
+
+    /** key 和 value 之间的连接符. */
+    private final String                                       keyValueSeparator;
+
+    /** 两个参数之间的连接符. */
+    private final String                                       pairSeparator;
+
+    //---------------------------------------------------------------
+
+    /** 可以重复使用的排序数组. */
+    private Map.Entry<String, String>[]                        entries;
+
+    /** 编码时使用的字符缓冲区. */
+    private CharBuffer                                         charBuffer;
+
+    /** 编码时使用的字节缓冲区. */
+    private ByteBuffer                                         byteBuffer;
+
+    /** 最近一次使用的编码器. */
+    private CharsetEncoder                                     encoder;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new canonical string builder.
+     *
+     * @param keyValueSeparator
+     *            key 和 value 之间的连接符,比如 =
+     * @param pairSeparator
+     *            两个参数之间的连接符,比如 {@code &}
+     * @throws NullPointerException
+     *             如果 <code>keyValueSeparator</code> 或者 <code>pairSeparator</code> 是null
+     */
+    public CanonicalStringBuilder(String keyValueSeparator, String pairSeparator){
+        Validate.notNull(keyValueSeparator, "keyValueSeparator can't be null!");
+        Validate.notNull(pairSeparator, "pairSeparator can't be null!");
+        this.keyValueSeparator = keyValueSeparator;
+        this.pairSeparator = pairSeparator;
+    }
+
+    /**
+     * 拼接成 {@code key1=value1&key2=value2} 格式,和 {@link ParamUtil#toNaturalOrderingQueryString(Map)} 相同.
+     *
+     * @return 新的实例
+     */
+    public static CanonicalStringBuilder forQueryString(){
+        return new CanonicalStringBuilder("=", "&");
+    }
+
+    /**
+     * 直接拼接成 {@code key1value1key2value2} 格式,和 {@link ParamUtil#toNaturalOrderingKeyJoinValue(Map)} 相同.
+     *
+     * @return 新的实例
+     */
+    public static CanonicalStringBuilder forKeyJoinValue(){
+        return new CanonicalStringBuilder(EMPTY, EMPTY);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 拼接成字符串.
+     *
+     * @param singleValueMap
+     *            用于拼接签名的参数
+     * @return 如果 <code>singleValueMap</code> 是null或者empty,返回 {@link org.apache.commons.lang3.StringUtils#EMPTY}<br>
+     *         否则将 <code>singleValueMap</code> 按照 key 排序之后拼接
+     */
+    public String build(Map<String, String> singleValueMap){
+        if (isNullOrEmpty(singleValueMap)){
+            return EMPTY;
+        }
+
+        //---------------------------------------------------------------
+        int size = sort(singleValueMap);
+        try{
+            int length = (size - 1) * pairSeparator.length() + size * keyValueSeparator.length();
+            for (int i = 0; i < size; ++i){
+                length += defaultString(entries[i].getKey()).length() + defaultString(entries[i].getValue()).length();
+            }
+
+            StringBuilder sb = new StringBuilder(length);
+            for (int i = 0; i < size; ++i){
+                if (i > 0){
+                    sb.append(pairSeparator);
+                }
+                sb.append(defaultString(entries[i].getKey())).append(keyValueSeparator).append(defaultString(entries[i].getValue()));
+            }
+            return sb.toString();
+        }finally{
+            clear(size);
+        }
+    }
+
+    /**
+     * 拼接并直接写到 <code>appendable</code>.
+     *
+     * @param <A>
+     *            the generic type
+     * @param appendable
+     *            the appendable
+     * @param singleValueMap
+     *            用于拼接签名的参数
+     * @return <code>appendable</code><br>
+     *         如果 <code>appendable</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>singleValueMap</code> 是null或者empty,不写入任何字符<br>
+     *         如果写入的时候发生 {@link IOException},抛出 {@link UncheckedIOException}
+     */
+    public <A extends Appendable> A appendTo(A appendable,Map<String, String> singleValueMap){
+        Validate.notNull(appendable, "appendable can't be null!");
+        if (isNullOrEmpty(singleValueMap)){
+            return appendable;
+        }
+
+        //---------------------------------------------------------------
+        int size = sort(singleValueMap);
+        try{
+            for (int i = 0; i < size; ++i){
+                if (i > 0){
+                    appendable.append(pairSeparator);
+                }
+                appendable.append(defaultString(entries[i].getKey())).append(keyValueSeparator).append(defaultString(entries[i].getValue()));
+            }
+            return appendable;
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }finally{
+            clear(size);
+        }
+    }
+
+    /**
+     * 拼接,使用 <code>charset</code> 编码之后直接写到 <code>messageDigest</code>,不会生成中间字符串.
+     *
+     * @param messageDigest
+     *            the message digest
+     * @param singleValueMap
+     *            用于拼接签名的参数
+     * @param charset
+     *            字符集
+     * @return <code>messageDigest</code><br>
+     *         如果 <code>messageDigest</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>charset</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>singleValueMap</code> 是null或者empty,不写入任何字节
+     */
+    public MessageDigest update(final MessageDigest messageDigest,Map<String, String> singleValueMap,Charset charset){
+        Validate.notNull(messageDigest, "messageDigest can't be null!");
+        update(new ByteSink(){
+
+            @Override
+            void update(byte[] bytes,int offset,int length){
+                messageDigest.update(bytes, offset, length);
+            }
+        }, singleValueMap, charset);
+        return messageDigest;
+    }
+
+    /**
+     * 拼接,使用 <code>charset</code> 编码之后直接写到 <code>mac</code>,不会生成中间字符串.
+     *
+     * @param mac
+     *            the mac,必须已经 init
+     * @param singleValueMap
+     *            用于拼接签名的参数
+     * @param charset
+     *            字符集
+     * @return <code>mac</code><br>
+     *         如果 <code>mac</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>charset</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>mac</code> 没有 init,抛出 {@link IllegalStateException}<br>
+     *         如果 <code>singleValueMap</code> 是null或者empty,不写入任何字节
+     */
+    public Mac update(final Mac mac,Map<String, String> singleValueMap,Charset charset){
+        Validate.notNull(mac, "mac can't be null!");
+        update(new ByteSink(){
+
+            @Override
+            void update(byte[] bytes,int offset,int length){
+                mac.update(bytes, offset, length);
+            }
+        }, singleValueMap, charset);
+        return mac;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 拼接并编码写到 <code>byteSink</code>.
+     *
+     * @param byteSink
+     *            the byte sink
+     * @param singleValueMap
+     *            the single value map
+     * @param charset
+     *            the charset
+     */
+    private void update(ByteSink byteSink,Map<String, String> singleValueMap,Charset charset){
+        Validate.notNull(charset, "charset can't be null!");
+        if (isNullOrEmpty(singleValueMap)){
+            return;
+        }
+
+        //---------------------------------------------------------------
+        int size = sort(singleValueMap);
+        try{
+            prepareEncoder(charset);
+            for (int i = 0; i < size; ++i){
+                if (i > 0){
+                    write(byteSink, pairSeparator);
+                }
+                write(byteSink, defaultString(entries[i].getKey()));
+                write(byteSink, keyValueSeparator);
+                write(byteSink, defaultString(entries[i].getValue()));
+            }
+            finish(byteSink);
+        }catch (CharacterCodingException e){
+            //使用的是 REPLACE,不会抛出
+            throw new UncheckedIOException(e);
+        }finally{
+            clear(size);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将 <code>singleValueMap</code> 的 entry 放到 {@link #entries} 并排序.
+     *
+     * @param singleValueMap
+     *            the single value map
+     * @return entry 个数
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private int sort(Map<String, String> singleValueMap){
+        int size = singleValueMap.size();
+        if (null == entries || entries.length < size){
+            entries = new Map.Entry[Math.max(size, 16)];
+        }
+
+        int index = 0;
+        for (Map.Entry<String, String> entry : singleValueMap.entrySet()){
+            entries[index++] = entry;
+        }
+        Arrays.sort(entries, 0, index, KEY_COMPARATOR);
+        return index;
+    }
+
+    /**
+     * 清空数组中的引用,避免持有调用方的 map entry.
+     *
+     * @param size
+     *            the size
+     */
+    private void clear(int size){
+        Arrays.fill(entries, 0, size, null);
+    }
+
+    /**
+     * 准备编码器和缓冲区,编码规则和 {@link String#getBytes(Charset)} 相同(非法以及不能映射的字符都替换).
+     *
+     * @param charset
+     *            the charset
+     */
+    private void prepareEncoder(Charset charset){
+        if (null == encoder || !encoder.charset().equals(charset)){
+            encoder = charset.newEncoder()//
+                            .onMalformedInput(CodingErrorAction.REPLACE)
+                            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            byteBuffer = ByteBuffer.allocate((int) Math.ceil(CHAR_BUFFER_SIZE * (double) encoder.maxBytesPerChar()) + 16);
+        }
+        if (null == charBuffer){
+            charBuffer = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+        }
+        encoder.reset();
+        charBuffer.clear();
+        byteBuffer.clear();
+    }
+
+    /**
+     * 写入字符串,字符缓冲区满了的时候编码.
+     *
+     * @param byteSink
+     *            the byte sink
+     * @param value
+     *            the value
+     * @throws CharacterCodingException
+     *             the character coding exception
+     */
+    private void write(ByteSink byteSink,String value) throws CharacterCodingException{
+        int length = value.length();
+        int index = 0;
+        while (index < length){
+            int count = Math.min(charBuffer.remaining(), length - index);
+            charBuffer.put(value, index, index + count);
+            index += count;
+            if (!charBuffer.hasRemaining()){
+                encode(byteSink, false);
+            }
+        }
+    }
+
+    /**
+     * 编码剩余的字符,并写到 <code>byteSink</code>.
+     *
+     * @param byteSink
+     *            the byte sink
+     * @throws CharacterCodingException
+     *             the character coding exception
+     */
+    private void finish(ByteSink byteSink) throws CharacterCodingException{
+        encode(byteSink, true);
+        while (true){
+            CoderResult coderResult = encoder.flush(byteBuffer);
+            drain(byteSink);
+            if (coderResult.isUnderflow()){
+                return;
+            }
+            throwIfError(coderResult);
+        }
+    }
+
+    /**
+     * 编码字符缓冲区中的字符.
+     *
+     * <p>
+     * 如果不是最后一次,末尾不完整的代理字符会留在字符缓冲区,和后面的字符一起编码.
+     * </p>
+     *
+     * @param byteSink
+     *            the byte sink
+     * @param endOfInput
+     *            是否是最后一次
+     * @throws CharacterCodingException
+     *             the character coding exception
+     */
+    private void encode(ByteSink byteSink,boolean endOfInput) throws CharacterCodingException{
+        charBuffer.flip();
+        while (true){
+            CoderResult coderResult = encoder.encode(charBuffer, byteBuffer, endOfInput);
+            drain(byteSink);
+            if (coderResult.isUnderflow()){
+                break;
+            }
+            throwIfError(coderResult);
+        }
+        charBuffer.compact();
+    }
+
+    /**
+     * 将字节缓冲区写到 <code>byteSink</code>.
+     *
+     * @param byteSink
+     *            the byte sink
+     */
+    private void drain(ByteSink byteSink){
+        if (byteBuffer.position() > 0){
+            byteSink.update(byteBuffer.array(), byteBuffer.arrayOffset(), byteBuffer.position());
+            byteBuffer.clear();
+        }
+    }
+
+    /**
+     * 如果不是 overflow,抛出异常.
+     *
+     * @param coderResult
+     *            the coder result
+     * @throws CharacterCodingException
+     *             the character coding exception
+     */
+    private static void throwIfError(CoderResult coderResult) throws CharacterCodingException{
+        if (!coderResult.isOverflow()){
+            coderResult.throwException();
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 按照 key 自然排序,null key 排在最前面.
+     */
+    private static final class KeyComparator implements Comparator<Map.Entry<String, String>>{
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+         */
+        @Override
+        public int compare(Map.Entry<String, String> entry1,Map.Entry<String, String> entry2){
+            String key1 = entry1.getKey();
+            String key2 = entry2.getKey();
+            if (key1 == key2){
+                return 0;
+            }
+            if (null == key1){
+                return -1;
+            }
+            return null == key2 ? 1 : key1.compareTo(key2);
+        }
+    }
+
+    /**
+     * 字节的接收者,比如 {@link MessageDigest} 或者 {@link Mac}.
+     */
+    private abstract static class ByteSink{
+
+        /**
+         * 写入字节.
+         *
+         * @param bytes
+         *            the bytes
+         * @param offset
+         *            the offset
+         * @param length
+         *            the length
+         */
+        abstract void update(byte[] bytes,int offset,int length);
+    }
+}
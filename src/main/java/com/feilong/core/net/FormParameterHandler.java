@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.net;
+
+/**
+ * 流式解码 <code>application/x-www-form-urlencoded</code> 内容时,每解析出一个参数回调一次.
+ *
+ * <p>
+ * 参数按照在内容中出现的顺序回调,同名参数会回调多次;回调在调用解码方法的线程中执行.
+ * </p>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see FormUrlEncodedDecoder
+ * @since 1.13.1
+ */
+public interface FormParameterHandler{
+
+    /**
+     * 处理一个参数.
+     *
+     * @param name
+     *            解码之后的参数名,不会是null,可能是 ""
+     * @param value
+     *            解码之后的参数值,不会是null,没有 = 的参数是 ""
+     */
+    void handle(String name,String value);
+}
@@ -0,0 +1,569 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.net;
+
+import static com.feilong.core.CharsetType.UTF8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.CharsetType;
+import com.feilong.core.UncheckedIOException;
+
+/**
+ * 流式解码 <code>application/x-www-form-urlencoded</code> 内容(表单提交的 body,或者 queryString).
+ *
+ * <h3>为什么需要这个类?</h3>
+ *
+ * <blockquote>
+ * <p>
+ * 使用 {@link ParamUtil#toSingleValueMap(String, String)} 解析,需要先把整个 body 读成 {@link String};<br>
+ * 批量导入这种几十M的表单,本类直接从 {@link InputStream},{@link ReadableByteChannel} 或者 {@link ByteBuffer} 按块读取字节,边读边解码,
+ * 每解析出一个参数就回调 {@link FormParameterHandler},内存占用只和单个参数的大小有关.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>参数之间使用 <code>&amp;</code> 分隔,参数名和参数值使用第一个 <code>=</code> 分隔;没有 <code>=</code> 的参数,参数值是 ""</li>
+ * <li>空的片段(比如 <code>"a=1&amp;&amp;b=2"</code> 中间的部分)会被跳过</li>
+ * <li>和 {@link java.net.URLDecoder} 一样,<code>+</code> 解码成空格,<code>%XX</code> 解码成字节,再使用指定的字符集转成字符串;
+ * <span style="color:red">回调的是解码之后的值</span>,这点和 {@link ParamUtil#toSingleValueMap(String, String)} 返回的安全的(重新编码过的)值不同</li>
+ * <li>字符集必须兼容 ASCII(<code>&amp; = + %</code> 是单字节),表单内容本身就是 ASCII 的,非 ASCII 的字节也会原样参与字符集解码</li>
+ * <li>%后面不是两位16进制数字,或者内容以不完整的 %X 结尾,抛出 {@link IllegalArgumentException}</li>
+ * <li>参数名/参数值解码之后的字节数,以及参数个数,都有上限(参见 {@link Builder}),超过上限抛出 {@link IllegalArgumentException},不会无限制地占用内存</li>
+ * <li>读取 {@link InputStream}/{@link ReadableByteChannel} 使用固定大小的缓冲区,不会关闭流</li>
+ * <li>实例是不可变的,可以在多个线程中使用</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * private static final FormUrlEncodedDecoder DECODER = FormUrlEncodedDecoder.builder().charsetType(UTF8).maxParameterCount(100000).build();
+ *
+ * DECODER.decode(request.getInputStream(), new FormParameterHandler(){
+ *
+ *     &#64;Override
+ *     public void handle(String name,String value){
+ *         importService.importLine(name, value);
+ *     }
+ * });
+ *
+ * Map{@code <String, String>} map = DECODER.toSingleValueMap(inputStream);
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see FormParameterHandler
+ * @see java.net.URLDecoder
+ * @since 1.13.1
+ */
+public final class FormUrlEncodedDecoder{
+
+    /** 默认最多的参数个数 <code>{@value}</code>. */
+    public static final int DEFAULT_MAX_PARAMETER_COUNT = 10000;
+
+    /** 默认参数名最大字节数 <code>{@value}</code>. */
+    public static final int DEFAULT_MAX_NAME_LENGTH     = 1024;
+
+    /** 默认参数值最大字节数 <code>{@value}</code>(1M). */
+    public static final int DEFAULT_MAX_VALUE_LENGTH    = 1024 * 1024;
+
+    /** 默认读取缓冲区大小 <code>{@value}</code>. */
+    public static final int DEFAULT_BUFFER_SIZE         = 8192;
+
+    //---------------------------------------------------------------
+
+    /** The charset. */
+    private final Charset   charset;
+
+    /** 最多的参数个数. */
+    private final int       maxParameterCount;
+
+    /** 参数名最大字节数. */
+    private final int       maxNameLength;
+
+    /** 参数值最大字节数. */
+    private final int       maxValueLength;
+
+    /** 读取缓冲区大小. */
+    private final int       bufferSize;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new form url encoded decoder.
+     *
+     * @param builder
+     *            the builder
+     */
+    private FormUrlEncodedDecoder(Builder builder){
+        this.charset = Charset.forName(builder.charsetType);
+        this.maxParameterCount = builder.maxParameterCount;
+        this.maxNameLength = builder.maxNameLength;
+        this.maxValueLength = builder.maxValueLength;
+        this.bufferSize = builder.bufferSize;
+    }
+
+    /**
+     * 创建一个新的 {@link Builder},默认使用 {@link CharsetType#UTF8} 以及默认的上限.
+     *
+     * @return the builder
+     */
+    public static Builder builder(){
+        return new Builder();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 从 <code>inputStream</code> 读取并解码,每个参数回调一次 <code>handler</code>.
+     *
+     * @param inputStream
+     *            the input stream,读取到末尾,不会关闭
+     * @param handler
+     *            the handler
+     * @throws NullPointerException
+     *             如果 <code>inputStream</code> 或者 <code>handler</code> 是null
+     * @throws IllegalArgumentException
+     *             如果内容不合法或者超过上限
+     * @throws UncheckedIOException
+     *             如果读取的时候发生 {@link IOException}
+     */
+    public void decode(InputStream inputStream,FormParameterHandler handler){
+        Validate.notNull(inputStream, "inputStream can't be null!");
+        Validate.notNull(handler, "handler can't be null!");
+
+        State state = new State(handler);
+        byte[] buffer = new byte[bufferSize];
+        try{
+            int count;
+            while ((count = inputStream.read(buffer)) != -1){
+                state.feed(buffer, 0, count);
+            }
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+        state.finish();
+    }
+
+    /**
+     * 从 <code>channel</code> 读取并解码,每个参数回调一次 <code>handler</code>.
+     *
+     * @param channel
+     *            the channel,读取到末尾,不会关闭;非阻塞的 channel 暂时没有数据的时候会一直重试,不建议使用
+     * @param handler
+     *            the handler
+     * @throws NullPointerException
+     *             如果 <code>channel</code> 或者 <code>handler</code> 是null
+     * @throws IllegalArgumentException
+     *             如果内容不合法或者超过上限
+     * @throws UncheckedIOException
+     *             如果读取的时候发生 {@link IOException}
+     */
+    public void decode(ReadableByteChannel channel,FormParameterHandler handler){
+        Validate.notNull(channel, "channel can't be null!");
+        Validate.notNull(handler, "handler can't be null!");
+
+        State state = new State(handler);
+        ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+        try{
+            while (channel.read(buffer) != -1){
+                state.feed(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+        state.finish();
+    }
+
+    /**
+     * 解码 <code>byteBuffer</code> 剩余的字节,每个参数回调一次 <code>handler</code>.
+     *
+     * @param byteBuffer
+     *            the byte buffer,解码之后 position 移动到 limit
+     * @param handler
+     *            the handler
+     * @throws NullPointerException
+     *             如果 <code>byteBuffer</code> 或者 <code>handler</code> 是null
+     * @throws IllegalArgumentException
+     *             如果内容不合法或者超过上限
+     */
+    public void decode(ByteBuffer byteBuffer,FormParameterHandler handler){
+        Validate.notNull(byteBuffer, "byteBuffer can't be null!");
+        Validate.notNull(handler, "handler can't be null!");
+
+        State state = new State(handler);
+        if (byteBuffer.hasArray()){
+            state.feed(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(), byteBuffer.remaining());
+            byteBuffer.position(byteBuffer.limit());
+        }else{
+            byte[] buffer = new byte[Math.min(bufferSize, byteBuffer.remaining())];
+            while (byteBuffer.hasRemaining()){
+                int count = Math.min(buffer.length, byteBuffer.remaining());
+                byteBuffer.get(buffer, 0, count);
+                state.feed(buffer, 0, count);
+            }
+        }
+        state.finish();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 从 <code>inputStream</code> 读取并解码成单值 map,同名参数取第一个值.
+     *
+     * @param inputStream
+     *            the input stream,读取到末尾,不会关闭
+     * @return 使用 {@link LinkedHashMap},顺序和参数第一次出现的顺序相同
+     * @see #decode(InputStream, FormParameterHandler)
+     */
+    public Map<String, String> toSingleValueMap(InputStream inputStream){
+        final Map<String, String> map = new LinkedHashMap<>();
+        decode(inputStream, new FormParameterHandler(){
+
+            @Override
+            public void handle(String name,String value){
+                if (!map.containsKey(name)){
+                    map.put(name, value);
+                }
+            }
+        });
+        return map;
+    }
+
+    /**
+     * 从 <code>inputStream</code> 读取并解码成多值 map.
+     *
+     * @param inputStream
+     *            the input stream,读取到末尾,不会关闭
+     * @return 使用 {@link LinkedHashMap},顺序和参数第一次出现的顺序相同,同名参数的值按照出现的顺序排列
+     * @see #decode(InputStream, FormParameterHandler)
+     */
+    public Map<String, String[]> toArrayValueMap(InputStream inputStream){
+        final Map<String, List<String>> valuesMap = new LinkedHashMap<>();
+        decode(inputStream, new FormParameterHandler(){
+
+            @Override
+            public void handle(String name,String value){
+                List<String> values = valuesMap.get(name);
+                if (null == values){
+                    values = new ArrayList<>(1);
+                    valuesMap.put(name, values);
+                }
+                values.add(value);
+            }
+        });
+
+        Map<String, String[]> arrayValueMap = new LinkedHashMap<>(valuesMap.size() * 4 / 3 + 1);
+        for (Map.Entry<String, List<String>> entry : valuesMap.entrySet()){
+            List<String> values = entry.getValue();
+            arrayValueMap.put(entry.getKey(), values.toArray(new String[values.size()]));
+        }
+        return arrayValueMap;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 一次解码过程的状态,字节可以分多次传入,%XX 可以跨越两次传入.
+     */
+    private final class State{
+
+        /** The handler. */
+        private final FormParameterHandler handler;
+
+        /** 当前参数名或者参数值已经解码的字节. */
+        private byte[]                     token      = new byte[64];
+
+        /** {@link #token} 中有效的字节数. */
+        private int                        length;
+
+        /** 当前是否在解析参数值(已经遇到 =). */
+        private boolean                    inValue;
+
+        /** 当前参数的参数名,遇到 = 的时候赋值. */
+        private String                     name;
+
+        /** 还需要读取的16进制数字个数,0表示不在 %XX 中. */
+        private int                        hexPending;
+
+        /** %XX 已经读取的值. */
+        private int                        hexValue;
+
+        /** 已经回调的参数个数. */
+        private int                        parameterCount;
+
+        /**
+         * Instantiates a new state.
+         *
+         * @param handler
+         *            the handler
+         */
+        private State(FormParameterHandler handler){
+            this.handler = handler;
+        }
+
+        /**
+         * 传入一段字节.
+         *
+         * @param bytes
+         *            the bytes
+         * @param offset
+         *            the offset
+         * @param count
+         *            the count
+         */
+        private void feed(byte[] bytes,int offset,int count){
+            int end = offset + count;
+            for (int i = offset; i < end; ++i){
+                byte b = bytes[i];
+                if (hexPending > 0){
+                    int digit = Character.digit((char) (b & 0xFF), 16);
+                    if (digit < 0 || b < 0){
+                        throw new IllegalArgumentException("illegal hex char:[" + (char) (b & 0xFF) + "] in escape (%) pattern");
+                    }
+                    hexValue = (hexValue << 4) + digit;
+                    if (--hexPending == 0){
+                        append((byte) hexValue);
+                    }
+                    continue;
+                }
+
+                //---------------------------------------------------------------
+                switch (b) {
+                    case '&':
+                        endParameter();
+                        break;
+                    case '=':
+                        if (inValue){
+                            append(b);
+                        }else{
+                            name = newString();
+                            inValue = true;
+                        }
+                        break;
+                    case '+':
+                        append((byte) ' ');
+                        break;
+                    case '%':
+                        hexPending = 2;
+                        hexValue = 0;
+                        break;
+                    default:
+                        append(b);
+                }
+            }
+        }
+
+        /**
+         * 内容结束.
+         */
+        private void finish(){
+            if (hexPending > 0){
+                throw new IllegalArgumentException("incomplete trailing escape (%) pattern");
+            }
+            endParameter();
+        }
+
+        //---------------------------------------------------------------
+
+        /**
+         * 追加一个解码之后的字节.
+         *
+         * @param b
+         *            the b
+         */
+        private void append(byte b){
+            int maxLength = inValue ? maxValueLength : maxNameLength;
+            if (length == maxLength){
+                String pattern = "parameter %s exceeds max length:[%s] bytes";
+                throw new IllegalArgumentException(String.format(pattern, inValue ? "value of [" + name + "]" : "name", maxLength));
+            }
+            if (length == token.length){
+                byte[] newToken = new byte[(int) Math.min((long) maxLength, token.length * 2L)];
+                System.arraycopy(token, 0, newToken, 0, length);
+                token = newToken;
+            }
+            token[length++] = b;
+        }
+
+        /**
+         * 当前参数结束,回调 handler.
+         */
+        private void endParameter(){
+            if (!inValue && 0 == length){
+                return;//空的片段
+            }
+
+            String currentName = inValue ? name : newString();
+            String value = inValue ? newString() : "";
+            inValue = false;
+            name = null;
+
+            if (++parameterCount > maxParameterCount){
+                throw new IllegalArgumentException("parameter count exceeds max count:[" + maxParameterCount + "]");
+            }
+            handler.handle(currentName, value);
+        }
+
+        /**
+         * 把 {@link #token} 转成字符串,并且清空.
+         *
+         * @return the string
+         */
+        private String newString(){
+            String result = 0 == length ? "" : new String(token, 0, length, charset);
+            length = 0;
+            return result;
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * {@link FormUrlEncodedDecoder} 的构造器.
+     *
+     * <p>
+     * 构造器不是线程安全的,一般在初始化的时候使用一次.
+     * </p>
+     */
+    public static final class Builder{
+
+        /** The charset type. */
+        private String charsetType       = UTF8;
+
+        /** The max parameter count. */
+        private int    maxParameterCount = DEFAULT_MAX_PARAMETER_COUNT;
+
+        /** The max name length. */
+        private int    maxNameLength     = DEFAULT_MAX_NAME_LENGTH;
+
+        /** The max value length. */
+        private int    maxValueLength    = DEFAULT_MAX_VALUE_LENGTH;
+
+        /** The buffer size. */
+        private int    bufferSize        = DEFAULT_BUFFER_SIZE;
+
+        //---------------------------------------------------------------
+
+        /**
+         * Instantiates a new builder.
+         */
+        private Builder(){
+        }
+
+        //---------------------------------------------------------------
+
+        /**
+         * 字符编码.
+         *
+         * @param charsetType
+         *            字符编码,建议使用 {@link CharsetType} 定义好的常量
+         * @return this
+         * @throws NullPointerException
+         *             如果 <code>charsetType</code> 是null
+         * @throws IllegalArgumentException
+         *             如果 <code>charsetType</code> 是blank
+         */
+        public Builder charsetType(String charsetType){
+            Validate.notBlank(charsetType, "charsetType can't be blank!");
+            this.charsetType = charsetType;
+            return this;
+        }
+
+        /**
+         * 最多的参数个数.
+         *
+         * @param maxParameterCount
+         *            必须大于0
+         * @return this
+         */
+        public Builder maxParameterCount(int maxParameterCount){
+            Validate.isTrue(maxParameterCount > 0, "maxParameterCount:[%s] must > 0", maxParameterCount);
+            this.maxParameterCount = maxParameterCount;
+            return this;
+        }
+
+        /**
+         * 参数名解码之后的最大字节数.
+         *
+         * @param maxNameLength
+         *            必须大于0
+         * @return this
+         */
+        public Builder maxNameLength(int maxNameLength){
+            Validate.isTrue(maxNameLength > 0, "maxNameLength:[%s] must > 0", maxNameLength);
+            this.maxNameLength = maxNameLength;
+            return this;
+        }
+
+        /**
+         * 参数值解码之后的最大字节数.
+         *
+         * @param maxValueLength
+         *            必须大于0
+         * @return this
+         */
+        public Builder maxValueLength(int maxValueLength){
+            Validate.isTrue(maxValueLength > 0, "maxValueLength:[%s] must > 0", maxValueLength);
+            this.maxValueLength = maxValueLength;
+            return this;
+        }
+
+        /**
+         * 读取 {@link InputStream}/{@link ReadableByteChannel} 的缓冲区大小.
+         *
+         * @param bufferSize
+         *            必须大于0
+         * @return this
+         */
+        public Builder bufferSize(int bufferSize){
+            Validate.isTrue(bufferSize > 0, "bufferSize:[%s] must > 0", bufferSize);
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        //---------------------------------------------------------------
+
+        /**
+         * 创建解码器.
+         *
+         * @return the form url encoded decoder
+         * @throws java.nio.charset.UnsupportedCharsetException
+         *             如果字符编码不支持
+         */
+        public FormUrlEncodedDecoder build(){
+            return new FormUrlEncodedDecoder(this);
+        }
+    }
+}
@@ -25,7 +25,6 @@ import static com.feilong.core.net.URIUtil.decode;
 import static com.feilong.core.net.URIUtil.encode;
 import static com.feilong.core.util.CollectionsUtil.newArrayList;
 import static com.feilong.core.util.MapUtil.newLinkedHashMap;
-import static com.feilong.core.util.SortUtil.sortMapByKeyAsc;
 import static java.util.Collections.emptyMap;
 import static org.apache.commons.lang3.ArrayUtils.EMPTY_STRING_ARRAY;
 import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
@@ -37,7 +36,6 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
@@ -82,6 +80,7 @@ public final class ParamUtil{
      * <li>如果原来的<code>uriString</code>有参数,不管是拼接还是替换都会保持参数的原始顺序.</li>
      * <li>如果<code>uriString</code>带有? 和参数,会先被截取,最后再拼接.</li>
      * <li>如果<code>uriString</code>不带?,则自动增加?</li>
+     * <li>每次调用都会重新解析 <code>uriString</code>;如果需要连续添加多个参数,建议使用 {@link URIStringBuilder},只解析一次,最后一次拼接</li>
      * </ol>
      * </blockquote>
      * 
@@ -118,6 +117,7 @@ public final class ParamUtil{
      *         如果 <code>paramName</code> 是null,以 {@link StringUtils#EMPTY}替代<br>
      *         如果 <code>paramValue</code> 是null,以 {@link StringUtils#EMPTY}替代<br>
      * @see #addParameterSingleValueMap(String, Map, String)
+     * @see URIStringBuilder
      * @since 1.9.0 change paramValue type from Object to String
      */
     public static String addParameter(String uriString,String paramName,String paramValue,String charsetType){
@@ -319,10 +319,14 @@ public final class ParamUtil{
      *            否则会先解码,再加码,因为ie浏览器和chrome浏览器 url中访问路径 ,带有中文情况下不一致
      * @return 如果 <code>queryString</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
      * @see #toSafeArrayValueMap(String, String)
+     * @see FormUrlEncodedDecoder
      * @since 1.4.0
      */
     public static Map<String, String> toSingleValueMap(String queryString,String charsetType){
-        return MapUtil.toSingleValueMap(toSafeArrayValueMap(queryString, charsetType));
+        if (isNullOrEmpty(queryString)){
+            return emptyMap();
+        }
+        return QueryStringParser.toSingleValueMap(queryString, charsetType);
     }
 
     /**
@@ -333,6 +337,7 @@ public final class ParamUtil{
      * <ol>
      * <li>内部使用 {@link LinkedHashMap},map顺序依照 <code>queryString</code> 逗号分隔的顺序</li>
      * <li>解析方式:参数和参数之间是以 {@code &} 分隔, 参数的key和value 是以 = 号分隔</li>
+     * <li>只扫描一遍 <code>queryString</code>,已经是标准编码格式的key和value不会再先解码再编码,参见 {@link QueryStringParser}</li>
      * </ol>
      * </blockquote>
      * 
@@ -380,8 +385,7 @@ public final class ParamUtil{
      *            <span style="color:green">如果是null或者 empty,那么参数部分原样返回,自行处理兼容性问题</span><br>
      *            否则会先解码,再加码,因为ie浏览器和chrome浏览器 url中访问路径 ,带有中文情况下不一致
      * @return 如果 <code>queryString</code> 是null或者empty,返回 {@link Collections#emptyMap()}<br>
-     * @see org.apache.commons.lang3.ArrayUtils#add(Object[], Object)
-     * @see com.feilong.core.lang.StringUtil#split(String, String)
+     * @see QueryStringParser
      * @since 1.4.0
      */
     static Map<String, String[]> toSafeArrayValueMap(String queryString,String charsetType){
@@ -389,20 +393,7 @@ public final class ParamUtil{
             return emptyMap();
         }
 
-        String[] nameAndValueArray = StringUtil.split(queryString, AMPERSAND);
-        int length = nameAndValueArray.length;
-
-        Map<String, String[]> safeArrayValueMap = newLinkedHashMap(length);//使用 LinkedHashMap 保证元素的顺序
-        for (int i = 0; i < length; ++i){
-            String[] tempArray = nameAndValueArray[i].split("=", 2);
-
-            String key = decodeAndEncode(tempArray[0], charsetType);
-            String value = tempArray.length == 2 ? tempArray[1] : EMPTY;//有可能参数中,只有名字没有值或者值是空,处理的时候不能遗失掉
-            value = decodeAndEncode(value, charsetType);
-
-            safeArrayValueMap.put(key, ArrayUtils.add(safeArrayValueMap.get(key), value));
-        }
-        return safeArrayValueMap;
+        return QueryStringParser.toArrayValueMap(queryString, charsetType);
     }
 
     //---------------------------------------------------------------------------------------------
@@ -439,7 +430,7 @@ public final class ParamUtil{
      * <blockquote>
      * 
      * <ol>
-     * <li>首先将<code>singleValueMap</code> 使用 {@link SortUtil#sortMapByKeyAsc(Map)} 进行排序,</li>
+     * <li>首先将<code>singleValueMap</code> 按照和 {@link SortUtil#sortMapByKeyAsc(Map)} 相同的规则排序(只排序 entry 数组,不会复制出新的 map),</li>
      * <li>然后将map的key和value 直接连接</li>
      * </ol>
      * 
@@ -489,6 +480,7 @@ public final class ParamUtil{
      *            用于拼接签名的参数
      * @return 如果 <code>singleValueMap</code> 是null或者empty,返回 {@link StringUtils#EMPTY}<br>
      *         否则将<code>singleValueMap</code>排序之后,循环直接拼接key和value
+     * @see CanonicalStringBuilder#forKeyJoinValue()
      * @since 1.10.6
      */
     public static String toNaturalOrderingKeyJoinValue(Map<String, String> singleValueMap){
@@ -496,18 +488,7 @@ public final class ParamUtil{
             return EMPTY;
         }
 
-        //---------------------------------------------------------------
-        Map<String, String> sortMapByKeyAsc = sortMapByKeyAsc(singleValueMap);
-
-        StringBuilder sb = new StringBuilder();
-        for (Map.Entry<String, String> entry : sortMapByKeyAsc.entrySet()){//有顺序的参数
-            String key = entry.getKey();
-            String value = entry.getValue();
-            //注意:如果 value是null,StringBuilder将拼接 "null" 字符串, 详见  java.lang.AbstractStringBuilder#append(String)
-            sb.append(defaultString(key));
-            sb.append(defaultString(value));
-        }
-        return sb.toString();
+        return CanonicalStringBuilder.forKeyJoinValue().build(singleValueMap);
     }
 
     /**
@@ -538,7 +519,7 @@ public final class ParamUtil{
      * <blockquote>
      * 
      * <ol>
-     * <li>首先将<code>singleValueMap</code> 使用 {@link SortUtil#sortMapByKeyAsc(Map)} 进行排序,</li>
+     * <li>首先将<code>singleValueMap</code> 按照和 {@link SortUtil#sortMapByKeyAsc(Map)} 相同的规则排序(只排序 entry 数组,不会复制出新的 map),</li>
      * <li>然后将map的key和value 使用= 符号 连接,不同的entry之间再使用{@code &} 符号进行连接,最终格式类似于 url 的queryString</li>
      * </ol>
      * 
@@ -588,10 +569,11 @@ public final class ParamUtil{
      *            用于拼接签名的参数
      * @return 如果 <code>singleValueMap</code> 是null或者empty,返回 {@link StringUtils#EMPTY}<br>
      *         否则将<code>singleValueMap</code>排序之后,调用 {@link #toQueryStringUseSingleValueMap(Map)}
+     * @see CanonicalStringBuilder#forQueryString()
      * @since 1.4.0
      */
     public static String toNaturalOrderingQueryString(Map<String, String> singleValueMap){
-        return isNullOrEmpty(singleValueMap) ? EMPTY : toQueryStringUseSingleValueMap(sortMapByKeyAsc(singleValueMap));
+        return isNullOrEmpty(singleValueMap) ? EMPTY : CanonicalStringBuilder.forQueryString().build(singleValueMap);
     }
 
     /**
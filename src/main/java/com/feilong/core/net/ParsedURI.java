@@ -0,0 +1,458 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.net;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.net.URI;
+
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.lang3.Validate;
+
+import com.feilong.core.util.ConcurrentLruCache;
+
+/**
+ * 解析好的 uri 字符串,记录各个组成部分的位置,按需截取和解码.
+ *
+ * <h3>为什么需要这个类?</h3>
+ *
+ * <blockquote>
+ * <p>
+ * {@link URIUtil#create(String, String)} 每次调用都会重新 {@link URIUtil#encodeUri(String, String)} 以及 {@link URI} 解析;<br>
+ * 同一批 url 反复获取 path,query,fragment 的场景(比如路由),本类只扫描一遍字符串,记下各部分的下标,用到哪个部分才截取/解码哪个部分.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>按照 <a href="https://tools.ietf.org/html/rfc3986#appendix-B">RFC 3986 Appendix B</a> 拆分
+ * <code>[scheme:][//authority][path][?query][#fragment]</code>,不校验各个部分的字符是否合法,不会抛出解析异常</li>
+ * <li>scheme 必须以字母开头,只包含字母,数字,<code>+ - .</code>,否则当成没有 scheme 的相对 uri</li>
+ * <li>没有定义的组成部分返回null(和 {@link URI} 一致),比如 <code>"/a.htm?"</code> 的query是 "",<code>"/a.htm"</code> 的query是null</li>
+ * <li>{@link #getPath()},{@link #getQuery()},{@link #getFragment()} 和 {@link URI} 一样按照 UTF-8 解码 %XX,<span style="color:red">不会把 + 转成空格</span>,
+ * 不合法的 %XX 原样保留;解码结果在第一次调用时缓存</li>
+ * <li>空的authority返回 "",比如 <code>"file:///a.txt"</code>,而 {@link URI#getRawAuthority()} 返回null</li>
+ * <li>{@link URI} 把 <code>mailto:a@b.com</code> 这类 scheme 后面不是 / 的 uri 当成 opaque uri,path 是null;本类统一按照 RFC 3986 拆分</li>
+ * <li>真正需要 {@link URI} 的时候,调用 {@link #toURI()},结果同样缓存</li>
+ * <li>{@link #parse(String)} 使用有容量上限的 LRU 缓存,最多缓存 {@link #MAX_SIZE} 个uri</li>
+ * <li>实例是不可变的,可以在多个线程中使用</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * ParsedURI parsedURI = ParsedURI.parse("http://www.feilong.com:8888/%E9%A3%9E/search.htm?keyword=%E6%81%A4&amp;page=1#top");
+ *
+ * parsedURI.getScheme()       = "http"
+ * parsedURI.getRawAuthority() = "www.feilong.com:8888"
+ * parsedURI.getRawPath()      = "/%E9%A3%9E/search.htm"
+ * parsedURI.getPath()         = "/飞/search.htm"
+ * parsedURI.getRawQuery()     = "keyword=%E6%81%A4&amp;page=1"
+ * parsedURI.getFragment()     = "top"
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see URIUtil
+ * @see <a href="https://tools.ietf.org/html/rfc3986#appendix-B">RFC 3986 Appendix B</a>
+ * @since 1.13.1
+ */
+public final class ParsedURI{
+
+    /** 最多缓存的uri数量. */
+    public static final int                                    MAX_SIZE = 500;
+
+    /** The cache. */
+    private static final ConcurrentLruCache<String, ParsedURI> CACHE    = new ConcurrentLruCache<>(MAX_SIZE);
+
+    /** 缓存未命中时,解析uri. */
+    private static final Transformer<String, ParsedURI>        LOADER   = new Transformer<String, ParsedURI>(){
+
+                                                                              @Override
+                                                                              public ParsedURI transform(String uriString){
+                                                                                  return new ParsedURI(uriString);
+                                                                              }
+                                                                          };
+
+    //---------------------------------------------------------------
+
+    /** 原始uri字符串. */
+    private final String                                       uriString;
+
+    /** scheme 后面 : 的下标,如果没有scheme是 -1. */
+    private final int                                          schemeEnd;
+
+    /** authority 的开始下标(// 之后),如果没有authority是 -1. */
+    private final int                                          authorityStart;
+
+    /** path 的开始下标,同时也是 authority 的结束下标. */
+    private final int                                          pathStart;
+
+    /** path 的结束下标. */
+    private final int                                          pathEnd;
+
+    /** query 的开始下标(? 之后),如果没有query是 -1. */
+    private final int                                          queryStart;
+
+    /** fragment 的开始下标(# 之后),如果没有fragment是 -1. */
+    private final int                                          fragmentStart;
+
+    //---------------------------------------------------------------
+
+    /** 解码之后的path,第一次调用 {@link #getPath()} 时赋值. */
+    private String                                             path;
+
+    /** 解码之后的query,第一次调用 {@link #getQuery()} 时赋值. */
+    private String                                             query;
+
+    /** 解码之后的fragment,第一次调用 {@link #getFragment()} 时赋值. */
+    private String                                             fragment;
+
+    /** 第一次调用 {@link #toURI()} 时赋值;{@link URI} 的字段不是 final 的,使用 volatile 安全发布到其他线程. */
+    private volatile URI                                       uri;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new parsed URI.
+     *
+     * @param uriString
+     *            the uri string
+     */
+    private ParsedURI(String uriString){
+        this.uriString = uriString;
+
+        int length = uriString.length();
+
+        //scheme: 第一个 : 之前只包含合法的scheme字符,并且以字母开头
+        int colon = -1;
+        for (int i = 0; i < length; ++i){
+            char c = uriString.charAt(i);
+            if (c == ':'){
+                colon = i > 0 && isAlpha(uriString.charAt(0)) ? i : -1;
+                break;
+            }
+            if (!isSchemeChar(c)){
+                break;
+            }
+        }
+        this.schemeEnd = colon;
+
+        //---------------------------------------------------------------
+        int index = colon + 1;
+        if (uriString.startsWith("//", index)){
+            this.authorityStart = index + 2;
+            index = indexOfAny(uriString, this.authorityStart, true);
+        }else{
+            this.authorityStart = -1;
+        }
+        this.pathStart = index;
+        this.pathEnd = indexOfAny(uriString, index, false);
+
+        //---------------------------------------------------------------
+        index = pathEnd;
+        if (index < length && uriString.charAt(index) == '?'){
+            this.queryStart = index + 1;
+            index = uriString.indexOf('#', queryStart);
+            index = index < 0 ? length : index;
+        }else{
+            this.queryStart = -1;
+        }
+        this.fragmentStart = index < length ? index + 1 : -1;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 解析 <code>uriString</code>,解析结果按照uri字符串缓存.
+     *
+     * @param uriString
+     *            the uri string
+     * @return 如果 <code>uriString</code> 是null,抛出 {@link NullPointerException}<br>
+     */
+    public static ParsedURI parse(String uriString){
+        Validate.notNull(uriString, "uriString can't be null!");
+        return CACHE.get(uriString, LOADER);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得scheme.
+     *
+     * @return 如果没有scheme,返回null
+     */
+    public String getScheme(){
+        return schemeEnd < 0 ? null : uriString.substring(0, schemeEnd);
+    }
+
+    /**
+     * 获得原始的authority(可能包含 userinfo 和 port).
+     *
+     * @return 如果没有 //,返回null
+     */
+    public String getRawAuthority(){
+        return authorityStart < 0 ? null : uriString.substring(authorityStart, pathStart);
+    }
+
+    /**
+     * 获得原始的path.
+     *
+     * @return 不会返回null,没有path返回 ""
+     */
+    public String getRawPath(){
+        return uriString.substring(pathStart, pathEnd);
+    }
+
+    /**
+     * 获得原始的query(不包含 ? 和 fragment).
+     *
+     * @return 如果没有 ?,返回null
+     */
+    public String getRawQuery(){
+        return queryStart < 0 ? null : uriString.substring(queryStart, fragmentStart < 0 ? uriString.length() : fragmentStart - 1);
+    }
+
+    /**
+     * 获得原始的fragment(不包含 #).
+     *
+     * @return 如果没有 #,返回null
+     */
+    public String getRawFragment(){
+        return fragmentStart < 0 ? null : uriString.substring(fragmentStart);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得解码之后的path.
+     *
+     * @return 不会返回null,没有path返回 ""
+     */
+    public String getPath(){
+        String result = path;
+        if (null == result){
+            result = decode(getRawPath());
+            path = result;
+        }
+        return result;
+    }
+
+    /**
+     * 获得解码之后的query.
+     *
+     * <p>
+     * 注意 <code>"a=%26"</code> 解码之后是 <code>"a=&amp;"</code>,如果要取参数,使用 {@link #getRawQuery()} 配合 {@link ParamUtil#toSingleValueMap(String, String)}.
+     * </p>
+     *
+     * @return 如果没有 ?,返回null
+     */
+    public String getQuery(){
+        if (queryStart < 0){
+            return null;
+        }
+        String result = query;
+        if (null == result){
+            result = decode(getRawQuery());
+            query = result;
+        }
+        return result;
+    }
+
+    /**
+     * 获得解码之后的fragment.
+     *
+     * @return 如果没有 #,返回null
+     */
+    public String getFragment(){
+        if (fragmentStart < 0){
+            return null;
+        }
+        String result = fragment;
+        if (null == result){
+            result = decode(getRawFragment());
+            fragment = result;
+        }
+        return result;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 转成 {@link URI},结果在第一次调用时缓存.
+     *
+     * @return 如果原始uri字符串是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果不是合法的 {@link URI},抛出 {@link URIParseException}
+     * @see URIUtil#create(String)
+     */
+    public URI toURI(){
+        URI result = uri;
+        if (null == result){
+            result = URIUtil.create(uriString);
+            uri = result;
+        }
+        return result;
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode(){
+        return uriString.hashCode();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj){
+        return this == obj || (obj instanceof ParsedURI && uriString.equals(((ParsedURI) obj).uriString));
+    }
+
+    /**
+     * 原始uri字符串.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString(){
+        return uriString;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 从 <code>from</code> 开始查找组成部分的结束下标.
+     *
+     * @param uriString
+     *            the uri string
+     * @param from
+     *            开始下标
+     * @param stopAtSlash
+     *            是否遇到 / 结束(authority)
+     * @return 第一个 ?,#(或者 /) 的下标,如果没有返回字符串长度
+     */
+    private static int indexOfAny(String uriString,int from,boolean stopAtSlash){
+        int length = uriString.length();
+        for (int i = from; i < length; ++i){
+            char c = uriString.charAt(i);
+            if (c == '?' || c == '#' || (stopAtSlash && c == '/')){
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 和 {@link URI} 一样,按照 UTF-8 解码连续的 %XX,不会把 + 转成空格,不合法的 %XX 原样保留.
+     *
+     * @param value
+     *            the value
+     * @return 如果不含 %,返回 <code>value</code> 本身
+     */
+    private static String decode(String value){
+        int firstPercent = value.indexOf('%');
+        if (firstPercent < 0){
+            return value;
+        }
+
+        int length = value.length();
+        StringBuilder sb = new StringBuilder(length);
+        sb.append(value, 0, firstPercent);
+
+        byte[] bytes = null;
+        int i = firstPercent;
+        while (i < length){
+            char c = value.charAt(i);
+            if (c != '%' || !isEscape(value, i)){
+                sb.append(c);
+                ++i;
+                continue;
+            }
+
+            //连续的 %XX 作为一个字节序列一起解码
+            if (null == bytes){
+                bytes = new byte[(length - i) / 3];
+            }
+            int count = 0;
+            while (i < length && value.charAt(i) == '%' && isEscape(value, i)){
+                bytes[count++] = (byte) ((Character.digit(value.charAt(i + 1), 16) << 4) + Character.digit(value.charAt(i + 2), 16));
+                i += 3;
+            }
+            sb.append(new String(bytes, 0, count, UTF_8));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * <code>index</code> 位置的 % 后面是否跟着两位16进制数字.
+     *
+     * @param value
+     *            the value
+     * @param index
+     *            % 的下标
+     * @return true, if is escape
+     */
+    private static boolean isEscape(String value,int index){
+        return index + 2 < value.length() && isHex(value.charAt(index + 1)) && isHex(value.charAt(index + 2));
+    }
+
+    /**
+     * Checks if is hex.
+     *
+     * @param c
+     *            the c
+     * @return true, if is hex
+     */
+    private static boolean isHex(char c){
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    /**
+     * Checks if is alpha.
+     *
+     * @param c
+     *            the c
+     * @return true, if is alpha
+     */
+    private static boolean isAlpha(char c){
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * 是否是合法的scheme字符.
+     *
+     * @param c
+     *            the c
+     * @return true, if is scheme char
+     */
+    private static boolean isSchemeChar(char c){
+        return isAlpha(c) || (c >= '0' && c <= '9') || c == '+' || c == '-' || c == '.';
+    }
+}
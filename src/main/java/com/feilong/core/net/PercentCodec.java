@@ -0,0 +1,364 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.net;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.feilong.core.UncheckedIOException;
+
+/**
+ * <code>application/x-www-form-urlencoded</code> 格式的编码和解码,结果和 {@link java.net.URLEncoder} 以及 {@link java.net.URLDecoder} 完全相同.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>使用预先计算好的 256 个元素的表判断字符是否需要编码,以及16进制字符的值</li>
+ * <li>如果没有需要编码(或者解码)的字符,直接返回原来的字符串,不会生成新的对象</li>
+ * <li>直接使用 {@link Charset} 对象,不需要每次根据名字查找字符集</li>
+ * <li>UTF-8 编码的时候直接计算字节,不会为每段需要编码的字符生成中间的 String 和 byte[]</li>
+ * <li>编码可以直接写到 {@link Appendable}</li>
+ * <li>解码遇到非法的 % 格式(包括 {@link java.net.URLDecoder} 兼容的 +/- 号以及非 ASCII 的数字),交给 {@link java.net.URLDecoder} 处理,保证结果和异常都相同</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see java.net.URLEncoder
+ * @see java.net.URLDecoder
+ * @since 1.13.1
+ */
+final class PercentCodec{
+
+    /** {@link java.net.URLEncoder} 不需要编码的字符(空格会被转成 +). */
+    private static final boolean[] DONT_NEED_ENCODING = new boolean[256];
+
+    /** 16进制字符的值,不是16进制字符的是 -1. */
+    private static final byte[]    HEX_VALUE          = new byte[256];
+
+    /** 大写的16进制字符. */
+    private static final char[]    HEX_DIGITS         = "0123456789ABCDEF".toCharArray();
+
+    //---------------------------------------------------------------
+
+    static{
+        for (int c = 'a'; c <= 'z'; ++c){
+            DONT_NEED_ENCODING[c] = true;
+        }
+        for (int c = 'A'; c <= 'Z'; ++c){
+            DONT_NEED_ENCODING[c] = true;
+        }
+        for (int c = '0'; c <= '9'; ++c){
+            DONT_NEED_ENCODING[c] = true;
+        }
+        DONT_NEED_ENCODING[' '] = true;
+        DONT_NEED_ENCODING['-'] = true;
+        DONT_NEED_ENCODING['_'] = true;
+        DONT_NEED_ENCODING['.'] = true;
+        DONT_NEED_ENCODING['*'] = true;
+
+        //---------------------------------------------------------------
+        Arrays.fill(HEX_VALUE, (byte) -1);
+        for (int c = '0'; c <= '9'; ++c){
+            HEX_VALUE[c] = (byte) (c - '0');
+        }
+        for (int c = 'A'; c <= 'F'; ++c){
+            HEX_VALUE[c] = (byte) (c - 'A' + 10);
+            HEX_VALUE[c + ('a' - 'A')] = (byte) (c - 'A' + 10);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /** Don't let anyone instantiate this class. */
+    private PercentCodec(){
+        //AssertionError不是必须的. 但它可以避免不小心在类的内部调用构造器. 保证该类在任何情况下都不会被实例化.
+        //see 《Effective Java》 2nd
+        throw new AssertionError("No " + getClass().getName() + " instances for you!");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 编码.
+     *
+     * @param value
+     *            the value,不能是null
+     * @param charset
+     *            the charset,不能是null
+     * @return 如果没有需要编码的字符,返回 <code>value</code> 本身
+     */
+    static String encode(String value,Charset charset){
+        int firstIndex = indexOfNeedEncoding(value);
+        if (firstIndex < 0){
+            return value;
+        }
+
+        //---------------------------------------------------------------
+        StringBuilder sb = new StringBuilder(value.length() + 16);
+        sb.append(value, 0, firstIndex);
+        try{
+            encodeTo(sb, value, firstIndex, charset);
+        }catch (IOException e){
+            //StringBuilder 不会抛出 IOException
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 编码,并写到 <code>appendable</code>.
+     *
+     * @param appendable
+     *            the appendable,不能是null
+     * @param value
+     *            the value,不能是null
+     * @param fromIndex
+     *            开始编码的位置
+     * @param charset
+     *            the charset,不能是null
+     * @throws IOException
+     *             如果写入 <code>appendable</code> 的时候发生异常
+     */
+    static void encodeTo(Appendable appendable,CharSequence value,int fromIndex,Charset charset) throws IOException{
+        boolean utf8 = StandardCharsets.UTF_8.equals(charset);
+
+        int length = value.length();
+        int i = fromIndex;
+        while (i < length){
+            char c = value.charAt(i);
+            if (dontNeedEncoding(c)){
+                appendable.append(c == ' ' ? '+' : c);
+                ++i;
+                continue;
+            }
+
+            //---------------------------------------------------------------
+            //和 URLEncoder 一样,连续需要编码的字符一起转成字节(有状态的字符集,比如 UTF-16 的 BOM,结果依赖于此)
+            int runEnd = i + 1;
+            while (runEnd < length && !dontNeedEncoding(value.charAt(runEnd))){
+                ++runEnd;
+            }
+            if (utf8){
+                appendUtf8(appendable, value, i, runEnd);
+            }else{
+                byte[] bytes = value.subSequence(i, runEnd).toString().getBytes(charset);
+                for (byte b : bytes){
+                    appendEscaped(appendable, b & 0xFF);
+                }
+            }
+            i = runEnd;
+        }
+    }
+
+    /**
+     * 解码.
+     *
+     * @param value
+     *            the value,不能是null
+     * @param charset
+     *            the charset,不能是null
+     * @return 如果没有 % 和 +,返回 <code>value</code> 本身
+     * @throws IllegalArgumentException
+     *             和 {@link java.net.URLDecoder#decode(String, String)} 相同
+     */
+    static String decode(String value,Charset charset){
+        int length = value.length();
+        int i = 0;
+        while (i < length && value.charAt(i) != '%' && value.charAt(i) != '+'){
+            ++i;
+        }
+        if (i == length){
+            return value;
+        }
+
+        //---------------------------------------------------------------
+        boolean asciiCompatible = isAsciiCompatible(charset);
+
+        StringBuilder sb = new StringBuilder(length);
+        sb.append(value, 0, i);
+
+        byte[] bytes = null;
+        while (i < length){
+            char c = value.charAt(i);
+            if (c == '+'){
+                sb.append(' ');
+                ++i;
+            }else if (c == '%'){
+                if (null == bytes){
+                    bytes = new byte[(length - i) / 3];
+                }
+
+                //和 URLDecoder 一样,连续的 %XX 一起转成字符
+                int pos = 0;
+                boolean ascii = true;
+                while (i + 2 < length && c == '%'){
+                    int b = hexValue(value.charAt(i + 1)) << 4 | hexValue(value.charAt(i + 2));
+                    if (b < 0){
+                        return decodeUseUrlDecoder(value, charset);
+                    }
+                    ascii &= b < 0x80;
+                    bytes[pos++] = (byte) b;
+                    i += 3;
+                    if (i < length){
+                        c = value.charAt(i);
+                    }
+                }
+                if (i < length && c == '%'){
+                    //Incomplete trailing escape (%) pattern
+                    return decodeUseUrlDecoder(value, charset);
+                }
+
+                if (ascii && asciiCompatible){
+                    for (int j = 0; j < pos; ++j){
+                        sb.append((char) bytes[j]);
+                    }
+                }else{
+                    sb.append(new String(bytes, 0, pos, charset));
+                }
+            }else{
+                sb.append(c);
+                ++i;
+            }
+        }
+        return sb.toString();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 第一个需要编码(包括空格)的字符的位置.
+     *
+     * @param value
+     *            the value
+     * @return 如果没有,返回 -1
+     */
+    private static int indexOfNeedEncoding(CharSequence value){
+        for (int i = 0, length = value.length(); i < length; ++i){
+            char c = value.charAt(i);
+            if (c == ' ' || !dontNeedEncoding(c)){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 是否不需要编码.
+     *
+     * @param c
+     *            the c
+     * @return true, if successful
+     */
+    private static boolean dontNeedEncoding(char c){
+        return c < 256 && DONT_NEED_ENCODING[c];
+    }
+
+    /**
+     * 16进制字符的值.
+     *
+     * @param c
+     *            the c
+     * @return 如果不是 ASCII 的16进制字符,返回一个负数(左移之后仍然是负数)
+     */
+    private static int hexValue(char c){
+        return c < 256 ? HEX_VALUE[c] : -1;
+    }
+
+    /**
+     * 写入 %XX.
+     *
+     * @param appendable
+     *            the appendable
+     * @param b
+     *            the b,0-255
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void appendEscaped(Appendable appendable,int b) throws IOException{
+        appendable.append('%').append(HEX_DIGITS[b >> 4]).append(HEX_DIGITS[b & 0xF]);
+    }
+
+    /**
+     * 将 [<code>from</code>,<code>to</code>) 的字符以 UTF-8 字节编码写入,非法的代理字符和 {@link String#getBytes(Charset)} 一样转成 ?.
+     *
+     * @param appendable
+     *            the appendable
+     * @param value
+     *            the value
+     * @param from
+     *            开始位置(包含)
+     * @param to
+     *            结束位置(不包含)
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static void appendUtf8(Appendable appendable,CharSequence value,int from,int to) throws IOException{
+        for (int i = from; i < to; ++i){
+            char c = value.charAt(i);
+            if (c < 0x80){
+                appendEscaped(appendable, c);
+            }else if (c < 0x800){
+                appendEscaped(appendable, 0xC0 | (c >> 6));
+                appendEscaped(appendable, 0x80 | (c & 0x3F));
+            }else if (!Character.isSurrogate(c)){
+                appendEscaped(appendable, 0xE0 | (c >> 12));
+                appendEscaped(appendable, 0x80 | ((c >> 6) & 0x3F));
+                appendEscaped(appendable, 0x80 | (c & 0x3F));
+            }else if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(value.charAt(i + 1))){
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                appendEscaped(appendable, 0xF0 | (codePoint >> 18));
+                appendEscaped(appendable, 0x80 | ((codePoint >> 12) & 0x3F));
+                appendEscaped(appendable, 0x80 | ((codePoint >> 6) & 0x3F));
+                appendEscaped(appendable, 0x80 | (codePoint & 0x3F));
+            }else{
+                appendEscaped(appendable, '?');
+            }
+        }
+    }
+
+    /**
+     * 单字节 0-127 解码之后是否还是相同的字符.
+     *
+     * @param charset
+     *            the charset
+     * @return true, if is ascii compatible
+     */
+    private static boolean isAsciiCompatible(Charset charset){
+        return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset) || StandardCharsets.US_ASCII.equals(charset);
+    }
+
+    /**
+     * 使用 {@link java.net.URLDecoder} 解码,用于非法的 % 格式,保证结果和异常信息都相同.
+     *
+     * @param value
+     *            the value
+     * @param charset
+     *            the charset
+     * @return the string
+     */
+    private static String decodeUseUrlDecoder(String value,Charset charset){
+        try{
+            return URLDecoder.decode(value, charset.name());
+        }catch (UnsupportedEncodingException e){
+            //charset 已经存在,不会抛出
+            throw new UncheckedIOException(e);
+        }
+    }
+}
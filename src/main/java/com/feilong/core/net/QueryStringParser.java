@@ -0,0 +1,435 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.net;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+import static com.feilong.core.net.URIUtil.decode;
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单次扫描解析 {@code a=1&b=2} 格式的 queryString.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li>只扫描一遍原始字符,记录每个参数 key 和 value 的位置,不会生成 {@code String[]} 中间数组</li>
+ * <li>分隔规则和 {@code queryString.split("&")} 以及 {@code pair.split("=", 2)} 完全相同(包括去掉结尾的空参数)</li>
+ * <li>只含有 {@link java.net.URLEncoder} 不需要编码的字符的片段,先解码再编码之后不会变化,直接截取</li>
+ * <li>没有 % 的片段不需要解码,只需要把 + 还原成空格之后编码</li>
+ * <li>使用 UTF-8 的时候,已经是标准编码格式(%XX 大写,合法的 UTF-8 字节)的片段也直接截取,跳过先解码再编码</li>
+ * <li>其余片段以及不支持的字符集,仍然使用 {@link URIUtil#decode(String, String)} 和 {@link URIUtil#encode(String, String)},结果和异常都保持不变</li>
+ * <li>多值参数先收集到 {@link List},最后一次性转成数组,不会每次追加都复制数组</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see ParamUtil#toSingleValueMap(String, String)
+ * @since 1.13.1
+ */
+final class QueryStringParser{
+
+    /** 片段中只有 {@link java.net.URLEncoder} 不需要编码的字符. */
+    private static final int LEVEL_SAFE       = 0;
+
+    /** 片段中有需要编码的字符(或者 +),但是没有 %. */
+    private static final int LEVEL_NO_PERCENT = 1;
+
+    /** 片段中有 %. */
+    private static final int LEVEL_PERCENT    = 2;
+
+    //---------------------------------------------------------------
+
+    /** 当前解析用的字符集. */
+    private final String     charsetType;
+
+    /** 是否需要先解码再编码. */
+    private final boolean    needDecodeAndEncode;
+
+    /** 字符集,如果不支持是null,这个时候全部走原来的逻辑,保证异常相同. */
+    private final Charset    charset;
+
+    /** 是否是 UTF-8,可以检测已经是标准编码格式的片段. */
+    private final boolean    utf8;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new query string parser.
+     *
+     * @param charsetType
+     *            字符编码,如果是null或者 empty,key和value原样返回
+     */
+    QueryStringParser(String charsetType){
+        this.charsetType = charsetType;
+        this.needDecodeAndEncode = !isNullOrEmpty(charsetType);
+
+        this.charset = needDecodeAndEncode ? URIUtil.lookupCharset(charsetType) : null;
+        this.utf8 = StandardCharsets.UTF_8.equals(charset);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 解析成多值 map.
+     *
+     * @param queryString
+     *            the query string,不能是null
+     * @param charsetType
+     *            字符编码
+     * @return 使用 {@link LinkedHashMap},顺序和参数在 <code>queryString</code> 中第一次出现的顺序相同
+     */
+    static Map<String, String[]> toArrayValueMap(String queryString,String charsetType){
+        Map<String, Object> valuesMap = new LinkedHashMap<>();
+        new QueryStringParser(charsetType).parse(queryString, valuesMap, false);
+
+        Map<String, String[]> arrayValueMap = new LinkedHashMap<>(valuesMap.size() * 4 / 3 + 1);
+        for (Map.Entry<String, Object> entry : valuesMap.entrySet()){
+            Object value = entry.getValue();
+            if (value instanceof String){
+                arrayValueMap.put(entry.getKey(), new String[] { (String) value });
+            }else{
+                @SuppressWarnings("unchecked")
+                List<String> list = (List<String>) value;
+                arrayValueMap.put(entry.getKey(), list.toArray(new String[list.size()]));
+            }
+        }
+        return arrayValueMap;
+    }
+
+    /**
+     * 解析成单值 map,同名参数取第一个值.
+     *
+     * @param queryString
+     *            the query string,不能是null
+     * @param charsetType
+     *            字符编码
+     * @return 使用 {@link LinkedHashMap},顺序和参数在 <code>queryString</code> 中第一次出现的顺序相同
+     */
+    static Map<String, String> toSingleValueMap(String queryString,String charsetType){
+        Map<String, Object> valuesMap = new LinkedHashMap<>();
+        new QueryStringParser(charsetType).parse(queryString, valuesMap, true);
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        Map<String, String> singleValueMap = (Map) valuesMap;//firstValueOnly 的时候 value 都是 String
+        return singleValueMap;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 扫描 <code>queryString</code>.
+     *
+     * @param queryString
+     *            the query string
+     * @param valuesMap
+     *            value 是 String(单值) 或者 List(多值)
+     * @param firstValueOnly
+     *            同名参数是否只保留第一个值
+     */
+    void parse(String queryString,Map<String, Object> valuesMap,boolean firstValueOnly){
+        int length = queryString.length();
+
+        int segmentStart = 0;
+        int equalsIndex = -1;
+        int keyLevel = LEVEL_SAFE;
+        int valueLevel = LEVEL_SAFE;
+
+        //连续的空参数先计数,后面还有参数的时候才添加,和 String#split 一样去掉结尾的空参数
+        int pendingEmptyCount = 0;
+
+        for (int i = 0; i <= length; ++i){
+            char c = i < length ? queryString.charAt(i) : '&';
+            if (c == '&'){
+                if (i == segmentStart){
+                    ++pendingEmptyCount;
+                }else{
+                    for (; pendingEmptyCount > 0; --pendingEmptyCount){
+                        add(valuesMap, EMPTY, EMPTY, firstValueOnly);
+                    }
+
+                    int keyEnd = equalsIndex < 0 ? i : equalsIndex;
+                    String key = decodeAndEncode(queryString, segmentStart, keyEnd, keyLevel);
+                    //有可能参数中,只有名字没有值或者值是空,处理的时候不能遗失掉
+                    String value = equalsIndex < 0 ? EMPTY : decodeAndEncode(queryString, equalsIndex + 1, i, valueLevel);
+                    add(valuesMap, key, value, firstValueOnly);
+                }
+
+                segmentStart = i + 1;
+                equalsIndex = -1;
+                keyLevel = LEVEL_SAFE;
+                valueLevel = LEVEL_SAFE;
+            }else if (c == '=' && equalsIndex < 0){
+                equalsIndex = i;
+            }else if (equalsIndex < 0){
+                keyLevel = Math.max(keyLevel, level(c));
+            }else{
+                valueLevel = Math.max(valueLevel, level(c));
+            }
+        }
+    }
+
+    /**
+     * 添加参数.
+     *
+     * @param valuesMap
+     *            the values map
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     * @param firstValueOnly
+     *            同名参数是否只保留第一个值
+     */
+    private static void add(Map<String, Object> valuesMap,String key,String value,boolean firstValueOnly){
+        Object existValue = valuesMap.get(key);
+        if (null == existValue){
+            valuesMap.put(key, value);
+        }else if (firstValueOnly){
+            return;
+        }else if (existValue instanceof String){
+            List<String> list = new ArrayList<>(4);
+            list.add((String) existValue);
+            list.add(value);
+            valuesMap.put(key, list);
+        }else{
+            @SuppressWarnings("unchecked")
+            List<String> list = (List<String>) existValue;
+            list.add(value);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 将已经编码过的 <code>value</code> 先解码再编码.
+     *
+     * @param value
+     *            the value
+     * @return 如果 <code>value</code> 是null或者empty,返回 {@link org.apache.commons.lang3.StringUtils#EMPTY}<br>
+     *         和 <code>ParamUtil.decodeAndEncode</code> 结果相同
+     */
+    String decodeAndEncode(String value){
+        if (null == value){
+            return EMPTY;
+        }
+        int level = LEVEL_SAFE;
+        for (int i = 0, length = value.length(); i < length && level != LEVEL_PERCENT; ++i){
+            level = Math.max(level, level(value.charAt(i)));
+        }
+        return decodeAndEncode(value, 0, value.length(), level);
+    }
+
+    /**
+     * 将没有编码过的原始 <code>value</code> 编码.
+     *
+     * @param value
+     *            the value
+     * @return 如果 <code>value</code> 是null,返回 {@link org.apache.commons.lang3.StringUtils#EMPTY}<br>
+     *         如果字符集是null或者 empty,返回 <code>value</code><br>
+     *         否则和 {@link URIUtil#encode(String, String)} 结果相同
+     */
+    String encode(String value){
+        if (null == value){
+            return EMPTY;
+        }
+        if (value.isEmpty() || !needDecodeAndEncode){
+            return value;
+        }
+        return null == charset ? URIUtil.encode(value, charsetType) : PercentCodec.encode(value, charset);
+    }
+
+    /**
+     * 将 <code>queryString</code> [<code>from</code>,<code>to</code>) 片段先解码再编码.
+     *
+     * @param queryString
+     *            the query string
+     * @param from
+     *            开始位置(包含)
+     * @param to
+     *            结束位置(不包含)
+     * @param level
+     *            扫描时记录的片段级别
+     * @return 和 <code>ParamUtil.decodeAndEncode</code> 结果相同
+     */
+    private String decodeAndEncode(String queryString,int from,int to,int level){
+        if (from == to){
+            return EMPTY;
+        }
+        String value = queryString.substring(from, to);
+        //和 ParamUtil.decodeAndEncode 一样,空白的片段(只有安全字符的片段不可能是空白)当作 empty
+        if (level != LEVEL_SAFE && isBlank(value)){
+            return EMPTY;
+        }
+        if (!needDecodeAndEncode){
+            return value;
+        }
+        if (null == charset){
+            return URIUtil.encode(decode(value, charsetType), charsetType);
+        }
+
+        //---------------------------------------------------------------
+        switch (level) {
+            case LEVEL_SAFE:
+                return value;
+            case LEVEL_NO_PERCENT:
+                //没有 % 的时候, URLDecoder 只会将 + 转成空格
+                return PercentCodec.encode(value.replace('+', ' '), charset);
+            default:
+                if (utf8 && isCanonicalUtf8(queryString, from, to)){
+                    return value;
+                }
+                //decode 不合法的时候抛出的异常和原来相同
+                return PercentCodec.encode(decode(value, charsetType), charset);
+        }
+    }
+
+    /**
+     * 判断片段是否已经是 {@link java.net.URLEncoder} 使用 UTF-8 编码之后的格式.
+     *
+     * <p>
+     * 也就是:%XX 是大写的16进制,不是 {@link java.net.URLEncoder} 不需要编码的字符或者空格,多字节是合法的 UTF-8 字节序列;其他字符都是不需要编码的字符或者 +.
+     * </p>
+     *
+     * @param queryString
+     *            the query string
+     * @param from
+     *            开始位置(包含)
+     * @param to
+     *            结束位置(不包含)
+     * @return 如果是,先解码再编码之后结果不会变化
+     */
+    private static boolean isCanonicalUtf8(String queryString,int from,int to){
+        int i = from;
+        while (i < to){
+            char c = queryString.charAt(i);
+            if (c != '%'){
+                if (c != '+' && level(c) != LEVEL_SAFE){
+                    return false;
+                }
+                ++i;
+                continue;
+            }
+
+            //---------------------------------------------------------------
+            int b = escapedByte(queryString, i, to);
+            if (b < 0){
+                return false;
+            }
+            i += 3;
+            if (b < 0x80){
+                if (b == ' ' || level((char) b) == LEVEL_SAFE){
+                    return false;
+                }
+                continue;
+            }
+
+            //---------------------------------------------------------------
+            //The Unicode Standard, Table 3-7. Well-Formed UTF-8 Byte Sequences
+            int continuationCount;
+            int secondMin = 0x80;
+            int secondMax = 0xBF;
+            if (b >= 0xC2 && b <= 0xDF){
+                continuationCount = 1;
+            }else if (b >= 0xE0 && b <= 0xEF){
+                continuationCount = 2;
+                secondMin = b == 0xE0 ? 0xA0 : 0x80;
+                secondMax = b == 0xED ? 0x9F : 0xBF;
+            }else if (b >= 0xF0 && b <= 0xF4){
+                continuationCount = 3;
+                secondMin = b == 0xF0 ? 0x90 : 0x80;
+                secondMax = b == 0xF4 ? 0x8F : 0xBF;
+            }else{
+                return false;
+            }
+            for (int j = 0; j < continuationCount; ++j){
+                int continuation = escapedByte(queryString, i, to);
+                int min = j == 0 ? secondMin : 0x80;
+                int max = j == 0 ? secondMax : 0xBF;
+                if (continuation < min || continuation > max){
+                    return false;
+                }
+                i += 3;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 解析 <code>index</code> 位置上大写16进制的 %XX.
+     *
+     * @param queryString
+     *            the query string
+     * @param index
+     *            the index
+     * @param to
+     *            结束位置(不包含)
+     * @return 如果不是 %XX 或者有小写字母,返回 -1
+     */
+    private static int escapedByte(String queryString,int index,int to){
+        if (index + 2 >= to || queryString.charAt(index) != '%'){
+            return -1;
+        }
+        int high = upperCaseHexValue(queryString.charAt(index + 1));
+        int low = upperCaseHexValue(queryString.charAt(index + 2));
+        return high < 0 || low < 0 ? -1 : (high << 4) | low;
+    }
+
+    /**
+     * 大写16进制字符的值.
+     *
+     * @param c
+     *            the c
+     * @return 如果不是 0-9 或者 A-F,返回 -1
+     */
+    private static int upperCaseHexValue(char c){
+        if (c >= '0' && c <= '9'){
+            return c - '0';
+        }
+        return c >= 'A' && c <= 'F' ? c - 'A' + 10 : -1;
+    }
+
+    /**
+     * 字符级别.
+     *
+     * @param c
+     *            the c
+     * @return 如果是 {@link java.net.URLEncoder} 不需要编码的字符,返回 {@link #LEVEL_SAFE}
+     */
+    private static int level(char c){
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')){
+            return LEVEL_SAFE;
+        }
+        switch (c) {
+            case '-':
+            case '_':
+            case '.':
+            case '*':
+                return LEVEL_SAFE;
+            case '%':
+                return LEVEL_PERCENT;
+            default:
+                return LEVEL_NO_PERCENT;
+        }
+    }
+}
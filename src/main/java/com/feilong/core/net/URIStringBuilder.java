@@ -0,0 +1,355 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.net;
+
+import static com.feilong.core.URIComponents.AMPERSAND;
+import static com.feilong.core.URIComponents.QUESTIONMARK;
+import static com.feilong.core.Validator.isNotNullOrEmpty;
+import static com.feilong.core.Validator.isNullOrEmpty;
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.feilong.core.CharsetType;
+
+/**
+ * 可变的 uri 字符串构造器,用来代替连续调用 {@link ParamUtil#addParameter(String, String, String, String)}.
+ *
+ * <h3>说明:</h3>
+ * <blockquote>
+ * <ol>
+ * <li><code>uriString</code> 只在构造的时候解析一次(和 {@link ParamUtil} 一样,以第一个 ? 分隔 path 和 queryString)</li>
+ * <li>参数保存在有序的多值 map 中,保持参数原来的顺序;替换已经存在的参数时,保持该参数原来的位置</li>
+ * <li>每个值都记录了自己的状态:原 queryString 中解析出来的值已经是规范的编码格式;
+ * 通过 {@link #addParameter(String, String)}/{@link #setParameter(String, String)} 添加的是原始值,只需要编码一次;
+ * 通过 {@link #addEncodedParameter(String, String)}/{@link #setEncodedParameter(String, String)} 添加的是已经编码过的值,和
+ * {@link ParamUtil#addParameter(String, String, String, String)} 一样先解码再编码</li>
+ * <li>值在 {@link #build()} 的时候才编码(并缓存结果),最后按照准确的长度一次拼接</li>
+ * <li>如果 <code>charsetType</code> 是null或者 empty,参数部分原样拼接,自行处理兼容性问题</li>
+ * <li>不是线程安全的</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ * <blockquote>
+ *
+ * <pre class="code">
+ * String uri = URIStringBuilder.of("http://www.feilong.com/search.htm?{@code keyword=%E6%81%A4&page=1}", UTF8)
+ *                 .setParameter("page", "2")
+ *                 .addParameter("label", "飞天")
+ *                 .removeParameter("keyword")
+ *                 .build();
+ * </pre>
+ *
+ * <b>返回:</b>
+ *
+ * <pre class="code">
+ * {@code http://www.feilong.com/search.htm?page=2&label=%E9%A3%9E%E5%A4%A9}
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see ParamUtil#addParameter(String, String, String, String)
+ * @see ParamUtil#addParameterArrayValueMap(String, Map, String)
+ * @since 1.13.1
+ */
+public final class URIStringBuilder{
+
+    /** 值已经是规范的编码格式,直接拼接. */
+    private static final int                   STATE_CANONICAL = 0;
+
+    /** 值是原始值,需要编码. */
+    private static final int                   STATE_DECODED   = 1;
+
+    /** 值是已经编码过的值,需要先解码再编码. */
+    private static final int                   STATE_ENCODED   = 2;
+
+    //---------------------------------------------------------------
+
+    /** 不含 queryString 的 path. */
+    private final String                       beforePathWithoutQueryString;
+
+    /** 负责编码和解码. */
+    private final QueryStringParser            queryStringParser;
+
+    /** 参数,key 是规范格式的参数名字. */
+    private final Map<String, List<ParamValue>> paramValuesMap  = new LinkedHashMap<>();
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new URI string builder.
+     *
+     * @param uriString
+     *            如果带有? 和参数,会先被解析成参数
+     * @param charsetType
+     *            字符编码,建议使用 {@link CharsetType} 定义好的常量<br>
+     *            <span style="color:green">如果是null或者 empty,那么参数部分原样拼接,自行处理兼容性问题</span>
+     * @throws URIParseException
+     *             如果 <code>uriString</code> 的参数不是合法的编码格式
+     */
+    private URIStringBuilder(String uriString, String charsetType){
+        this.beforePathWithoutQueryString = URIUtil.getFullPathWithoutQueryString(uriString);
+        this.queryStringParser = new QueryStringParser(charsetType);
+
+        String queryString = URIUtil.getQueryString(uriString);
+        if (isNotNullOrEmpty(queryString)){
+            Map<String, Object> valuesMap = new LinkedHashMap<>();
+            queryStringParser.parse(queryString, valuesMap, false);
+            for (Map.Entry<String, Object> entry : valuesMap.entrySet()){
+                List<ParamValue> paramValues = new ArrayList<>();
+                if (entry.getValue() instanceof String){
+                    paramValues.add(new ParamValue((String) entry.getValue(), STATE_CANONICAL));
+                }else{
+                    @SuppressWarnings("unchecked")
+                    List<String> values = (List<String>) entry.getValue();
+                    for (String value : values){
+                        paramValues.add(new ParamValue(value, STATE_CANONICAL));
+                    }
+                }
+                paramValuesMap.put(entry.getKey(), paramValues);
+            }
+        }
+    }
+
+    /**
+     * 解析 <code>uriString</code>,创建构造器.
+     *
+     * @param uriString
+     *            如果带有? 和参数,会先被解析成参数;如果是null或者empty,{@link #build()} 返回 {@link org.apache.commons.lang3.StringUtils#EMPTY}
+     * @param charsetType
+     *            字符编码,建议使用 {@link CharsetType} 定义好的常量<br>
+     *            <span style="color:green">如果是null或者 empty,那么参数部分原样拼接,自行处理兼容性问题</span>
+     * @return the URI string builder
+     * @throws URIParseException
+     *             如果 <code>uriString</code> 的参数不是合法的编码格式
+     */
+    public static URIStringBuilder of(String uriString,String charsetType){
+        return new URIStringBuilder(uriString, charsetType);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 追加一个原始值(没有编码过)的参数,如果参数已经存在,追加成多值.
+     *
+     * @param paramName
+     *            参数名字(没有编码过),如果是null,以 {@link org.apache.commons.lang3.StringUtils#EMPTY}替代
+     * @param paramValue
+     *            参数值(没有编码过),如果是null,以 {@link org.apache.commons.lang3.StringUtils#EMPTY}替代
+     * @return this
+     */
+    public URIStringBuilder addParameter(String paramName,String paramValue){
+        return add(queryStringParser.encode(paramName), paramValue, STATE_DECODED, false);
+    }
+
+    /**
+     * 设置一个原始值(没有编码过)的参数,如果参数已经存在,替换原来所有的值,并保持原来的位置.
+     *
+     * @param paramName
+     *            参数名字(没有编码过),如果是null,以 {@link org.apache.commons.lang3.StringUtils#EMPTY}替代
+     * @param paramValue
+     *            参数值(没有编码过),如果是null,以 {@link org.apache.commons.lang3.StringUtils#EMPTY}替代
+     * @return this
+     */
+    public URIStringBuilder setParameter(String paramName,String paramValue){
+        return add(queryStringParser.encode(paramName), paramValue, STATE_DECODED, true);
+    }
+
+    /**
+     * 追加一个已经编码过的参数,如果参数已经存在,追加成多值.
+     *
+     * @param paramName
+     *            已经编码过的参数名字,如果是null或者 empty,以 {@link org.apache.commons.lang3.StringUtils#EMPTY}替代
+     * @param paramValue
+     *            已经编码过的参数值,如果是null或者 empty,以 {@link org.apache.commons.lang3.StringUtils#EMPTY}替代
+     * @return this
+     * @throws URIParseException
+     *             如果 <code>paramName</code> 不是合法的编码格式
+     */
+    public URIStringBuilder addEncodedParameter(String paramName,String paramValue){
+        return add(queryStringParser.decodeAndEncode(paramName), paramValue, STATE_ENCODED, false);
+    }
+
+    /**
+     * 设置一个已经编码过的参数,如果参数已经存在,替换原来所有的值,并保持原来的位置.
+     *
+     * <p>
+     * 和 {@link ParamUtil#addParameter(String, String, String, String)} 的规则相同.
+     * </p>
+     *
+     * @param paramName
+     *            已经编码过的参数名字,如果是null或者 empty,以 {@link org.apache.commons.lang3.StringUtils#EMPTY}替代
+     * @param paramValue
+     *            已经编码过的参数值,如果是null或者 empty,以 {@link org.apache.commons.lang3.StringUtils#EMPTY}替代
+     * @return this
+     * @throws URIParseException
+     *             如果 <code>paramName</code> 不是合法的编码格式
+     */
+    public URIStringBuilder setEncodedParameter(String paramName,String paramValue){
+        return add(queryStringParser.decodeAndEncode(paramName), paramValue, STATE_ENCODED, true);
+    }
+
+    /**
+     * 删除参数(所有的值).
+     *
+     * @param paramName
+     *            参数名字(没有编码过),如果是null,删除名字是 empty 的参数
+     * @return this
+     */
+    public URIStringBuilder removeParameter(String paramName){
+        paramValuesMap.remove(queryStringParser.encode(paramName));
+        return this;
+    }
+
+    /**
+     * 是否含有参数.
+     *
+     * @param paramName
+     *            参数名字(没有编码过)
+     * @return 如果含有,返回true
+     */
+    public boolean containsParameter(String paramName){
+        return paramValuesMap.containsKey(queryStringParser.encode(paramName));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 拼接成 uri 字符串.
+     *
+     * @return 如果构造时的 <code>uriString</code> 是null或者empty,返回 {@link org.apache.commons.lang3.StringUtils#EMPTY}<br>
+     *         如果没有参数,返回不含 queryString 的 path<br>
+     *         否则返回 path?queryString
+     * @throws URIParseException
+     *             如果通过 {@link #addEncodedParameter(String, String)} 添加的值不是合法的编码格式
+     */
+    public String build(){
+        if (isNullOrEmpty(beforePathWithoutQueryString)){
+            return EMPTY;
+        }
+        if (paramValuesMap.isEmpty()){
+            return beforePathWithoutQueryString;
+        }
+
+        //---------------------------------------------------------------
+        //先编码,计算准确的长度
+        int length = beforePathWithoutQueryString.length();
+        for (Map.Entry<String, List<ParamValue>> entry : paramValuesMap.entrySet()){
+            int keyLength = entry.getKey().length();
+            for (ParamValue paramValue : entry.getValue()){
+                length += 1 + keyLength + 1 + canonical(paramValue).length();// ? 或者 & ,key,= ,value
+            }
+        }
+
+        //---------------------------------------------------------------
+        StringBuilder sb = new StringBuilder(length);
+        sb.append(beforePathWithoutQueryString);
+        boolean first = true;
+        for (Map.Entry<String, List<ParamValue>> entry : paramValuesMap.entrySet()){
+            for (ParamValue paramValue : entry.getValue()){
+                sb.append(first ? QUESTIONMARK : AMPERSAND).append(entry.getKey()).append('=').append(paramValue.value);
+                first = false;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 同 {@link #build()}.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString(){
+        return build();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 添加参数.
+     *
+     * @param key
+     *            规范格式的参数名字
+     * @param value
+     *            the value
+     * @param state
+     *            值的状态
+     * @param replace
+     *            是否替换原来的值
+     * @return this
+     */
+    private URIStringBuilder add(String key,String value,int state,boolean replace){
+        List<ParamValue> paramValues = paramValuesMap.get(key);
+        if (null == paramValues){
+            paramValues = new ArrayList<>(2);
+            paramValuesMap.put(key, paramValues);
+        }else if (replace){
+            paramValues.clear();
+        }
+        paramValues.add(new ParamValue(null == value ? EMPTY : value, state));
+        return this;
+    }
+
+    /**
+     * 将值转成规范的编码格式,并缓存.
+     *
+     * @param paramValue
+     *            the param value
+     * @return the string
+     */
+    private String canonical(ParamValue paramValue){
+        if (paramValue.state == STATE_DECODED){
+            paramValue.value = queryStringParser.encode(paramValue.value);
+        }else if (paramValue.state == STATE_ENCODED){
+            paramValue.value = queryStringParser.decodeAndEncode(paramValue.value);
+        }
+        paramValue.state = STATE_CANONICAL;
+        return paramValue.value;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 参数值以及状态.
+     */
+    private static final class ParamValue{
+
+        /** The value. */
+        private String value;
+
+        /** The state. */
+        private int    state;
+
+        /**
+         * Instantiates a new param value.
+         *
+         * @param value
+         *            the value
+         * @param state
+         *            the state
+         */
+        private ParamValue(String value, int state){
+            this.value = value;
+            this.state = state;
+        }
+    }
+}
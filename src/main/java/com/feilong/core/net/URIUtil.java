@@ -22,11 +22,14 @@ import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.commons.lang3.StringUtils.INDEX_NOT_FOUND;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
@@ -36,6 +39,7 @@ import org.slf4j.LoggerFactory;
 
 import com.feilong.core.CharsetType;
 import com.feilong.core.URIComponents;
+import com.feilong.core.UncheckedIOException;
 import com.feilong.core.lang.StringUtil;
 
 /**
@@ -234,6 +238,7 @@ public final class URIUtil{
      *         如果 Exception,抛出 {@link URIParseException}
      * @see URI#create(String)
      * @see #encodeUri(String, String)
+     * @see ParsedURI
      * @see <a
      *      href="http://stackoverflow.com/questions/15004593/java-request-getquerystring-value-different-between-chrome-and-ie-browser">
      *      java-request-getquerystring-value-different-between-chrome-and-ie-browser</a>
@@ -475,8 +480,151 @@ public final class URIUtil{
 
     //---------------------------------------------------------------
 
+    /**
+     * 使用指定的字符集 <code>charset</code>,将普通的字符串转成<code>application/x-www-form-urlencoded</code>格式的字符串.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>编码规则和结果与 {@link #encode(String, String)} 完全相同</li>
+     * <li>直接使用 {@link Charset} 对象,不需要根据字符集名字查找;如果没有需要编码的字符,直接返回 <code>value</code></li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * URIUtil.encode("飞天 feilong", StandardCharsets.UTF_8) = "%E9%A3%9E%E5%A4%A9+feilong"
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param value
+     *            the value
+     * @param charset
+     *            字符集
+     * @return 如果 <code>value</code> 是null或者empty,返回 {@link StringUtils#EMPTY}<br>
+     *         如果 <code>charset</code> 是null,返回 <code>value</code><br>
+     * @see #encode(String, String)
+     * @since 1.13.1
+     */
+    public static String encode(String value,Charset charset){
+        if (isEmpty(value)){
+            return EMPTY;
+        }
+        return null == charset ? value : PercentCodec.encode(value, charset);
+    }
+
+    /**
+     * 使用指定的字符集 <code>charset</code>,将普通的字符串编码成<code>application/x-www-form-urlencoded</code>格式,并直接写到 <code>appendable</code>.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>编码规则和结果与 {@link #encode(String, String)} 完全相同</li>
+     * <li>适合拼接大量参数(比如签名字符串)的场景,不会为每个参数值生成中间字符串</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * StringBuilder sb = new StringBuilder("name=");
+     * URIUtil.encodeTo(sb, "飞天 feilong", StandardCharsets.UTF_8);
+     * //sb = "name=%E9%A3%9E%E5%A4%A9+feilong"
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <A>
+     *            the generic type
+     * @param appendable
+     *            the appendable
+     * @param value
+     *            the value
+     * @param charset
+     *            字符集
+     * @return <code>appendable</code><br>
+     *         如果 <code>appendable</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>value</code> 是null或者empty,不写入任何字符<br>
+     *         如果 <code>charset</code> 是null,原样写入 <code>value</code><br>
+     *         如果写入的时候发生 {@link IOException},抛出 {@link UncheckedIOException}
+     * @see #encode(String, Charset)
+     * @since 1.13.1
+     */
+    public static <A extends Appendable> A encodeTo(A appendable,CharSequence value,Charset charset){
+        Validate.notNull(appendable, "appendable can't be null!");
+        if (StringUtils.isEmpty(value)){
+            return appendable;
+        }
+        //---------------------------------------------------------------
+        try{
+            if (null == charset){
+                appendable.append(value);
+            }else{
+                PercentCodec.encodeTo(appendable, value, 0, charset);
+            }
+            return appendable;
+        }catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 使用指定的字符集 <code>charset</code> 来解码一个 <code>application/x-www-form-urlencoded</code> 格式的字符串 .
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>解码规则,结果以及非法格式的异常与 {@link #decode(String, String)} 完全相同</li>
+     * <li>直接使用 {@link Charset} 对象,不需要根据字符集名字查找;如果没有 % 和 +,直接返回 <code>value</code></li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * URIUtil.decode("%E9%A3%9E%E5%A4%A9+feilong", StandardCharsets.UTF_8) = "飞天 feilong"
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param value
+     *            需要被解码的值
+     * @param charset
+     *            字符集
+     * @return 如果 <code>value</code> 是null或者empty,返回 {@link StringUtils#EMPTY}<br>
+     *         如果 <code>charset</code> 是null,返回 <code>value</code><br>
+     *         如果 <code>value</code> 不是合法的格式,抛出 {@link URIParseException}
+     * @see #decode(String, String)
+     * @since 1.13.1
+     */
+    public static String decode(String value,Charset charset){
+        if (isEmpty(value)){
+            return EMPTY;
+        }
+        if (null == charset){
+            return value;
+        }
+        //---------------------------------------------------------------
+        try{
+            return PercentCodec.decode(value, charset);
+        }catch (IllegalArgumentException e){
+            throw new URIParseException(format("[decode] value:[{}],use charset:[{}]", value, charset.name()), e);
+        }
+    }
+
+    //---------------------------------------------------------------
+
     /**
      * Encode or decode.
+     * 
+     * <p>
+     * 如果 <code>charsetType</code> 是支持的字符集,使用 {@link PercentCodec};否则仍然交给 {@link java.net.URLEncoder}/{@link java.net.URLDecoder},保证异常相同.
+     * </p>
      *
      * @param value
      *            the value
@@ -498,6 +646,10 @@ public final class URIUtil{
         }
         //---------------------------------------------------------------
         try{
+            Charset charset = lookupCharset(charsetType);
+            if (null != charset){
+                return encodeOrDecode ? PercentCodec.encode(value, charset) : PercentCodec.decode(value, charset);
+            }
             return encodeOrDecode ? URLEncoder.encode(value, charsetType) : URLDecoder.decode(value, charsetType);
         }catch (Exception e){
             String pattern = "[{}] value:[{}],use charset:[{}]";
@@ -506,5 +658,21 @@ public final class URIUtil{
         }
     }
 
+    /**
+     * 查找字符集.
+     *
+     * @param charsetType
+     *            the charset type
+     * @return 如果不支持,返回null
+     * @since 1.13.1
+     */
+    static Charset lookupCharset(String charsetType){
+        try{
+            return Charset.isSupported(charsetType) ? Charset.forName(charsetType) : null;
+        }catch (IllegalCharsetNameException e){
+            return null;
+        }
+    }
+
     // [end]
 }
\ No newline at end of file
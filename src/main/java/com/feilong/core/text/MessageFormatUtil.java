@@ -156,6 +156,7 @@ public final class MessageFormatUtil{
      * </pre>
      * 
      * </li>
+     * <li>模式解析之后缓存在 {@link MessageTemplate} 中,结果和 {@link MessageFormat#format(String, Object...)} 一致,但同一个模式不会重复解析</li>
      * </ol>
      * </blockquote>
      * 
@@ -164,9 +165,10 @@ public final class MessageFormatUtil{
      * @param arguments
      *            动态参数
      * @return 如果 <code>pattern</code> 是null,抛出 {@link NullPointerException}<br>
+     * @see MessageTemplate#compile(String)
      */
     public static String format(String pattern,Object...arguments){
         Validate.notNull(pattern, "pattern can't be null!");
-        return MessageFormat.format(pattern, arguments);
+        return MessageTemplate.compile(pattern).format(arguments);
     }
 }
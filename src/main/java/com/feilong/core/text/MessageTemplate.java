@@ -0,0 +1,520 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.text;
+
+import java.text.ChoiceFormat;
+import java.text.DateFormat;
+import java.text.Format;
+import java.text.MessageFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.tuple.Pair;
+
+import com.feilong.core.util.ConcurrentLruCache;
+
+/**
+ * 预先解析好的 {@link MessageFormat} 模式.
+ *
+ * <h3>为什么需要这个类?</h3>
+ *
+ * <blockquote>
+ * <p>
+ * {@link MessageFormat#format(String, Object...)} 每次调用都会重新解析模式,创建新的 {@link MessageFormat} 以及子格式;<br>
+ * 而 {@link MessageFormat} 不是线程安全的,不能直接共享.<br>
+ * 本类只解析一次,拆成 文本/参数 片段(每个参数记录参数索引和子格式),渲染的时候直接拼接,不需要创建 {@link MessageFormat}.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>{@link #format(Object...)} 的结果和使用相同 locale 的 {@link MessageFormat#format(Object)} 一致,
+ * 包括单引号转义,参数不够的时候原样输出 <code>{n}</code>,null参数输出 <code>"null"</code></li>
+ * <li>没有子格式的参数(比如 <code>{0}</code>)直接拼接;{@link Number} 和 {@link Date} 使用 locale 默认的格式</li>
+ * <li>有子格式的参数(比如 <code>{0,number,#.00}</code>,<code>{0,date,yyyy-MM-dd}</code>),每次使用预先解析好的子格式的副本,不会重新解析</li>
+ * <li>含有 <code>choice</code> 子格式的模式(选择的结果可能又是一个模式),交给预先解析好的 {@link MessageFormat} 的副本处理</li>
+ * <li>日期子格式使用格式化时的 {@link TimeZone#getDefault()},和每次新建 {@link MessageFormat} 一致</li>
+ * <li>{@link #compile(String, Locale)} 使用有容量上限的 LRU 缓存,最多缓存 {@link #MAX_SIZE} 个模式;
+ * 调用方自己持有模板的场景(比如预先解析的配置文件),使用不缓存的 {@link #parse(String, Locale)},避免挤占共享的缓存</li>
+ * <li>模板是不可变的,可以在多个线程中使用</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * MessageTemplate template = MessageTemplate.compile("name=张三{0}a{1}");
+ *
+ * template.format("jin", "xin") = "name=张三jinaxin"
+ * template.appendTo(stringBuilder, "jin", "xin");
+ *
+ * MessageTemplate.compile("{0,number,#.00}", Locale.US).format(3.14159) = "3.14"
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see MessageFormatUtil#format(String, Object...)
+ * @see MessageFormat
+ * @since 1.13.1
+ */
+public final class MessageTemplate{
+
+    /** 最多缓存的模式数量. */
+    public static final int                                                        MAX_SIZE             = 500;
+
+    /** The cache. */
+    private static final ConcurrentLruCache<Pair<String, Locale>, MessageTemplate> CACHE                = new ConcurrentLruCache<>(MAX_SIZE);
+
+    /** 缓存未命中时,解析模式. */
+    private static final Transformer<Pair<String, Locale>, MessageTemplate>        LOADER               = new Transformer<Pair<String, Locale>, MessageTemplate>(){
+
+                                                                                                            @Override
+                                                                                                            public MessageTemplate transform(Pair<String, Locale> key){
+                                                                                                                return new MessageTemplate(key.getLeft(), key.getRight());
+                                                                                                            }
+                                                                                                        };
+
+    /** 每个 locale 默认的 {@link NumberFormat},使用的时候复制一份. */
+    private static final ConcurrentLruCache<Locale, NumberFormat>                  NUMBER_FORMATS       = new ConcurrentLruCache<>(100);
+
+    /** 创建 locale 默认的 {@link NumberFormat}. */
+    private static final Transformer<Locale, NumberFormat>                         NUMBER_FORMAT_LOADER = new Transformer<Locale, NumberFormat>(){
+
+                                                                                                            @Override
+                                                                                                            public NumberFormat transform(Locale locale){
+                                                                                                                return NumberFormat.getInstance(locale);
+                                                                                                            }
+                                                                                                        };
+
+    //---------------------------------------------------------------
+
+    /** 原始模式. */
+    private final String                                                           pattern;
+
+    /** The locale. */
+    private final Locale                                                           locale;
+
+    /** 文本片段,长度是参数个数+1,第 i 个参数在 <code>literals[i]</code> 和 <code>literals[i+1]</code> 之间. */
+    private final String[]                                                         literals;
+
+    /** 每个参数的参数索引. */
+    private final int[]                                                            argumentIndexes;
+
+    /** 每个参数的子格式,null 表示没有子格式. */
+    private final Format[]                                                         formats;
+
+    /** 所有文本片段的长度之和. */
+    private final int                                                              literalLength;
+
+    /** 含有 choice 等不能直接拼接的子格式的时候,使用它的副本格式化;否则是null. */
+    private final MessageFormat                                                    messageFormat;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new message template.
+     *
+     * @param pattern
+     *            the pattern
+     * @param locale
+     *            the locale
+     * @throws IllegalArgumentException
+     *             如果 <code>pattern</code> 不是合法的模式
+     */
+    private MessageTemplate(String pattern, Locale locale){
+        this.pattern = pattern;
+        this.locale = locale;
+
+        //校验模式,异常信息和 MessageFormat 一致;同时拿到解析好的子格式
+        MessageFormat compiled = new MessageFormat(pattern, locale);
+        Format[] compiledFormats = compiled.getFormats();
+
+        List<String> literalList = new ArrayList<>();
+        List<Integer> argumentIndexList = new ArrayList<>();
+        boolean parsed = parse(pattern, literalList, argumentIndexList);
+
+        //解析结果和 MessageFormat 不一致,或者有 choice 子格式,交给 MessageFormat
+        if (!parsed || argumentIndexList.size() != compiledFormats.length || hasChoiceFormat(compiledFormats)){
+            this.literals = null;
+            this.argumentIndexes = null;
+            this.formats = null;
+            this.literalLength = 0;
+            this.messageFormat = compiled;
+            return;
+        }
+
+        //---------------------------------------------------------------
+        this.literals = literalList.toArray(new String[literalList.size()]);
+        this.argumentIndexes = new int[argumentIndexList.size()];
+        for (int i = 0; i < argumentIndexes.length; ++i){
+            argumentIndexes[i] = argumentIndexList.get(i);
+        }
+        this.formats = compiledFormats;
+
+        int literalLengthSum = 0;
+        for (String literal : literals){
+            literalLengthSum += literal.length();
+        }
+        this.literalLength = literalLengthSum;
+        this.messageFormat = null;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用默认的格式化 locale({@link Locale.Category#FORMAT},和 {@link MessageFormat#format(String, Object...)} 一致) 解析模式,解析结果按照
+     * (模式,locale) 缓存.
+     *
+     * @param pattern
+     *            the pattern
+     * @return 如果 <code>pattern</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>pattern</code> 不是合法的模式,抛出 {@link IllegalArgumentException}<br>
+     * @see #compile(String, Locale)
+     */
+    public static MessageTemplate compile(String pattern){
+        return compile(pattern, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * 使用指定的 <code>locale</code> 解析模式,解析结果按照 (模式,locale) 缓存.
+     *
+     * @param pattern
+     *            the pattern
+     * @param locale
+     *            格式化数字,日期使用的 locale
+     * @return 如果 <code>pattern</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>locale</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>pattern</code> 不是合法的模式,抛出 {@link IllegalArgumentException}<br>
+     * @see MessageFormat#MessageFormat(String, Locale)
+     */
+    public static MessageTemplate compile(String pattern,Locale locale){
+        Validate.notNull(pattern, "pattern can't be null!");
+        Validate.notNull(locale, "locale can't be null!");
+        return CACHE.get(Pair.of(pattern, locale), LOADER);
+    }
+
+    /**
+     * 使用默认的格式化 locale({@link Locale.Category#FORMAT}) 解析模式,<b>不会</b>放入缓存.
+     *
+     * @param pattern
+     *            the pattern
+     * @return 如果 <code>pattern</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>pattern</code> 不是合法的模式,抛出 {@link IllegalArgumentException}<br>
+     * @see #parse(String, Locale)
+     */
+    public static MessageTemplate parse(String pattern){
+        return parse(pattern, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * 使用指定的 <code>locale</code> 解析模式,<b>不会</b>放入缓存.
+     *
+     * <p>
+     * 适用于调用方自己长期持有解析结果的场景,不会挤掉 {@link #compile(String, Locale)} 缓存的模式.
+     * </p>
+     *
+     * @param pattern
+     *            the pattern
+     * @param locale
+     *            格式化数字,日期使用的 locale
+     * @return 如果 <code>pattern</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>locale</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>pattern</code> 不是合法的模式,抛出 {@link IllegalArgumentException}<br>
+     * @see #compile(String, Locale)
+     */
+    public static MessageTemplate parse(String pattern,Locale locale){
+        Validate.notNull(pattern, "pattern can't be null!");
+        Validate.notNull(locale, "locale can't be null!");
+        return new MessageTemplate(pattern, locale);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用 <code>arguments</code> 格式化,结果和 {@link MessageFormat#format(Object)} 一致.
+     *
+     * @param arguments
+     *            动态参数
+     * @return 格式化结果
+     * @throws IllegalArgumentException
+     *             如果参数不能被对应的子格式格式化,比如 <code>{0,number}</code> 传入了字符串
+     */
+    public String format(Object...arguments){
+        if (null != messageFormat){
+            return formatUseMessageFormat(arguments);
+        }
+        if (0 == argumentIndexes.length){
+            return literals[0];
+        }
+        return appendTo(new StringBuilder(literalLength + 16 * argumentIndexes.length), arguments).toString();
+    }
+
+    /**
+     * 使用 <code>arguments</code> 格式化,结果追加到 <code>sb</code>.
+     *
+     * @param sb
+     *            the sb
+     * @param arguments
+     *            动态参数
+     * @return 如果 <code>sb</code> 是null,抛出 {@link NullPointerException}<br>
+     *         否则返回 <code>sb</code>
+     * @throws IllegalArgumentException
+     *             如果参数不能被对应的子格式格式化,比如 <code>{0,number}</code> 传入了字符串
+     */
+    public StringBuilder appendTo(StringBuilder sb,Object...arguments){
+        Validate.notNull(sb, "sb can't be null!");
+        if (null != messageFormat){
+            return sb.append(formatUseMessageFormat(arguments));
+        }
+
+        sb.append(literals[0]);
+        for (int i = 0; i < argumentIndexes.length; ++i){
+            appendArgument(sb, i, arguments);
+            sb.append(literals[i + 1]);
+        }
+        return sb;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 原始模式.
+     *
+     * @return the pattern
+     */
+    public String getPattern(){
+        return pattern;
+    }
+
+    /**
+     * 获得 locale.
+     *
+     * @return the locale
+     */
+    public Locale getLocale(){
+        return locale;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString(){
+        return pattern;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 拼接第 <code>slot</code> 个参数,规则和 {@link MessageFormat} 的 subformat 一致.
+     *
+     * @param sb
+     *            the sb
+     * @param slot
+     *            第几个参数
+     * @param arguments
+     *            the arguments
+     */
+    private void appendArgument(StringBuilder sb,int slot,Object[] arguments){
+        int argumentIndex = argumentIndexes[slot];
+        if (null == arguments || argumentIndex >= arguments.length){
+            sb.append('{').append(argumentIndex).append('}');
+            return;
+        }
+
+        Object argument = arguments[argumentIndex];
+        if (null == argument){
+            sb.append("null");
+        }else if (null != formats[slot]){
+            sb.append(copy(formats[slot]).format(argument));
+        }else if (argument instanceof Number){
+            sb.append(copy(NUMBER_FORMATS.get(locale, NUMBER_FORMAT_LOADER)).format(argument));
+        }else if (argument instanceof Date){
+            sb.append(DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, locale).format(argument));
+        }else{
+            //toString() 返回null的时候,追加 "null"
+            sb.append(argument.toString());
+        }
+    }
+
+    /**
+     * 使用 {@link #messageFormat} 的副本格式化.
+     *
+     * @param arguments
+     *            the arguments
+     * @return the string
+     */
+    private String formatUseMessageFormat(Object[] arguments){
+        MessageFormat useMessageFormat = (MessageFormat) messageFormat.clone();
+        for (Format format : useMessageFormat.getFormats()){
+            if (format instanceof DateFormat){
+                ((DateFormat) format).setTimeZone(TimeZone.getDefault());
+            }
+        }
+        return useMessageFormat.format(arguments);
+    }
+
+    /**
+     * 复制一份子格式,子格式不是线程安全的.
+     *
+     * @param <F>
+     *            the generic type
+     * @param format
+     *            the format
+     * @return the f
+     */
+    @SuppressWarnings("unchecked")
+    private static <F extends Format> F copy(F format){
+        F copy = (F) format.clone();
+        if (copy instanceof DateFormat){
+            ((DateFormat) copy).setTimeZone(TimeZone.getDefault());
+        }
+        return copy;
+    }
+
+    /**
+     * 是否有 {@link ChoiceFormat} 子格式.
+     *
+     * @param formats
+     *            the formats
+     * @return true, if successful
+     */
+    private static boolean hasChoiceFormat(Format[] formats){
+        for (Format format : formats){
+            if (format instanceof ChoiceFormat){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 按照 {@link MessageFormat#applyPattern(String)} 的规则拆分文本片段和参数索引.
+     *
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>文本中两个单引号表示一个单引号,单个单引号开始/结束引用,引用中的 <code>{</code> 按照文本处理</li>
+     * <li>参数中的单引号原样保留,直到下一个单引号,引用中的 <code>,{}</code> 都不是分隔符</li>
+     * <li>参数中成对的 <code>{}</code> 属于子格式(比如 choice 子格式里面的参数)</li>
+     * <li>调用之前已经使用 {@link MessageFormat} 校验过模式</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param pattern
+     *            the pattern
+     * @param literalList
+     *            文本片段
+     * @param argumentIndexList
+     *            参数索引
+     * @return 如果参数索引不是数字,返回false
+     */
+    private static boolean parse(String pattern,List<String> literalList,List<Integer> argumentIndexList){
+        StringBuilder literal = new StringBuilder();
+        StringBuilder argumentIndex = new StringBuilder();
+
+        boolean inArgument = false;
+        boolean inArgumentIndex = false;
+        boolean inQuote = false;
+        int braceStack = 0;
+
+        int length = pattern.length();
+        for (int i = 0; i < length; ++i){
+            char ch = pattern.charAt(i);
+            if (!inArgument){
+                if (ch == '\''){
+                    if (i + 1 < length && pattern.charAt(i + 1) == '\''){
+                        literal.append(ch);
+                        ++i;
+                    }else{
+                        inQuote = !inQuote;
+                    }
+                }else if (ch == '{' && !inQuote){
+                    inArgument = true;
+                    inArgumentIndex = true;
+                }else{
+                    literal.append(ch);
+                }
+                continue;
+            }
+
+            //---------------------------------------------------------------
+            if (inQuote){
+                if (ch == '\''){
+                    inQuote = false;
+                }
+            }else if (ch == ','){
+                inArgumentIndex = false;
+                continue;
+            }else if (ch == '{'){
+                ++braceStack;
+            }else if (ch == '}'){
+                if (0 == braceStack){
+                    literalList.add(literal.toString());
+                    Integer index = toArgumentIndex(argumentIndex.toString());
+                    if (null == index){
+                        return false;
+                    }
+                    argumentIndexList.add(index);
+                    literal.setLength(0);
+                    argumentIndex.setLength(0);
+                    inArgument = false;
+                    continue;
+                }
+                --braceStack;
+            }else if (ch == '\''){
+                inQuote = true;
+            }
+
+            if (inArgumentIndex){
+                argumentIndex.append(ch);
+            }
+        }
+        literalList.add(literal.toString());
+        return true;
+    }
+
+    /**
+     * 转换参数索引.
+     *
+     * @param argumentIndex
+     *            the argument index
+     * @return 如果不是非负整数,返回null
+     */
+    private static Integer toArgumentIndex(String argumentIndex){
+        try{
+            int index = Integer.parseInt(argumentIndex);
+            return index < 0 ? null : index;
+        }catch (NumberFormatException e){
+            return null;
+        }
+    }
+}
@@ -111,6 +111,15 @@ public final class NumberFormatUtil{
      * </p>
      * </blockquote>
      * 
+     * <h3>关于性能:</h3>
+     * 
+     * <blockquote>
+     * <p>
+     * 格式按照 (numberPattern, roundingMode, locale) 缓存在 {@link NumberFormatter} 中,同一个格式不会重复解析;<br>
+     * 如果需要把结果拼接到 {@link StringBuilder},可以直接使用 {@link NumberFormatter#appendTo(StringBuilder, Number)}
+     * </p>
+     * </blockquote>
+     * 
      * @param value
      *            the value
      * @param numberPattern
@@ -121,21 +130,19 @@ public final class NumberFormatUtil{
      *         如果 <code>numberPattern</code> 是null,抛出 {@link NullPointerException}<br>
      *         如果 <code>numberPattern</code> 是blank,抛出 {@link IllegalArgumentException}<br>
      * @see DecimalFormat
+     * @see NumberFormatter
      * @see <a href="../util/NumberUtil.html#RoundingMode">JAVA 8种舍入法</a>
      */
     public static String format(Number value,String numberPattern,RoundingMode roundingMode){
         Validate.notNull(value, "value can't be null!");
         Validate.notBlank(numberPattern, "numberPattern can't be null!");
 
-        //该构造方法内部 调用了applyPattern(pattern, false)
-        DecimalFormat decimalFormat = new DecimalFormat(numberPattern);
-        decimalFormat.setRoundingMode(defaultIfNull(roundingMode, HALF_UP));
-
-        String result = decimalFormat.format(value);
+        NumberFormatter numberFormatter = NumberFormatter.getInstance(numberPattern, defaultIfNull(roundingMode, HALF_UP));
+        String result = numberFormatter.format(value);
 
         if (LOGGER.isTraceEnabled()){
             String message = "input:[{}],with:[{}]=[{}],localizedPattern:[{}]";
-            LOGGER.trace(message, value, numberPattern, result, decimalFormat.toLocalizedPattern());
+            LOGGER.trace(message, value, numberPattern, result, numberFormatter.toLocalizedPattern());
         }
         return result;
     }
@@ -0,0 +1,385 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.text;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.tuple.Triple;
+
+import com.feilong.core.NumberPattern;
+import com.feilong.core.util.ConcurrentLruCache;
+
+/**
+ * 预先解析好的数字格式,按照 (numberPattern, roundingMode, locale) 缓存,可以在多个线程中使用.
+ *
+ * <h3>为什么需要这个类?</h3>
+ *
+ * <blockquote>
+ * <p>
+ * <code>new DecimalFormat(numberPattern)</code> 每次都要解析 <code>numberPattern</code>,并且查找 locale 对应的 {@link DecimalFormatSymbols};<br>
+ * 而 {@link DecimalFormat} 不是线程安全的,不能直接共享.<br>
+ * 本类只解析一次,格式化的时候使用预先创建好的 {@link DecimalFormat} 的副本;常用的简单格式直接拼接,不需要 {@link DecimalFormat}.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>结果和 <code>new DecimalFormat(numberPattern, DecimalFormatSymbols.getInstance(locale))</code> 设置 <code>roundingMode</code> 之后格式化的结果一致</li>
+ * <li>形如 <code>#</code>,<code>#0.00</code>,<code>##%</code>,<code>#0.00%</code> (不含分组,前后缀只有百分号)的简单格式,
+ * 格式化 {@link Integer},{@link Long},{@link Short},{@link Byte},{@link BigInteger},{@link BigDecimal} 的时候使用 {@link BigDecimal} 直接舍入拼接</li>
+ * <li>其他格式,或者 {@link Double},{@link Float} 等浮点类型(舍入规则和 {@link BigDecimal} 不完全相同),使用预先创建好的 {@link DecimalFormat} 的副本</li>
+ * <li>{@link #getInstance(String, RoundingMode, Locale)} 使用有容量上限的 LRU 缓存,最多缓存 {@link #MAX_SIZE} 个格式</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * NumberFormatter numberFormatter = NumberFormatter.getInstance(NumberPattern.TWO_DECIMAL_POINTS, RoundingMode.HALF_UP);
+ *
+ * numberFormatter.format(toBigDecimal("1.125"))                = "1.13"
+ * numberFormatter.appendTo(sb.append("price:"), salePrice);
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see NumberFormatUtil#format(Number, String, RoundingMode)
+ * @see NumberPattern
+ * @see DecimalFormat
+ * @since 1.13.1
+ */
+public final class NumberFormatter{
+
+    /** 最多缓存的格式数量. */
+    public static final int                                                                        MAX_SIZE       = 500;
+
+    /** 简单格式:整数部分 <code>#</code>,<code>0</code>;小数部分 <code>0</code>,<code>#</code>;可选的百分号后缀. */
+    private static final Pattern                                                                   SIMPLE_PATTERN = Pattern.compile("(#*)(0*)(?:\\.(0*)(#*))?(%?)");
+
+    /** 校验简单格式拼接结果的数字. */
+    private static final String[]                                                                  PROBE_VALUES   = {
+                                                                                                                      "0",
+                                                                                                                      "0.5",
+                                                                                                                      "0.00123",
+                                                                                                                      "-0.5",
+                                                                                                                      "12.345",
+                                                                                                                      "-1234.5678",
+                                                                                                                      "98765432109876543210.05" };
+
+    /** The cache. */
+    private static final ConcurrentLruCache<Triple<String, RoundingMode, Locale>, NumberFormatter> CACHE          = new ConcurrentLruCache<>(MAX_SIZE);
+
+    /** 缓存未命中时,解析格式. */
+    private static final Transformer<Triple<String, RoundingMode, Locale>, NumberFormatter>        LOADER         = new Transformer<Triple<String, RoundingMode, Locale>, NumberFormatter>(){
+
+                                                                                                                      @Override
+                                                                                                                      public NumberFormatter transform(Triple<String, RoundingMode, Locale> key){
+                                                                                                                          return new NumberFormatter(key.getLeft(), key.getMiddle(), key.getRight());
+                                                                                                                      }
+                                                                                                                  };
+
+    //---------------------------------------------------------------
+
+    /** The number pattern. */
+    private final String                                                                           numberPattern;
+
+    /** The rounding mode. */
+    private final RoundingMode                                                                     roundingMode;
+
+    /** The locale. */
+    private final Locale                                                                           locale;
+
+    /** 预先创建好的 {@link DecimalFormat},只用来复制,不直接格式化. */
+    private final DecimalFormat                                                                    decimalFormat;
+
+    /** The localized pattern. */
+    private final String                                                                           localizedPattern;
+
+    /** 是否是可以直接拼接的简单格式. */
+    private final boolean                                                                          simple;
+
+    /** 整数部分最少位数. */
+    private final int                                                                              minimumIntegerDigits;
+
+    /** 小数部分最少位数. */
+    private final int                                                                              minimumFractionDigits;
+
+    /** 小数部分最多位数. */
+    private final int                                                                              maximumFractionDigits;
+
+    /** 是否是百分数. */
+    private final boolean                                                                          percent;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new number formatter.
+     *
+     * @param numberPattern
+     *            the number pattern
+     * @param roundingMode
+     *            the rounding mode
+     * @param locale
+     *            the locale
+     * @throws IllegalArgumentException
+     *             如果 <code>numberPattern</code> 不是合法的格式
+     */
+    private NumberFormatter(String numberPattern, RoundingMode roundingMode, Locale locale){
+        this.numberPattern = numberPattern;
+        this.roundingMode = roundingMode;
+        this.locale = locale;
+
+        //该构造方法内部 调用了applyPattern(pattern, false)
+        this.decimalFormat = new DecimalFormat(numberPattern, DecimalFormatSymbols.getInstance(locale));
+        this.decimalFormat.setRoundingMode(roundingMode);
+        this.localizedPattern = decimalFormat.toLocalizedPattern();
+
+        //---------------------------------------------------------------
+        Matcher matcher = SIMPLE_PATTERN.matcher(numberPattern);
+        boolean matches = matcher.matches()//
+                        && matcher.group(1).length() + matcher.group(2).length() > 0//
+                        && (null == matcher.group(3) || matcher.group(3).length() + matcher.group(4).length() > 0);
+
+        //和 DecimalFormat 一致,形如 #.## 的格式(没有0),整数部分至少一位
+        boolean noZero = matches && matcher.group(2).isEmpty() && (null == matcher.group(3) || matcher.group(3).isEmpty());
+        this.minimumIntegerDigits = noZero && null != matcher.group(3) ? 1 : matches ? matcher.group(2).length() : 0;
+        this.minimumFractionDigits = matches && null != matcher.group(3) ? matcher.group(3).length() : 0;
+        this.maximumFractionDigits = matches && null != matcher.group(3) ? minimumFractionDigits + matcher.group(4).length() : 0;
+        this.percent = matches && !matcher.group(5).isEmpty();
+        this.simple = matches && roundingMode != RoundingMode.UNNECESSARY && isSameAsDecimalFormat();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 使用默认的格式化 locale({@link Locale.Category#FORMAT},和 {@link DecimalFormat#DecimalFormat(String)} 一致) 获得格式.
+     *
+     * @param numberPattern
+     *            格式化数字格式,可以参见或者使用{@link NumberPattern}
+     * @param roundingMode
+     *            舍入模式{@link RoundingMode}
+     * @return 如果 <code>numberPattern</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>numberPattern</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>roundingMode</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>numberPattern</code> 不是合法的格式,抛出 {@link IllegalArgumentException}<br>
+     * @see #getInstance(String, RoundingMode, Locale)
+     */
+    public static NumberFormatter getInstance(String numberPattern,RoundingMode roundingMode){
+        return getInstance(numberPattern, roundingMode, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * 获得 (numberPattern, roundingMode, locale) 对应的格式,解析结果缓存.
+     *
+     * @param numberPattern
+     *            格式化数字格式,可以参见或者使用{@link NumberPattern}
+     * @param roundingMode
+     *            舍入模式{@link RoundingMode}
+     * @param locale
+     *            决定小数点,负号,百分号等符号
+     * @return 如果 <code>numberPattern</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>numberPattern</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     *         如果 <code>roundingMode</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>locale</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>numberPattern</code> 不是合法的格式,抛出 {@link IllegalArgumentException}<br>
+     */
+    public static NumberFormatter getInstance(String numberPattern,RoundingMode roundingMode,Locale locale){
+        Validate.notBlank(numberPattern, "numberPattern can't be null!");
+        Validate.notNull(roundingMode, "roundingMode can't be null!");
+        Validate.notNull(locale, "locale can't be null!");
+        return CACHE.get(Triple.of(numberPattern, roundingMode, locale), LOADER);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 格式化 <code>value</code>.
+     *
+     * @param value
+     *            the value
+     * @return 如果 <code>value</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>roundingMode</code> 是 {@link RoundingMode#UNNECESSARY} 并且需要舍入,抛出 {@link ArithmeticException}
+     */
+    public String format(Number value){
+        return appendTo(new StringBuilder(24), value).toString();
+    }
+
+    /**
+     * 格式化 <code>value</code>,结果追加到 <code>sb</code>.
+     *
+     * @param sb
+     *            the sb
+     * @param value
+     *            the value
+     * @return 如果 <code>sb</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>value</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>roundingMode</code> 是 {@link RoundingMode#UNNECESSARY} 并且需要舍入,抛出 {@link ArithmeticException}<br>
+     *         否则返回 <code>sb</code>
+     */
+    public StringBuilder appendTo(StringBuilder sb,Number value){
+        Validate.notNull(sb, "sb can't be null!");
+        Validate.notNull(value, "value can't be null!");
+
+        BigDecimal number = simple ? toBigDecimal(value) : null;
+        if (null != number && appendSimple(sb, number)){
+            return sb;
+        }
+        return sb.append(((DecimalFormat) decimalFormat.clone()).format(value));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 number pattern.
+     *
+     * @return the number pattern
+     */
+    public String getNumberPattern(){
+        return numberPattern;
+    }
+
+    /**
+     * 获得 rounding mode.
+     *
+     * @return the rounding mode
+     */
+    public RoundingMode getRoundingMode(){
+        return roundingMode;
+    }
+
+    /**
+     * 获得 locale.
+     *
+     * @return the locale
+     */
+    public Locale getLocale(){
+        return locale;
+    }
+
+    /**
+     * 本地化的格式,参见 {@link DecimalFormat#toLocalizedPattern()}.
+     *
+     * @return the string
+     */
+    public String toLocalizedPattern(){
+        return localizedPattern;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 简单格式直接拼接.
+     *
+     * @param sb
+     *            the sb
+     * @param value
+     *            the value
+     * @return 如果负数舍入之后是0(是否保留负号交给 {@link DecimalFormat}),返回false,并且不会追加任何内容
+     */
+    private boolean appendSimple(StringBuilder sb,BigDecimal value){
+        BigDecimal number = percent ? value.movePointRight(2) : value;
+
+        //和 DecimalFormat 一致,第一位有效数字比舍入位还要小一位以上的时候,不论舍入模式,直接舍成0
+        boolean tooSmall = number.signum() != 0 && number.precision() - number.scale() < -maximumFractionDigits;
+        BigDecimal rounded = tooSmall ? BigDecimal.ZERO : number.setScale(maximumFractionDigits, roundingMode);
+        if (rounded.signum() == 0 && number.signum() < 0){
+            return false;
+        }
+
+        //---------------------------------------------------------------
+        StringBuilder digits = new StringBuilder(rounded.unscaledValue().abs().toString());
+        while (digits.length() < maximumFractionDigits){
+            digits.insert(0, '0');
+        }
+        int integerLength = digits.length() - maximumFractionDigits;
+
+        //整数部分是0的时候,不输出,再按照最少位数补0
+        int integerStart = integerLength == 1 && digits.charAt(0) == '0' ? 1 : 0;
+        int fractionEnd = digits.length();
+        while (fractionEnd - integerLength > minimumFractionDigits && digits.charAt(fractionEnd - 1) == '0'){
+            --fractionEnd;
+        }
+
+        //---------------------------------------------------------------
+        if (rounded.signum() < 0){
+            sb.append('-');
+        }
+        for (int i = integerLength - integerStart; i < minimumIntegerDigits; ++i){
+            sb.append('0');
+        }
+        sb.append(digits, integerStart, integerLength);
+        if (fractionEnd > integerLength){
+            sb.append('.').append(digits, integerLength, fractionEnd);
+        }else if (integerLength - integerStart + minimumIntegerDigits == 0){
+            //没有输出任何数字
+            sb.append('0');
+        }
+        if (percent){
+            sb.append('%');
+        }
+        return true;
+    }
+
+    /**
+     * 简单格式拼接的结果是否和 {@link DecimalFormat} 一致(比如 locale 的小数点,负号,百分号不同的时候不一致).
+     *
+     * @return true, if is same as decimal format
+     */
+    private boolean isSameAsDecimalFormat(){
+        for (String probeValue : PROBE_VALUES){
+            BigDecimal value = new BigDecimal(probeValue);
+            StringBuilder sb = new StringBuilder();
+            if (appendSimple(sb, value) && !sb.toString().equals(((DecimalFormat) decimalFormat.clone()).format(value))){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 转成 {@link BigDecimal}.
+     *
+     * @param value
+     *            the value
+     * @return 如果不是整数类型或者 {@link BigDecimal},返回null
+     */
+    private static BigDecimal toBigDecimal(Number value){
+        if (value instanceof BigDecimal){
+            return (BigDecimal) value;
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte){
+            return BigDecimal.valueOf(value.longValue());
+        }
+        if (value instanceof BigInteger){
+            return new BigDecimal((BigInteger) value);
+        }
+        return null;
+    }
+}
@@ -40,6 +40,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import org.apache.commons.beanutils.PropertyUtilsBean;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.IterableUtils;
+import org.apache.commons.collections4.IteratorUtils;
 import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.collections4.Predicate;
 import org.apache.commons.collections4.Transformer;
@@ -1950,6 +1951,106 @@ public final class CollectionsUtil{
         return null == inputIterator ? null : (List<T>) CollectionUtils.collect(inputIterator, transformer);
     }
 
+    /**
+     * 将 <code>inputList</code> 包装成使用 <code>transformer</code> 转换元素的<b>只读视图</b>,只有在访问元素的时候才会转换,不缓存转换结果.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>和 {@link #collect(Iterable, Transformer)} 不同,不会一次性转换所有的元素,适合分页,找到第一个满足条件的元素就退出等只读取部分元素的场景</li>
+     * <li>原始 list 的变化会直接反映到视图上</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * List{@code <String>} list = toList("1", "2", "3");
+     * List{@code <Integer>} view = CollectionsUtil.collectView(list, new SimpleClassTransformer{@code <>}(Integer.class));
+     * 
+     * view.get(1) = 2
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <O>
+     *            the type of object in the input list
+     * @param <T>
+     *            the type of object in the view
+     * @param inputList
+     *            the input list
+     * @param transformer
+     *            the transformer
+     * @return 如果 <code>inputList</code> 是null,返回 {@link Collections#emptyList()}<br>
+     *         如果 <code>transformer</code> 是null,抛出 {@link NullPointerException}<br>
+     * @see TransformedListView
+     * @since 1.13.1
+     */
+    public static <O, T> List<T> collectView(final List<O> inputList,final Transformer<? super O, ? extends T> transformer){
+        return collectView(inputList, transformer, false);
+    }
+
+    /**
+     * 将 <code>inputList</code> 包装成使用 <code>transformer</code> 转换元素的<b>只读视图</b>,只有在访问元素的时候才会转换.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>如果 <code>memoize</code> 是true,每个元素只转换一次,适合 <code>transformer</code> 开销比较大并且会反复读取的场景;
+     * 此时创建视图之后不能再对原始 list 做结构上的修改,视图也不是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the type of object in the input list
+     * @param <T>
+     *            the type of object in the view
+     * @param inputList
+     *            the input list
+     * @param transformer
+     *            the transformer
+     * @param memoize
+     *            是否缓存转换结果
+     * @return 如果 <code>inputList</code> 是null,返回 {@link Collections#emptyList()}<br>
+     *         如果 <code>transformer</code> 是null,抛出 {@link NullPointerException}<br>
+     * @see TransformedListView
+     * @since 1.13.1
+     */
+    public static <O, T> List<T> collectView(final List<O> inputList,final Transformer<? super O, ? extends T> transformer,boolean memoize){
+        Validate.notNull(transformer, "transformer can't be null!");
+        return null == inputList ? Collections.<T> emptyList() : new TransformedListView<O, T>(inputList, transformer, memoize);
+    }
+
+    /**
+     * 将 <code>inputIterator</code> 包装成使用 <code>transformer</code> 转换元素的迭代器,调用 {@link Iterator#next()} 的时候才会转换.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>和 {@link #collect(Iterator, Transformer)} 不同,不会一次性转换所有的元素,也不会创建新的list</li>
+     * </ol>
+     * </blockquote>
+     *
+     * @param <O>
+     *            the type of object in the input iterator
+     * @param <T>
+     *            the type of object in the view
+     * @param inputIterator
+     *            the input iterator
+     * @param transformer
+     *            the transformer
+     * @return 如果 <code>inputIterator</code> 是null,返回 {@link IteratorUtils#emptyIterator()}<br>
+     *         如果 <code>transformer</code> 是null,抛出 {@link NullPointerException}<br>
+     * @see IteratorUtils#transformedIterator(Iterator, Transformer)
+     * @since 1.13.1
+     */
+    public static <O, T> Iterator<T> collectView(final Iterator<O> inputIterator,final Transformer<? super O, ? extends T> transformer){
+        Validate.notNull(transformer, "transformer can't be null!");
+        return null == inputIterator ? IteratorUtils.<T> emptyIterator() : IteratorUtils.transformedIterator(inputIterator, transformer);
+    }
+
     //----------------------------group-----------------------------------
 
     /**
@@ -0,0 +1,432 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 线程安全,有容量上限的 LRU(最近最少使用) 缓存,带命中/未命中/淘汰 计数.
+ *
+ * <h3>实现说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>读操作基于 {@link ConcurrentHashMap},不加锁;命中时只把entry的访问序号更新成当前的写入序号(只读共享的序号,不递增),命中次数使用分段计数</li>
+ * <li>写入之后如果超过了 <code>maxSize</code>,一次淘汰访问序号最小(最久未被访问)的一批entry,直到剩下约 90% 的容量,
+ * 因此一次 O(n) 的扫描会分摊到之后约 <code>maxSize/10</code> 次写入上</li>
+ * <li>同一时间只有一个线程执行淘汰,其他写入的线程不会等待;在并发写入的瞬间,缓存的大小可能短暂超过 <code>maxSize</code>,随后的写入会淘汰回容量之内</li>
+ * <li>不支持 null key 和 null value</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * private static final ConcurrentLruCache{@code <String, Pattern>} CACHE = new ConcurrentLruCache{@code <>}(500);
+ *
+ * Pattern pattern = CACHE.get(regex, new Transformer{@code <String, Pattern>}(){
+ *
+ *     &#64;Override
+ *     public Pattern transform(String regex){
+ *         return Pattern.compile(regex);
+ *     }
+ * });
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the value type
+ * @since 1.13.1
+ */
+public final class ConcurrentLruCache<K, V> {
+
+    /** 最大容量. */
+    private final int                           maxSize;
+
+    /** 淘汰之后剩下的数量,约为 <code>maxSize</code> 的 90%. */
+    private final int                           evictTargetSize;
+
+    /** The map. */
+    private final ConcurrentHashMap<K, Node<V>> map;
+
+    /** 写入序号,只在写入的时候递增,命中时只读取,作为entry的访问序号. */
+    private final AtomicLong                    writeTick     = new AtomicLong();
+
+    /** 命中次数. */
+    private final StripedCounter                hitCount      = new StripedCounter();
+
+    /** 未命中次数. */
+    private final AtomicLong                    missCount     = new AtomicLong();
+
+    /** 淘汰次数. */
+    private final AtomicLong                    evictionCount = new AtomicLong();
+
+    /** 淘汰锁. */
+    private final ReentrantLock                 evictionLock  = new ReentrantLock();
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new concurrent lru cache.
+     *
+     * @param maxSize
+     *            最大容量,必须大于0
+     * @throws IllegalArgumentException
+     *             如果 <code>maxSize</code> {@code <=} 0
+     */
+    public ConcurrentLruCache(int maxSize){
+        Validate.isTrue(maxSize > 0, "maxSize:[%s] must > 0", maxSize);
+        this.maxSize = maxSize;
+        this.evictTargetSize = maxSize - maxSize / 10;
+        this.map = MapUtil.newConcurrentHashMap(Math.min(maxSize, 1024));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 <code>key</code> 对应的缓存值.
+     *
+     * @param key
+     *            the key
+     * @return 如果 <code>key</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果没有缓存,返回null
+     */
+    public V get(K key){
+        Validate.notNull(key, "key can't be null!");
+
+        Node<V> node = map.get(key);
+        if (null == node){
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.increment();
+
+        //序号没有变化的时候不写,避免热点entry所在的缓存行被反复写
+        long tick = writeTick.get();
+        if (node.lastAccess != tick){
+            node.lastAccess = tick;
+        }
+        return node.value;
+    }
+
+    /**
+     * 获得 <code>key</code> 对应的缓存值,如果没有缓存,那么使用 <code>valueLoader</code> 创建并放入缓存.
+     *
+     * <p>
+     * 并发情况下 <code>valueLoader</code> 可能会被同一个key调用多次,但最终只有第一个放入的值会被保留并返回,因此 <code>valueLoader</code> 应该是无副作用的.
+     * </p>
+     *
+     * @param key
+     *            the key
+     * @param valueLoader
+     *            缓存未命中时,值的创建器
+     * @return 如果 <code>key</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>valueLoader</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>valueLoader</code> 返回null,返回null并且不缓存<br>
+     */
+    public V get(K key,Transformer<? super K, ? extends V> valueLoader){
+        Validate.notNull(valueLoader, "valueLoader can't be null!");
+
+        V value = get(key);
+        if (null != value){
+            return value;
+        }
+
+        V newValue = valueLoader.transform(key);
+        return null == newValue ? null : putIfAbsent(key, newValue);
+    }
+
+    /**
+     * 如果 <code>key</code> 还没有缓存,那么放入 <code>value</code>.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     * @return 已经存在的缓存值,如果不存在,返回 <code>value</code><br>
+     *         如果 <code>key</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>value</code> 是null,抛出 {@link NullPointerException}<br>
+     */
+    public V putIfAbsent(K key,V value){
+        Validate.notNull(key, "key can't be null!");
+        Validate.notNull(value, "value can't be null!");
+
+        Node<V> node = new Node<>(value, writeTick.incrementAndGet());
+        Node<V> exist = map.putIfAbsent(key, node);
+        if (null != exist){
+            return exist.value;
+        }
+        evictIfNecessary();
+        return value;
+    }
+
+    /**
+     * 放入缓存,覆盖已经存在的值.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     * @return 之前的缓存值,如果没有返回null<br>
+     *         如果 <code>key</code> 是null,抛出 {@link NullPointerException}<br>
+     *         如果 <code>value</code> 是null,抛出 {@link NullPointerException}<br>
+     */
+    public V put(K key,V value){
+        Validate.notNull(key, "key can't be null!");
+        Validate.notNull(value, "value can't be null!");
+
+        Node<V> exist = map.put(key, new Node<>(value, writeTick.incrementAndGet()));
+        if (null == exist){
+            evictIfNecessary();
+            return null;
+        }
+        return exist.value;
+    }
+
+    /**
+     * 删除 <code>key</code> 对应的缓存.
+     *
+     * @param key
+     *            the key
+     * @return 被删除的缓存值,如果没有返回null
+     */
+    public V remove(K key){
+        Node<V> node = null == key ? null : map.remove(key);
+        return null == node ? null : node.value;
+    }
+
+    /**
+     * 清空缓存,不会重置计数.
+     */
+    public void clear(){
+        map.clear();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 当前缓存的数量.
+     *
+     * @return the int
+     */
+    public int size(){
+        return map.size();
+    }
+
+    /**
+     * 当前缓存的key.
+     *
+     * <p>
+     * 返回的是只读的视图,遍历的时候不会抛出 {@link java.util.ConcurrentModificationException},可能反映也可能不反映遍历期间的修改.
+     * </p>
+     *
+     * @return the sets the
+     */
+    public Set<K> keySet(){
+        return Collections.unmodifiableSet(map.keySet());
+    }
+
+    /**
+     * 最大容量.
+     *
+     * @return the max size
+     */
+    public int getMaxSize(){
+        return maxSize;
+    }
+
+    /**
+     * 命中次数.
+     *
+     * @return the hit count
+     */
+    public long getHitCount(){
+        return hitCount.sum();
+    }
+
+    /**
+     * 未命中次数.
+     *
+     * @return the miss count
+     */
+    public long getMissCount(){
+        return missCount.get();
+    }
+
+    /**
+     * 淘汰次数.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount(){
+        return evictionCount.get();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 如果超过容量,淘汰最久未被访问的一批entry,直到剩下 {@link #evictTargetSize} 个.
+     *
+     * <p>
+     * 如果其他线程正在淘汰,直接返回,不等待.
+     * </p>
+     */
+    private void evictIfNecessary(){
+        if (map.size() <= maxSize || !evictionLock.tryLock()){
+            return;
+        }
+        try{
+            while (map.size() > maxSize){
+                List<Eldest> eldestList = new ArrayList<>(map.size());
+                for (Map.Entry<K, Node<V>> entry : map.entrySet()){
+                    eldestList.add(new Eldest(entry.getKey(), entry.getValue()));
+                }
+                Collections.sort(eldestList, Eldest.LAST_ACCESS_COMPARATOR);
+
+                int evictSize = eldestList.size() - evictTargetSize;
+                for (int i = 0; i < evictSize; ++i){
+                    Eldest eldest = eldestList.get(i);
+                    if (map.remove(eldest.key, eldest.node)){
+                        evictionCount.incrementAndGet();
+                    }
+                }
+            }
+        }finally{
+            evictionLock.unlock();
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 缓存节点.
+     *
+     * @param <V>
+     *            the value type
+     */
+    private static final class Node<V> {
+
+        /** The value. */
+        private final V       value;
+
+        /** 最后访问的序号. */
+        private volatile long lastAccess;
+
+        /**
+         * Instantiates a new node.
+         *
+         * @param value
+         *            the value
+         * @param lastAccess
+         *            the last access
+         */
+        private Node(V value, long lastAccess){
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * 淘汰时的候选entry,记录扫描时的访问序号,排序期间不会变化.
+     */
+    private static final class Eldest{
+
+        /** 按照访问序号从小到大排序. */
+        private static final Comparator<Eldest> LAST_ACCESS_COMPARATOR = new Comparator<Eldest>(){
+
+                                                                            @Override
+                                                                            public int compare(Eldest o1,Eldest o2){
+                                                                                return Long.compare(o1.lastAccess, o2.lastAccess);
+                                                                            }
+                                                                        };
+
+        /** The key. */
+        private final Object                    key;
+
+        /** The node. */
+        private final Node<?>                   node;
+
+        /** 扫描时的访问序号. */
+        private final long                      lastAccess;
+
+        /**
+         * Instantiates a new eldest.
+         *
+         * @param key
+         *            the key
+         * @param node
+         *            the node
+         */
+        private Eldest(Object key, Node<?> node){
+            this.key = key;
+            this.node = node;
+            this.lastAccess = node.lastAccess;
+        }
+    }
+
+    /**
+     * 分段计数器,每个线程按照线程id累加到不同的(相互隔开缓存行的)槽位上,避免所有线程争用同一个计数.
+     */
+    private static final class StripedCounter{
+
+        /** 槽位数量,必须是2的幂. */
+        private static final int      STRIPES = 16;
+
+        /** 相邻槽位之间间隔的long数量(64字节),避免伪共享. */
+        private static final int      PADDING = 8;
+
+        /** The cells. */
+        private final AtomicLongArray cells   = new AtomicLongArray(STRIPES * PADDING);
+
+        /**
+         * 当前线程对应的槽位加1.
+         */
+        private void increment(){
+            cells.incrementAndGet(((int) Thread.currentThread().getId() & (STRIPES - 1)) * PADDING);
+        }
+
+        /**
+         * 所有槽位的和.
+         *
+         * @return the long
+         */
+        private long sum(){
+            long sum = 0;
+            for (int i = 0; i < STRIPES; ++i){
+                sum += cells.get(i * PADDING);
+            }
+            return sum;
+        }
+    }
+}
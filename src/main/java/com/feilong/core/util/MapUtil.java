@@ -36,6 +36,7 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.collections4.IterableUtils;
 import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.collections4.Transformer;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -1326,6 +1327,54 @@ public final class MapUtil{
 
     //---------------------------------------------------------------
 
+    /**
+     * 将 <code>map</code> 包装成使用 <code>valueTransformer</code> 转换 value 的视图,只有在访问 value 的时候才会转换.
+     * 
+     * <h3>说明:</h3>
+     * <blockquote>
+     * <ol>
+     * <li>不会复制 <code>map</code>,key 不会被转换,视图不支持 put</li>
+     * <li>如果 <code>memoize</code> 是true,每个 key 的 value 只转换一次;此时创建视图之后不能再直接修改原始 map,视图也不是线程安全的</li>
+     * </ol>
+     * </blockquote>
+     * 
+     * <h3>示例:</h3>
+     * 
+     * <blockquote>
+     * 
+     * <pre class="code">
+     * Map{@code <String, String>} map = ConvertUtil.toMap("1", "2", "3", "4");
+     * Map{@code <String, Integer>} view = MapUtil.transformValueView(map, new SimpleClassTransformer{@code <>}(Integer.class), true);
+     * 
+     * view.get("3") = 4
+     * </pre>
+     * 
+     * </blockquote>
+     *
+     * @param <K>
+     *            the key type
+     * @param <V>
+     *            the value type
+     * @param <J>
+     *            视图的 value 类型
+     * @param map
+     *            the map
+     * @param valueTransformer
+     *            value 转换器
+     * @param memoize
+     *            是否缓存转换结果
+     * @return 如果 <code>map</code> 是null,返回 {@link Collections#emptyMap()}<br>
+     *         如果 <code>valueTransformer</code> 是null,抛出 {@link NullPointerException}<br>
+     * @see TransformedValueMapView
+     * @since 1.13.1
+     */
+    public static <K, V, J> Map<K, J> transformValueView(Map<K, V> map,Transformer<? super V, ? extends J> valueTransformer,boolean memoize){
+        Validate.notNull(valueTransformer, "valueTransformer can't be null!");
+        return null == map ? Collections.<K, J> emptyMap() : new TransformedValueMapView<K, V, J>(map, valueTransformer, memoize);
+    }
+
+    //---------------------------------------------------------------
+
     /**
      * New concurrent hash map.
      *
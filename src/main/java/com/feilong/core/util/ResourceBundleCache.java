@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
+
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * 按照 (baseName, locale) 缓存 {@link ResourceBundleSnapshot},支持重新加载.
+ *
+ * <h3>为什么需要这个类?</h3>
+ *
+ * <blockquote>
+ * <p>
+ * 国际化文案每渲染一个 label 就要调用一次 {@link ResourceBundleUtil#getValue(ResourceBundle, String, Object...)},
+ * 每次都会 {@link ResourceBundle#getBundle(String, Locale)} 查找 bundle,再使用 {@link java.text.MessageFormat#format(String, Object...)} 重新解析文案;<br>
+ * 本类把每个 (baseName, locale) 的 bundle 复制成不可变的快照,文案预先解析,查找不需要加锁.
+ * </p>
+ * </blockquote>
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>bundle 的查找规则(包括 fallback locale 和 parent bundle)和 {@link ResourceBundleUtil#getResourceBundle(String, Locale)} 相同,
+ * 但是不使用 {@link ResourceBundle} 自己的缓存,因此 {@link #reload(String)} 可以读到修改之后的配置文件</li>
+ * <li>{@link #reload(String)} 先创建新的快照,再整体替换缓存中的旧快照;读取的线程看到的要么是旧快照,要么是新快照,不会看到加载了一半的内容;
+ * 如果加载失败,旧快照保持不变</li>
+ * <li>一般在监听到配置文件变化的时候调用 {@link #reload(String)} 或者 {@link #reloadAll()}</li>
+ * <li>缓存最多保存 <code>maxSize</code> 个快照,超过之后淘汰最近最少使用的,参见 {@link ConcurrentLruCache}</li>
+ * <li>可以通过 {@link #getHitCount()},{@link #getMissCount()} 观察缓存的效果</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * ResourceBundleCache.getDefault().getValue("messages/feilong-core-test", Locale.CHINA, "test.arguments", "feilong", "18");
+ *
+ * ResourceBundleSnapshot snapshot = ResourceBundleCache.getDefault().getSnapshot("messages/feilong-core-test", Locale.CHINA);
+ * snapshot.getValue("test.arguments", "feilong", "18");
+ *
+ * //配置文件修改之后
+ * ResourceBundleCache.getDefault().reload("messages/feilong-core-test");
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see ResourceBundleSnapshot
+ * @see ResourceBundleUtil
+ * @since 1.13.1
+ */
+public final class ResourceBundleCache{
+
+    /** 默认最多缓存的快照数量. */
+    public static final int                                                      DEFAULT_MAX_SIZE = 500;
+
+    /** 默认实例. */
+    private static final ResourceBundleCache                                     DEFAULT          = new ResourceBundleCache(DEFAULT_MAX_SIZE);
+
+    /** 不使用 {@link ResourceBundle} 自己的缓存,每次都重新读取配置文件. */
+    private static final ResourceBundle.Control                                  NO_CACHE_CONTROL = new ResourceBundle.Control(){
+
+                                                                                                        @Override
+                                                                                                        public long getTimeToLive(String baseName,Locale locale){
+                                                                                                            return TTL_DONT_CACHE;
+                                                                                                        }
+                                                                                                    };
+
+    /** 缓存未命中时,加载快照. */
+    private static final Transformer<Pair<String, Locale>, ResourceBundleSnapshot> LOADER           = new Transformer<Pair<String, Locale>, ResourceBundleSnapshot>(){
+
+                                                                                                          @Override
+                                                                                                          public ResourceBundleSnapshot transform(Pair<String, Locale> key){
+                                                                                                              return load(key);
+                                                                                                          }
+                                                                                                      };
+
+    //---------------------------------------------------------------
+
+    /** The cache. */
+    private final ConcurrentLruCache<Pair<String, Locale>, ResourceBundleSnapshot> cache;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new resource bundle cache.
+     *
+     * @param maxSize
+     *            最多缓存的快照数量,必须大于0
+     * @throws IllegalArgumentException
+     *             如果 <code>maxSize</code> {@code <=} 0
+     */
+    public ResourceBundleCache(int maxSize){
+        this.cache = new ConcurrentLruCache<>(maxSize);
+    }
+
+    /**
+     * 默认实例,最多缓存 {@link #DEFAULT_MAX_SIZE} 个快照.
+     *
+     * @return the default
+     */
+    public static ResourceBundleCache getDefault(){
+        return DEFAULT;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 <code>baseName</code> 和 <code>locale</code> 对应的快照.
+     *
+     * @param baseName
+     *            一个完全限定类名,<b>配置文件的包+类全名</b>,比如 <b>message.feilong-core-test</b> <span style="color:red">(不要尾缀)</span>;<br>
+     *            但是,为了和早期版本兼容,也可使用路径名来访问,比如<b>message/feilong-core-test</b><span style="color:red">(使用 "/")</span>
+     * @param locale
+     *            the locale for which a resource bundle is desired,如果是null,将使用 {@link Locale#getDefault()}
+     * @return the snapshot
+     * @throws NullPointerException
+     *             如果 <code>baseName</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>baseName</code> 是 blank
+     * @throws MissingResourceException
+     *             如果资源文件 <code>baseName</code> 不存在
+     * @see ResourceBundleUtil#getResourceBundle(String, Locale)
+     */
+    public ResourceBundleSnapshot getSnapshot(String baseName,Locale locale){
+        Validate.notBlank(baseName, "baseName can't be null/empty!");
+        return cache.get(Pair.of(baseName, defaultIfNull(locale, Locale.getDefault())), LOADER);
+    }
+
+    /**
+     * 获取 <code>baseName</code> 和 <code>locale</code> 对应配置文件中 <code>key</code> 的值,并使用 <code>arguments</code> 格式化.
+     *
+     * @param baseName
+     *            the base name
+     * @param locale
+     *            the locale,如果是null,将使用 {@link Locale#getDefault()}
+     * @param key
+     *            Properties配置文件键名
+     * @param arguments
+     *            此处可以传递Object[]数组过来
+     * @return 如果配置文件中,key不存在,LOGGER.warn警告输出,并返回 {@link org.apache.commons.lang3.StringUtils#EMPTY}<br>
+     * @see #getSnapshot(String, Locale)
+     * @see ResourceBundleSnapshot#getValue(String, Object...)
+     */
+    public String getValue(String baseName,Locale locale,String key,Object...arguments){
+        return getSnapshot(baseName, locale).getValue(key, arguments);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 重新加载 <code>baseName</code> 所有已经缓存的 locale 的快照.
+     *
+     * @param baseName
+     *            the base name
+     * @throws MissingResourceException
+     *             如果资源文件 <code>baseName</code> 已经不存在,此时旧快照保持不变
+     */
+    public void reload(String baseName){
+        for (Pair<String, Locale> key : cache.keySet()){
+            if (key.getLeft().equals(baseName)){
+                cache.put(key, load(key));
+            }
+        }
+    }
+
+    /**
+     * 重新加载所有已经缓存的快照.
+     *
+     * @throws MissingResourceException
+     *             如果某个资源文件已经不存在,此时该资源文件的旧快照保持不变
+     */
+    public void reloadAll(){
+        for (Pair<String, Locale> key : cache.keySet()){
+            cache.put(key, load(key));
+        }
+    }
+
+    /**
+     * 清空缓存.
+     */
+    public void clear(){
+        cache.clear();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 当前缓存的快照数量.
+     *
+     * @return the int
+     */
+    public int size(){
+        return cache.size();
+    }
+
+    /**
+     * 命中次数.
+     *
+     * @return the hit count
+     */
+    public long getHitCount(){
+        return cache.getHitCount();
+    }
+
+    /**
+     * 未命中次数.
+     *
+     * @return the miss count
+     */
+    public long getMissCount(){
+        return cache.getMissCount();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 加载快照.
+     *
+     * @param key
+     *            the key
+     * @return the resource bundle snapshot
+     */
+    private static ResourceBundleSnapshot load(Pair<String, Locale> key){
+        String baseName = key.getLeft();
+        Locale locale = key.getRight();
+        ResourceBundle resourceBundle = ResourceBundle.getBundle(baseName, locale, getClassLoader(), NO_CACHE_CONTROL);
+        return new ResourceBundleSnapshot(baseName, locale, resourceBundle);
+    }
+
+    /**
+     * 和 {@link ResourceBundle#getBundle(String, Locale)} 一样,使用调用者({@link ResourceBundleUtil})的 {@link ClassLoader}.
+     *
+     * @return the class loader
+     */
+    private static ClassLoader getClassLoader(){
+        return ResourceBundleUtil.class.getClassLoader();
+    }
+}
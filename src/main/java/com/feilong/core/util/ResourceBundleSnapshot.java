@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static com.feilong.core.Validator.isNullOrEmpty;
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.feilong.core.text.MessageFormatUtil;
+import com.feilong.core.text.MessageTemplate;
+
+/**
+ * {@link ResourceBundle} 某一时刻的不可变快照.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>创建的时候把 <code>resourceBundle</code> 所有的key(包括 parent bundle 的)和值复制到 {@link HashMap},之后只读,查找不需要加锁</li>
+ * <li>含有 <code>{</code> 或者 <code>'</code> 的值在创建的时候使用 {@link MessageTemplate#parse(String)} 预先解析,由快照自己持有,不占用 {@link MessageTemplate#compile(String)} 共享的缓存;不含的值格式化之后和原值相同,直接返回;blank的值返回 ""</li>
+ * <li>{@link #getValue(String, Object...)} 的结果和 {@link ResourceBundleUtil#getValue(ResourceBundle, String, Object...)} 一致</li>
+ * <li>一般通过 {@link ResourceBundleCache} 获得,重新加载的时候整体替换成新的快照,已经拿到的旧快照不受影响</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @see ResourceBundleCache
+ * @since 1.13.1
+ */
+public final class ResourceBundleSnapshot{
+
+    /** The Constant LOGGER. */
+    private static final Logger       LOGGER = LoggerFactory.getLogger(ResourceBundleSnapshot.class);
+
+    //---------------------------------------------------------------
+
+    /** The base name. */
+    private final String              baseName;
+
+    /** The locale. */
+    private final Locale              locale;
+
+    /** 原始的key和值. */
+    private final Map<String, String> valueMap;
+
+    /**
+     * 用于 {@link #getValue(String, Object...)} 的值,value 是 {@link String}(直接返回) 或者 {@link Message}(需要格式化).
+     */
+    private final Map<String, Object> messageMap;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new resource bundle snapshot.
+     *
+     * @param baseName
+     *            the base name
+     * @param locale
+     *            the locale
+     * @param resourceBundle
+     *            the resource bundle
+     */
+    ResourceBundleSnapshot(String baseName, Locale locale, ResourceBundle resourceBundle){
+        this.baseName = baseName;
+        this.locale = locale;
+
+        Map<String, String> values = new HashMap<>();
+        Map<String, Object> messages = new HashMap<>();
+        for (String key : resourceBundle.keySet()){
+            String value = resourceBundle.getString(key);
+            values.put(key, value);
+            messages.put(key, compile(value));
+        }
+        this.valueMap = Collections.unmodifiableMap(values);
+        this.messageMap = messages;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获取 <code>key</code> 的值,并使用 <code>arguments</code> 格式化.
+     *
+     * @param key
+     *            Properties配置文件键名
+     * @param arguments
+     *            此处可以传递Object[]数组过来
+     * @return 如果配置文件中,key不存在,LOGGER.warn警告输出,并返回 {@link org.apache.commons.lang3.StringUtils#EMPTY}<br>
+     * @throws NullPointerException
+     *             如果 <code>key</code> 是null
+     * @throws IllegalArgumentException
+     *             如果 <code>key</code> 是blank,抛出 {@link IllegalArgumentException}
+     * @see ResourceBundleUtil#getValue(ResourceBundle, String, Object...)
+     */
+    public String getValue(String key,Object...arguments){
+        Validate.notBlank(key, "key can't be null/empty!");
+
+        Object message = messageMap.get(key);
+        if (null == message){
+            LOGGER.warn("resourceBundle:[{}_{}] don't containsKey:[{}]", baseName, locale, key);
+            return EMPTY;
+        }
+        return message instanceof String ? (String) message : ((Message) message).format(arguments);
+    }
+
+    /**
+     * 是否包含 <code>key</code>.
+     *
+     * @param key
+     *            the key
+     * @return true, if successful
+     */
+    public boolean containsKey(String key){
+        return valueMap.containsKey(key);
+    }
+
+    /**
+     * 所有的key和原始值(没有格式化).
+     *
+     * @return 不可修改的map
+     * @see ResourceBundleUtil#toMap(ResourceBundle)
+     */
+    public Map<String, String> toMap(){
+        return valueMap;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 获得 base name.
+     *
+     * @return the base name
+     */
+    public String getBaseName(){
+        return baseName;
+    }
+
+    /**
+     * 获得 locale.
+     *
+     * @return the locale
+     */
+    public Locale getLocale(){
+        return locale;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 预先解析 <code>value</code>.
+     *
+     * @param value
+     *            the value
+     * @return 如果 <code>value</code> 是null或者blank,返回 {@link org.apache.commons.lang3.StringUtils#EMPTY}(和
+     *         {@link ResourceBundleUtil#getValue(ResourceBundle, String, Object...)} 一致)<br>
+     *         如果不含 <code>{</code> 和 <code>'</code>,返回 <code>value</code><br>
+     *         否则返回 {@link Message}
+     */
+    private static Object compile(String value){
+        if (isNullOrEmpty(value)){
+            return EMPTY;
+        }
+        if (value.indexOf('{') < 0 && value.indexOf('\'') < 0){
+            return value;
+        }
+        return new Message(value);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 预先解析的消息.
+     */
+    private static final class Message{
+
+        /** The pattern. */
+        private final String          pattern;
+
+        /** 如果不是合法的模式,是null,使用的时候交给 {@link MessageFormatUtil#format(String, Object...)} 抛出异常. */
+        private final MessageTemplate messageTemplate;
+
+        /**
+         * Instantiates a new message.
+         *
+         * @param pattern
+         *            the pattern
+         */
+        private Message(String pattern){
+            this.pattern = pattern;
+            this.messageTemplate = compileMessageTemplate(pattern);
+        }
+
+        /**
+         * 格式化.
+         *
+         * @param arguments
+         *            the arguments
+         * @return the string
+         */
+        private String format(Object[] arguments){
+            return null == messageTemplate ? MessageFormatUtil.format(pattern, arguments) : messageTemplate.format(arguments);
+        }
+
+        /**
+         * Compile message template.
+         *
+         * @param pattern
+         *            the pattern
+         * @return 如果不是合法的模式,返回null
+         */
+        private static MessageTemplate compileMessageTemplate(String pattern){
+            try{
+                //快照自己持有模板,不放入 MessageTemplate 共享的缓存
+                return MessageTemplate.parse(pattern);
+            }catch (IllegalArgumentException e){
+                return null;
+            }
+        }
+    }
+}
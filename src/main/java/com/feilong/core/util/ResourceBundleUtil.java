@@ -94,6 +94,7 @@ public final class ResourceBundleUtil{
      * <blockquote>
      * <ol>
      * <li>支持配置文件含参数信息 <code>arguments</code> ,使用 {@link MessageFormatUtil#format(String, Object...)} 来解析</li>
+     * <li>每次调用都会重新解析文案,高频调用(比如每个 label 都要国际化)的场景,请使用 {@link ResourceBundleCache}</li>
      * </ol>
      * </blockquote>
      * 
@@ -139,6 +140,7 @@ public final class ResourceBundleUtil{
      *             如果 <code>key</code> 是blank,抛出 {@link IllegalArgumentException}
      * @see java.util.ResourceBundle#getString(String)
      * @see MessageFormatUtil#format(String, Object...)
+     * @see ResourceBundleCache
      * @since 1.8.1 support arguments param
      */
     public static String getValue(ResourceBundle resourceBundle,String key,Object...arguments){
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 基于原始 list 的转换视图,只有在访问元素的时候才调用 <code>transformer</code> 转换.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>不会复制原始 list,适合只读取部分元素(比如分页,找到第一个满足条件的元素就退出)的场景</li>
+ * <li>视图是只读的,不支持 add/set/remove</li>
+ * <li>如果原始 list 不是 {@link RandomAccess}(比如 {@link java.util.LinkedList}),迭代的时候使用原始 list 的迭代器,不会按照下标逐个查找</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>关于缓存(memoize):</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>如果不缓存,每次访问都会重新转换,原始 list 的变化会直接反映到视图上</li>
+ * <li>如果缓存,每个下标只转换一次;创建视图之后原始 list 不能再做结构上的修改(add/remove),此时视图不是线程安全的</li>
+ * </ol>
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <O>
+ *            原始 list 的元素类型
+ * @param <T>
+ *            转换之后的元素类型
+ * @see CollectionsUtil#collectView(List, Transformer, boolean)
+ * @since 1.13.1
+ */
+public class TransformedListView<O, T> extends AbstractList<T>{
+
+    /** 缓存中表示还没有转换过的标记. */
+    private static final Object                       NOT_TRANSFORMED = new Object();
+
+    //---------------------------------------------------------------
+
+    /** 原始 list. */
+    private final List<O>                             list;
+
+    /** 元素转换器. */
+    private final Transformer<? super O, ? extends T> transformer;
+
+    /** 是否缓存转换结果. */
+    private final boolean                             memoize;
+
+    /** 转换结果的缓存,第一次访问的时候才创建. */
+    private Object[]                                  transformedElements;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new transformed list view.
+     *
+     * @param list
+     *            原始 list
+     * @param transformer
+     *            元素转换器
+     * @param memoize
+     *            是否缓存转换结果
+     * @throws NullPointerException
+     *             如果 <code>list</code> 或者 <code>transformer</code> 是null
+     */
+    public TransformedListView(List<O> list, Transformer<? super O, ? extends T> transformer, boolean memoize){
+        Validate.notNull(list, "list can't be null!");
+        Validate.notNull(transformer, "transformer can't be null!");
+        this.list = list;
+        this.transformer = transformer;
+        this.memoize = memoize;
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractList#get(int)
+     */
+    @Override
+    public T get(int index){
+        if (!memoize){
+            return transformer.transform(list.get(index));
+        }
+        if (index < 0 || index >= list.size()){
+            throw new IndexOutOfBoundsException("index:" + index + ",size:" + list.size());
+        }
+        return transform(index, list.get(index));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractCollection#size()
+     */
+    @Override
+    public int size(){
+        return list.size();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractList#iterator()
+     */
+    @Override
+    public Iterator<T> iterator(){
+        if (list instanceof RandomAccess){
+            return super.iterator();
+        }
+
+        //---------------------------------------------------------------
+        final Iterator<O> iterator = list.iterator();
+        return new Iterator<T>(){
+
+            /** 下一个元素的下标. */
+            private int index;
+
+            @Override
+            public boolean hasNext(){
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next(){
+                if (!iterator.hasNext()){
+                    throw new NoSuchElementException();
+                }
+                O element = iterator.next();
+                return memoize ? transform(index++, element) : transformer.transform(element);
+            }
+
+            @Override
+            public void remove(){
+                throw new UnsupportedOperationException("TransformedListView is read only");
+            }
+        };
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 转换第 <code>index</code> 个元素,并缓存转换结果.
+     *
+     * @param index
+     *            the index
+     * @param element
+     *            原始元素
+     * @return the t
+     */
+    @SuppressWarnings("unchecked")
+    private T transform(int index,O element){
+        if (null == transformedElements){
+            transformedElements = new Object[list.size()];
+            Arrays.fill(transformedElements, NOT_TRANSFORMED);
+        }
+
+        Object transformedElement = transformedElements[index];
+        if (transformedElement == NOT_TRANSFORMED){
+            transformedElement = transformer.transform(element);
+            transformedElements[index] = transformedElement;
+        }
+        return (T) transformedElement;
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.collections4.Transformer;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * 基于原始 map 的 value 转换视图,只有在访问 value 的时候才调用 <code>valueTransformer</code> 转换.
+ *
+ * <h3>说明:</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>不会复制原始 map,原始 map 的变化会直接反映到视图上</li>
+ * <li>不支持 {@link #put(Object, Object)};支持 {@link #remove(Object)} 以及迭代器的 remove,会直接删除原始 map 中的元素</li>
+ * <li>迭代顺序和原始 map 一致</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>关于缓存(memoize):</h3>
+ *
+ * <blockquote>
+ * <ol>
+ * <li>如果不缓存,每次访问 value 都会重新转换一次,原始 map 中 value 的变化会直接反映到视图上</li>
+ * <li>如果缓存,每个 key 的 value 只转换一次;创建视图之后不能再直接修改原始 map,此时视图不是线程安全的</li>
+ * </ol>
+ * </blockquote>
+ *
+ * <h3>示例:</h3>
+ *
+ * <blockquote>
+ *
+ * <pre class="code">
+ * Map{@code <String, String>} map = toMap("1", "2", "3", "4");
+ * Map{@code <String, Integer>} view = new TransformedValueMapView{@code <>}(map, new SimpleClassTransformer{@code <>}(Integer.class));
+ *
+ * view.get("1") = 2
+ * </pre>
+ *
+ * </blockquote>
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            原始 map 的 value 类型
+ * @param <J>
+ *            转换之后的 value 类型
+ * @see com.feilong.core.bean.ConvertUtil#toMapView(Map, Class)
+ * @see MapUtil#transformValueView(Map, Transformer, boolean)
+ * @since 1.13.1
+ */
+public class TransformedValueMapView<K, V, J> extends AbstractMap<K, J>{
+
+    /** 原始 map. */
+    private final Map<K, V>                           map;
+
+    /** value 转换器. */
+    private final Transformer<? super V, ? extends J> valueTransformer;
+
+    /** 是否缓存转换结果. */
+    private final boolean                             memoize;
+
+    /** 转换结果的缓存,第一次访问的时候才创建. */
+    private Map<Object, J>                            transformedValueMap;
+
+    /** 延迟创建的 entry set. */
+    private Set<Map.Entry<K, J>>                      entrySet;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Instantiates a new transformed value map view,不缓存转换结果.
+     *
+     * @param map
+     *            原始 map
+     * @param valueTransformer
+     *            value 转换器
+     * @throws NullPointerException
+     *             如果 <code>map</code> 或者 <code>valueTransformer</code> 是null
+     */
+    public TransformedValueMapView(Map<K, V> map, Transformer<? super V, ? extends J> valueTransformer){
+        this(map, valueTransformer, false);
+    }
+
+    /**
+     * Instantiates a new transformed value map view.
+     *
+     * @param map
+     *            原始 map
+     * @param valueTransformer
+     *            value 转换器
+     * @param memoize
+     *            是否缓存转换结果
+     * @throws NullPointerException
+     *             如果 <code>map</code> 或者 <code>valueTransformer</code> 是null
+     * @since 1.13.1
+     */
+    public TransformedValueMapView(Map<K, V> map, Transformer<? super V, ? extends J> valueTransformer, boolean memoize){
+        Validate.notNull(map, "map can't be null!");
+        Validate.notNull(valueTransformer, "valueTransformer can't be null!");
+        this.map = map;
+        this.valueTransformer = valueTransformer;
+        this.memoize = memoize;
+    }
+
+    //---------------------------------------------------------------
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#size()
+     */
+    @Override
+    public int size(){
+        return map.size();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#containsKey(java.lang.Object)
+     */
+    @Override
+    public boolean containsKey(Object key){
+        return map.containsKey(key);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#get(java.lang.Object)
+     */
+    @Override
+    public J get(Object key){
+        V value = map.get(key);
+        //不存在的 key 返回null,而不是转换 null 值的结果
+        if (null == value && !map.containsKey(key)){
+            return null;
+        }
+        return transform(key, value);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#remove(java.lang.Object)
+     */
+    @Override
+    public J remove(Object key){
+        if (!map.containsKey(key)){
+            return null;
+        }
+        J transformedValue = transform(key, map.get(key));
+        map.remove(key);
+        if (null != transformedValueMap){
+            transformedValueMap.remove(key);
+        }
+        return transformedValue;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#clear()
+     */
+    @Override
+    public void clear(){
+        map.clear();
+        transformedValueMap = null;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#keySet()
+     */
+    @Override
+    public Set<K> keySet(){
+        return map.keySet();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.AbstractMap#entrySet()
+     */
+    @Override
+    public Set<Map.Entry<K, J>> entrySet(){
+        if (null == entrySet){
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 转换 <code>key</code> 对应的 <code>value</code>,如果需要缓存,每个 key 只转换一次.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            原始 value
+     * @return the j
+     */
+    private J transform(Object key,V value){
+        if (!memoize){
+            return valueTransformer.transform(value);
+        }
+        if (null == transformedValueMap){
+            transformedValueMap = new HashMap<>();
+        }
+        J transformedValue = transformedValueMap.get(key);
+        if (null == transformedValue && !transformedValueMap.containsKey(key)){
+            transformedValue = valueTransformer.transform(value);
+            transformedValueMap.put(key, transformedValue);
+        }
+        return transformedValue;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * entry set 视图.
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<K, J>>{
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.AbstractCollection#iterator()
+         */
+        @Override
+        public Iterator<Map.Entry<K, J>> iterator(){
+            final Iterator<Map.Entry<K, V>> iterator = map.entrySet().iterator();
+            return new Iterator<Map.Entry<K, J>>(){
+
+                /** 最近一次 next 返回的 key. */
+                private K lastKey;
+
+                @Override
+                public boolean hasNext(){
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Map.Entry<K, J> next(){
+                    Map.Entry<K, V> entry = iterator.next();
+                    lastKey = entry.getKey();
+                    return new SimpleImmutableEntry<K, J>(lastKey, transform(lastKey, entry.getValue()));
+                }
+
+                @Override
+                public void remove(){
+                    iterator.remove();
+                    if (null != transformedValueMap){
+                        transformedValueMap.remove(lastKey);
+                    }
+                }
+            };
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.AbstractCollection#size()
+         */
+        @Override
+        public int size(){
+            return map.size();
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.util.AbstractCollection#clear()
+         */
+        @Override
+        public void clear(){
+            TransformedValueMapView.this.clear();
+        }
+    }
+}
@@ -17,11 +17,11 @@ package com.feilong.core.util.comparator;
 
 import static com.feilong.core.bean.ConvertUtil.toArray;
 import static com.feilong.tools.slf4j.Slf4jUtil.format;
-import static org.apache.commons.lang3.StringUtils.SPACE;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 
+import com.feilong.core.lang.CharSequenceTokenizer;
 import com.feilong.core.lang.StringUtil;
 
 /**
@@ -112,23 +112,25 @@ public final class SortHelper{
      *             如果 <code>propertyNameAndOrder</code> 是blank;<br>
      *             或者如果<code>propertyNameAndOrder</code>使用{@link StringUtils#SPACE}转换的数组length {@code >} 2<br>
      *             或者如果<code>propertyNameAndOrder</code>使用{@link StringUtils#SPACE}转换的数组length {@code =} 2,但是第二个值不是asc也不是desc
-     * @see com.feilong.core.lang.StringUtil#tokenizeToStringArray(String, String)
+     * @see com.feilong.core.lang.StringUtil#tokenize(CharSequence, char, boolean, boolean)
      */
     public static String[] parsePropertyNameAndOrder(String propertyNameAndOrder){
         Validate.notBlank(propertyNameAndOrder, "propertyNameAndOrder can't be blank!");
 
         //---------------------------------------------------------------
-        //空格
-        String[] array = StringUtil.tokenizeToStringArray(propertyNameAndOrder.trim(), SPACE);
-        if (array.length > 2){
-            String message = format("propertyNameAndOrder:[{}] has more than 1 space,must max 1 space", propertyNameAndOrder);
-            throw new IllegalArgumentException(message);
-        }
+        //空格,直接在原字符串上分隔,不生成中间的 String[]
+        CharSequenceTokenizer tokenizer = StringUtil.tokenize(propertyNameAndOrder, ' ', true, true);
+        Validate.isTrue(tokenizer.next(), "propertyNameAndOrder:[%s] can't be blank!", propertyNameAndOrder);
+        String propertyName = tokenizer.token();
 
         //---------------------------------------------
         String order = null;
-        if (array.length == 2){
-            order = array[1];//排序因子
+        if (tokenizer.next()){
+            order = tokenizer.token();//排序因子
+            if (tokenizer.next()){
+                String message = format("propertyNameAndOrder:[{}] has more than 1 space,must max 1 space", propertyNameAndOrder);
+                throw new IllegalArgumentException(message);
+            }
             if (!(order.equalsIgnoreCase(ASC) || order.equalsIgnoreCase(DESC))){
                 String pattern = "propertyNameAndOrder:[{}] 's order:[{}] must ignoreCase equals [asc or desc]";
                 throw new IllegalArgumentException(format(pattern, propertyNameAndOrder, order));
@@ -136,7 +138,7 @@ public final class SortHelper{
         }
 
         //---------------------------------------------
-        return toArray(array[0], order);
+        return toArray(propertyName, order);
     }
 
     //---------------------------------------------------------------
@@ -17,15 +17,22 @@ package com.feilong.core.util.transformer;
 
 import java.io.Serializable;
 import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
 
 import org.apache.commons.collections4.Transformer;
 import org.apache.commons.lang3.Validate;
 
 import com.feilong.core.DatePattern;
+import com.feilong.core.date.DateFormatRegistry;
 import com.feilong.core.date.DateUtil;
 
 /**
  * 日期转成字符串的转换器.
+ * 
+ * <p>
+ * 格式化器从 {@link DateFormatRegistry} 中获取,和 {@link DateUtil#toString(Date, String)} 共享同一个缓存.
+ * </p>
  *
  * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
  * @since 1.10.7
@@ -38,6 +45,20 @@ public class DateToStringTransformer implements Transformer<Date, String>,Serial
     /** 模式,可以使用 {@link DatePattern}. */
     private final String      pattern;
 
+    /**
+     * 时区,如果是null,使用 {@link TimeZone#getDefault()}.
+     * 
+     * @since 1.13.1
+     */
+    private final TimeZone    timeZone;
+
+    /**
+     * locale,如果是null,使用 {@link Locale#getDefault()}.
+     * 
+     * @since 1.13.1
+     */
+    private final Locale      locale;
+
     //---------------------------------------------------------------
 
     /**
@@ -52,8 +73,30 @@ public class DateToStringTransformer implements Transformer<Date, String>,Serial
      *            模式,可以使用 {@link DatePattern}
      */
     public DateToStringTransformer(String pattern){
+        this(pattern, null, null);
+    }
+
+    /**
+     * Instantiates a new date to string transformer.
+     * 
+     * <p>
+     * 如果 <code>pattern</code> 是null,抛出 {@link NullPointerException}<br>
+     * 如果 <code>pattern</code> 是blank,抛出 {@link IllegalArgumentException}<br>
+     * </p>
+     *
+     * @param pattern
+     *            模式,可以使用 {@link DatePattern}
+     * @param timeZone
+     *            时区,如果是null,使用 {@link TimeZone#getDefault()}
+     * @param locale
+     *            the locale,如果是null,使用 {@link Locale#getDefault()}
+     * @since 1.13.1
+     */
+    public DateToStringTransformer(String pattern, TimeZone timeZone, Locale locale){
         Validate.notBlank(pattern, "pattern can't be blank!");
         this.pattern = pattern;
+        this.timeZone = timeZone;
+        this.locale = locale;
     }
 
     //---------------------------------------------------------------
@@ -64,6 +107,6 @@ public class DateToStringTransformer implements Transformer<Date, String>,Serial
      */
     @Override
     public String transform(Date value){
-        return null == value ? null : DateUtil.toString(value, pattern);
+        return null == value ? null : DateFormatRegistry.getDateFormat(pattern, timeZone, locale).format(value);
     }
 }
@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static com.feilong.core.DatePattern.COMMON_DATE;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
+import static com.feilong.core.date.DateUtil.toDate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.Converter;
+import org.junit.Test;
+
+/**
+ * The Class ConverterContextTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class ConverterContextTest{
+
+    /** The context. */
+    private static final ConverterContext CONTEXT = ConverterContext.builder().registerSimpleDateLocaleConverter(COMMON_DATE).build();
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test default.
+     */
+    @Test
+    public void testDefault(){
+        assertTrue(ConverterContext.getDefault().isDefault());
+        assertFalse(CONTEXT.isDefault());
+        assertEquals(ConvertUtil.convert("15", Integer.class), ConvertUtil.convert("15", Integer.class, ConverterContext.getDefault()));
+        assertSame(ConvertUtils.lookup(Integer.class), ConverterContext.getDefault().lookup(Integer.class));
+    }
+
+    /**
+     * Test convert.
+     */
+    @Test
+    public void testConvert(){
+        assertEquals(toDate("2016-05-01", COMMON_DATE), ConvertUtil.convert("2016-05-01", Date.class, CONTEXT));
+        assertNull(ConvertUtil.convert("2016-05-01 12:00:00", Date.class, CONTEXT));
+        assertNull(ConvertUtil.convert(null, Date.class, CONTEXT));
+    }
+
+    /**
+     * Test standard default null.
+     */
+    @Test
+    public void testStandardDefaultNull(){
+        assertEquals(Integer.valueOf(15), ConvertUtil.convert("15", Integer.class, CONTEXT));
+        assertEquals(new BigDecimal("1.5"), ConvertUtil.convert("1.5", BigDecimal.class, CONTEXT));
+        assertNull(ConvertUtil.convert("feilong", Integer.class, CONTEXT));
+        assertEquals(ConvertUtil.convert(new String[] { "1", "2" }, Long[].class).length, ConvertUtil.convert(
+                        new String[] { "1", "2" },
+                        Long[].class,
+                        CONTEXT).length);
+    }
+
+    /**
+     * Test isolation.
+     */
+    @Test
+    public void testIsolation(){
+        Converter globalDateConverter = ConvertUtils.lookup(Date.class);
+
+        ConverterContext converterContext = ConverterContext.builder().registerSimpleDateLocaleConverter(COMMON_DATE_AND_TIME).build();
+        assertSame(globalDateConverter, ConvertUtils.lookup(Date.class));
+        assertNotSame(converterContext.lookup(Date.class), CONTEXT.lookup(Date.class));
+
+        assertEquals(toDate("2016-05-01 12:00:00", COMMON_DATE_AND_TIME), converterContext.convert("2016-05-01 12:00:00", Date.class));
+        assertEquals(toDate("2016-05-01", COMMON_DATE), CONTEXT.convert("2016-05-01", Date.class));
+    }
+
+    /**
+     * Test register override.
+     */
+    @Test
+    public void testRegisterOverride(){
+        ConverterContext converterContext = ConverterContext.builder()//
+                        .registerSimpleDateLocaleConverter(COMMON_DATE_AND_TIME)
+                        .registerSimpleDateLocaleConverter(COMMON_DATE)
+                        .build();
+        assertEquals(toDate("2016-05-01", COMMON_DATE), converterContext.convert("2016-05-01", Date.class));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test populate.
+     */
+    @Test
+    public void testPopulate(){
+        Map<String, Object> map = new HashMap<>();
+        map.put("createTime", "2016-05-01");
+        map.put("count", "5");
+
+        OrderBean orderBean = BeanUtil.populate(new OrderBean(), map, CONTEXT);
+        assertEquals(toDate("2016-05-01", COMMON_DATE), orderBean.getCreateTime());
+        assertEquals(Integer.valueOf(5), orderBean.getCount());
+    }
+
+    /**
+     * Test get property.
+     */
+    @Test
+    public void testGetProperty(){
+        OrderBean orderBean = new OrderBean();
+        orderBean.setCount(5);
+
+        assertEquals("5", PropertyUtil.getProperty(orderBean, "count", String.class, CONTEXT));
+        assertEquals(Long.valueOf(5), PropertyUtil.getProperty(orderBean, "count", Long.class, ConverterContext.getDefault()));
+        assertNull(PropertyUtil.getProperty(orderBean, "createTime", String.class, CONTEXT));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test convert null target type.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testConvertNullTargetType(){
+        CONTEXT.convert("1", null);
+    }
+
+    /**
+     * Test convert null context.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testConvertNullContext(){
+        ConvertUtil.convert("1", Integer.class, null);
+    }
+
+    /**
+     * Test populate null context.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testPopulateNullContext(){
+        BeanUtil.populate(new OrderBean(), new HashMap<String, Object>(), null);
+    }
+
+    /**
+     * Test register null converter.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testRegisterNullConverter(){
+        ConverterContext.builder().register(null, Date.class);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * The Class OrderBean.
+     */
+    public static class OrderBean{
+
+        /** The create time. */
+        private Date    createTime;
+
+        /** The count. */
+        private Integer count;
+
+        /**
+         * Gets the create time.
+         *
+         * @return the create time
+         */
+        public Date getCreateTime(){
+            return createTime;
+        }
+
+        /**
+         * Sets the create time.
+         *
+         * @param createTime
+         *            the new create time
+         */
+        public void setCreateTime(Date createTime){
+            this.createTime = createTime;
+        }
+
+        /**
+         * Gets the count.
+         *
+         * @return the count
+         */
+        public Integer getCount(){
+            return count;
+        }
+
+        /**
+         * Sets the count.
+         *
+         * @param count
+         *            the new count
+         */
+        public void setCount(Integer count){
+            this.count = count;
+        }
+    }
+}
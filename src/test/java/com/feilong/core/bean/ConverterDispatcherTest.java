@@ -0,0 +1,363 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.beanutils.ConvertUtils;
+import org.apache.commons.beanutils.Converter;
+import org.apache.commons.beanutils.converters.IntegerConverter;
+import org.apache.commons.collections4.Transformer;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * The Class ConverterDispatcherTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class ConverterDispatcherTest{
+
+    /** The values. */
+    private static final Object[]   VALUES       = {
+                                                     "1",
+                                                     " 12 ",
+                                                     "",
+                                                     "  ",
+                                                     "abc",
+                                                     "1.5",
+                                                     "-0",
+                                                     "2147483648",
+                                                     "1e3",
+                                                     "true",
+                                                     "Yes",
+                                                     "off",
+                                                     1,
+                                                     -1,
+                                                     Integer.MAX_VALUE,
+                                                     Long.MAX_VALUE,
+                                                     (short) 3,
+                                                     (byte) 4,
+                                                     1.5d,
+                                                     -1.9d,
+                                                     Double.MAX_VALUE,
+                                                     0.1f,
+                                                     new BigDecimal("1.20"),
+                                                     new BigDecimal("1E+3"),
+                                                     new BigInteger("123456789012345678901234567890"),
+                                                     new AtomicLong(5),
+                                                     Boolean.TRUE,
+                                                     Boolean.FALSE,
+                                                     new Date(0) };
+
+    /** The target types. */
+    private static final Class<?>[] TARGET_TYPES = {
+                                                     Integer.class,
+                                                     int.class,
+                                                     Long.class,
+                                                     long.class,
+                                                     Short.class,
+                                                     Byte.class,
+                                                     Float.class,
+                                                     Double.class,
+                                                     BigDecimal.class,
+                                                     BigInteger.class,
+                                                     Boolean.class,
+                                                     String.class,
+                                                     Date.class };
+
+    //---------------------------------------------------------------
+
+    /**
+     * Restore.
+     */
+    @After
+    public void restore(){
+        ConvertUtils.deregister();
+        ConverterDispatcher.invalidate();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test convert same as convert utils.
+     */
+    @Test
+    public void testConvertSameAsConvertUtils(){
+        for (Object value : VALUES){
+            for (Class<?> targetType : TARGET_TYPES){
+                assertConvertSame(value, targetType);
+            }
+        }
+    }
+
+    /**
+     * Test convert same as convert utils default null.
+     */
+    @Test
+    public void testConvertSameAsConvertUtilsDefaultNull(){
+        ConvertUtil.registerStandardDefaultNull();
+        for (Object value : VALUES){
+            for (Class<?> targetType : TARGET_TYPES){
+                assertConvertSame(value, targetType);
+            }
+        }
+    }
+
+    /**
+     * Test convert custom converter.
+     */
+    @Test
+    public void testConvertCustomConverter(){
+        IntegerConverter integerConverter = new IntegerConverter(0);
+        integerConverter.setPattern("#,###");
+        ConvertUtil.register(integerConverter, Integer.class);
+
+        assertEquals(Integer.valueOf(1234), ConverterDispatcher.convert("1,234", Integer.class));
+    }
+
+    /**
+     * Test convert register after cached.
+     */
+    @Test
+    public void testConvertRegisterAfterCached(){
+        assertEquals(Integer.valueOf(12), ConverterDispatcher.convert("12", Integer.class));
+
+        //检查结果已经缓存,通过 ConvertUtil.register 注册之后立即生效
+        ConvertUtil.register(newConstantConverter(42), Integer.class);
+        assertEquals(Integer.valueOf(42), ConverterDispatcher.convert("12", Integer.class));
+    }
+
+    /**
+     * Test convert direct register after cached.
+     */
+    @Test
+    public void testConvertDirectRegisterAfterCached(){
+        assertEquals(Integer.valueOf(12), ConverterDispatcher.convert("12", Integer.class));
+
+        //直接注册到 ConvertUtils 的转换器,最迟在 REVALIDATE_INTERVAL 次之后生效
+        ConvertUtils.register(newConstantConverter(42), Integer.class);
+        for (int i = 0; i < ConverterDispatcher.REVALIDATE_INTERVAL; ++i){
+            ConverterDispatcher.convert("12", Integer.class);
+        }
+        assertEquals(Integer.valueOf(42), ConverterDispatcher.convert("12", Integer.class));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test fast convert.
+     */
+    @Test
+    public void testFastConvert(){
+        assertEquals(Integer.valueOf(12), ConverterDispatcher.fastConvert(" 12 ", Integer.class));
+        assertEquals(Long.valueOf(1), ConverterDispatcher.fastConvert(1.9d, Long.class));
+        assertEquals(new BigDecimal("0.1"), ConverterDispatcher.fastConvert(0.1f, BigDecimal.class));
+        assertSame(Boolean.TRUE, ConverterDispatcher.fastConvert("Y", Boolean.class));
+    }
+
+    /**
+     * Test fast convert not handled.
+     */
+    @Test
+    public void testFastConvertNotHandled(){
+        assertNull(ConverterDispatcher.fastConvert(null, Integer.class));
+        assertNull(ConverterDispatcher.fastConvert("abc", Integer.class));
+        assertNull(ConverterDispatcher.fastConvert(Long.MAX_VALUE, Integer.class));
+        assertNull(ConverterDispatcher.fastConvert(" true", Boolean.class));
+        assertNull(ConverterDispatcher.fastConvert(new String[] { "1" }, Integer.class));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test bulk converter same as convert utils.
+     */
+    @Test
+    public void testBulkConverterSameAsConvertUtils(){
+        for (Class<?> targetType : TARGET_TYPES){
+            Transformer<Object, ?> bulkConverter = ConverterDispatcher.newBulkConverter(targetType);
+            //值的类型交替出现,覆盖重新解析的情况
+            for (Object value : VALUES){
+                String message = value.getClass().getSimpleName() + "[" + value + "]->" + targetType.getSimpleName();
+                assertEquals(message, convertUseBeanUtils(value, targetType), transform(bulkConverter, value));
+            }
+        }
+    }
+
+    /**
+     * Test bulk converter assignable.
+     */
+    @Test
+    public void testBulkConverterAssignable(){
+        List<String> list = new ArrayList<>();
+        Transformer<Object, List> bulkConverter = ConverterDispatcher.newBulkConverter(List.class);
+
+        assertSame(list, bulkConverter.transform(list));
+        assertNull(bulkConverter.transform(null));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test convert array same as convert utils.
+     */
+    @Test
+    public void testConvertArraySameAsConvertUtils(){
+        String[] values = { "1", " 12 ", "", "abc", "1.5", "true", null };
+        for (Class<?> targetType : TARGET_TYPES){
+            if (targetType.isPrimitive()){
+                continue;
+            }
+            assertEquals(targetType.getSimpleName(), convertArrayUseBeanUtils(values, targetType), convertArrayUseDispatcher(values, targetType));
+        }
+        assertArrayEquals(new int[] { 1, 12 }, (int[]) ConverterDispatcher.convertArray(new String[] { "1", " 12 " }, int[].class));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Assert convert same.
+     *
+     * @param value
+     *            the value
+     * @param targetType
+     *            the target type
+     */
+    private static void assertConvertSame(Object value,Class<?> targetType){
+        String message = value.getClass().getSimpleName() + "[" + value + "]->" + targetType.getSimpleName();
+
+        Object expected = convertUseBeanUtils(value, targetType);
+        Object actual = convertUseDispatcher(value, targetType);
+        assertEquals(message, expected, actual);
+        if (null != expected){
+            assertEquals(message, expected.getClass(), actual.getClass());
+        }
+    }
+
+    /**
+     * Convert use bean utils.
+     *
+     * @param value
+     *            the value
+     * @param targetType
+     *            the target type
+     * @return the object
+     */
+    private static Object convertUseBeanUtils(Object value,Class<?> targetType){
+        try{
+            return ConvertUtils.convert(value, targetType);
+        }catch (Exception e){
+            return e.getClass();
+        }
+    }
+
+    /**
+     * Convert use dispatcher.
+     *
+     * @param value
+     *            the value
+     * @param targetType
+     *            the target type
+     * @return the object
+     */
+    private static Object convertUseDispatcher(Object value,Class<?> targetType){
+        try{
+            return ConverterDispatcher.convert(value, targetType);
+        }catch (Exception e){
+            return e.getClass();
+        }
+    }
+
+    /**
+     * Convert array use bean utils.
+     *
+     * @param values
+     *            the values
+     * @param targetType
+     *            the target type
+     * @return the object
+     */
+    private static Object convertArrayUseBeanUtils(String[] values,Class<?> targetType){
+        try{
+            return Arrays.asList((Object[]) ConvertUtils.convert(values, targetType));
+        }catch (Exception e){
+            return e.getClass();
+        }
+    }
+
+    /**
+     * Convert array use dispatcher.
+     *
+     * @param values
+     *            the values
+     * @param targetType
+     *            the target type
+     * @return the object
+     */
+    private static Object convertArrayUseDispatcher(String[] values,Class<?> targetType){
+        try{
+            return Arrays.asList((Object[]) ConverterDispatcher.convertArray(values, targetType));
+        }catch (Exception e){
+            return e.getClass();
+        }
+    }
+
+    /**
+     * Transform.
+     *
+     * @param bulkConverter
+     *            the bulk converter
+     * @param value
+     *            the value
+     * @return the object
+     */
+    private static Object transform(Transformer<Object, ?> bulkConverter,Object value){
+        try{
+            return bulkConverter.transform(value);
+        }catch (Exception e){
+            return e.getClass();
+        }
+    }
+
+    /**
+     * 不论值是什么,都返回 <code>constant</code> 的转换器.
+     *
+     * @param constant
+     *            the constant
+     * @return the converter
+     */
+    private static Converter newConstantConverter(final Integer constant){
+        return new Converter(){
+
+            @Override
+            public <T> T convert(Class<T> type,Object value){
+                return type.cast(constant);
+            }
+        };
+    }
+}
@@ -32,6 +32,11 @@ import com.feilong.core.bean.propertyutiltest.FeiLongPropertyUtilSuiteTests;
  */
 @RunWith(Suite.class)
 @SuiteClasses({ //
+                SimpleDateLocaleConverterTest.class,
+                ConverterDispatcherTest.class,
+                ToStringJoinerTest.class,
+                ConverterContextTest.class,
+
                 FeiLongBeanUtilSuiteTests.class,
                 FeiLongConvertUtilSuiteTests.class,
                 FeiLongPropertyUtilSuiteTests.class,
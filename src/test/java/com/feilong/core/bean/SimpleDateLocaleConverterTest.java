@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static com.feilong.core.DatePattern.COMMON_DATE;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
+import static com.feilong.core.date.DateUtil.toDate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Date;
+import java.util.Locale;
+
+import org.junit.Test;
+
+/**
+ * The Class SimpleDateLocaleConverterTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class SimpleDateLocaleConverterTest{
+
+    /** The converter. */
+    private final SimpleDateLocaleConverter converter = new SimpleDateLocaleConverter(COMMON_DATE_AND_TIME, Locale.getDefault());
+
+    /**
+     * Test convert string.
+     */
+    @Test
+    public void testConvertString(){
+        assertEquals(toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME), converter.convert(Date.class, "2016-06-16 22:59:00"));
+    }
+
+    /**
+     * Test convert date.
+     */
+    @Test
+    public void testConvertDate(){
+        Date date = new Date();
+        assertSame(date, converter.convert(Date.class, date));
+    }
+
+    /**
+     * Test convert not lenient.
+     */
+    @Test
+    public void testConvertNotLenient(){
+        assertNull(converter.convert(Date.class, "2016-02-33 22:59:00"));
+    }
+
+    /**
+     * Test convert unparsed characters.
+     */
+    @Test
+    public void testConvertUnparsedCharacters(){
+        assertNull(converter.convert(Date.class, "2016-06-16 22:59:00 feilong"));
+        assertNull(new SimpleDateLocaleConverter(COMMON_DATE, null).convert(Date.class, "2016-06-16 22:59:00"));
+    }
+
+    /**
+     * Test convert null.
+     */
+    @Test
+    public void testConvertNull(){
+        assertNull(converter.convert(Date.class, null));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test simple date locale converter null pattern.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testSimpleDateLocaleConverterNullPattern(){
+        new SimpleDateLocaleConverter(null, Locale.getDefault());
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean;
+
+import static com.feilong.core.bean.ConvertUtil.toArray;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.feilong.core.UncheckedIOException;
+
+/**
+ * The Class ToStringJoinerTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class ToStringJoinerTest{
+
+    /**
+     * Test join.
+     */
+    @Test
+    public void testJoin(){
+        assertEquals("a,b", ToStringJoiner.DEFAULT.join(toList("a", "b")));
+        assertEquals("a,,b,", ToStringJoiner.DEFAULT.join(toArray("a", null, "b", "")));
+        assertEquals("a", ToStringJoiner.DEFAULT.join(toList("a")));
+        assertEquals(EMPTY, ToStringJoiner.DEFAULT.join(new ArrayList<String>()));
+    }
+
+    /**
+     * Test join ignore null or empty.
+     */
+    @Test
+    public void testJoinIgnoreNullOrEmpty(){
+        ToStringJoiner joiner = ToStringJoiner.of(ToStringConfig.IGNORE_NULL_OR_EMPTY_CONFIG);
+
+        assertEquals("a,b", joiner.join(toArray(null, "a", "", " ", "b", null)));
+        assertEquals(EMPTY, joiner.join(toArray(null, "", " ")));
+    }
+
+    /**
+     * Test join prefix.
+     */
+    @Test
+    public void testJoinPrefix(){
+        ToStringJoiner joiner = ToStringJoiner.of(new ToStringConfig(" OR ", false, "code:"));
+        assertEquals("code:1533312 OR code:1533292 OR code:1785442", joiner.join(toList("1533312", "1533292", "1785442")));
+        assertEquals("code:1533312", joiner.join(toList("1533312", null)));
+    }
+
+    /**
+     * Test join connector.
+     */
+    @Test
+    public void testJoinConnector(){
+        assertEquals("a\nb", ToStringJoiner.of(new ToStringConfig("\n")).join(toList("a", "b")));
+        assertEquals("ab", ToStringJoiner.of(new ToStringConfig(null)).join(toList("a", "b")));
+        assertEquals("ab", ToStringJoiner.of(new ToStringConfig(EMPTY)).join(toList("a", "b")));
+
+        //元素本身以连接符结尾
+        assertEquals("a,,b,", ToStringJoiner.DEFAULT.join(toList("a,", "b,")));
+    }
+
+    /**
+     * Test join iterator.
+     */
+    @Test
+    public void testJoinIterator(){
+        assertEquals("1,2,3", ToStringJoiner.DEFAULT.join(toList(1, 2, 3).iterator()));
+    }
+
+    /**
+     * Test join null.
+     */
+    @Test
+    public void testJoinNull(){
+        assertEquals(EMPTY, ToStringJoiner.DEFAULT.join((Iterable<?>) null));
+        assertEquals(EMPTY, ToStringJoiner.DEFAULT.join((Object[]) null));
+        assertSame(ToStringJoiner.DEFAULT, ToStringJoiner.of(null));
+    }
+
+    /**
+     * Test join large.
+     */
+    @Test
+    public void testJoinLarge(){
+        List<Integer> list = new ArrayList<>();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10000; ++i){
+            list.add(i);
+            expected.append(i == 0 ? "" : ",").append(i);
+        }
+        assertEquals(expected.toString(), ToStringJoiner.DEFAULT.join(list));
+    }
+
+    /**
+     * 创建之后修改 {@link ToStringConfig} 不影响连接器.
+     */
+    @Test
+    public void testConfigSnapshot(){
+        ToStringConfig toStringConfig = new ToStringConfig("-");
+        ToStringJoiner joiner = ToStringJoiner.of(toStringConfig);
+        toStringConfig.setConnector("+");
+
+        assertEquals("a-b", joiner.join(toList("a", "b")));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test append to.
+     */
+    @Test
+    public void testAppendTo(){
+        StringWriter writer = new StringWriter();
+        writer.write("in (");
+        ToStringJoiner.DEFAULT.appendTo(writer, toList("1", "2"));
+        writer.write(")");
+        assertEquals("in (1,2)", writer.toString());
+
+        StringBuilder sb = new StringBuilder("x=");
+        assertSame(sb, ToStringJoiner.DEFAULT.appendTo(sb, toArray("a", null)));
+        assertEquals("x=a,", sb.toString());
+    }
+
+    /**
+     * Test append to null appendable.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testAppendToNullAppendable(){
+        ToStringJoiner.DEFAULT.appendTo((StringBuilder) null, toList("a"));
+    }
+
+    /**
+     * Test append to IO exception.
+     */
+    @Test(expected = UncheckedIOException.class)
+    public void testAppendToIOException(){
+        ToStringJoiner.DEFAULT.appendTo(new ClosedAppendable(), toList("a"));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 总是抛出 {@link IOException} 的 {@link Appendable}.
+     */
+    private static final class ClosedAppendable implements Appendable{
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException{
+            throw new IOException("closed");
+        }
+
+        @Override
+        public Appendable append(CharSequence csq,int start,int end) throws IOException{
+            throw new IOException("closed");
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException{
+            throw new IOException("closed");
+        }
+    }
+}
@@ -39,6 +39,8 @@ import org.junit.runners.Suite.SuiteClasses;
                 ToIntegerDefaultValueParameterizedTest.class,
                 ToIntegerParameterizedTest.class,
                 ToIntegersParameterizedTest.class,
+                ToIntOrDefaultTest.class,
+                ToIntArrayTest.class,
 
                 ToIteratorTest.class,
 
@@ -48,6 +50,7 @@ import org.junit.runners.Suite.SuiteClasses;
                 ToListArrayTest.class,
 
                 ToLocaleTest.class,
+                ToEnumTest.class,
 
                 ToLongParameterizedTest.class,
                 ToLongsParameterizedTest.class,
@@ -58,6 +61,7 @@ import org.junit.runners.Suite.SuiteClasses;
                 ToMapPropertiesTest.class,
                 ToMapTargetTypeClassTest.class,
                 ToMapValueTargetTypeClassTest.class,
+                ToMapViewTest.class,
                 ToMapTransformerTest.class,
 
                 ToPropertiesTest.class,
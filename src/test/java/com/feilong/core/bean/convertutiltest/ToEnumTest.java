@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean.convertutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toEnum;
+import static com.feilong.core.entity.HttpMethodTestType.GET;
+import static com.feilong.core.entity.HttpMethodTestType.POST;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.feilong.core.bean.BeanOperationException;
+import com.feilong.core.bean.BeanUtil;
+import com.feilong.core.bean.ConverterContext;
+import com.feilong.core.bean.EnumConverter;
+import com.feilong.core.entity.HttpMethodTestType;
+
+/**
+ * The Class ToEnumTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class ToEnumTest{
+
+    /**
+     * Test to enum by name.
+     */
+    @Test
+    public void testToEnumByName(){
+        assertNull(toEnum(null, HttpMethodTestType.class));
+        assertEquals(GET, toEnum("GET", HttpMethodTestType.class));
+        assertEquals(GET, toEnum(" GET ", HttpMethodTestType.class));
+        assertEquals(GET, toEnum(GET, HttpMethodTestType.class));
+        assertEquals(POST, toEnum(new String[] { "POST", "GET" }, HttpMethodTestType.class));
+        assertNull(toEnum("get", HttpMethodTestType.class));
+        assertNull(toEnum("", HttpMethodTestType.class));
+    }
+
+    /**
+     * Test to enum by property.
+     */
+    @Test
+    public void testToEnumByProperty(){
+        assertNull(toEnum(null, HttpMethodTestType.class, "method"));
+        assertEquals(GET, toEnum("get", HttpMethodTestType.class, "method"));
+        assertEquals(POST, toEnum(POST, HttpMethodTestType.class, "method"));
+        assertNull(toEnum("GET", HttpMethodTestType.class, "method"));
+    }
+
+    /**
+     * Test converter ignore case.
+     */
+    @Test
+    public void testConverterIgnoreCase(){
+        EnumConverter<HttpMethodTestType> converter = new EnumConverter<>(HttpMethodTestType.class, "method", true);
+        assertEquals(GET, converter.convert(HttpMethodTestType.class, "GET"));
+        assertNull(converter.convert(HttpMethodTestType.class, "get1"));
+    }
+
+    /**
+     * Test populate.
+     */
+    @Test
+    public void testPopulate(){
+        ConverterContext converterContext = ConverterContext.builder()//
+                        .register(new EnumConverter<>(HttpMethodTestType.class, "method", true), HttpMethodTestType.class)
+                        .build();
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("httpMethodType", "Post");
+
+        HttpMethodBean httpMethodBean = BeanUtil.populate(new HttpMethodBean(), map, converterContext);
+        assertEquals(POST, httpMethodBean.getHttpMethodType());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test to enum null enum class.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testToEnumNullEnumClass(){
+        toEnum("GET", null);
+    }
+
+    /**
+     * Test to enum blank property name.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testToEnumBlankPropertyName(){
+        toEnum("GET", HttpMethodTestType.class, " ");
+    }
+
+    /**
+     * Test to enum not exist property.
+     */
+    @Test(expected = BeanOperationException.class)
+    public void testToEnumNotExistProperty(){
+        toEnum("get", HttpMethodTestType.class, "method2222");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * The Class HttpMethodBean.
+     */
+    public static class HttpMethodBean{
+
+        /** The http method type. */
+        private HttpMethodTestType httpMethodType;
+
+        /**
+         * Gets the http method type.
+         *
+         * @return the http method type
+         */
+        public HttpMethodTestType getHttpMethodType(){
+            return httpMethodType;
+        }
+
+        /**
+         * Sets the http method type.
+         *
+         * @param httpMethodType
+         *            the new http method type
+         */
+        public void setHttpMethodType(HttpMethodTestType httpMethodType){
+            this.httpMethodType = httpMethodType;
+        }
+    }
+}
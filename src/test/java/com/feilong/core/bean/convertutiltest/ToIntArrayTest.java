@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean.convertutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toArray;
+import static com.feilong.core.bean.ConvertUtil.toDoubleArray;
+import static com.feilong.core.bean.ConvertUtil.toIntArray;
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static com.feilong.core.bean.ConvertUtil.toLongArray;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Random;
+
+import org.apache.commons.beanutils.ConvertUtils;
+import org.junit.Test;
+
+/**
+ * The Class ToIntArrayTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class ToIntArrayTest{
+
+    /** The values. */
+    private static final Object[] VALUES = {
+                                             "",
+                                             " ",
+                                             "1",
+                                             "1,2,3",
+                                             " 1 , 2 ,3 ",
+                                             "{1,2,3}",
+                                             "{}",
+                                             "{ 1 }",
+                                             "1,,2",
+                                             "1,",
+                                             ",1",
+                                             "1 2",
+                                             "+5,-6",
+                                             "-0",
+                                             "1.5,2.25",
+                                             "-1.5, 0.1",
+                                             ".5",
+                                             "5.",
+                                             "1e3",
+                                             "1e+3",
+                                             "1/2",
+                                             "'1','2'",
+                                             "\"1\"",
+                                             "abc",
+                                             "1;2",
+                                             "2147483647,2147483648",
+                                             "9223372036854775807",
+                                             "-9223372036854775808",
+                                             "9223372036854775808",
+                                             "12345678901234567890.5",
+                                             1,
+                                             Long.MAX_VALUE,
+                                             1.9d,
+                                             new BigDecimal("1.20"),
+                                             Boolean.TRUE,
+                                             new Date(0),
+                                             new String[] { "1", " 2", "3 " },
+                                             new String[] { "1", null, "3" },
+                                             new String[] { "1e3", "NaN", "-9223372036854775808" },
+                                             new String[] { "1,2" },
+                                             new Object[] { 1, 2L, 1.5d, true, "4" },
+                                             new int[] { 1, 2, 3 },
+                                             new long[] { Long.MIN_VALUE },
+                                             new double[] { 1.5d, -0d },
+                                             toList("1", "2", " 3"),
+                                             toList("1", "a"),
+                                             toList(true, false) };
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test to int array.
+     */
+    @Test
+    public void testToIntArray(){
+        assertArrayEquals(new int[] { 1, 2, 3 }, toIntArray("1,2, 3"));
+        assertArrayEquals(new int[] { 1, 2, 3 }, toIntArray("{1,2,3}"));
+        assertArrayEquals(new int[] { 1, 2, 3 }, toIntArray(toList("1", "2", " 3")));
+        assertArrayEquals(new int[] { 1, 0, 0 }, toIntArray(toArray(true, false, false)));
+        assertArrayEquals(new int[] {}, toIntArray(new String[] { "1", null, "2", "3" }));
+    }
+
+    /**
+     * Test to long array.
+     */
+    @Test
+    public void testToLongArray(){
+        assertArrayEquals(new long[] { 1L, 2L, 3L }, toLongArray("1,2, 3"));
+        assertArrayEquals(new long[] { 1L, 2L, 3L }, toLongArray(new Integer[] { 1, 2, 3 }));
+        assertArrayEquals(new long[] { Long.MIN_VALUE }, toLongArray("-9223372036854775808"));
+    }
+
+    /**
+     * Test to double array.
+     */
+    @Test
+    public void testToDoubleArray(){
+        assertArrayEquals(new double[] { 1.5d, 2d, -3.25d }, toDoubleArray("1.5,2, -3.25"), 0);
+        assertArrayEquals(new double[] { 1.5d, 1000d }, toDoubleArray(toList("1.5", "1e3")), 0);
+        assertArrayEquals(new double[] { 0.1d }, toDoubleArray(new BigDecimal("0.1")), 0);
+    }
+
+    /**
+     * Test null.
+     */
+    @Test
+    public void testNull(){
+        assertNull(toIntArray(null));
+        assertNull(toLongArray(null));
+        assertNull(toDoubleArray(null));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test same as convert utils.
+     */
+    @Test
+    public void testSameAsConvertUtils(){
+        for (Object value : VALUES){
+            String message = value instanceof Object[] ? Arrays.toString((Object[]) value) : String.valueOf(value);
+
+            assertEquals(message, toString(ConvertUtils.convert(value, int[].class)), toString(toIntArray(value)));
+            assertEquals(message, toString(ConvertUtils.convert(value, long[].class)), toString(toLongArray(value)));
+            assertEquals(message, toString(ConvertUtils.convert(value, double[].class)), toString(toDoubleArray(value)));
+        }
+    }
+
+    /**
+     * Test same as convert utils fuzz.
+     */
+    @Test
+    public void testSameAsConvertUtilsFuzz(){
+        char[] chars = { '1', '2', '0', '9', '-', '+', '.', ',', ' ', '{', '}', 'e' };
+        Random random = new Random(20161018L);
+        for (int i = 0; i < 20000; ++i){
+            char[] value = new char[random.nextInt(12)];
+            for (int j = 0; j < value.length; ++j){
+                value[j] = chars[random.nextInt(chars.length)];
+            }
+            String string = new String(value);
+            assertEquals(string, toString(ConvertUtils.convert(string, int[].class)), toString(toIntArray(string)));
+            assertEquals(string, toString(ConvertUtils.convert(string, long[].class)), toString(toLongArray(string)));
+            assertEquals(string, toString(ConvertUtils.convert(string, double[].class)), toString(toDoubleArray(string)));
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * 基本类型数组转成字符串,方便比较.
+     *
+     * @param array
+     *            the array
+     * @return the string
+     */
+    private static String toString(Object array){
+        if (array instanceof int[]){
+            return Arrays.toString((int[]) array);
+        }
+        if (array instanceof long[]){
+            return Arrays.toString((long[]) array);
+        }
+        return Arrays.toString((double[]) array);
+    }
+}
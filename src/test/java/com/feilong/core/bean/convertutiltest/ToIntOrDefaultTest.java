@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean.convertutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toBigDecimalOrDefault;
+import static com.feilong.core.bean.ConvertUtil.toIntOrDefault;
+import static com.feilong.core.bean.ConvertUtil.toLongOrDefault;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.bean.ConvertUtil;
+
+/**
+ * The Class ToIntOrDefaultTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class ToIntOrDefaultTest{
+
+    /** The values. */
+    private static final String[] VALUES = {
+                                             "",
+                                             " ",
+                                             "0",
+                                             "-0",
+                                             "+5",
+                                             "-",
+                                             "+",
+                                             " 8 ",
+                                             "\t12\n",
+                                             "1 2",
+                                             "aaaa",
+                                             "1.5",
+                                             ".5",
+                                             "5.",
+                                             ".",
+                                             "-.5",
+                                             "1e3",
+                                             "1E-3",
+                                             "1%",
+                                             "1,2,3",
+                                             "１２",
+                                             "2147483647",
+                                             "2147483648",
+                                             "-2147483648",
+                                             "-2147483649",
+                                             "9223372036854775807",
+                                             "9223372036854775808",
+                                             "-9223372036854775808",
+                                             "123456789012345678",
+                                             "1234567890123456789",
+                                             "-12345678901234567.89",
+                                             "0.000000000000000001" };
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test to int or default.
+     */
+    @Test
+    public void testToIntOrDefault(){
+        assertEquals(0, toIntOrDefault(null, 0));
+        assertEquals(8, toIntOrDefault(" 8 ", 0));
+        assertEquals(-1, toIntOrDefault("aaaa", -1));
+        assertEquals(12, toIntOrDefault("a,12,b", 2, 4, -1));
+        assertEquals(-1, toIntOrDefault("a,12,b", 0, 1, -1));
+        assertEquals(-1, toIntOrDefault(new StringBuilder("a, 12 ,b"), 1, 1, -1));
+        assertEquals(12, toIntOrDefault(new StringBuilder("a, 12 ,b"), 2, 6, -1));
+    }
+
+    /**
+     * Test to int or default out of range.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testToIntOrDefaultOutOfRange(){
+        toIntOrDefault("12", 1, 3, -1);
+    }
+
+    /**
+     * Test to long or default.
+     */
+    @Test
+    public void testToLongOrDefault(){
+        assertEquals(0L, toLongOrDefault(null, 0L));
+        assertEquals(Long.MIN_VALUE, toLongOrDefault("-9223372036854775808", 0L));
+        assertEquals(9L, toLongOrDefault("x9x", 1, 2, 0L));
+    }
+
+    /**
+     * Test to big decimal or default.
+     */
+    @Test
+    public void testToBigDecimalOrDefault(){
+        assertNull(toBigDecimalOrDefault(null, 0, 0, null));
+        assertEquals(new BigDecimal("1.20"), toBigDecimalOrDefault("a,1.20,b", 2, 6, null));
+        assertNull(toBigDecimalOrDefault("1%", 0, 2, null));
+        assertEquals(BigDecimal.ZERO, toBigDecimalOrDefault("1%", 0, 2, BigDecimal.ZERO));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test same as jdk.
+     */
+    @Test
+    public void testSameAsJdk(){
+        for (String value : VALUES){
+            assertSameAsJdk(value);
+        }
+
+        Random random = new Random(17);
+        for (int i = 0; i < 10000; ++i){
+            assertSameAsJdk(Long.toString(random.nextLong() >> random.nextInt(64)));
+            assertSameAsJdk(BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), random.nextInt(20)).toPlainString());
+        }
+    }
+
+    /**
+     * Test same as to integer.
+     */
+    @Test
+    public void testSameAsToInteger(){
+        for (String value : VALUES){
+            assertEquals(value, ConvertUtil.toInteger(value, -1), Integer.valueOf(toIntOrDefault(value, -1)));
+            assertEquals(value, ConvertUtil.toLong(value), toLong(value));
+            assertEquals(value, ConvertUtil.toBigDecimal(value), toBigDecimalOrDefault(value, 0, value.length(), null));
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Assert same as jdk.
+     *
+     * @param value
+     *            the value
+     */
+    private static void assertSameAsJdk(String value){
+        String trim = value.trim();
+
+        Integer expectedInt;
+        try{
+            expectedInt = Integer.parseInt(trim);
+        }catch (NumberFormatException e){
+            expectedInt = -1;
+        }
+        assertEquals(value, expectedInt.intValue(), toIntOrDefault(value, -1));
+
+        Long expectedLong;
+        try{
+            expectedLong = Long.parseLong(trim);
+        }catch (NumberFormatException e){
+            expectedLong = -1L;
+        }
+        assertEquals(value, expectedLong.longValue(), toLongOrDefault(value, -1L));
+
+        BigDecimal expectedBigDecimal;
+        try{
+            expectedBigDecimal = new BigDecimal(trim);
+        }catch (NumberFormatException e){
+            expectedBigDecimal = null;
+        }
+        BigDecimal actual = toBigDecimalOrDefault(value, 0, value.length(), null);
+        assertEquals(value, expectedBigDecimal, actual);
+        if (null != actual){
+            assertEquals(value, expectedBigDecimal.scale(), actual.scale());
+        }
+    }
+
+    /**
+     * To long.
+     *
+     * @param value
+     *            the value
+     * @return the long
+     */
+    private static Long toLong(String value){
+        long result = toLongOrDefault(value, Long.MIN_VALUE);
+        return result == Long.MIN_VALUE && !value.trim().equals("-9223372036854775808") ? null : result;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.bean.convertutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toMap;
+import static com.feilong.core.bean.ConvertUtil.toMapView;
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * The Class ToMapViewTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class ToMapViewTest{
+
+    /**
+     * Test to map view.
+     */
+    @Test
+    public void testToMapView(){
+        Map<String, String> map = toMap("1", "2", "3", "4");
+        Map<String, Integer> view = toMapView(map, Integer.class);
+
+        assertEquals(2, view.size());
+        assertEquals(Integer.valueOf(4), view.get("3"));
+        assertNull(view.get("5"));
+        assertEquals(toMap("1", 2, "3", 4), view);
+    }
+
+    /**
+     * 原始 map 的变化直接反映到视图上.
+     */
+    @Test
+    public void testToMapViewBacked(){
+        Map<String, String> map = new LinkedHashMap<>();
+        Map<String, Long> view = toMapView(map, Long.class);
+
+        map.put("a", "5");
+        map.put("b", null);
+
+        assertEquals(Long.valueOf(5), view.get("a"));
+        assertNull(view.get("b"));
+        assertEquals("{a=5, b=null}", view.toString());
+    }
+
+    /**
+     * Test to map view remove.
+     */
+    @Test
+    public void testToMapViewRemove(){
+        Map<String, String> map = toMap("1", "2", "3", "4");
+        Map<String, Integer> view = toMapView(map, Integer.class);
+
+        assertEquals(Integer.valueOf(2), view.remove("1"));
+        assertFalse(map.containsKey("1"));
+
+        Iterator<Map.Entry<String, Integer>> iterator = view.entrySet().iterator();
+        iterator.next();
+        iterator.remove();
+        assertEquals(emptyMap(), map);
+    }
+
+    /**
+     * Test to map view put.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testToMapViewPut(){
+        toMapView(toMap("1", "2"), Integer.class).put("3", 4);
+    }
+
+    /**
+     * Test to map view null map.
+     */
+    @Test
+    public void testToMapViewNullMap(){
+        assertEquals(emptyMap(), toMapView(null, Integer.class));
+    }
+
+    /**
+     * Test to map view null target type.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testToMapViewNullTargetType(){
+        toMapView(toMap("1", "2"), null);
+    }
+}
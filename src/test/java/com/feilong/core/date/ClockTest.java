@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+
+import org.junit.Test;
+
+/**
+ * The Class ClockTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class ClockTest{
+
+    /**
+     * Test fixed.
+     */
+    @Test
+    public void testFixed(){
+        Clock clock = Clock.fixed(123456789L);
+        assertEquals(123456789L, clock.millis());
+        assertEquals(new Date(123456789L), clock.now());
+        assertEquals(123456789L, Clock.fixed(new Date(123456789L)).millis());
+    }
+
+    /**
+     * Test fixed null date.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testFixedNullDate(){
+        Clock.fixed((Date) null);
+    }
+
+    /**
+     * Test system.
+     */
+    @Test
+    public void testSystem(){
+        long before = System.currentTimeMillis();
+        long millis = Clock.system().millis();
+        assertTrue(millis >= before && millis <= System.currentTimeMillis());
+    }
+
+    /**
+     * Test coarse.
+     *
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    public void testCoarse() throws InterruptedException{
+        Clock clock = Clock.coarse();
+        assertSame(clock, Clock.coarse());
+
+        long first = clock.millis();
+        Thread.sleep(50);
+        long second = clock.millis();
+
+        assertTrue(second > first);
+        assertTrue(Math.abs(System.currentTimeMillis() - second) < 1000);
+    }
+
+    /**
+     * Test default.
+     */
+    @Test
+    public void testDefault(){
+        assertSame(Clock.system(), Clock.getDefault());
+
+        Clock clock = Clock.fixed(0L);
+        Clock.setDefault(clock);
+        try{
+            assertSame(clock, Clock.getDefault());
+        }finally{
+            Clock.setDefault(null);
+        }
+        assertSame(Clock.system(), Clock.getDefault());
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static com.feilong.core.DatePattern.COMMON_DATE;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
+import static com.feilong.core.date.DateBatchUtil.PARSE_FAILED;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * The Class DateBatchUtilTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class DateBatchUtilTest{
+
+    /**
+     * Test to epoch millis.
+     */
+    @Test
+    public void testToEpochMillis(){
+        final List<Integer> errorIndexes = new ArrayList<>();
+        long[] epochMillis = DateBatchUtil.toEpochMillis(
+                        new String[] { "2016-06-16 22:59:00", "2016-06-16", null, " ", "2016-06-17 00:00:00" },
+                        COMMON_DATE_AND_TIME,
+                        new DateParseErrorHandler(){
+
+                            @Override
+                            public void handle(int index,String dateString){
+                                errorIndexes.add(index);
+                            }
+                        });
+
+        assertEquals(DateUtil.toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME).getTime(), epochMillis[0]);
+        assertEquals(PARSE_FAILED, epochMillis[1]);
+        assertEquals(PARSE_FAILED, epochMillis[2]);
+        assertEquals(PARSE_FAILED, epochMillis[3]);
+        assertEquals(DateUtil.toDate("2016-06-17 00:00:00", COMMON_DATE_AND_TIME).getTime(), epochMillis[4]);
+        assertEquals("[1, 2, 3]", errorIndexes.toString());
+    }
+
+    /**
+     * Test to epoch millis same as {@link DateUtil#toDate(String, String...)}, which is lenient and requires full match.
+     */
+    @Test
+    public void testToEpochMillisSameAsToDate(){
+        String[] dateStrings = { "2016-02-30", "2016-06-16 22", "2016-6-1" };
+        long[] epochMillis = DateBatchUtil.toEpochMillis(dateStrings, COMMON_DATE, null);
+
+        assertEquals(DateUtil.toDate("2016-02-30", COMMON_DATE).getTime(), epochMillis[0]);
+        assertEquals(PARSE_FAILED, epochMillis[1]);
+        assertEquals(DateUtil.toDate("2016-6-1", COMMON_DATE).getTime(), epochMillis[2]);
+    }
+
+    /**
+     * Test to epoch millis parallel.
+     */
+    @Test
+    public void testToEpochMillisParallel(){
+        long start = DateUtil.toDate("2016-01-01 00:00:00", COMMON_DATE_AND_TIME).getTime();
+
+        String[] dateStrings = new String[20000];
+        long[] expected = new long[dateStrings.length];
+        for (int i = 0; i < dateStrings.length; ++i){
+            if (i % 1000 == 7){
+                dateStrings[i] = "bad" + i;
+                expected[i] = PARSE_FAILED;
+            }else{
+                expected[i] = start + i * 60000L;
+                dateStrings[i] = DateUtil.toString(new java.util.Date(expected[i]), COMMON_DATE_AND_TIME);
+            }
+        }
+
+        final List<Integer> errorIndexes = Collections.synchronizedList(new ArrayList<Integer>());
+        long[] epochMillis = DateBatchUtil.toEpochMillis(dateStrings, COMMON_DATE_AND_TIME, new DateParseErrorHandler(){
+
+            @Override
+            public void handle(int index,String dateString){
+                errorIndexes.add(index);
+            }
+        }, true);
+
+        assertArrayEquals(expected, epochMillis);
+        assertEquals(20, errorIndexes.size());
+    }
+
+    /**
+     * Test to epoch millis null.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testToEpochMillisNull(){
+        DateBatchUtil.toEpochMillis(null, COMMON_DATE, null);
+    }
+
+    /**
+     * Test to epoch millis blank pattern.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testToEpochMillisBlankPattern(){
+        DateBatchUtil.toEpochMillis(new String[] { "2016-06-16" }, " ", null);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test to strings.
+     */
+    @Test
+    public void testToStrings(){
+        long millis = DateUtil.toDate("2016-06-16", COMMON_DATE).getTime();
+        assertArrayEquals(new String[] { "2016-06-16", null }, DateBatchUtil.toStrings(new long[] { millis, PARSE_FAILED }, COMMON_DATE));
+    }
+
+    /**
+     * Test append to.
+     */
+    @Test
+    public void testAppendTo(){
+        long millis1 = DateUtil.toDate("2016-06-16", COMMON_DATE).getTime();
+        long millis2 = DateUtil.toDate("2016-06-17", COMMON_DATE).getTime();
+
+        StringBuilder sb = new StringBuilder("dates:");
+        DateBatchUtil.appendTo(new long[] { millis1, PARSE_FAILED, millis2 }, COMMON_DATE, ",", sb);
+        assertEquals("dates:2016-06-16,,2016-06-17", sb.toString());
+    }
+
+    /**
+     * Test append to null separator.
+     */
+    @Test
+    public void testAppendToNullSeparator(){
+        long millis = DateUtil.toDate("2016-06-16", COMMON_DATE).getTime();
+        assertEquals("2016-06-162016-06-16", DateBatchUtil.appendTo(new long[] { millis, millis }, COMMON_DATE, null, new StringBuilder()).toString());
+    }
+
+    /**
+     * Test append to null string builder.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testAppendToNullStringBuilder(){
+        DateBatchUtil.appendTo(new long[] { 1L }, COMMON_DATE, ",", null);
+    }
+}
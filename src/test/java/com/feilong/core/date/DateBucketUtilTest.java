@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static com.feilong.core.DatePattern.COMMON_DATE;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
+import static com.feilong.core.date.DateUtil.toDate;
+import static java.util.Calendar.DAY_OF_MONTH;
+import static java.util.Calendar.HOUR_OF_DAY;
+import static java.util.Calendar.MONTH;
+import static java.util.Calendar.SECOND;
+import static java.util.Calendar.WEEK_OF_YEAR;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.apache.commons.collections4.Transformer;
+import org.junit.Test;
+
+/**
+ * The Class DateBucketUtilTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class DateBucketUtilTest{
+
+    /** The time zone. */
+    private static final TimeZone TIME_ZONE = TimeZone.getTimeZone("GMT+8");
+
+    /** The Constant IDENTITY_TRANSFORMER. */
+    private static final Transformer<Date, Date> IDENTITY_TRANSFORMER = new Transformer<Date, Date>(){
+
+        @Override
+        public Date transform(Date input){
+            return input;
+        }
+    };
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test to bucket id.
+     */
+    @Test
+    public void testToBucketId(){
+        //2016-06-16 22:59:00 GMT+8
+        long millis = 1466089140000L;
+        assertEquals(16968L, DateBucketUtil.toBucketId(millis, DAY_OF_MONTH, TIME_ZONE));
+        assertEquals(2016L * 12 + 5, DateBucketUtil.toBucketId(millis, MONTH, TIME_ZONE));
+        assertEquals(16968L * 24 + 22, DateBucketUtil.toBucketId(millis, HOUR_OF_DAY, TIME_ZONE));
+    }
+
+    /**
+     * Test to bucket id before epoch.
+     */
+    @Test
+    public void testToBucketIdBeforeEpoch(){
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        assertEquals(-1L, DateBucketUtil.toBucketId(-1L, DAY_OF_MONTH, utc));
+        assertEquals(1969L * 12 + 11, DateBucketUtil.toBucketId(-1L, MONTH, utc));
+        assertEquals(0L, DateBucketUtil.toBucketId(-1L, WEEK_OF_YEAR, utc));
+    }
+
+    /**
+     * Test to bucket start millis, compare with {@link DateUtil} in default time zone.
+     */
+    @Test
+    public void testToBucketStartMillis(){
+        TimeZone timeZone = TimeZone.getDefault();
+        Date date = toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME);
+
+        assertEquals(
+                        DateUtil.getFirstDateOfThisDay(date).getTime(),
+                        DateBucketUtil.toBucketStartMillis(DateBucketUtil.toBucketId(date.getTime(), DAY_OF_MONTH, timeZone), DAY_OF_MONTH, timeZone));
+        assertEquals(
+                        DateUtil.getFirstDateOfThisWeek(date).getTime(),
+                        DateBucketUtil.toBucketStartMillis(DateBucketUtil.toBucketId(date.getTime(), WEEK_OF_YEAR, timeZone), WEEK_OF_YEAR, timeZone));
+        assertEquals(
+                        DateUtil.getFirstDateOfThisMonth(date).getTime(),
+                        DateBucketUtil.toBucketStartMillis(DateBucketUtil.toBucketId(date.getTime(), MONTH, timeZone), MONTH, timeZone));
+    }
+
+    /**
+     * Test to bucket start millis every month.
+     */
+    @Test
+    public void testToBucketStartMillisEveryMonth(){
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        for (long bucketId = 1900 * 12; bucketId < 2100 * 12; ++bucketId){
+            long startMillis = DateBucketUtil.toBucketStartMillis(bucketId, MONTH, utc);
+            assertEquals(bucketId, DateBucketUtil.toBucketId(startMillis, MONTH, utc));
+            assertEquals(bucketId - 1, DateBucketUtil.toBucketId(startMillis - 1, MONTH, utc));
+        }
+    }
+
+    /**
+     * Test to bucket ids.
+     */
+    @Test
+    public void testToBucketIds(){
+        long[] bucketIds = DateBucketUtil.toBucketIds(new long[] { 0L, 3600000L, 7199999L }, HOUR_OF_DAY, TimeZone.getTimeZone("UTC"));
+        assertEquals("[0, 1, 1]", Arrays.toString(bucketIds));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test count.
+     */
+    @Test
+    public void testCount(){
+        long[] epochMillis = {
+                               toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME).getTime(),
+                               toDate("2016-06-16 23:59:00", COMMON_DATE_AND_TIME).getTime(),
+                               toDate("2016-06-17 00:00:00", COMMON_DATE_AND_TIME).getTime(),
+                               toDate("2016-06-16 00:00:00", COMMON_DATE_AND_TIME).getTime() };
+
+        Map<String, Integer> map = DateBucketUtil.count(epochMillis, DAY_OF_MONTH, TimeZone.getDefault(), COMMON_DATE);
+        assertEquals("{2016-06-16=3, 2016-06-17=1}", map.toString());
+    }
+
+    /**
+     * Test count merge label.
+     */
+    @Test
+    public void testCountMergeLabel(){
+        long[] epochMillis = {
+                               toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME).getTime(),
+                               toDate("2016-06-16 23:59:00", COMMON_DATE_AND_TIME).getTime() };
+
+        Map<String, Integer> map = DateBucketUtil.count(epochMillis, HOUR_OF_DAY, TimeZone.getDefault(), COMMON_DATE);
+        assertEquals("{2016-06-16=2}", map.toString());
+    }
+
+    /**
+     * Test count many buckets.
+     */
+    @Test
+    public void testCountManyBuckets(){
+        long[] epochMillis = new long[10000];
+        for (int i = 0; i < epochMillis.length; ++i){
+            epochMillis[i] = i * 60000L;
+        }
+        Map<String, Integer> map = DateBucketUtil.count(epochMillis, HOUR_OF_DAY, TimeZone.getTimeZone("UTC"), "yyyyMMddHH");
+        assertEquals(167, map.size());
+        assertEquals(Integer.valueOf(60), map.get("1970010100"));
+        assertEquals(Integer.valueOf(40), map.get("1970010722"));
+    }
+
+    /**
+     * Test count null.
+     */
+    @Test
+    public void testCountNull(){
+        assertEquals(0, DateBucketUtil.count(null, DAY_OF_MONTH, TIME_ZONE, COMMON_DATE).size());
+    }
+
+    /**
+     * Test count null time zone.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testCountNullTimeZone(){
+        DateBucketUtil.count(new long[] { 1L }, DAY_OF_MONTH, null, COMMON_DATE);
+    }
+
+    /**
+     * Test count unsupported field.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCountUnsupportedField(){
+        DateBucketUtil.count(new long[] { 1L }, SECOND, TIME_ZONE, COMMON_DATE);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test group.
+     */
+    @Test
+    public void testGroup(){
+        Date date1 = toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME);
+        Date date2 = toDate("2016-06-17 01:00:00", COMMON_DATE_AND_TIME);
+        Date date3 = toDate("2016-06-16 00:00:00", COMMON_DATE_AND_TIME);
+
+        Map<String, List<Date>> map = DateBucketUtil
+                        .group(Arrays.asList(date1, date2, null, date3), IDENTITY_TRANSFORMER, DAY_OF_MONTH, TimeZone.getDefault(), COMMON_DATE);
+
+        assertEquals(2, map.size());
+        assertEquals(Arrays.asList(date1, date3), map.get("2016-06-16"));
+        assertEquals(Arrays.asList(date2), map.get("2016-06-17"));
+    }
+
+    /**
+     * Test group null transformer.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testGroupNullTransformer(){
+        DateBucketUtil.group(Arrays.asList(new Date()), null, DAY_OF_MONTH, TIME_ZONE, COMMON_DATE);
+    }
+}
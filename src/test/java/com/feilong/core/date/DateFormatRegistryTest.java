@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.date;
+
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.apache.commons.lang3.time.FastDateFormat;
+import org.junit.Test;
+
+/**
+ * The Class DateFormatRegistryTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class DateFormatRegistryTest{
+
+    /**
+     * Test get date format.
+     */
+    @Test
+    public void testGetDateFormat(){
+        TimeZone timeZone = TimeZone.getTimeZone("GMT+8");
+
+        FastDateFormat dateFormat = DateFormatRegistry.getDateFormat(COMMON_DATE_AND_TIME, timeZone, Locale.CHINA);
+        assertSame(dateFormat, DateFormatRegistry.getDateFormat(COMMON_DATE_AND_TIME, timeZone, Locale.CHINA));
+        assertNotSame(dateFormat, DateFormatRegistry.getDateFormat(COMMON_DATE_AND_TIME, timeZone, Locale.US));
+        assertNotSame(dateFormat, FastDateFormat.getInstance(COMMON_DATE_AND_TIME, timeZone, Locale.CHINA));
+
+        assertEquals("2016-06-16 22:59:00", dateFormat.format(new Date(1466089140000L)));
+    }
+
+    /**
+     * Test hit and miss count.
+     */
+    @Test
+    public void testHitAndMissCount(){
+        String pattern = "yyyy'DateFormatRegistryTest'MM";
+
+        long missCount = DateFormatRegistry.getMissCount();
+        long hitCount = DateFormatRegistry.getHitCount();
+
+        DateFormatRegistry.getDateFormat(pattern);
+        DateFormatRegistry.getDateFormat(pattern);
+        DateFormatRegistry.getDateFormat(pattern);
+
+        assertTrue(DateFormatRegistry.getMissCount() - missCount >= 1);
+        assertTrue(DateFormatRegistry.getHitCount() - hitCount >= 2);
+    }
+
+    /**
+     * Test bounded.
+     */
+    @Test
+    public void testBounded(){
+        for (int i = 0; i < DateFormatRegistry.MAX_SIZE + 100; ++i){
+            DateFormatRegistry.getDateFormat("yyyy'" + i + "'");
+        }
+        assertTrue(DateFormatRegistry.size() <= DateFormatRegistry.MAX_SIZE);
+        assertTrue(DateFormatRegistry.getEvictionCount() >= 100);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test get date format null.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testGetDateFormatNull(){
+        DateFormatRegistry.getDateFormat(null);
+    }
+
+    /**
+     * Test get date format blank.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetDateFormatBlank(){
+        DateFormatRegistry.getDateFormat(" ");
+    }
+
+    /**
+     * Test get date format illegal pattern.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetDateFormatIllegalPattern(){
+        DateFormatRegistry.getDateFormat("yyyy-bb");
+    }
+}
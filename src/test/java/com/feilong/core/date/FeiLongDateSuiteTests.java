@@ -31,6 +31,10 @@ import com.feilong.core.date.dateutiltest.FeiLongDateUtilSuiteTests;
 @RunWith(Suite.class)
 @SuiteClasses({
                 CalendarUtilTest.class, //
+                DateBucketUtilTest.class, //
+                DateFormatRegistryTest.class, //
+                DateBatchUtilTest.class, //
+                ClockTest.class, //
 
                 FeiLongDateExtensionUtilSuiteTests.class,
                 FeiLongDateUtilSuiteTests.class,
@@ -18,9 +18,11 @@ package com.feilong.core.date.dateextensionutiltest;
 import static com.feilong.core.date.DateExtensionUtil.getDayStartAndEndPair;
 import static com.feilong.core.date.DateExtensionUtil.getTodayStartAndEndPair;
 import static com.feilong.core.date.DateExtensionUtil.getYesterdayStartAndEndPair;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
 import static com.feilong.core.date.DateUtil.addDay;
 import static com.feilong.core.date.DateUtil.getFirstDateOfThisDay;
 import static com.feilong.core.date.DateUtil.getLastDateOfThisDay;
+import static com.feilong.core.date.DateUtil.toDate;
 import static org.junit.Assert.assertEquals;
 
 import java.util.Date;
@@ -28,6 +30,8 @@ import java.util.Date;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Test;
 
+import com.feilong.core.date.Clock;
+
 /**
  * 
  * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
@@ -54,6 +58,29 @@ public class GetDayStartAndEndPairTest{
         assertEquals(getLastDateOfThisDay(yesteday), pair.getRight());
     }
 
+    @Test
+    public void testGetTodayStartAndEndPairClock(){
+        Clock clock = Clock.fixed(toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME));
+        Pair<Date, Date> pair = getTodayStartAndEndPair(clock);
+
+        assertEquals(toDate("2016-06-16 00:00:00", COMMON_DATE_AND_TIME), pair.getLeft());
+        assertEquals(getLastDateOfThisDay(clock.now()), pair.getRight());
+    }
+
+    @Test
+    public void testGetYesterdayStartAndEndPairClock(){
+        Clock clock = Clock.fixed(toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME));
+        Pair<Date, Date> pair = getYesterdayStartAndEndPair(clock);
+
+        assertEquals(toDate("2016-06-15 00:00:00", COMMON_DATE_AND_TIME), pair.getLeft());
+        assertEquals(getLastDateOfThisDay(toDate("2016-06-15 00:00:00", COMMON_DATE_AND_TIME)), pair.getRight());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGetTodayStartAndEndPairNullClock(){
+        getTodayStartAndEndPair(null);
+    }
+
     //---------------------------------------------------------------
 
     @Test
@@ -17,12 +17,23 @@ package com.feilong.core.date.dateutiltest;
 
 import static com.feilong.core.DatePattern.COMMON_DATE;
 import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME_WITHOUT_SECOND;
+import static com.feilong.core.DatePattern.COMMON_DATE_AND_TIME_WITH_MILLISECOND;
+import static com.feilong.core.DatePattern.COMMON_TIME;
+import static com.feilong.core.DatePattern.YEAR_AND_MONTH;
+import static com.feilong.core.date.DateUtil.addMillisecond;
 import static com.feilong.core.date.DateUtil.isEquals;
 import static com.feilong.core.date.DateUtil.toDate;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 
+import java.util.Date;
+import java.util.Random;
+
 import org.junit.Test;
 
+import com.feilong.core.date.DateUtil;
+
 /**
  * The Class DateUtilIsEqualsTest.
  *
@@ -39,6 +50,64 @@ public class IsEqualsTest{
         assertSame(true, isEquals(toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME), toDate("2016-06-16", COMMON_DATE), COMMON_DATE));
     }
 
+    /**
+     * Test is equals truncate.
+     */
+    @Test
+    public void testIsEqualsTruncate(){
+        Date date = toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME);
+
+        assertSame(true, isEquals(date, toDate("2016-06-16 22:59:59", COMMON_DATE_AND_TIME), COMMON_DATE_AND_TIME_WITHOUT_SECOND));
+        assertSame(false, isEquals(date, toDate("2016-06-16 23:00:00", COMMON_DATE_AND_TIME), COMMON_DATE_AND_TIME_WITHOUT_SECOND));
+        assertSame(true, isEquals(date, toDate("2016-06-16 22:00:00", COMMON_DATE_AND_TIME), "yyyy-MM-dd HH"));
+        assertSame(true, isEquals(date, toDate("2016-06-01", COMMON_DATE), YEAR_AND_MONTH));
+        assertSame(false, isEquals(date, toDate("2016-07-01", COMMON_DATE), YEAR_AND_MONTH));
+        assertSame(true, isEquals(date, toDate("2016-01-01", COMMON_DATE), "yyyy"));
+        assertSame(false, isEquals(date, addMillisecond(date, 1), COMMON_DATE_AND_TIME_WITH_MILLISECOND));
+    }
+
+    /**
+     * Test is equals not truncatable pattern.
+     */
+    @Test
+    public void testIsEqualsNotTruncatablePattern(){
+        Date date = toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME);
+
+        assertSame(true, isEquals(date, toDate("2017-06-16 22:59:00", COMMON_DATE_AND_TIME), "MM-dd"));
+        assertSame(true, isEquals(date, toDate("2017-06-16 22:59:00", COMMON_DATE_AND_TIME), COMMON_TIME));
+        assertSame(true, isEquals(date, toDate("1916-06-16", COMMON_DATE), "yy-MM-dd"));
+        assertSame(true, isEquals(date, toDate("2016-06-16 10:59:00", COMMON_DATE_AND_TIME), "yyyy-MM-dd hh:mm"));
+    }
+
+    /**
+     * Test is equals same as string compare.
+     */
+    @Test
+    public void testIsEqualsSameAsStringCompare(){
+        String[] patterns = {
+                              COMMON_DATE,
+                              COMMON_DATE_AND_TIME,
+                              COMMON_DATE_AND_TIME_WITHOUT_SECOND,
+                              COMMON_DATE_AND_TIME_WITH_MILLISECOND,
+                              YEAR_AND_MONTH,
+                              "yyyy",
+                              "yyyy-MM-dd HH",
+                              "yyyyMMdd",
+                              "yyyy-DDD",
+                              "yyyy-MM-dd EEE",
+                              "yyyy'year'MM'month'" };
+
+        Random random = new Random(20160616L);
+        long base = toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME).getTime();
+        for (int i = 0; i < 20000; ++i){
+            Date date1 = new Date(base + random.nextInt(Integer.MAX_VALUE) * 10L);
+            Date date2 = new Date(date1.getTime() + (random.nextInt(2000000) - 1000000) * (i % 2 == 0 ? 1L : 1000L));
+            for (String pattern : patterns){
+                assertEquals(pattern, DateUtil.toString(date1, pattern).equals(DateUtil.toString(date2, pattern)), isEquals(date1, date2, pattern));
+            }
+        }
+    }
+
     //---------------------------------------------------------------
 
     /**
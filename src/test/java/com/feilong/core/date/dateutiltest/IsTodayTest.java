@@ -24,6 +24,8 @@ import java.util.Date;
 
 import org.junit.Test;
 
+import com.feilong.core.date.Clock;
+
 public class IsTodayTest{
 
     /**
@@ -35,8 +37,38 @@ public class IsTodayTest{
         assertSame(true, isToday(new Date()));
     }
 
+    /**
+     * Test is today clock.
+     */
+    @Test
+    public void testIsTodayClock(){
+        Clock clock = Clock.fixed(toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME));
+
+        assertSame(true, isToday(toDate("2016-06-16 00:00:00", COMMON_DATE_AND_TIME), clock));
+        assertSame(true, isToday(toDate("2016-06-16 23:59:59", COMMON_DATE_AND_TIME), clock));
+        assertSame(false, isToday(toDate("2016-06-17 00:00:00", COMMON_DATE_AND_TIME), clock));
+    }
+
+    /**
+     * Test is today default clock.
+     */
+    @Test
+    public void testIsTodayDefaultClock(){
+        Clock.setDefault(Clock.fixed(toDate("2016-06-16 22:59:00", COMMON_DATE_AND_TIME)));
+        try{
+            assertSame(true, isToday(toDate("2016-06-16 08:00:00", COMMON_DATE_AND_TIME)));
+        }finally{
+            Clock.setDefault(null);
+        }
+    }
+
     //---------------------------------------------------------------
 
+    @Test(expected = NullPointerException.class)
+    public void testIsTodayNullClock(){
+        isToday(new Date(), null);
+    }
+
     @Test(expected = NullPointerException.class)
     public void testIsTodayNullDate(){
         isToday(null);
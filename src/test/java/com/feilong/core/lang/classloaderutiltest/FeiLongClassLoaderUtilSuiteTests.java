@@ -29,6 +29,7 @@ import org.junit.runners.Suite.SuiteClasses;
                 GetResourceTest.class,
                 GetResourceInAllClassLoaderTest.class,
                 GetResourceAsStreamTest.class,
+                ResourceLookupCacheTest.class,
         //
 })
 public class FeiLongClassLoaderUtilSuiteTests{
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.classloaderutiltest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.feilong.core.lang.ClassLoaderUtil;
+import com.feilong.core.lang.ResourceLookupCache;
+
+/**
+ * The Class ResourceLookupCacheTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class ResourceLookupCacheTest{
+
+    /** The directory. */
+    private File        directory;
+
+    /** The context class loader. */
+    private ClassLoader contextClassLoader;
+
+    //---------------------------------------------------------------
+
+    /**
+     * Before.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Before
+    public void before() throws IOException{
+        directory = Files.createTempDirectory("feilong-resource").toFile();
+        contextClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[] { directory.toURI().toURL() }, contextClassLoader));
+    }
+
+    /**
+     * After.
+     */
+    @After
+    public void after(){
+        Thread.currentThread().setContextClassLoader(contextClassLoader);
+        for (File file : directory.listFiles()){
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test get resource.
+     */
+    @Test
+    public void testGetResource(){
+        ResourceLookupCache resourceLookupCache = new ResourceLookupCache(10, 0);
+
+        String resourceName = "messages/feilong-core-test.properties";
+        URL url = resourceLookupCache.getResource(resourceName, getClass());
+        assertEquals(ClassLoaderUtil.getResourceInAllClassLoader(resourceName, getClass()), url);
+        assertEquals(url, resourceLookupCache.getResource("/" + resourceName, getClass()));
+
+        assertEquals(1, resourceLookupCache.getHitCount());
+        assertEquals(1, resourceLookupCache.size());
+    }
+
+    /**
+     * Test get resource bootstrap calling class.
+     */
+    @Test
+    public void testGetResourceBootstrapCallingClass(){
+        ResourceLookupCache resourceLookupCache = new ResourceLookupCache(10, 0);
+
+        //String.class 的 ClassLoader 是null
+        String resourceName = "messages/feilong-core-test.properties";
+        URL url = resourceLookupCache.getResource(resourceName, String.class);
+        assertNotNull(url);
+        assertEquals(url, resourceLookupCache.getResource(resourceName, String.class));
+
+        assertEquals(1, resourceLookupCache.getHitCount());
+        assertEquals(1, resourceLookupCache.size());
+    }
+
+    /**
+     * Test get resource null calling class.
+     */
+    @Test
+    public void testGetResourceNullCallingClass(){
+        ResourceLookupCache resourceLookupCache = new ResourceLookupCache(10, 0);
+
+        String resourceName = "messages/feilong-core-test.properties";
+        URL url = resourceLookupCache.getResource(resourceName, null);
+        assertEquals(ClassLoaderUtil.getResourceInAllClassLoader(resourceName, null), url);
+        assertEquals(url, resourceLookupCache.getResource(resourceName, null));
+
+        //callingClass 的 ClassLoader 和已经参与查找的相同,同一个key
+        assertEquals(url, resourceLookupCache.getResource(resourceName, getClass()));
+
+        assertEquals(2, resourceLookupCache.getHitCount());
+        assertEquals(1, resourceLookupCache.size());
+    }
+
+    /**
+     * Test negative and invalidate.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    public void testNegativeAndInvalidate() throws IOException{
+        ResourceLookupCache resourceLookupCache = new ResourceLookupCache(10, 0);
+
+        assertNull(resourceLookupCache.getResource("feilong.txt", getClass()));
+        write("feilong.txt", "feilong");
+        assertNull(resourceLookupCache.getResource("feilong.txt", getClass()));
+
+        resourceLookupCache.invalidate("/feilong.txt");
+        assertNotNull(resourceLookupCache.getResource("feilong.txt", getClass()));
+    }
+
+    /**
+     * Test different context class loader.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    public void testDifferentContextClassLoader() throws IOException{
+        ResourceLookupCache resourceLookupCache = new ResourceLookupCache(10, 0);
+        write("feilong.txt", "feilong");
+        assertNotNull(resourceLookupCache.getResource("feilong.txt", getClass()));
+
+        Thread.currentThread().setContextClassLoader(contextClassLoader);
+        assertNull(resourceLookupCache.getResource("feilong.txt", getClass()));
+        assertEquals(2, resourceLookupCache.size());
+    }
+
+    /**
+     * Test get resource as stream buffered.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    public void testGetResourceAsStreamBuffered() throws IOException{
+        ResourceLookupCache resourceLookupCache = new ResourceLookupCache(10, 10);
+        write("small.txt", "飞天");
+        write("large.txt", "feilong-feilong");
+
+        assertEquals("飞天", read(resourceLookupCache.getResourceAsStream("small.txt", getClass())));
+        write("small.txt", "changed");
+        InputStream inputStream = resourceLookupCache.getResourceAsStream("small.txt", getClass());
+        assertTrue(inputStream instanceof ByteArrayInputStream);
+        assertEquals("飞天", read(inputStream));
+
+        assertEquals("feilong-feilong", read(resourceLookupCache.getResourceAsStream("large.txt", getClass())));
+        assertEquals("feilong-feilong", read(resourceLookupCache.getResourceAsStream("large.txt", getClass())));
+
+        resourceLookupCache.invalidateAll();
+        assertEquals("changed", read(resourceLookupCache.getResourceAsStream("small.txt", getClass())));
+        assertNull(resourceLookupCache.getResourceAsStream("notexist", getClass()));
+    }
+
+    /**
+     * Test get resource null resource name.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testGetResourceNullResourceName(){
+        ResourceLookupCache.getDefault().getResource(null, getClass());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Write.
+     *
+     * @param fileName
+     *            the file name
+     * @param content
+     *            the content
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void write(String fileName,String content) throws IOException{
+        Files.write(new File(directory, fileName).toPath(), content.getBytes(UTF_8));
+    }
+
+    /**
+     * Read.
+     *
+     * @param inputStream
+     *            the input stream
+     * @return the string
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static String read(InputStream inputStream) throws IOException{
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[3];
+        int count;
+        while ((count = inputStream.read(buffer)) != -1){
+            byteArrayOutputStream.write(buffer, 0, count);
+        }
+        inputStream.close();
+        return new String(byteArrayOutputStream.toByteArray(), UTF_8);
+    }
+}
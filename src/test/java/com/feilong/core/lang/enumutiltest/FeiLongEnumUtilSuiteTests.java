@@ -31,6 +31,7 @@ import org.junit.runners.Suite.SuiteClasses;
 
                 GetEnumByPropertyValueIgnoreCaseTest.class,
                 GetEnumByPropertyValueIgnoreCaseParameterizedTest.class,
+                GetEnumByPropertyValueIndexTest.class,
         //
 })
 public class FeiLongEnumUtilSuiteTests{
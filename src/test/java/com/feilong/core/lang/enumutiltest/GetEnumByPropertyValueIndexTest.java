@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.enumutiltest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.feilong.core.bean.BeanOperationException;
+import com.feilong.core.lang.EnumUtil;
+
+/**
+ * 索引查找和逐个比较规则一致的测试.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class GetEnumByPropertyValueIndexTest{
+
+    /**
+     * Test first declared wins.
+     */
+    @Test
+    public void testFirstDeclaredWins(){
+        assertEquals(OrderStatus.NEW, EnumUtil.getEnumByPropertyValue(OrderStatus.class, "code", "10"));
+        assertEquals(OrderStatus.NEW, EnumUtil.getEnumByPropertyValueIgnoreCase(OrderStatus.class, "name2", "Created"));
+    }
+
+    /**
+     * Test to string compare.
+     */
+    @Test
+    public void testToStringCompare(){
+        assertEquals(OrderStatus.PAID, EnumUtil.getEnumByPropertyValue(OrderStatus.class, "code", 20));
+        assertEquals(OrderStatus.PAID, EnumUtil.getEnumByPropertyValue(OrderStatus.class, "code", "20"));
+        assertEquals(OrderStatus.PAID, EnumUtil.getEnumByPropertyValue(OrderStatus.class, "code", 20L));
+        assertNull(EnumUtil.getEnumByPropertyValue(OrderStatus.class, "code", " 20"));
+    }
+
+    /**
+     * Test null property value.
+     */
+    @Test
+    public void testNullPropertyValue(){
+        assertEquals(OrderStatus.PAID, EnumUtil.getEnumByPropertyValue(OrderStatus.class, "name2", null));
+        assertEquals(OrderStatus.PAID, EnumUtil.getEnumByPropertyValueIgnoreCase(OrderStatus.class, "name2", null));
+        assertNull(EnumUtil.getEnumByPropertyValue(OrderStatus.class, "name2", "null"));
+    }
+
+    /**
+     * Test ignore case.
+     */
+    @Test
+    public void testIgnoreCase(){
+        assertEquals(OrderStatus.NEW_DUPLICATE, EnumUtil.getEnumByPropertyValue(OrderStatus.class, "name2", "CREATED"));
+        assertNull(EnumUtil.getEnumByPropertyValue(OrderStatus.class, "name2", "Created"));
+        assertEquals(OrderStatus.NEW, EnumUtil.getEnumByPropertyValueIgnoreCase(OrderStatus.class, "name2", "CREATED"));
+        assertEquals(OrderStatus.CANCELED, EnumUtil.getEnumByPropertyValueIgnoreCase(OrderStatus.class, "name2", "straße"));
+        assertEquals(OrderStatus.CANCELED, EnumUtil.getEnumByPropertyValueIgnoreCase(OrderStatus.class, "name2", "STRAßE"));
+        assertNull(EnumUtil.getEnumByPropertyValueIgnoreCase(OrderStatus.class, "name2", "STRASSE"));
+    }
+
+    /**
+     * Test same as equals ignore case.
+     */
+    @Test
+    public void testSameAsEqualsIgnoreCase(){
+        for (char c = 0; c < Character.MAX_VALUE; ++c){
+            String value = String.valueOf(c);
+            assertEquals(value, scanIgnoreCase(value), EnumUtil.getEnumByPropertyValueIgnoreCase(OrderStatus.class, "special", value));
+        }
+    }
+
+    /**
+     * 逐个比较查找.
+     *
+     * @param value
+     *            the value
+     * @return the order status
+     */
+    private static OrderStatus scanIgnoreCase(String value){
+        for (OrderStatus orderStatus : OrderStatus.values()){
+            if (null != orderStatus.getSpecial() && orderStatus.getSpecial().equalsIgnoreCase(value)){
+                return orderStatus;
+            }
+        }
+        return null;
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test not exist property.
+     */
+    @Test(expected = BeanOperationException.class)
+    public void testNotExistProperty(){
+        EnumUtil.getEnumByPropertyValue(OrderStatus.class, "code2222", "10");
+    }
+
+    /**
+     * Test not exist property again, 建立索引失败不会缓存.
+     */
+    @Test(expected = BeanOperationException.class)
+    public void testNotExistPropertyAgain(){
+        try{
+            EnumUtil.getEnumByPropertyValue(OrderStatus.class, "code3333", "10");
+        }catch (BeanOperationException e){
+            //ignore
+        }
+        EnumUtil.getEnumByPropertyValue(OrderStatus.class, "code3333", "10");
+    }
+
+    /**
+     * Test not enum class.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testNotEnumClass(){
+        @SuppressWarnings("unchecked")
+        Class<OrderStatus> klass = (Class<OrderStatus>) (Class<?>) String.class;
+        EnumUtil.getEnumByPropertyValue(klass, "code", "10");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * The Enum OrderStatus.
+     */
+    public enum OrderStatus{
+
+        /** The new. */
+        NEW(10, "created", "a"),
+
+        /** The new duplicate. */
+        NEW_DUPLICATE(10, "CREATED", "b"),
+
+        /** The paid. */
+        PAID(20, null, "c"),
+
+        /** The canceled. */
+        CANCELED(30, "straße", null),
+
+        /** The special. */
+        SPECIAL(40, "special", "İ");
+
+        /** The code. */
+        private final Integer code;
+
+        /** The name2. */
+        private final String  name2;
+
+        /** The special. */
+        private final String  special;
+
+        /**
+         * Instantiates a new order status.
+         *
+         * @param code
+         *            the code
+         * @param name2
+         *            the name 2
+         * @param special
+         *            the special
+         */
+        private OrderStatus(Integer code, String name2, String special){
+            this.code = code;
+            this.name2 = name2;
+            this.special = special;
+        }
+
+        /**
+         * Gets the code.
+         *
+         * @return the code
+         */
+        public Integer getCode(){
+            return code;
+        }
+
+        /**
+         * Gets the name 2.
+         *
+         * @return the name 2
+         */
+        public String getName2(){
+            return name2;
+        }
+
+        /**
+         * Gets the special.
+         *
+         * @return the special
+         */
+        public String getSpecial(){
+            return special;
+        }
+    }
+}
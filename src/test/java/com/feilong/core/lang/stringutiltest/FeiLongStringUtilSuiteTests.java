@@ -41,6 +41,8 @@ import org.junit.runners.Suite.SuiteClasses;
                 SubstringWithoutLastLastStringTest.class,
                 TokenizeToStringArrayTest.class,
                 TokenizeToStringArrayWithArgsTest.class,
+                TokenizeTest.class,
+                StringTemplateTest.class,
         //
 })
 public class FeiLongStringUtilSuiteTests{
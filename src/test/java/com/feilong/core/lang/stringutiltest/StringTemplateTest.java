@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.stringutiltest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.lang3.text.StrSubstitutor;
+import org.junit.Test;
+
+import com.feilong.core.lang.StringTemplate;
+
+/**
+ * The Class StringTemplateTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class StringTemplateTest{
+
+    /**
+     * Test render.
+     */
+    @Test
+    public void testRender(){
+        Map<String, Object> valuesMap = new HashMap<>();
+        valuesMap.put("yearMonth", "2016-11");
+        valuesMap.put("type", "sf");
+        valuesMap.put("id", 5L);
+
+        StringTemplate template = StringTemplate.compile("/home/${yearMonth}/${type}/vipQuery_${id}${missing}.log");
+        assertEquals("/home/2016-11/sf/vipQuery_5${missing}.log", template.render(valuesMap));
+        assertEquals("/home/${yearMonth}/${type}/vipQuery_${id}${missing}.log", template.render(null));
+    }
+
+    /**
+     * Test escape and default value.
+     */
+    @Test
+    public void testEscapeAndDefaultValue(){
+        Map<String, Object> valuesMap = new HashMap<>();
+        valuesMap.put("name", "feilong");
+
+        assertEquals("${name}-feilong", StringTemplate.compile("$${name}-${name}").render(valuesMap));
+        assertEquals("feilong-guest", StringTemplate.compile("${name:-nobody}-${nick:-guest}").render(valuesMap));
+        assertEquals("${name}", StringTemplate.compile("$${name}").render(null));
+    }
+
+    /**
+     * Test recursive value.
+     */
+    @Test
+    public void testRecursiveValue(){
+        Map<String, Object> valuesMap = new HashMap<>();
+        valuesMap.put("a", "${b}!");
+        valuesMap.put("b", "feilong");
+        assertEquals("feilong!", StringTemplate.compile("${a}").render(valuesMap));
+    }
+
+    /**
+     * Test cyclic value.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testCyclicValue(){
+        Map<String, Object> valuesMap = new HashMap<>();
+        valuesMap.put("a", "${a}");
+        StringTemplate.compile("${a}").render(valuesMap);
+    }
+
+    /**
+     * Test render to.
+     */
+    @Test
+    public void testRenderTo(){
+        Map<String, Object> valuesMap = new HashMap<>();
+        valuesMap.put("name", "feilong");
+
+        StringWriter writer = new StringWriter();
+        StringTemplate.compile("hello ${name}").renderTo(writer, valuesMap);
+        assertEquals("hello feilong", writer.toString());
+
+        assertEquals("[no variable", StringTemplate.compile("no variable").renderTo(new StringBuilder("["), valuesMap).toString());
+    }
+
+    /**
+     * Test render bean.
+     */
+    @Test
+    public void testRenderBean(){
+        Map<String, Object> user = new HashMap<>();
+        user.put("id", 1L);
+
+        Map<String, Object> bean = new HashMap<>();
+        bean.put("user", user);
+
+        StringTemplate template = StringTemplate.compile("${user.id}-${user.name:-guest}-${user.age}-${}");
+        assertEquals("1-guest-${user.age}-${}", template.renderBean(bean));
+    }
+
+    /**
+     * Test compile cache.
+     */
+    @Test
+    public void testCompileCache(){
+        assertSame(StringTemplate.compile("cache ${name}"), StringTemplate.compile("cache ${name}"));
+    }
+
+    /**
+     * Test same as str substitutor.
+     */
+    @Test
+    public void testSameAsStrSubstitutor(){
+        Map<String, Object> valuesMap = new HashMap<>();
+        valuesMap.put("a", "A");
+        valuesMap.put("b", "x$");
+        valuesMap.put("c", "${a}");
+        valuesMap.put("", "empty");
+        valuesMap.put("a:", "colon");
+
+        Random random = new Random(20181018L);
+        char[] alphabet = { '$', '{', '}', 'a', 'b', 'c', ':', '-', 'z' };
+        for (int i = 0; i < 20000; ++i){
+            char[] chars = new char[random.nextInt(14)];
+            for (int j = 0; j < chars.length; ++j){
+                chars[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+            String template = new String(chars);
+            assertEquals(template, replaceUseStrSubstitutor(template, valuesMap), renderUseTemplate(template, valuesMap));
+            assertEquals(template, replaceUseStrSubstitutor(template, null), renderUseTemplate(template, null));
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test compile null.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testCompileNull(){
+        StringTemplate.compile(null);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Replace use str substitutor.
+     *
+     * @param template
+     *            the template
+     * @param valuesMap
+     *            the values map
+     * @return the string
+     */
+    private static String replaceUseStrSubstitutor(String template,Map<String, Object> valuesMap){
+        try{
+            return StrSubstitutor.replace(template, valuesMap);
+        }catch (IllegalStateException e){
+            return e.getClass().getName();
+        }
+    }
+
+    /**
+     * Render use template.
+     *
+     * @param template
+     *            the template
+     * @param valuesMap
+     *            the values map
+     * @return the string
+     */
+    private static String renderUseTemplate(String template,Map<String, Object> valuesMap){
+        try{
+            return StringTemplate.compile(template).render(valuesMap);
+        }catch (IllegalStateException e){
+            return e.getClass().getName();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.lang.stringutiltest;
+
+import static com.feilong.core.bean.ConvertUtil.toArray;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.StringTokenizer;
+
+import org.junit.Test;
+
+import com.feilong.core.lang.CharSequenceTokenizer;
+import com.feilong.core.lang.StringUtil;
+
+/**
+ * The Class TokenizeTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class TokenizeTest{
+
+    /**
+     * Test single delimiter.
+     */
+    @Test
+    public void testSingleDelimiter(){
+        assertArrayEquals(toArray("a=1", "", "b=2", ""), tokens(StringUtil.tokenize("a=1&&b=2&", '&', false, false)));
+        assertArrayEquals(toArray("a=1", "b=2"), tokens(StringUtil.tokenize("a=1&&b=2&", '&', false, true)));
+        assertArrayEquals(toArray(""), tokens(StringUtil.tokenize("", '&', false, false)));
+        assertArrayEquals(new String[0], tokens(StringUtil.tokenize("", '&', false, true)));
+    }
+
+    /**
+     * Test trim.
+     */
+    @Test
+    public void testTrim(){
+        assertArrayEquals(toArray("name asc", "", "id  desc"), tokens(StringUtil.tokenize(" name asc ,\t, id  desc ", ",", true, false)));
+        assertArrayEquals(toArray("name asc", "id  desc"), tokens(StringUtil.tokenize(" name asc ,\t, id  desc ", ",", true, true)));
+    }
+
+    /**
+     * Test offsets.
+     */
+    @Test
+    public void testOffsets(){
+        StringBuilder text = new StringBuilder("name asc, id  desc");
+        CharSequenceTokenizer tokenizer = StringUtil.tokenize(text, ",", true, true);
+
+        assertTrue(tokenizer.next());
+        assertEquals(0, tokenizer.start());
+        assertEquals(8, tokenizer.end());
+        assertEquals(8, tokenizer.length());
+        assertTrue(tokenizer.tokenEquals("name asc"));
+        assertTrue(tokenizer.tokenEqualsIgnoreCase("NAME ASC"));
+        assertFalse(tokenizer.tokenEquals("NAME ASC"));
+        assertFalse(tokenizer.tokenEquals(null));
+
+        assertTrue(tokenizer.next());
+        assertEquals(10, tokenizer.start());
+        assertEquals(18, tokenizer.end());
+        assertEquals("[id  desc", tokenizer.appendTo(new StringBuilder("[")).toString());
+
+        assertFalse(tokenizer.next());
+        assertFalse(tokenizer.next());
+    }
+
+    /**
+     * Test multiple delimiters.
+     */
+    @Test
+    public void testMultipleDelimiters(){
+        String str = "jin.xin  feilong ,jinxin;venusdrogon;jim ";
+        assertArrayEquals(
+                        toArray("jin", "xin", "feilong", "jinxin", "venusdrogon", "jim"),
+                        tokens(StringUtil.tokenize(str, ";, .", true, true)));
+    }
+
+    /**
+     * Test reset and count.
+     */
+    @Test
+    public void testResetAndCount(){
+        CharSequenceTokenizer tokenizer = StringUtil.tokenize("a b c", ' ', false, true);
+        assertEquals(3, tokenizer.countTokens());
+        assertTrue(tokenizer.next());
+        assertEquals(2, tokenizer.countTokens());
+        assertEquals("a", tokenizer.token());
+
+        tokenizer.reset();
+        assertEquals(3, tokenizer.countTokens());
+
+        tokenizer.reset("x  y");
+        assertArrayEquals(toArray("x", "y"), tokens(tokenizer));
+    }
+
+    /**
+     * Test same as string tokenizer.
+     */
+    @Test
+    public void testSameAsStringTokenizer(){
+        Random random = new Random(20181018L);
+        char[] alphabet = { 'a', 'b', ' ', '\t', ',', ';', '.' };
+        for (int i = 0; i < 2000; ++i){
+            char[] chars = new char[random.nextInt(12)];
+            for (int j = 0; j < chars.length; ++j){
+                chars[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+            String str = new String(chars);
+            for (String delimiters : toArray(",", ";,", " .\t")){
+                for (boolean trimTokens : new boolean[] { true, false }){
+                    assertArrayEquals(
+                                    str + "|" + delimiters,
+                                    tokenizeUseStringTokenizer(str, delimiters, trimTokens),
+                                    StringUtil.tokenizeToStringArray(str, delimiters, trimTokens, true));
+                }
+            }
+            assertArrayEquals(str, str.split(",", -1), tokens(StringUtil.tokenize(str, ',', false, false)));
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test token before next.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testTokenBeforeNext(){
+        StringUtil.tokenize("a", ',', false, false).token();
+    }
+
+    /**
+     * Test tokenize null text.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testTokenizeNullText(){
+        StringUtil.tokenize(null, ",", false, false);
+    }
+
+    /**
+     * Test tokenize empty delimiters.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTokenizeEmptyDelimiters(){
+        StringUtil.tokenize("a", "", false, false);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Tokens.
+     *
+     * @param tokenizer
+     *            the tokenizer
+     * @return the string[]
+     */
+    private static String[] tokens(CharSequenceTokenizer tokenizer){
+        List<String> list = new ArrayList<>();
+        while (tokenizer.next()){
+            list.add(tokenizer.token());
+        }
+        return list.toArray(new String[list.size()]);
+    }
+
+    /**
+     * Tokenize use string tokenizer.
+     *
+     * @param str
+     *            the str
+     * @param delimiters
+     *            the delimiters
+     * @param trimTokens
+     *            the trim tokens
+     * @return the string[]
+     */
+    private static String[] tokenizeUseStringTokenizer(String str,String delimiters,boolean trimTokens){
+        List<String> list = new ArrayList<>();
+        StringTokenizer stringTokenizer = new StringTokenizer(str, delimiters);
+        while (stringTokenizer.hasMoreTokens()){
+            String token = stringTokenizer.nextToken();
+            token = trimTokens ? token.trim() : token;
+            if (token.length() > 0){
+                list.add(token);
+            }
+        }
+        return list.toArray(new String[list.size()]);
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.net.paramutiltest;
+
+import static com.feilong.core.util.SortUtil.sortMapByKeyAsc;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.Test;
+
+import com.feilong.core.net.CanonicalStringBuilder;
+import com.feilong.core.net.ParamUtil;
+
+/**
+ * The Class CanonicalStringBuilderTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class CanonicalStringBuilderTest{
+
+    /**
+     * Test build.
+     */
+    @Test
+    public void testBuild(){
+        Map<String, String> map = new HashMap<>();
+        map.put("service", "create_salesorder");
+        map.put("_input_charset", "gbk");
+        map.put("totalActual", null);
+        map.put(null, "jim");
+
+        assertEquals("=jim&_input_charset=gbk&service=create_salesorder&totalActual=", CanonicalStringBuilder.forQueryString().build(map));
+        assertEquals("jim_input_charsetgbkservicecreate_salesordertotalActual", CanonicalStringBuilder.forKeyJoinValue().build(map));
+        assertEquals("=jim, _input_charset=gbk, service=create_salesorder, totalActual=", new CanonicalStringBuilder("=", ", ").build(map));
+
+        assertEquals("", CanonicalStringBuilder.forQueryString().build(null));
+        assertEquals("", CanonicalStringBuilder.forQueryString().build(new HashMap<String, String>()));
+    }
+
+    /**
+     * Test append to.
+     */
+    @Test
+    public void testAppendTo(){
+        Map<String, String> map = new HashMap<>();
+        map.put("b", "2");
+        map.put("a", "1");
+
+        StringBuilder sb = new StringBuilder("?");
+        assertSame(sb, CanonicalStringBuilder.forQueryString().appendTo(sb, map));
+        assertEquals("?a=1&b=2", sb.toString());
+    }
+
+    /**
+     * Test update message digest.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void testUpdateMessageDigest() throws Exception{
+        Map<String, String> map = new HashMap<>();
+        map.put("address", "江苏南通市通州区888组888号");
+        map.put("totalActual", "210.00");
+
+        String queryString = ParamUtil.toNaturalOrderingQueryString(map);
+
+        MessageDigest messageDigest = MessageDigest.getInstance("MD5");
+        assertSame(messageDigest, CanonicalStringBuilder.forQueryString().update(messageDigest, map, UTF_8));
+        assertArrayEquals(MessageDigest.getInstance("MD5").digest(queryString.getBytes(UTF_8)), messageDigest.digest());
+    }
+
+    /**
+     * Test update mac.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void testUpdateMac() throws Exception{
+        Map<String, String> map = new HashMap<>();
+        map.put("address", "江苏南通市通州区888组888号");
+        map.put("totalActual", "210.00");
+
+        Mac mac = newMac();
+        assertSame(mac, CanonicalStringBuilder.forKeyJoinValue().update(mac, map, UTF_8));
+        assertArrayEquals(newMac().doFinal(ParamUtil.toNaturalOrderingKeyJoinValue(map).getBytes(UTF_8)), mac.doFinal());
+    }
+
+    /**
+     * Test same as sort map by key asc.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void testSameAsSortMapByKeyAsc() throws Exception{
+        Random random = new Random(20181018L);
+        String[] alphabet = { "a", "B", "飞", "😀", "\ud83d", "\ude00", "=", "&", "é" };
+        Charset[] charsets = { UTF_8, Charset.forName("GBK"), Charset.forName("ISO-8859-1"), Charset.forName("UTF-16") };
+
+        CanonicalStringBuilder builder = CanonicalStringBuilder.forQueryString();
+        for (int i = 0; i < 500; ++i){
+            Map<String, String> map = new LinkedHashMap<>();
+            for (int j = random.nextInt(8); j > 0; --j){
+                map.put(random.nextInt(10) == 0 ? null : randomString(random, alphabet, 4), randomString(random, alphabet, 600));
+            }
+
+            String expected = ParamUtil.toQueryStringUseSingleValueMap(sortMapByKeyAsc(map));
+            assertEquals(expected, builder.build(map));
+            assertEquals(expected, ParamUtil.toNaturalOrderingQueryString(map));
+
+            for (Charset charset : charsets){
+                MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+                builder.update(messageDigest, map, charset);
+                assertArrayEquals(
+                                expected + "|" + charset,
+                                MessageDigest.getInstance("SHA-256").digest(expected.getBytes(charset)),
+                                messageDigest.digest());
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test update null charset.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test(expected = NullPointerException.class)
+    public void testUpdateNullCharset() throws Exception{
+        CanonicalStringBuilder.forQueryString().update(MessageDigest.getInstance("MD5"), new HashMap<String, String>(), null);
+    }
+
+    /**
+     * Test update null message digest.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testUpdateNullMessageDigest(){
+        CanonicalStringBuilder.forQueryString().update((MessageDigest) null, new HashMap<String, String>(), UTF_8);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * New mac.
+     *
+     * @return the mac
+     * @throws Exception
+     *             the exception
+     */
+    private static Mac newMac() throws Exception{
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec("feilong".getBytes(UTF_8), "HmacSHA256"));
+        return mac;
+    }
+
+    /**
+     * Random string.
+     *
+     * @param random
+     *            the random
+     * @param alphabet
+     *            the alphabet
+     * @param maxLength
+     *            the max length
+     * @return the string
+     */
+    private static String randomString(Random random,String[] alphabet,int maxLength){
+        StringBuilder sb = new StringBuilder();
+        for (int j = random.nextInt(maxLength); j > 0; --j){
+            sb.append(alphabet[random.nextInt(alphabet.length)]);
+        }
+        return sb.toString();
+    }
+}
@@ -30,6 +30,7 @@ import org.junit.runners.Suite.SuiteClasses;
                 AddParameterArrayValueMapTest.class,
                 AddParameterSingleValueMapTest.class,
                 AddParameterTest.class,
+                CanonicalStringBuilderTest.class,
                 JoinValuesOrderByIncludeKeysTest.class,
 
                 ToNaturalOrderingQueryStringTest.class,
@@ -38,6 +39,10 @@ import org.junit.runners.Suite.SuiteClasses;
                 ToQueryStringUseArrayValueMapTest.class,
                 ToQueryStringUseSingleValueMapTest.class,
                 ToSingleValueMapTest.class,
+                ToSingleValueMapParserTest.class,
+
+                URIStringBuilderTest.class,
+                FormUrlEncodedDecoderTest.class,
         //                
 })
 public class FeiLongParamUtilSuiteTests{
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.net.paramutiltest;
+
+import static com.feilong.core.CharsetType.GBK;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.net.FormParameterHandler;
+import com.feilong.core.net.FormUrlEncodedDecoder;
+
+/**
+ * The Class FormUrlEncodedDecoderTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class FormUrlEncodedDecoderTest{
+
+    /** The Constant DECODER. */
+    private static final FormUrlEncodedDecoder DECODER = FormUrlEncodedDecoder.builder().build();
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test to single value map.
+     */
+    @Test
+    public void testToSingleValueMap(){
+        Map<String, String> map = DECODER.toSingleValueMap(toInputStream("label=%E9%A3%9E%E5%A4%A9+feilong&&a=1&a=2&b&=c&d=x=y&"));
+        assertEquals("{label=飞天 feilong, a=1, b=, =c, d=x=y}", map.toString());
+    }
+
+    /**
+     * Test to array value map.
+     */
+    @Test
+    public void testToArrayValueMap(){
+        Map<String, String[]> map = DECODER.toArrayValueMap(toInputStream("a=1&b=%E4%B8%AD&a=2"));
+        assertArrayEquals(new String[] { "1", "2" }, map.get("a"));
+        assertArrayEquals(new String[] { "中" }, map.get("b"));
+    }
+
+    /**
+     * Test charset type.
+     */
+    @Test
+    public void testCharsetType(){
+        FormUrlEncodedDecoder decoder = FormUrlEncodedDecoder.builder().charsetType(GBK).build();
+        assertEquals("{a=中国}", decoder.toSingleValueMap(toInputStream("a=%D6%D0%B9%FA")).toString());
+    }
+
+    /**
+     * Test decode byte buffer.
+     */
+    @Test
+    public void testDecodeByteBuffer(){
+        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(32);
+        byteBuffer.put("xxa=%E4%B8%AD".getBytes(US_ASCII)).flip();
+        byteBuffer.position(2);
+
+        List<String> list = new ArrayList<>();
+        DECODER.decode(byteBuffer, newCollectHandler(list));
+        assertEquals("[a, 中]", list.toString());
+        assertEquals(byteBuffer.limit(), byteBuffer.position());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test illegal hex.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalHex(){
+        DECODER.toSingleValueMap(toInputStream("a=%E9%g3"));
+    }
+
+    /**
+     * Test incomplete escape.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncompleteEscape(){
+        DECODER.toSingleValueMap(toInputStream("a=%E"));
+    }
+
+    /**
+     * Test max parameter count.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxParameterCount(){
+        FormUrlEncodedDecoder.builder().maxParameterCount(2).build().toSingleValueMap(toInputStream("a=1&b=2&c=3"));
+    }
+
+    /**
+     * Test max value length.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxValueLength(){
+        FormUrlEncodedDecoder decoder = FormUrlEncodedDecoder.builder().maxValueLength(3).build();
+        assertEquals("{a=中}", decoder.toSingleValueMap(toInputStream("a=%E4%B8%AD")).toString());
+        decoder.toSingleValueMap(toInputStream("a=1234"));
+    }
+
+    /**
+     * Test max name length.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxNameLength(){
+        FormUrlEncodedDecoder.builder().maxNameLength(3).build().toSingleValueMap(toInputStream("abcd"));
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test same as URL decoder.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void testSameAsURLDecoder() throws Exception{
+        Random random = new Random(20181018L);
+        String[] alphabet = { "a", "&", "=", "+", "%20", "%E9%A3%9E", "%e6%81%a4", "%26", "%3D", "%C3", "%FF", "-", "*" };
+
+        for (int i = 0; i < 2000; ++i){
+            StringBuilder sb = new StringBuilder();
+            for (int j = random.nextInt(30); j > 0; --j){
+                sb.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String body = sb.toString();
+
+            List<String> expected = new ArrayList<>();
+            for (String segment : body.split("&")){
+                if (segment.isEmpty()){
+                    continue;
+                }
+                String[] pair = segment.split("=", 2);
+                expected.add(URLDecoder.decode(pair[0], "UTF-8"));
+                expected.add(pair.length == 1 ? "" : URLDecoder.decode(pair[1], "UTF-8"));
+            }
+
+            FormUrlEncodedDecoder decoder = FormUrlEncodedDecoder.builder().bufferSize(1 + random.nextInt(7)).build();
+            byte[] bytes = body.getBytes(US_ASCII);
+
+            List<String> list = new ArrayList<>();
+            decoder.decode(new ByteArrayInputStream(bytes), newCollectHandler(list));
+            assertEquals(body, expected, list);
+
+            list.clear();
+            decoder.decode(Channels.newChannel(new ByteArrayInputStream(bytes)), newCollectHandler(list));
+            assertEquals(body, expected, list);
+
+            list.clear();
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+            direct.put(bytes).flip();
+            decoder.decode(direct, newCollectHandler(list));
+            assertEquals(body, expected, list);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * To input stream.
+     *
+     * @param body
+     *            the body
+     * @return the byte array input stream
+     */
+    private static ByteArrayInputStream toInputStream(String body){
+        return new ByteArrayInputStream(body.getBytes(US_ASCII));
+    }
+
+    /**
+     * 依次把参数名和参数值放到 <code>list</code>.
+     *
+     * @param list
+     *            the list
+     * @return the form parameter handler
+     */
+    private static FormParameterHandler newCollectHandler(final List<String> list){
+        return new FormParameterHandler(){
+
+            @Override
+            public void handle(String name,String value){
+                list.add(name);
+                list.add(value);
+            }
+        };
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.net.paramutiltest;
+
+import static com.feilong.core.CharsetType.GBK;
+import static com.feilong.core.CharsetType.UTF8;
+import static com.feilong.core.net.ParamUtil.toSingleValueMap;
+import static org.junit.Assert.assertEquals;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import com.feilong.core.net.URIParseException;
+import com.feilong.core.net.URIUtil;
+
+/**
+ * 单次扫描解析和原来 split 再先解码再编码的结果一致的测试.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class ToSingleValueMapParserTest{
+
+    /**
+     * Test split rule.
+     */
+    @Test
+    public void testSplitRule(){
+        assertEquals("{=, a=, b=2=3}", toSingleValueMap("&a&&b=2=3&&", null).toString());
+        assertEquals("{=, a=1}", toSingleValueMap("=&a=1&=5", null).toString());
+        assertEquals("{a=b%3D%3D}", toSingleValueMap("a=b==", UTF8).toString());
+        assertEquals("{=, a=}", toSingleValueMap(" = &a= \t", null).toString());
+    }
+
+    /**
+     * Test canonical.
+     */
+    @Test
+    public void testCanonical(){
+        assertEquals("{name=%E9%A3%9E%E5%A4%A9, q=a+b}", toSingleValueMap("name=%E9%A3%9E%E5%A4%A9&q=a+b", UTF8).toString());
+        assertEquals("{name=%E9%A3%9E%E5%A4%A9, q=a+b}", toSingleValueMap("name=%e9%a3%9e%e5%a4%a9&q=a%20b", UTF8).toString());
+        assertEquals("{name=%E9%A3%9E%E5%A4%A9}", toSingleValueMap("name=飞天", UTF8).toString());
+        assertEquals("{name=%B7%C9%CC%EC}", toSingleValueMap("name=飞天", GBK).toString());
+        assertEquals("{a=A, b=%F0%9F%98%80}", toSingleValueMap("a=%41&b=%F0%9F%98%80", UTF8).toString());
+    }
+
+    /**
+     * Test multi value.
+     */
+    @Test
+    public void testMultiValue(){
+        assertEquals("a.htm?a=1&a=%E9%A3%9E&b=2", URIUtil.encodeUri("a.htm?a=1&b=2&a=飞", UTF8));
+    }
+
+    /**
+     * Test same as split decode and encode.
+     */
+    @Test
+    public void testSameAsSplitDecodeAndEncode(){
+        Random random = new Random(20181018L);
+        String[] alphabet = { "a", "Z", "0", "-", "*", "+", " ", "\t", "=", "&", "%", "~", "飞", "%41", "%2a", "%20", "%3D", "%E9", "%A3", "%9E", "%ED",
+                              "%A0", "%F0", "%9F", "%98", "%80", "%C3", "%c3", "%G1", "😀" };
+        for (int i = 0; i < 20000; ++i){
+            StringBuilder sb = new StringBuilder();
+            for (int j = random.nextInt(10); j > 0; --j){
+                sb.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String queryString = sb.toString();
+            for (String charsetType : new String[] { UTF8, GBK, null }){
+                assertEquals(
+                                queryString + "|" + charsetType,
+                                parseUseSplit(queryString, charsetType),
+                                parseUseParamUtil(queryString, charsetType));
+            }
+        }
+    }
+
+    /**
+     * Test not exist charset.
+     */
+    @Test(expected = URIParseException.class)
+    public void testNotExistCharset(){
+        toSingleValueMap("a=1", "not-exist-charset");
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Parses the use param util.
+     *
+     * @param queryString
+     *            the query string
+     * @param charsetType
+     *            the charset type
+     * @return the string
+     */
+    private static String parseUseParamUtil(String queryString,String charsetType){
+        try{
+            return toSingleValueMap(queryString, charsetType).toString();
+        }catch (URIParseException e){
+            return e.getClass().getName();
+        }
+    }
+
+    /**
+     * 原来的解析方式.
+     *
+     * @param queryString
+     *            the query string
+     * @param charsetType
+     *            the charset type
+     * @return the string
+     */
+    private static String parseUseSplit(String queryString,String charsetType){
+        if (queryString.trim().isEmpty()){
+            return "{}";
+        }
+        try{
+            Map<String, List<String>> map = new LinkedHashMap<>();
+            for (String pair : queryString.split("&")){
+                String[] tempArray = pair.split("=", 2);
+                String key = decodeAndEncode(tempArray[0], charsetType);
+                String value = decodeAndEncode(tempArray.length == 2 ? tempArray[1] : "", charsetType);
+                if (!map.containsKey(key)){
+                    map.put(key, new ArrayList<String>());
+                }
+                map.get(key).add(value);
+            }
+
+            Map<String, String> singleValueMap = new LinkedHashMap<>();
+            for (Map.Entry<String, List<String>> entry : map.entrySet()){
+                singleValueMap.put(entry.getKey(), entry.getValue().get(0));
+            }
+            return singleValueMap.toString();
+        }catch (Exception e){
+            return URIParseException.class.getName();
+        }
+    }
+
+    /**
+     * Decode and encode.
+     *
+     * @param value
+     *            the value
+     * @param charsetType
+     *            the charset type
+     * @return the string
+     * @throws Exception
+     *             the exception
+     */
+    private static String decodeAndEncode(String value,String charsetType) throws Exception{
+        if (StringUtils.isBlank(value)){
+            return "";
+        }
+        if (null == charsetType){
+            return value;
+        }
+        return URLEncoder.encode(URLDecoder.decode(value, charsetType), charsetType);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.net.paramutiltest;
+
+import static com.feilong.core.CharsetType.UTF8;
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.net.ParamUtil;
+import com.feilong.core.net.URIParseException;
+import com.feilong.core.net.URIStringBuilder;
+
+/**
+ * The Class URIStringBuilderTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class URIStringBuilderTest{
+
+    /** The Constant PATH. */
+    private static final String PATH = "http://www.feilong.com:8888/esprit-frontend/search.htm";
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test build.
+     */
+    @Test
+    public void testBuild(){
+        URIStringBuilder builder = URIStringBuilder.of(PATH + "?keyword=%E6%81%A4&page=1&a=1&a=2", UTF8)//
+                        .setParameter("page", "2")
+                        .addParameter("label", "飞天 feilong")
+                        .addParameter("a", "3")
+                        .removeParameter("keyword");
+
+        assertEquals(PATH + "?page=2&a=1&a=2&a=3&label=%E9%A3%9E%E5%A4%A9+feilong", builder.build());
+        assertEquals(builder.build(), builder.toString());
+
+        assertTrue(builder.containsParameter("label"));
+        assertFalse(builder.containsParameter("keyword"));
+    }
+
+    /**
+     * Test encoded parameter.
+     */
+    @Test
+    public void testEncodedParameter(){
+        URIStringBuilder builder = URIStringBuilder.of(PATH, UTF8)//
+                        .addParameter("plain", "100%")
+                        .addEncodedParameter("encoded", "%e9%a3%9e")
+                        .setEncodedParameter("plus", "a+b");
+        assertEquals(PATH + "?plain=100%25&encoded=%E9%A3%9E&plus=a+b", builder.build());
+    }
+
+    /**
+     * Test no charset.
+     */
+    @Test
+    public void testNoCharset(){
+        assertEquals(PATH + "?label=中国&a=", URIStringBuilder.of(PATH, null).addParameter("label", "中国").setParameter("a", null).build());
+    }
+
+    /**
+     * Test remove all.
+     */
+    @Test
+    public void testRemoveAll(){
+        assertEquals(PATH, URIStringBuilder.of(PATH + "?a=1", UTF8).removeParameter("a").build());
+    }
+
+    /**
+     * Test null uri string.
+     */
+    @Test
+    public void testNullUriString(){
+        assertEquals(EMPTY, URIStringBuilder.of(null, UTF8).addParameter("a", "1").build());
+    }
+
+    /**
+     * Test illegal encoded value.
+     */
+    @Test(expected = URIParseException.class)
+    public void testIllegalEncodedValue(){
+        URIStringBuilder.of(PATH, UTF8).addEncodedParameter("a", "100%").build();
+    }
+
+    /**
+     * Test same as add parameter.
+     */
+    @Test
+    public void testSameAsAddParameter(){
+        Random random = new Random(20181018L);
+        String[] names = { "a", "b", "label", "中", "a b", "" };
+        String[] values = { "1", "", null, "中国", "a+b", "%E9%A3%9E", "x y", "2-5-8-12" };
+        String[] uriStrings = { PATH, PATH + "?keyword=%E6%81%A4&page=", PATH + "?a=1&a=2&b=%e4%b8%ad", "?a=1" };
+
+        for (int i = 0; i < 2000; ++i){
+            String charsetType = random.nextBoolean() ? UTF8 : null;
+            String uriString = uriStrings[random.nextInt(uriStrings.length)];
+
+            URIStringBuilder builder = URIStringBuilder.of(uriString, charsetType);
+            String expected = uriString;
+            for (int j = random.nextInt(6); j > 0; --j){
+                String name = names[random.nextInt(names.length)];
+                String value = values[random.nextInt(values.length)];
+
+                builder.setEncodedParameter(name, value);
+                expected = ParamUtil.addParameter(expected, name, value, charsetType);
+            }
+            assertEquals(uriString + "|" + charsetType, ParamUtil.addParameterArrayValueMap(expected, null, charsetType), builder.build());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.net.uriutiltest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.net.URIParseException;
+import com.feilong.core.net.URIUtil;
+
+/**
+ * {@link Charset} 版本的 encode/decode 以及和 {@link URLEncoder}/{@link URLDecoder} 完全一致的测试.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class EncodeDecodeWithCharsetTest{
+
+    /** The Constant CHARSET_NAMES. */
+    private static final String[] CHARSET_NAMES = { "UTF-8", "GBK", "ISO-8859-1", "US-ASCII", "UTF-16" };
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test encode.
+     */
+    @Test
+    public void testEncode(){
+        assertEquals("%E9%A3%9E%E5%A4%A9+feilong", URIUtil.encode("飞天 feilong", UTF_8));
+        assertEquals("%F0%9F%98%80%3F%3F", URIUtil.encode("😀\ude00\ud83d", UTF_8));
+        assertEquals("", URIUtil.encode("", UTF_8));
+        assertEquals("", URIUtil.encode((String) null, UTF_8));
+        assertEquals("飞天", URIUtil.encode("飞天", (Charset) null));
+    }
+
+    /**
+     * Test encode no change.
+     */
+    @Test
+    public void testEncodeNoChange(){
+        String value = "feilong-2018_10.18*";
+        assertSame(value, URIUtil.encode(value, UTF_8));
+        assertSame(value, URIUtil.encode(value, "utf-8"));
+    }
+
+    /**
+     * Test encode to.
+     */
+    @Test
+    public void testEncodeTo(){
+        StringBuilder sb = new StringBuilder("name=");
+        assertSame(sb, URIUtil.encodeTo(sb, "飞天 feilong", UTF_8));
+        assertEquals("name=%E9%A3%9E%E5%A4%A9+feilong", sb.toString());
+
+        assertEquals("a b", URIUtil.encodeTo(new StringBuilder(), "a b", null).toString());
+        assertEquals("", URIUtil.encodeTo(new StringBuilder(), null, UTF_8).toString());
+    }
+
+    /**
+     * Test encode to null appendable.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testEncodeToNullAppendable(){
+        URIUtil.encodeTo(null, "a", UTF_8);
+    }
+
+    /**
+     * Test decode.
+     */
+    @Test
+    public void testDecode(){
+        assertEquals("飞天 feilong", URIUtil.decode("%E9%A3%9E%E5%A4%A9+feilong", UTF_8));
+        assertEquals("飞天 feilong", URIUtil.decode("%e9%a3%9e%e5%a4%a9+feilong", UTF_8));
+        assertEquals("\u0000\u000f", URIUtil.decode("%-0%+F", UTF_8));
+
+        String value = "feilong";
+        assertSame(value, URIUtil.decode(value, UTF_8));
+        assertEquals("", URIUtil.decode((String) null, UTF_8));
+    }
+
+    /**
+     * Test decode illegal.
+     */
+    @Test(expected = URIParseException.class)
+    public void testDecodeIllegal(){
+        URIUtil.decode("%E9%A3%9E%", UTF_8);
+    }
+
+    /**
+     * Test same as url encoder.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void testSameAsURLEncoder() throws Exception{
+        Random random = new Random(20181018L);
+        String[] alphabet = { "a", "Z", "0", " ", "-", "_", ".", "*", "+", "%", "~", "&", "=", "é", "飞", "😀", "\ud83d", "\ude00", "\u0000", "ÿ" };
+        for (int i = 0; i < 5000; ++i){
+            String value = randomString(random, alphabet);
+            for (String charsetName : CHARSET_NAMES){
+                String expected = URLEncoder.encode(value, charsetName);
+                assertEquals(value + "|" + charsetName, expected, URIUtil.encode(value, charsetName));
+                assertEquals(value + "|" + charsetName, expected, URIUtil.encode(value, Charset.forName(charsetName)));
+                assertEquals(value + "|" + charsetName, expected, URIUtil.encodeTo(new StringBuilder(), value, Charset.forName(charsetName)).toString());
+            }
+        }
+    }
+
+    /**
+     * Test same as url decoder.
+     */
+    @Test
+    public void testSameAsURLDecoder(){
+        Random random = new Random(20181018L);
+        String[] alphabet = { "a", "+", "%", "%4", "%41", "%e9", "%E9", "%A3", "%9E", "%C3", "%A9", "%FF", "%00", "%+1", "%-0", "%-1", "%g0", "%１１",
+                              "%FE%FF%00%41", "飞" };
+        for (int i = 0; i < 5000; ++i){
+            String value = randomString(random, alphabet);
+            for (String charsetName : CHARSET_NAMES){
+                String expected = decodeUseURLDecoder(value, charsetName);
+                assertEquals(value + "|" + charsetName, expected, decodeUseURIUtil(value, Charset.forName(charsetName)));
+            }
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Random string.
+     *
+     * @param random
+     *            the random
+     * @param alphabet
+     *            the alphabet
+     * @return the string
+     */
+    private static String randomString(Random random,String[] alphabet){
+        StringBuilder sb = new StringBuilder();
+        for (int j = random.nextInt(10); j > 0; --j){
+            sb.append(alphabet[random.nextInt(alphabet.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Decode use URL decoder.
+     *
+     * @param value
+     *            the value
+     * @param charsetName
+     *            the charset name
+     * @return the string
+     */
+    private static String decodeUseURLDecoder(String value,String charsetName){
+        try{
+            return value.isEmpty() ? "" : URLDecoder.decode(value, charsetName);
+        }catch (Exception e){
+            return e.getClass().getName() + ":" + e.getMessage();
+        }
+    }
+
+    /**
+     * Decode use URI util.
+     *
+     * @param value
+     *            the value
+     * @param charset
+     *            the charset
+     * @return the string
+     */
+    private static String decodeUseURIUtil(String value,Charset charset){
+        try{
+            return URIUtil.decode(value, charset);
+        }catch (URIParseException e){
+            return e.getCause().getClass().getName() + ":" + e.getCause().getMessage();
+        }
+    }
+}
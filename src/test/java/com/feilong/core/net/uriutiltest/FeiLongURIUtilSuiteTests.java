@@ -30,9 +30,12 @@ import org.junit.runners.Suite.SuiteClasses;
                 EncodeUriTest.class,
                 DecodeTest.class,
                 DecodeParameterizedTest.class,
+                EncodeDecodeWithCharsetTest.class,
 
                 CreateTest.class,
                 CreateWithCharsetTypeTest.class,
+
+                ParsedURITest.class,
         //                
 })
 public class FeiLongURIUtilSuiteTests{
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.net.uriutiltest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.net.URI;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.net.ParsedURI;
+
+/**
+ * The Class ParsedURITest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class ParsedURITest{
+
+    /**
+     * Test parse.
+     */
+    @Test
+    public void testParse(){
+        ParsedURI parsedURI = ParsedURI.parse("http://www.feilong.com:8888/%E9%A3%9E/search.htm?keyword=%E6%81%A4&page=1#top");
+
+        assertEquals("http", parsedURI.getScheme());
+        assertEquals("www.feilong.com:8888", parsedURI.getRawAuthority());
+        assertEquals("/%E9%A3%9E/search.htm", parsedURI.getRawPath());
+        assertEquals("/飞/search.htm", parsedURI.getPath());
+        assertEquals("keyword=%E6%81%A4&page=1", parsedURI.getRawQuery());
+        assertEquals("keyword=恤&page=1", parsedURI.getQuery());
+        assertEquals("top", parsedURI.getFragment());
+
+        assertSame(parsedURI.getPath(), parsedURI.getPath());
+        assertSame(parsedURI.toURI(), parsedURI.toURI());
+    }
+
+    /**
+     * Test parse relative.
+     */
+    @Test
+    public void testParseRelative(){
+        ParsedURI parsedURI = ParsedURI.parse("/a+b.htm?");
+        assertNull(parsedURI.getScheme());
+        assertNull(parsedURI.getRawAuthority());
+        assertEquals("/a+b.htm", parsedURI.getPath());
+        assertEquals("", parsedURI.getQuery());
+        assertNull(parsedURI.getFragment());
+
+        assertNull(ParsedURI.parse("").getRawQuery());
+        assertEquals("", ParsedURI.parse("").getRawPath());
+        assertNull(ParsedURI.parse("1a:b").getScheme());
+        assertEquals("100%zz", ParsedURI.parse("100%zz").getPath());
+    }
+
+    /**
+     * Test parse opaque.
+     */
+    @Test
+    public void testParseOpaque(){
+        ParsedURI parsedURI = ParsedURI.parse("mailto:venus@163.com?subject=%E4%BD%A0%E5%A5%BD");
+        assertEquals("mailto", parsedURI.getScheme());
+        assertEquals("venus@163.com", parsedURI.getPath());
+        assertEquals("subject=你好", parsedURI.getQuery());
+    }
+
+    /**
+     * Test parse cache.
+     */
+    @Test
+    public void testParseCache(){
+        String uriString = "http://www.feilong.com/cache.htm";
+        assertSame(ParsedURI.parse(uriString), ParsedURI.parse(new String(uriString)));
+        assertEquals(uriString, ParsedURI.parse(uriString).toString());
+    }
+
+    /**
+     * Test parse null.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testParseNull(){
+        ParsedURI.parse(null);
+    }
+
+    /**
+     * Test same as URI.
+     */
+    @Test
+    public void testSameAsURI(){
+        Random random = new Random(20181018L);
+        String[] schemes = { "", "http:", "https:", "a+b-c.d:" };
+        String[] authorities = { "", "//www.feilong.com", "//user@127.0.0.1:8080", "//%E9%A3%9E.com" };
+        String[] alphabet = { "a", "/", "-", "+", "%20", "%E9%A3%9E", "%e6%81%a4", "%C3", "%FF", "%41%42", "=", "&", "?", "%3F", "%23" };
+
+        for (int i = 0; i < 3000; ++i){
+            String authority = authorities[random.nextInt(authorities.length)];
+            String scheme = authority.isEmpty() ? "" : schemes[random.nextInt(schemes.length)];
+
+            StringBuilder sb = new StringBuilder(scheme).append(authority);
+            //path 以 a 开头,避免 "//" 被当成 authority
+            sb.append("/a").append(randomString(random, alphabet).replace("?", ""));
+            if (random.nextBoolean()){
+                sb.append('?').append(randomString(random, alphabet));
+            }
+            if (random.nextBoolean()){
+                sb.append('#').append(randomString(random, alphabet).replace("?", ""));
+            }
+
+            String uriString = sb.toString();
+            URI uri = URI.create(uriString);
+            ParsedURI parsedURI = ParsedURI.parse(uriString);
+
+            assertEquals(uriString, uri.getScheme(), parsedURI.getScheme());
+            assertEquals(uriString, uri.getRawAuthority(), parsedURI.getRawAuthority());
+            assertEquals(uriString, uri.getRawPath(), parsedURI.getRawPath());
+            assertEquals(uriString, uri.getPath(), parsedURI.getPath());
+            assertEquals(uriString, uri.getRawQuery(), parsedURI.getRawQuery());
+            assertEquals(uriString, uri.getQuery(), parsedURI.getQuery());
+            assertEquals(uriString, uri.getRawFragment(), parsedURI.getRawFragment());
+            assertEquals(uriString, uri.getFragment(), parsedURI.getFragment());
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Random string.
+     *
+     * @param random
+     *            the random
+     * @param alphabet
+     *            the alphabet
+     * @return the string
+     */
+    private static String randomString(Random random,String[] alphabet){
+        StringBuilder sb = new StringBuilder();
+        for (int j = random.nextInt(8); j > 0; --j){
+            sb.append(alphabet[random.nextInt(alphabet.length)]);
+        }
+        return sb.toString();
+    }
+}
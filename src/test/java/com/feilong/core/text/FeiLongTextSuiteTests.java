@@ -29,8 +29,10 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({ //
                 NumberFormatUtilTest.class,
                 NumberFormatUtilFormatRoundingModeParameterizedTest.class,
+                NumberFormatterTest.class,
 
-                MessageFormatUtilTest.class })
+                MessageFormatUtilTest.class,
+                MessageTemplateTest.class })
 public class FeiLongTextSuiteTests{
 
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.text;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+import java.text.MessageFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+/**
+ * The Class MessageTemplateTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class MessageTemplateTest{
+
+    /** 随机组合的模式片段. */
+    private static final String[] PARTS     = {
+                                                "a",
+                                                "张三",
+                                                " ",
+                                                "'",
+                                                "''",
+                                                "}",
+                                                "{",
+                                                "'{'",
+                                                "{0}",
+                                                "{1}",
+                                                "{2}",
+                                                "{01}",
+                                                "{ 0}",
+                                                "{a}",
+                                                "{0,number}",
+                                                "{1,number,#.00}",
+                                                "{0,number,percent}",
+                                                "{1,number,'#'0}",
+                                                "{2,date,yyyy-MM-dd HH:mm}",
+                                                "{2,time}",
+                                                "{0,choice,0#zero|1#one {1}|2#'{'many}",
+                                                "{0,foo}" };
+
+    /** 随机选择的参数. */
+    private static final Object[] ARGUMENTS = { null, "jin", 5, -1234567.891, new BigDecimal("0.125"), new Date(0L), 1L, new Object(){
+
+                                                @Override
+                                                public String toString(){
+                                                    return null;
+                                                }
+                                            } };
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test format.
+     */
+    @Test
+    public void testFormat(){
+        assertEquals("name=张三jinaxin", MessageTemplate.compile("name=张三{0}a{1}").format("jin", "xin"));
+        assertEquals("{0}{1}", MessageTemplate.compile("'{0}{1}").format(1, 2));
+        assertEquals("{2}", MessageTemplate.compile("'{'{0}}", Locale.US).format(2));
+        assertEquals("it's 1,234.5 {1}", MessageTemplate.compile("it''s {0} {01}", Locale.US).format(1234.5));
+        assertEquals("3.14", MessageTemplate.compile("{0,number,#.00}", Locale.US).format(3.14159));
+        assertEquals("one xin", MessageTemplate.compile("{0,choice,0#zero|1#one {1}}").format(1, "xin"));
+
+        assertEquals("a[jin]", MessageTemplate.compile("{0}]").appendTo(new StringBuilder("a["), "jin").toString());
+        assertSame(MessageTemplate.compile("a{0}b"), MessageTemplate.compile("a{0}b"));
+    }
+
+    /**
+     * Test parse.
+     */
+    @Test
+    public void testParse(){
+        MessageTemplate messageTemplate = MessageTemplate.parse("a{0}b");
+        assertEquals("ajinb", messageTemplate.format("jin"));
+
+        //不缓存
+        assertNotSame(messageTemplate, MessageTemplate.parse("a{0}b"));
+        assertNotSame(messageTemplate, MessageTemplate.compile("a{0}b"));
+    }
+
+    /**
+     * Test same as message format.
+     */
+    @Test
+    public void testSameAsMessageFormat(){
+        Random random = new Random(20081018L);
+        for (int i = 0; i < 5000; ++i){
+            StringBuilder sb = new StringBuilder();
+            int partCount = random.nextInt(6);
+            for (int j = 0; j < partCount; ++j){
+                sb.append(PARTS[random.nextInt(PARTS.length)]);
+            }
+            String pattern = sb.toString();
+
+            Object[] arguments = null;
+            if (random.nextInt(8) != 0){
+                arguments = new Object[random.nextInt(4)];
+                for (int j = 0; j < arguments.length; ++j){
+                    arguments[j] = ARGUMENTS[random.nextInt(ARGUMENTS.length)];
+                }
+            }
+            assertEquals(pattern, formatUseMessageFormat(pattern, arguments), formatUseMessageTemplate(pattern, arguments));
+        }
+    }
+
+    /**
+     * Test time zone.
+     */
+    @Test
+    public void testTimeZone(){
+        TimeZone timeZone = TimeZone.getDefault();
+        try{
+            String pattern = "{1,date,yyyy-MM-dd HH:mm} {0,choice,0#{1,time,HH}} {1}";
+            Object[] arguments = { 0, new Date(0L) };
+
+            TimeZone.setDefault(TimeZone.getTimeZone("GMT+8"));
+            assertEquals(MessageFormat.format(pattern, arguments), MessageFormatUtil.format(pattern, arguments));
+
+            TimeZone.setDefault(TimeZone.getTimeZone("GMT-5"));
+            assertEquals(MessageFormat.format(pattern, arguments), MessageFormatUtil.format(pattern, arguments));
+            assertEquals(MessageFormat.format("{1,date,HH}", arguments), MessageFormatUtil.format("{1,date,HH}", arguments));
+        }finally{
+            TimeZone.setDefault(timeZone);
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test compile invalid pattern.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompileInvalidPattern(){
+        MessageTemplate.compile("{0");
+    }
+
+    /**
+     * Test format invalid argument.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFormatInvalidArgument(){
+        MessageTemplate.compile("{0,number}").format("jin");
+    }
+
+    /**
+     * Test parse invalid pattern.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalidPattern(){
+        MessageTemplate.parse("{0");
+    }
+
+    /**
+     * Test compile null pattern.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testCompileNullPattern(){
+        MessageTemplate.compile(null);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Format use message format.
+     *
+     * @param pattern
+     *            the pattern
+     * @param arguments
+     *            the arguments
+     * @return 结果或者异常的类名
+     */
+    private static String formatUseMessageFormat(String pattern,Object[] arguments){
+        try{
+            return new MessageFormat(pattern).format(arguments);
+        }catch (RuntimeException e){
+            return e.getClass().getName();
+        }
+    }
+
+    /**
+     * Format use message template.
+     *
+     * @param pattern
+     *            the pattern
+     * @param arguments
+     *            the arguments
+     * @return 结果或者异常的类名
+     */
+    private static String formatUseMessageTemplate(String pattern,Object[] arguments){
+        try{
+            return MessageTemplate.compile(pattern).format(arguments);
+        }catch (RuntimeException e){
+            return e.getClass().getName();
+        }
+    }
+}
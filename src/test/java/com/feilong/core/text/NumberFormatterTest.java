@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.text;
+
+import static com.feilong.core.bean.ConvertUtil.toBigDecimal;
+import static java.math.RoundingMode.HALF_UP;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.feilong.core.NumberPattern;
+
+/**
+ * The Class NumberFormatterTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class NumberFormatterTest{
+
+    /** 随机选择的格式. */
+    private static final String[] PATTERNS = {
+                                               NumberPattern.NO_SCALE,
+                                               NumberPattern.TWO_DECIMAL_POINTS,
+                                               NumberPattern.PERCENT_WITH_NOPOINT,
+                                               NumberPattern.PERCENT_WITH_1POINT,
+                                               NumberPattern.PERCENT_WITH_2POINT,
+                                               "0",
+                                               "000.0#",
+                                               "#.##",
+                                               "#####.#",
+                                               "#,##0.00",
+                                               "RP #####",
+                                               "0.00E0" };
+
+    /** 随机选择的 locale. */
+    private static final Locale[] LOCALES  = { Locale.US, Locale.CHINA, Locale.GERMANY, Locale.FRANCE, new Locale("ar", "EG") };
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test format.
+     */
+    @Test
+    public void testFormat(){
+        NumberFormatter numberFormatter = NumberFormatter.getInstance(NumberPattern.TWO_DECIMAL_POINTS, HALF_UP, Locale.US);
+        assertEquals("1.13", numberFormatter.format(toBigDecimal("1.125")));
+        assertEquals("-1.13", numberFormatter.format(toBigDecimal("-1.125")));
+        assertEquals("0.50", numberFormatter.format(toBigDecimal("0.5")));
+        assertEquals("12.00", numberFormatter.format(12));
+        assertEquals("price:12.00", numberFormatter.appendTo(new StringBuilder("price:"), 12L).toString());
+
+        assertEquals("66.7%", NumberFormatter.getInstance(NumberPattern.PERCENT_WITH_1POINT, HALF_UP, Locale.US).format(toBigDecimal("0.66666667")));
+        assertEquals("0.5", NumberFormatter.getInstance("#.##", HALF_UP, Locale.US).format(toBigDecimal("0.5")));
+        assertEquals("0", NumberFormatter.getInstance("#.##", HALF_UP, Locale.US).format(toBigDecimal("0.001")));
+        assertEquals(".50", NumberFormatter.getInstance("#.00", HALF_UP, Locale.US).format(toBigDecimal("0.5")));
+
+        //和 DecimalFormat 一致,比舍入位小一位以上的数字直接舍成0
+        assertEquals("0", NumberFormatter.getInstance("0", RoundingMode.UP, Locale.US).format(toBigDecimal("0.079")));
+        assertEquals("1", NumberFormatter.getInstance("0", RoundingMode.UP, Locale.US).format(toBigDecimal("0.79")));
+
+        assertSame(numberFormatter, NumberFormatter.getInstance(NumberPattern.TWO_DECIMAL_POINTS, HALF_UP, Locale.US));
+    }
+
+    /**
+     * Test same as decimal format.
+     */
+    @Test
+    public void testSameAsDecimalFormat(){
+        Random random = new Random(20081018L);
+        RoundingMode[] roundingModes = RoundingMode.values();
+        for (int i = 0; i < 20000; ++i){
+            String pattern = PATTERNS[random.nextInt(PATTERNS.length)];
+            RoundingMode roundingMode = roundingModes[random.nextInt(roundingModes.length)];
+            Locale locale = LOCALES[random.nextInt(LOCALES.length)];
+            Number value = randomNumber(random);
+
+            String message = pattern + " " + roundingMode + " " + locale + " " + value;
+            assertEquals(message, formatUseDecimalFormat(value, pattern, roundingMode, locale), formatUseNumberFormatter(value, pattern, roundingMode, locale));
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test get instance invalid pattern.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetInstanceInvalidPattern(){
+        NumberFormatter.getInstance("#.#.#", HALF_UP);
+    }
+
+    /**
+     * Test get instance null rounding mode.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testGetInstanceNullRoundingMode(){
+        NumberFormatter.getInstance(NumberPattern.TWO_DECIMAL_POINTS, null);
+    }
+
+    /**
+     * Test format null value.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testFormatNullValue(){
+        NumberFormatter.getInstance(NumberPattern.TWO_DECIMAL_POINTS, HALF_UP).format(null);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Random number.
+     *
+     * @param random
+     *            the random
+     * @return the number
+     */
+    private static Number randomNumber(Random random){
+        BigDecimal value = BigDecimal.valueOf(random.nextInt(2000001) - 1000000, random.nextInt(7));
+        switch (random.nextInt(6)) {
+            case 0:
+                return value.intValue();
+            case 1:
+                return value.longValue() * 1000000000L;
+            case 2:
+                return value.toBigInteger().multiply(BigInteger.TEN.pow(20));
+            case 3:
+                return value.doubleValue();
+            default:
+                return value;
+        }
+    }
+
+    /**
+     * Format use decimal format.
+     *
+     * @param value
+     *            the value
+     * @param pattern
+     *            the pattern
+     * @param roundingMode
+     *            the rounding mode
+     * @param locale
+     *            the locale
+     * @return 结果或者异常的类名
+     */
+    private static String formatUseDecimalFormat(Number value,String pattern,RoundingMode roundingMode,Locale locale){
+        try{
+            DecimalFormat decimalFormat = new DecimalFormat(pattern, DecimalFormatSymbols.getInstance(locale));
+            decimalFormat.setRoundingMode(roundingMode);
+            return decimalFormat.format(value);
+        }catch (RuntimeException e){
+            return e.getClass().getName();
+        }
+    }
+
+    /**
+     * Format use number formatter.
+     *
+     * @param value
+     *            the value
+     * @param pattern
+     *            the pattern
+     * @param roundingMode
+     *            the rounding mode
+     * @param locale
+     *            the locale
+     * @return 结果或者异常的类名
+     */
+    private static String formatUseNumberFormatter(Number value,String pattern,RoundingMode roundingMode,Locale locale){
+        try{
+            return NumberFormatter.getInstance(pattern, roundingMode, locale).format(value);
+        }catch (RuntimeException e){
+            return e.getClass().getName();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.commons.collections4.Transformer;
+import org.junit.Test;
+
+/**
+ * The Class ConcurrentLruCacheTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class ConcurrentLruCacheTest{
+
+    /** The Constant LENGTH_TRANSFORMER. */
+    private static final Transformer<String, Integer> LENGTH_TRANSFORMER = new Transformer<String, Integer>(){
+
+        @Override
+        public Integer transform(String input){
+            return input.length();
+        }
+    };
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test get.
+     */
+    @Test
+    public void testGet(){
+        ConcurrentLruCache<String, Integer> cache = new ConcurrentLruCache<>(10);
+        assertNull(cache.get("feilong"));
+        assertEquals(Integer.valueOf(7), cache.get("feilong", LENGTH_TRANSFORMER));
+        assertEquals(Integer.valueOf(7), cache.get("feilong"));
+
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    /**
+     * Test evict eldest.
+     */
+    @Test
+    public void testEvictEldest(){
+        ConcurrentLruCache<String, Integer> cache = new ConcurrentLruCache<>(3);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        //touch a, b 成为最久未访问的
+        cache.get("a");
+        cache.put("d", 4);
+
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get("b"));
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+        assertEquals(Integer.valueOf(4), cache.get("d"));
+    }
+
+    /**
+     * Test evict batch.
+     */
+    @Test
+    public void testEvictBatch(){
+        ConcurrentLruCache<String, Integer> cache = new ConcurrentLruCache<>(100);
+        for (int i = 0; i < 1000; ++i){
+            //一直被读取的key不会被淘汰
+            for (int j = 0; j < 10; ++j){
+                cache.get("hot" + j, LENGTH_TRANSFORMER);
+            }
+            cache.put("cold" + i, i);
+            assertTrue(cache.size() <= 100);
+        }
+
+        for (int j = 0; j < 10; ++j){
+            assertEquals(Integer.valueOf(4), cache.get("hot" + j));
+        }
+        assertEquals(Integer.valueOf(999), cache.get("cold999"));
+        assertEquals(10, cache.getMissCount());
+        assertEquals(1010 - cache.size(), cache.getEvictionCount());
+    }
+
+    /**
+     * Test put if absent.
+     */
+    @Test
+    public void testPutIfAbsent(){
+        ConcurrentLruCache<String, Integer> cache = new ConcurrentLruCache<>(3);
+        assertEquals(Integer.valueOf(1), cache.putIfAbsent("a", 1));
+        assertEquals(Integer.valueOf(1), cache.putIfAbsent("a", 2));
+        assertEquals(Integer.valueOf(1), cache.remove("a"));
+        assertEquals(0, cache.size());
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test concurrent lru cache zero.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConcurrentLruCacheZero(){
+        new ConcurrentLruCache<>(0);
+    }
+
+    /**
+     * Test get null key.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testGetNullKey(){
+        new ConcurrentLruCache<String, Integer>(1).get(null);
+    }
+
+    /**
+     * Test put null value.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testPutNullValue(){
+        new ConcurrentLruCache<String, Integer>(1).put("a", null);
+    }
+}
@@ -40,6 +40,9 @@ import com.feilong.core.util.transformer.FeiLongTransformerSuiteTests;
  */
 @RunWith(Suite.class)
 @SuiteClasses({ //
+                ConcurrentLruCacheTest.class,
+                TransformedListViewTest.class,
+                TransformedValueMapViewTest.class,
                 EnumerationUtilParameterizedTest.class,
                 IgnoreCaseEquatorTest.class,
 
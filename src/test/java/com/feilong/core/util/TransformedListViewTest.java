@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static com.feilong.core.bean.ConvertUtil.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.collections4.Transformer;
+import org.junit.Test;
+
+import com.feilong.core.bean.ConvertUtil;
+
+/**
+ * The Class TransformedListViewTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class TransformedListViewTest{
+
+    /** 统计转换次数. */
+    private final AtomicInteger                counter          = new AtomicInteger();
+
+    /** The counting transformer. */
+    private final Transformer<String, Integer> countTransformer = new Transformer<String, Integer>(){
+
+                                                                    @Override
+                                                                    public Integer transform(String input){
+                                                                        counter.incrementAndGet();
+                                                                        return Integer.valueOf(input);
+                                                                    }
+                                                                };
+
+    //---------------------------------------------------------------
+
+    /**
+     * 只转换访问到的元素.
+     */
+    @Test
+    public void testLazy(){
+        List<Integer> view = CollectionsUtil.collectView(toList("1", "2", "3", "4"), countTransformer);
+
+        assertEquals(4, view.size());
+        assertEquals(Integer.valueOf(2), view.get(1));
+        assertEquals(toList(3, 4), view.subList(2, 4));
+        assertEquals(3, counter.get());
+    }
+
+    /**
+     * 不缓存的时候,原始 list 的变化直接反映到视图上.
+     */
+    @Test
+    public void testBacked(){
+        List<String> list = toList("1");
+        List<Integer> view = CollectionsUtil.collectView(list, countTransformer);
+        list.set(0, "5");
+        list.add("6");
+
+        assertEquals(toList(5, 6), view);
+    }
+
+    /**
+     * Test memoize.
+     */
+    @Test
+    public void testMemoize(){
+        List<Integer> view = CollectionsUtil.collectView(toList("1", "2", "3"), countTransformer, true);
+
+        assertEquals(Integer.valueOf(1), view.get(0));
+        assertEquals(Integer.valueOf(1), view.get(0));
+        assertEquals(toList(1, 2, 3), view);
+        assertEquals(toList(1, 2, 3), view);
+        assertEquals(3, counter.get());
+    }
+
+    /**
+     * 原始 list 不是 RandomAccess,使用原始迭代器.
+     */
+    @Test
+    public void testLinkedList(){
+        List<String> list = new LinkedList<>(toList("1", "2", "3"));
+        List<Integer> view = CollectionsUtil.collectView(list, countTransformer, true);
+
+        int sum = 0;
+        for (Integer value : view){
+            sum += value;
+        }
+        assertEquals(6, sum);
+        assertEquals(Integer.valueOf(3), view.get(2));
+        assertEquals(3, counter.get());
+    }
+
+    /**
+     * Test iterator view.
+     */
+    @Test
+    public void testIteratorView(){
+        Iterator<Integer> iterator = CollectionsUtil.collectView(toList("1", "2", "3").iterator(), countTransformer);
+
+        assertEquals(Integer.valueOf(1), iterator.next());
+        assertEquals(1, counter.get());
+        assertTrue(iterator.hasNext());
+    }
+
+    /**
+     * Test to list view.
+     */
+    @Test
+    public void testToListView(){
+        List<Long> view = ConvertUtil.toListView(toList("1", 2, 3.5d), Long.class);
+        assertEquals(toList(1L, 2L, 3L), view);
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test null.
+     */
+    @Test
+    public void testNull(){
+        assertTrue(CollectionsUtil.collectView((List<String>) null, countTransformer).isEmpty());
+        assertTrue(!CollectionsUtil.collectView((Iterator<String>) null, countTransformer).hasNext());
+        assertTrue(ConvertUtil.toListView(null, Long.class).isEmpty());
+    }
+
+    /**
+     * Test index out of bounds.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfBounds(){
+        CollectionsUtil.collectView(toList("1"), countTransformer, true).get(1);
+    }
+
+    /**
+     * Test read only.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly(){
+        CollectionsUtil.collectView(toList("1"), countTransformer).add(1);
+    }
+
+    /**
+     * Test null transformer.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testNullTransformer(){
+        CollectionsUtil.collectView(toList("1"), null);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util;
+
+import static com.feilong.core.bean.ConvertUtil.toMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.collections4.Transformer;
+import org.junit.Test;
+
+/**
+ * The Class TransformedValueMapViewTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class TransformedValueMapViewTest{
+
+    /** 统计转换次数. */
+    private final AtomicInteger                counter          = new AtomicInteger();
+
+    /** The counting transformer. */
+    private final Transformer<String, Integer> countTransformer = new Transformer<String, Integer>(){
+
+                                                                    @Override
+                                                                    public Integer transform(String input){
+                                                                        counter.incrementAndGet();
+                                                                        return null == input ? null : Integer.valueOf(input);
+                                                                    }
+                                                                };
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test lazy.
+     */
+    @Test
+    public void testLazy(){
+        Map<String, Integer> view = MapUtil.transformValueView(toMap("a", "1", "b", "2"), countTransformer, false);
+
+        assertEquals(Integer.valueOf(2), view.get("b"));
+        assertEquals(Integer.valueOf(2), view.get("b"));
+        assertNull(view.get("c"));
+        assertEquals(2, counter.get());
+    }
+
+    /**
+     * Test memoize.
+     */
+    @Test
+    public void testMemoize(){
+        Map<String, String> map = toMap("a", "1", "b", null);
+        Map<String, Integer> view = MapUtil.transformValueView(map, countTransformer, true);
+
+        assertEquals(Integer.valueOf(1), view.get("a"));
+        assertNull(view.get("b"));
+        assertEquals(toMap("a", 1, "b", (Integer) null), view);
+        assertEquals(2, counter.get());
+
+        assertEquals(Integer.valueOf(1), view.remove("a"));
+        assertEquals(1, map.size());
+        assertEquals(2, counter.get());
+    }
+
+    /**
+     * Test null.
+     */
+    @Test
+    public void testNull(){
+        assertTrue(MapUtil.transformValueView(null, countTransformer, true).isEmpty());
+    }
+
+    /**
+     * Test null transformer.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testNullTransformer(){
+        MapUtil.transformValueView(toMap("a", "1"), null, true);
+    }
+}
@@ -33,7 +33,9 @@ import org.junit.runners.Suite.SuiteClasses;
                 GetValueWithResourceBundleParameterizedTest.class,
                 ToAliasBeanTest.class,
                 ToMapTest.class,
-                ToPropertiesTest.class
+                ToPropertiesTest.class,
+
+                ResourceBundleCacheTest.class
         //
 })
 public class FeiLongResourceBundleUtilSuiteTests{
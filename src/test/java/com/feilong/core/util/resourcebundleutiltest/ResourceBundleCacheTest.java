@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2008 feilong
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feilong.core.util.resourcebundleutiltest;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+import org.junit.Test;
+
+import com.feilong.core.util.ResourceBundleCache;
+import com.feilong.core.util.ResourceBundleSnapshot;
+import com.feilong.core.util.ResourceBundleUtil;
+
+/**
+ * The Class ResourceBundleCacheTest.
+ *
+ * @author <a href="http://feitianbenyue.iteye.com/">feilong</a>
+ */
+public class ResourceBundleCacheTest{
+
+    /** The base name. */
+    private static final String BASE_NAME = "messages/feilong-core-test";
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test get value.
+     */
+    @Test
+    public void testGetValue(){
+        ResourceBundleCache resourceBundleCache = new ResourceBundleCache(10);
+        assertEquals("my name is feilong,age is 18", resourceBundleCache.getValue(BASE_NAME, null, "test.arguments", "feilong", "18"));
+        assertEquals("", resourceBundleCache.getValue(BASE_NAME, null, "emptyValue"));
+        assertEquals("", resourceBundleCache.getValue(BASE_NAME, null, "notExistKey"));
+
+        assertEquals(1, resourceBundleCache.getMissCount());
+        assertEquals(2, resourceBundleCache.getHitCount());
+        assertSame(resourceBundleCache.getSnapshot(BASE_NAME, null), resourceBundleCache.getSnapshot(BASE_NAME, Locale.getDefault()));
+    }
+
+    /**
+     * Test same as resource bundle util.
+     */
+    @Test
+    public void testSameAsResourceBundleUtil(){
+        ResourceBundle resourceBundle = ResourceBundleUtil.getResourceBundle(BASE_NAME);
+        ResourceBundleSnapshot snapshot = new ResourceBundleCache(10).getSnapshot(BASE_NAME, null);
+
+        assertEquals(ResourceBundleUtil.toMap(resourceBundle), snapshot.toMap());
+
+        Object[][] argumentsArray = { null, {}, { "feilong" }, { "feilong", 18, new Date(0L) }, { 1234567.891 } };
+        for (String key : resourceBundle.keySet()){
+            for (Object[] arguments : argumentsArray){
+                assertEquals(key, ResourceBundleUtil.getValue(resourceBundle, key, arguments), snapshot.getValue(key, arguments));
+            }
+        }
+    }
+
+    /**
+     * Test reload.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    public void testReload() throws IOException{
+        File directory = new File(ResourceBundleCacheTest.class.getResource("/messages").getFile());
+        File file = new File(directory, "feilong-reload-test.properties");
+        String baseName = "messages/feilong-reload-test";
+
+        ResourceBundleCache resourceBundleCache = new ResourceBundleCache(10);
+        try{
+            Files.write(file.toPath(), "name=feilong {0}\nformat={0,number,#.00}".getBytes(ISO_8859_1));
+            ResourceBundleSnapshot snapshot = resourceBundleCache.getSnapshot(baseName, Locale.US);
+            assertEquals("feilong 1", snapshot.getValue("name", 1));
+            assertEquals("3.14", snapshot.getValue("format", 3.14159));
+
+            Files.write(file.toPath(), "name=jinxin {0}".getBytes(ISO_8859_1));
+            assertSame(snapshot, resourceBundleCache.getSnapshot(baseName, Locale.US));
+
+            resourceBundleCache.reload(baseName);
+            ResourceBundleSnapshot reloaded = resourceBundleCache.getSnapshot(baseName, Locale.US);
+            assertNotSame(snapshot, reloaded);
+            assertEquals("jinxin 1", reloaded.getValue("name", 1));
+            assertFalse(reloaded.containsKey("format"));
+
+            //旧快照不受影响
+            assertTrue(snapshot.containsKey("format"));
+
+            //加载失败的时候,旧快照保持不变
+            file.delete();
+            try{
+                resourceBundleCache.reloadAll();
+                fail();
+            }catch (MissingResourceException e){
+                assertSame(reloaded, resourceBundleCache.getSnapshot(baseName, Locale.US));
+            }
+        }finally{
+            file.delete();
+        }
+    }
+
+    //---------------------------------------------------------------
+
+    /**
+     * Test get snapshot not exist.
+     */
+    @Test(expected = MissingResourceException.class)
+    public void testGetSnapshotNotExist(){
+        ResourceBundleCache.getDefault().getSnapshot("messages/notExist", null);
+    }
+
+    /**
+     * Test get snapshot blank base name.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetSnapshotBlankBaseName(){
+        ResourceBundleCache.getDefault().getSnapshot(" ", null);
+    }
+}
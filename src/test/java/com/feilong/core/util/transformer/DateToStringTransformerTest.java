@@ -18,6 +18,10 @@ package com.feilong.core.util.transformer;
 import static com.feilong.core.date.DateUtil.toDate;
 import static org.junit.Assert.assertEquals;
 
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
 import org.junit.Test;
 
 import com.feilong.core.DatePattern;
@@ -36,6 +40,12 @@ public class DateToStringTransformerTest{
                         new DateToStringTransformer(DatePattern.COMMON_DATE).transform(toDate("2012-01-22", DatePattern.COMMON_DATE)));
     }
 
+    @Test
+    public void testTransformTimeZoneAndLocale(){
+        DateToStringTransformer transformer = new DateToStringTransformer("yyyy-MM-dd HH EEE", TimeZone.getTimeZone("GMT+8"), Locale.US);
+        assertEquals("2016-06-17 06 Fri", transformer.transform(new Date(1466114400000L)));
+    }
+
     @Test
     public void testTransform(){
         assertEquals(null, new DateToStringTransformer(DatePattern.COMMON_DATE).transform(null));